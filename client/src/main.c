@@ -206,6 +206,9 @@ void handle_server_message(const char* msg) {
 DWORD WINAPI receiver_thread_func(LPVOID param) {
     SOCKET sock = (SOCKET)param;
     char *msg;
+    // Acumulador de líneas: un recv puede traer varias líneas o una incompleta
+    static char pending[BUFFER_SIZE * 2];
+    size_t pending_len = 0;
     receiver_running = 1;
 
     while (receiver_running) {
@@ -214,7 +217,29 @@ DWORD WINAPI receiver_thread_func(LPVOID param) {
             printf("[CLIENT] Receptor: conexión cerrada\n");
             break;
         }
-        handle_server_message(msg);
+
+        size_t len = strlen(msg);
+        if (pending_len + len >= sizeof(pending)) {
+            // Línea demasiado larga: descartar lo acumulado
+            pending_len = 0;
+        }
+        memcpy(pending + pending_len, msg, len);
+        pending_len += len;
+        pending[pending_len] = '\0';
+
+        // Procesar cada línea completa
+        char *line = pending;
+        char *newline;
+        while ((newline = strchr(line, '\n')) != NULL) {
+            *newline = '\0';
+            if (newline > line && newline[-1] == '\r') newline[-1] = '\0';
+            if (*line != '\0') handle_server_message(line);
+            line = newline + 1;
+        }
+
+        // Conservar la línea incompleta para el próximo recv
+        pending_len = strlen(line);
+        memmove(pending, line, pending_len + 1);
     }
 
     receiver_running = 0;
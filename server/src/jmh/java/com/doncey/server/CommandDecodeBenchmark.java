@@ -0,0 +1,104 @@
+package com.doncey.server;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Decodificación de comandos del cliente: bytes -> acción encolada
+ *
+ * Compara InboundDecoder + ClientSession.DISPATCH (texto y binario)
+ * con el camino anterior de ClientHandler.processMessage: un String
+ * por línea, la cadena de startsWith y GameWorld.processPlayerCommand
+ * con split. Con -prof gc se ve la memoria reservada por comando.
+ *
+ * Ningún tick vacía la cola de inputs, así que después de las primeras
+ * mil operaciones los dos caminos terminan en el descarte por cola
+ * llena: lo que se compara es el costo de llegar hasta ahí.
+ *
+ *   mvn -Pjmh test-compile exec:exec -Djmh.args="CommandDecodeBenchmark -prof gc"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommandDecodeBenchmark {
+
+    private static final String BATCH = "MOVE_LEFT\nMOVE_RIGHT\nJUMP\nSTOP_MOVING\n";
+    private static final int COMMANDS = 4; // Comandos por lote
+
+    private TestSession textSession;
+    private TestSession binarySession;
+    private GameWorld world;
+    private int playerId;
+
+    private ByteBuffer textBatch;
+    private ByteBuffer binaryBatch;
+    private byte[] legacyBatch;
+
+    @Setup
+    public void setup() {
+        textSession = new TestSession().connect();
+        binarySession = new TestSession().connect();
+        binarySession.receiveLine("HELLO BINARY");
+        world = RoomManager.getInstance().getLobby();
+        playerId = textSession.getClientId();
+
+        legacyBatch = BATCH.getBytes(StandardCharsets.US_ASCII);
+        textBatch = ByteBuffer.wrap(legacyBatch);
+        binaryBatch = ByteBuffer.allocate(COMMANDS * 5);
+        for (int code : new int[] { 0x41, 0x42, 0x44, 0x43 }) {
+            binaryBatch.putInt(1).put((byte) code);
+        }
+        binaryBatch.flip();
+    }
+
+    @TearDown
+    public void tearDown() {
+        textSession.close();
+        binarySession.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COMMANDS)
+    public void decoderText() {
+        textSession.receive(textBatch);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COMMANDS)
+    public void decoderBinary() {
+        binarySession.receive(binaryBatch);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COMMANDS)
+    public void legacyStrings() {
+        String text = new String(legacyBatch, StandardCharsets.UTF_8);
+        int from = 0;
+        int newline;
+        while ((newline = text.indexOf('\n', from)) >= 0) {
+            String message = text.substring(from, newline).trim();
+            from = newline + 1;
+            if (message.startsWith("MOVE_LEFT") || message.startsWith("MOVE_RIGHT")
+                    || message.startsWith("STOP_MOVING") || message.startsWith("JUMP")) {
+                world.processPlayerCommand(playerId, message);
+            }
+        }
+    }
+}
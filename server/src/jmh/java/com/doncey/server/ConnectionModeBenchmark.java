@@ -0,0 +1,196 @@
+package com.doncey.server;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.doncey.server.protocol.Opcode;
+import com.doncey.server.protocol.ServerMessage;
+import com.doncey.utils.ServerConfig;
+import com.doncey.utils.log.LogLevel;
+import com.doncey.utils.log.ServerLog;
+
+/**
+ * Modo de conexión BLOCKING (threads de plataforma) contra VIRTUAL
+ *
+ * Acepta conexiones igual que GameServer.start() pero sin game loop:
+ * los N clientes (otra JVM, DrainingClients) quedan en el lobby y sólo
+ * reciben los broadcasts del benchmark. Mide:
+ *   - latencia de un broadcast a N clientes hasta que lo recibe un
+ *     cliente de prueba en esta JVM (SampleTime: ver p0.99)
+ *   - memoria por conexión (heap y RSS del proceso), impresa al armar
+ *     cada combinación
+ *
+ * Con 20k clientes el servidor necesita más de 20k descriptores
+ * (ulimit -n) y, en modo BLOCKING, 40k threads de plataforma.
+ *
+ *   mvn -Pjmh test-compile exec:exec -Djmh.args="ConnectionModeBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConnectionModeBenchmark {
+
+    private static final int SPARE_DESCRIPTORS = 256;
+
+    @Param({ "1000", "5000", "20000" })
+    public int clients;
+
+    @Param({ "BLOCKING", "VIRTUAL" })
+    public ConnectionMode mode;
+
+    private ServerSocket serverSocket;
+    private Thread acceptor;
+    private Process clientProcess;
+    private Socket probe;
+    private BufferedReader probeIn;
+    private GameWorld lobby;
+    private long sequence = 0;
+
+    @Setup
+    public void setup() throws Exception {
+        long free = freeDescriptors();
+        if (free < clients + SPARE_DESCRIPTORS) {
+            throw new IllegalStateException("Faltan descriptores: " + free + " libres para " + clients + " clientes (ulimit -n)");
+        }
+        ServerLog.getInstance().setLevel(LogLevel.WARN);
+        lobby = RoomManager.getInstance().getLobby();
+        int playersBefore = lobby.listPlayers().size();
+        long heapBefore = usedHeap();
+        long rssBefore = rss();
+
+        ServerConfig config = ServerConfig.fromArgs(new String[] { "--mode=" + mode });
+        serverSocket = new ServerSocket(0, 4096);
+        acceptor = new Thread(() -> acceptLoop(config), "BenchAcceptor");
+        acceptor.start();
+
+        clientProcess = new ProcessBuilder(
+                ProcessHandle.current().info().command().orElse("java"),
+                "-cp", System.getProperty("java.class.path"),
+                DrainingClients.class.getName(), String.valueOf(serverSocket.getLocalPort()), String.valueOf(clients))
+            .redirectError(ProcessBuilder.Redirect.INHERIT)
+            .start();
+        BufferedReader out = new BufferedReader(new InputStreamReader(clientProcess.getInputStream(), StandardCharsets.UTF_8));
+        String opened = out.readLine();
+        if (!("OPEN " + clients).equals(opened)) {
+            throw new IllegalStateException("Los clientes no se conectaron: " + opened);
+        }
+        awaitPlayers(playersBefore + clients);
+
+        long heapPerConnection = (usedHeap() - heapBefore) / clients;
+        long rssPerConnection = (rss() - rssBefore) / clients;
+        System.out.printf("%n# %s, %d clientes: heap %.1f KB y RSS %.1f KB por conexión, %d threads de plataforma%n",
+            mode, clients, heapPerConnection / 1024.0, rssPerConnection / 1024.0,
+            ManagementFactory.getThreadMXBean().getThreadCount());
+
+        probe = new Socket("127.0.0.1", serverSocket.getLocalPort());
+        probe.setTcpNoDelay(true);
+        probe.setSoTimeout(30_000);
+        probeIn = new BufferedReader(new InputStreamReader(probe.getInputStream(), StandardCharsets.UTF_8));
+        awaitPlayers(playersBefore + clients + 1);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        if (probe != null) probe.close();
+        if (clientProcess != null) {
+            clientProcess.getOutputStream().close();
+            if (!clientProcess.waitFor(30, TimeUnit.SECONDS)) clientProcess.destroyForcibly();
+        }
+        serverSocket.close();
+        acceptor.join(10_000);
+        ServerLog.getInstance().setLevel(LogLevel.INFO);
+    }
+
+    /**
+     * Un broadcast a todos los clientes, hasta que llega al de prueba
+     */
+    @Benchmark
+    public long broadcast() throws IOException {
+        long id = ++sequence;
+        lobby.broadcast(ServerMessage.of(Opcode.GAME_OVER, id));
+        String expected = "GAME_OVER " + id;
+        String line;
+        while ((line = probeIn.readLine()) != null) {
+            if (line.equals(expected)) return id;
+        }
+        throw new IOException("El cliente de prueba se desconectó");
+    }
+
+    // Igual que GameServer.start(): un thread de plataforma o un virtual thread por cliente
+    private void acceptLoop(ServerConfig config) {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                ClientHandler handler = new ClientHandler(socket, null, config);
+                if (mode == ConnectionMode.VIRTUAL) {
+                    Thread.ofVirtual().start(handler::runStructured);
+                } else {
+                    Thread thread = new Thread(handler);
+                    thread.setDaemon(true);
+                    thread.start();
+                }
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void awaitPlayers(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(120);
+        while (lobby.listPlayers().size() < expected) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Sólo " + lobby.listPlayers().size() + " de " + expected + " jugadores en el lobby");
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    // Memoria residente del proceso (Linux), incluye stacks de threads; 0 si no se puede leer
+    private static long rss() {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc/self/status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("[^0-9]", "")) * 1024;
+                }
+            }
+        } catch (IOException | NumberFormatException ignored) { }
+        return 0;
+    }
+
+    private static long freeDescriptors() {
+        if (ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.UnixOperatingSystemMXBean os) {
+            return os.getMaxFileDescriptorCount() - os.getOpenFileDescriptorCount();
+        }
+        return Long.MAX_VALUE;
+    }
+}
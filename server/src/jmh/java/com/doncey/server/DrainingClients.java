@@ -0,0 +1,68 @@
+package com.doncey.server;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+
+/**
+ * Proceso auxiliar de los benchmarks: muchos clientes que sólo leen
+ *
+ * Abre las conexiones, imprime "OPEN n" y descarta todo lo que recibe
+ * (así las colas de salida del servidor no se llenan) hasta que se
+ * cierra su stdin. Corre en otra JVM para no sumar sus descriptores a
+ * los del servidor.
+ *
+ * Uso: DrainingClients puerto cantidad
+ */
+final class DrainingClients {
+
+    private DrainingClients() { }
+
+    public static void main(String[] args) throws IOException {
+        int port = Integer.parseInt(args[0]);
+        int count = Integer.parseInt(args[1]);
+        InetSocketAddress address = new InetSocketAddress("127.0.0.1", port);
+
+        Selector selector = Selector.open();
+        for (int i = 0; i < count; i++) {
+            SocketChannel channel = SocketChannel.open(address);
+            channel.configureBlocking(false);
+            channel.register(selector, SelectionKey.OP_READ);
+        }
+        System.out.println("OPEN " + count);
+        System.out.flush();
+
+        Thread stdin = new Thread(() -> {
+            try {
+                while (System.in.read() >= 0) { }
+            } catch (IOException ignored) { }
+            System.exit(0);
+        }, "stdin");
+        stdin.setDaemon(true);
+        stdin.start();
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+        while (true) {
+            selector.select();
+            Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+            while (it.hasNext()) {
+                SelectionKey key = it.next();
+                it.remove();
+                SocketChannel channel = (SocketChannel) key.channel();
+                int read;
+                do {
+                    buffer.clear();
+                    read = channel.read(buffer);
+                } while (read > 0);
+                if (read < 0) {
+                    key.cancel();
+                    channel.close();
+                }
+            }
+        }
+    }
+}
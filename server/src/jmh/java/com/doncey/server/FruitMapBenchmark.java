@@ -0,0 +1,140 @@
+package com.doncey.server;
+
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mapa de frutas: IntObjectMap contra ConcurrentHashMap<Integer, Fruit>
+ *
+ * Con 100.000 frutas (IDs secuenciales, como los da GameWorld) mide:
+ *   - búsquedas al azar (lo que hacen getFruit y EAT_FRUIT)
+ *   - recambio: quitar la fruta más vieja y agregar una con ID nuevo
+ *     (los IDs no se reutilizan)
+ *   - memoria de cada mapa sin contar las frutas, impresa al armarlos
+ *
+ *   mvn -Pjmh test-compile exec:exec -Djmh.args="FruitMapBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FruitMapBenchmark {
+
+    private static final int LOOKUPS = 1_024;
+
+    private static Object retained;
+
+    @Param({ "100000" })
+    public int fruits;
+
+    private Fruit[] fruitPool;
+    private IntObjectMap<Fruit> intMap;
+    private ConcurrentHashMap<Integer, Fruit> boxedMap;
+    private final int[] lookupIds = new int[LOOKUPS];
+
+    // Ventana de IDs vivos para el recambio: [oldest, next)
+    private int intOldest, intNext;
+    private int boxedOldest, boxedNext;
+
+    @Setup
+    public void setup() {
+        // Las frutas se crean antes, así la medición es sólo la del mapa
+        fruitPool = new Fruit[fruits];
+        for (int i = 0; i < fruits; i++) {
+            fruitPool[i] = new Fruit(i + 1, i % 1000, i % 700, "banana", 10);
+        }
+
+        long intBytes = footprint(() -> {
+            IntObjectMap<Fruit> map = new IntObjectMap<>();
+            for (Fruit fruit : fruitPool) map.put(fruit.getId(), fruit);
+            return map;
+        });
+        long boxedBytes = footprint(() -> {
+            ConcurrentHashMap<Integer, Fruit> map = new ConcurrentHashMap<>();
+            for (Fruit fruit : fruitPool) map.put(fruit.getId(), fruit);
+            return map;
+        });
+        System.out.printf("%n# %d frutas: IntObjectMap %.1f KB (%.1f B/fruta), ConcurrentHashMap %.1f KB (%.1f B/fruta)%n",
+            fruits, intBytes / 1024.0, (double) intBytes / fruits, boxedBytes / 1024.0, (double) boxedBytes / fruits);
+
+        intMap = new IntObjectMap<>();
+        boxedMap = new ConcurrentHashMap<>();
+        for (Fruit fruit : fruitPool) {
+            intMap.put(fruit.getId(), fruit);
+            boxedMap.put(fruit.getId(), fruit);
+        }
+        intOldest = boxedOldest = 1;
+        intNext = boxedNext = fruits + 1;
+
+        Random random = new Random(17);
+        for (int i = 0; i < LOOKUPS; i++) {
+            lookupIds[i] = 1 + random.nextInt(fruits);
+        }
+    }
+
+    // ======== BÚSQUEDA ========
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public int intObjectMapGet() {
+        int sum = 0;
+        for (int id : lookupIds) sum += intMap.get(id).getX();
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public int concurrentHashMapGet() {
+        int sum = 0;
+        for (int id : lookupIds) sum += boxedMap.get(id).getX();
+        return sum;
+    }
+
+    // ======== RECAMBIO ========
+
+    @Benchmark
+    public Fruit intObjectMapChurn() {
+        Fruit fruit = intMap.remove(intOldest++);
+        intMap.put(intNext++, fruit);
+        return fruit;
+    }
+
+    @Benchmark
+    public Fruit concurrentHashMapChurn() {
+        Fruit fruit = boxedMap.remove(boxedOldest++);
+        boxedMap.put(boxedNext++, fruit);
+        return fruit;
+    }
+
+    // Heap retenido por el mapa que arma el supplier
+    private static long footprint(Supplier<Object> build) {
+        long before = usedHeap();
+        retained = build.get(); // Vivo hasta después de medir
+        long after = usedHeap();
+        retained = null;
+        return after - before;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
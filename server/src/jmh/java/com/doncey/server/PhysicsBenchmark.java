@@ -0,0 +1,67 @@
+package com.doncey.server;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Fase de física de un tick: serial contra PhysicsTask (fork-join)
+ *
+ * Un frame de PlayerStore.step sobre 10 a 10.000 jugadores con el
+ * nivel por defecto. El umbral de --parallel-physics debería quedar
+ * cerca del tamaño donde parallel empieza a ganarle a serial (depende
+ * de los núcleos).
+ *
+ *   mvn -Pjmh test-compile exec:exec -Djmh.args="PhysicsBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PhysicsBenchmark {
+
+    @Param({ "10", "100", "1000", "10000" })
+    public int players;
+
+    private final PlatformGrid grid = new PlatformGrid(GameWorld.getInstance().getPlatforms());
+    private PlayerStore store;
+    private boolean[] died;
+    private int slots;
+
+    // Estado nuevo en cada iteración: jugadores cayendo, caminando y aterrizando
+    @Setup(Level.Iteration)
+    public void setup() {
+        store = new PlayerStore(players);
+        for (int i = 0; i < players; i++) {
+            int slot = store.allocateSlot(i + 1, 10 + (i * 37) % 1000, (i * 53) % 700);
+            store.setMoving(slot, i % 3 == 0, i % 3 == 1);
+        }
+        slots = store.highWater();
+        died = new boolean[slots];
+    }
+
+    @Benchmark
+    public boolean[] serial() {
+        store.step(grid, died, 0, slots);
+        return died;
+    }
+
+    @Benchmark
+    public boolean[] parallel() {
+        PhysicsTask.pool().invoke(new PhysicsTask(store, died, grid, 0, slots));
+        return died;
+    }
+}
@@ -0,0 +1,86 @@
+package com.doncey.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Consulta de colisión: PlatformGrid contra el recorrido lineal
+ *
+ * Nivel al azar de 10, 1.000 o 50.000 plataformas (el área crece con la
+ * cantidad, así la densidad queda parecida a la del nivel por defecto) y
+ * un lote fijo de cajas de jugador cayendo. Cada operación resuelve el
+ * lote entero; el lineal es lo que hacía el tick antes del índice.
+ *
+ *   mvn -Pjmh test-compile exec:exec -Djmh.args="PlatformGridBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlatformGridBenchmark {
+
+    private static final int QUERIES = 1_024;
+
+    @Param({ "10", "1000", "50000" })
+    public int platforms;
+
+    private List<Platform> level;
+    private PlatformGrid grid;
+    private final int[] xs = new int[QUERIES];
+    private final int[] ys = new int[QUERIES];
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        // Unas 10 plataformas por pantalla de 1000x800, como el nivel por defecto
+        int side = (int) Math.max(1_000, Math.sqrt(platforms / 10.0) * 1_000);
+        level = new ArrayList<>(platforms);
+        for (int i = 0; i < platforms; i++) {
+            level.add(new Platform(random.nextInt(side), random.nextInt(side), 50 + random.nextInt(200), 20));
+        }
+        grid = new PlatformGrid(level);
+        for (int i = 0; i < QUERIES; i++) {
+            xs[i] = random.nextInt(side);
+            ys[i] = random.nextInt(side);
+        }
+    }
+
+    @Benchmark
+    public int grid() {
+        int hits = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            if (grid.firstCollision(xs[i], ys[i] + 15, ys[i], Player.WIDTH, Player.HEIGHT) != null) hits++;
+        }
+        return hits;
+    }
+
+    @Benchmark
+    public int linear() {
+        int hits = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            for (Platform p : level) {
+                if (p.collides(xs[i], ys[i] + 15, ys[i], Player.WIDTH, Player.HEIGHT)) {
+                    hits++;
+                    break;
+                }
+            }
+        }
+        return hits;
+    }
+}
@@ -0,0 +1,181 @@
+package com.doncey.server;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Física del tick: arreglos paralelos (PlayerStore) contra un objeto por jugador
+ *
+ * El lado "objects" reproduce el esquema anterior a PlayerStore: un
+ * objeto con sus campos por jugador en un ConcurrentHashMap<Integer, ...>,
+ * el roster armado recorriendo el mapa y ordenado con un Comparator, y
+ * la física jugador por jugador. El lado "structOfArrays" es lo que
+ * hace hoy el tick: PlayerStore.sortedById() y step() sobre los
+ * arreglos. Las variantes *Physics miden sólo la física, con el roster
+ * ya armado. Mismos jugadores, posiciones y controles en los dos lados.
+ *
+ *   mvn -Pjmh test-compile exec:exec -Djmh.args="PlayerLayoutBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayerLayoutBenchmark {
+
+    private static final Comparator<ObjectPlayer> BY_ID = Comparator.comparingInt(p -> p.id);
+
+    @Param({ "1000", "10000", "100000" })
+    public int players;
+
+    private final PlatformGrid grid = new PlatformGrid(GameWorld.getInstance().getPlatforms());
+
+    private Map<Integer, ObjectPlayer> map;
+    private ObjectPlayer[] objectRoster;
+
+    private PlayerStore store;
+    private Player[] storeRoster;
+    private boolean[] died;
+    private int slots;
+
+    // Estado nuevo en cada iteración (los dos lados parten igual)
+    @Setup(Level.Iteration)
+    public void setup() {
+        Random random = new Random(7);
+        map = new ConcurrentHashMap<>();
+        objectRoster = new ObjectPlayer[players];
+        store = new PlayerStore(16);
+        for (int i = 0; i < players; i++) {
+            // IDs mezclados, como quedan tras altas y bajas
+            int id = 1 + random.nextInt(Integer.MAX_VALUE - 1);
+            int x = random.nextInt(Player.MAX_X);
+            int y = random.nextInt(Player.FLOOR_Y);
+            boolean left = random.nextInt(3) == 0;
+            boolean right = !left && random.nextBoolean();
+
+            ObjectPlayer object = new ObjectPlayer(id, x, y, left, right);
+            map.put(id, object);
+            objectRoster[i] = object;
+
+            Player player = store.allocate(id, x, y);
+            store.setMoving(player.getSlot(), left, right);
+        }
+        Arrays.sort(objectRoster, BY_ID);
+        slots = store.highWater();
+        storeRoster = new Player[slots];
+        died = new boolean[slots];
+    }
+
+    // ======== TICK (roster + física) ========
+
+    @Benchmark
+    public int objects() {
+        int n = 0;
+        for (ObjectPlayer player : map.values()) {
+            objectRoster[n++] = player;
+        }
+        Arrays.sort(objectRoster, 0, n, BY_ID);
+        return objectPhysics(n);
+    }
+
+    @Benchmark
+    public int structOfArrays() {
+        synchronized (store) {
+            store.sortedById(storeRoster);
+            return store.step(grid, died, 0, slots);
+        }
+    }
+
+    // ======== SÓLO FÍSICA ========
+
+    @Benchmark
+    public int objectsPhysics() {
+        return objectPhysics(players);
+    }
+
+    @Benchmark
+    public int structOfArraysPhysics() {
+        return store.step(grid, died, 0, slots);
+    }
+
+    private int objectPhysics(int n) {
+        int deaths = 0;
+        for (int i = 0; i < n; i++) {
+            if (objectRoster[i].update(grid)) deaths++;
+        }
+        return deaths;
+    }
+
+    /**
+     * Jugador como objeto con sus campos (el Player anterior a PlayerStore)
+     */
+    private static final class ObjectPlayer {
+        final int id;
+        int x;
+        int y;
+        int prevY;
+        boolean alive = true;
+        boolean movingLeft;
+        boolean movingRight;
+        float velocityY = 0;
+        boolean onGround = false;
+
+        ObjectPlayer(int id, int x, int y, boolean movingLeft, boolean movingRight) {
+            this.id = id;
+            this.x = x;
+            this.y = y;
+            this.prevY = y;
+            this.movingLeft = movingLeft;
+            this.movingRight = movingRight;
+        }
+
+        boolean update(PlatformGrid platforms) {
+            prevY = y;
+            if (movingLeft) x -= Player.WALK_SPEED;
+            if (movingRight) x += Player.WALK_SPEED;
+            velocityY += Player.GRAVITY;
+            y += (int) velocityY;
+            onGround = false;
+
+            if (velocityY >= 0) {
+                Platform p = platforms.firstCollision(x, y, prevY, Player.WIDTH, Player.HEIGHT);
+                if (p != null) {
+                    y = p.getY() - Player.HEIGHT;
+                    velocityY = 0;
+                    onGround = true;
+                }
+            }
+            if (y >= Player.FLOOR_Y) {
+                y = Player.FLOOR_Y;
+                velocityY = 0;
+                onGround = true;
+            }
+            if (x < Player.MIN_X) x = Player.MIN_X;
+            if (x > Player.MAX_X) x = Player.MAX_X;
+
+            if (y + Player.HEIGHT >= Player.SCREEN_HEIGHT) {
+                alive = false;
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.doncey.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.doncey.utils.log.LogLevel;
+import com.doncey.utils.log.ServerLog;
+
+/**
+ * Posiciones por tick: un PLAYER_POS por jugador contra un WORLD_SNAPSHOT
+ *
+ * Una sala con N jugadores, cada uno con su sesión (TestSession) que
+ * negoció el mensaje y el formato de cable. Cada operación es un tick
+ * de la sala (updateGameLogic) seguido de vaciar las colas de salida.
+ * La medición principal es el tiempo del tick; al final de cada
+ * combinación se imprimen, por tick:
+ *   - bytes encolados para todos los clientes
+ *   - frames encolados: NioConnection.flush hace un write() por frame,
+ *     así que es la cantidad de syscalls de escritura en modo NIO
+ *
+ *   mvn -Pjmh test-compile exec:exec -Djmh.args="PositionBroadcastBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PositionBroadcastBenchmark {
+
+    @Param({ "8", "64", "256" })
+    public int players;
+
+    @Param({ "PLAYER_POS", "WORLD_SNAPSHOT" })
+    public String message;
+
+    @Param({ "TEXT", "BINARY" })
+    public String wire;
+
+    private GameWorld room;
+    private final List<TestSession> sessions = new ArrayList<>();
+    private long ticks, frames, bytes;
+
+    @Setup
+    public void setup() {
+        ServerLog.getInstance().setLevel(LogLevel.WARN);
+        room = RoomManager.getInstance().createRoom();
+
+        StringBuilder hello = new StringBuilder("HELLO");
+        if (message.equals("WORLD_SNAPSHOT")) hello.append(" SNAPSHOT");
+        if (wire.equals("BINARY")) hello.append(" BINARY");
+        for (int i = 0; i < players; i++) {
+            TestSession session = new TestSession().connect();
+            session.receiveLine("ROOM_JOIN " + room.getRoomId()); // Antes del HELLO: con BINARY la entrada deja de ser texto
+            if (hello.length() > "HELLO".length()) session.receiveLine(hello.toString());
+            sessions.add(session);
+        }
+        RoomManager.getInstance().release(room); // Sólo la sostienen sus clientes
+        room.updateGameLogic(); // Los jugadores nuevos aparecen
+        drain();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetCounts() {
+        ticks = frames = bytes = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void report() {
+        if (ticks == 0) return;
+        System.out.printf("%n# %d jugadores, %s %s: %.1f KB/tick, %.0f writes/tick (%.1f por cliente)%n",
+            players, message, wire, bytes / 1024.0 / ticks, (double) frames / ticks, (double) frames / ticks / players);
+    }
+
+    @TearDown
+    public void tearDown() {
+        for (TestSession session : sessions) {
+            session.close();
+        }
+        sessions.clear();
+        ServerLog.getInstance().setLevel(LogLevel.INFO);
+    }
+
+    @Benchmark
+    public long tick() {
+        room.updateGameLogic();
+        ticks++;
+        return drain();
+    }
+
+    // Vacía las colas como lo haría el escritor, contando frames y bytes
+    private long drain() {
+        long drained = 0;
+        for (TestSession session : sessions) {
+            OutboundFrame frame;
+            while ((frame = session.outbound.poll()) != null) {
+                frames++;
+                bytes += frame.length();
+                drained += frame.length();
+                frame.release();
+            }
+        }
+        return drained;
+    }
+}
@@ -0,0 +1,125 @@
+package com.doncey.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.doncey.utils.log.LogLevel;
+import com.doncey.utils.log.ServerLog;
+
+/**
+ * Ticks por segundo de todas las salas según salas y workers
+ *
+ * Cada operación es un reparto de RoomManager.dispatchTick() sobre 1,
+ * 10 o 100 salas (incluye el lobby) con jugadores sin cliente, y espera
+ * a que todas terminen su tick. La métrica secundaria "ticks" es el
+ * total de ticks de sala por segundo: debería crecer con los workers
+ * hasta la cantidad de núcleos (en una sola sala no hay nada que
+ * repartir).
+ *
+ *   mvn -Pjmh test-compile exec:exec -Djmh.args="RoomScalingBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoomScalingBenchmark {
+
+    @Param({ "1", "10", "100" })
+    public int rooms;
+
+    @Param({ "1", "2", "4", "8" })
+    public int workers;
+
+    @Param({ "50" })
+    public int playersPerRoom;
+
+    private static int nextPlayerId = 1_000_000;
+
+    private RoomManager manager;
+    private final List<GameWorld> worlds = new ArrayList<>();
+    private final List<Integer> playerIds = new ArrayList<>();
+
+    /**
+     * Ticks de sala completados (se informa por segundo)
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Ticks {
+        public long ticks;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            ticks = 0;
+        }
+    }
+
+    @Setup
+    public void setup() {
+        ServerLog.getInstance().setLevel(LogLevel.WARN);
+        manager = RoomManager.getInstance();
+        worlds.add(manager.getLobby());
+        for (int i = 1; i < rooms; i++) {
+            worlds.add(manager.createRoom());
+        }
+        for (GameWorld world : worlds) {
+            for (int i = 0; i < playersPerRoom; i++) {
+                int id = nextPlayerId++;
+                world.registerPlayer(id, null);
+                playerIds.add(id);
+            }
+        }
+        manager.start(workers);
+    }
+
+    @TearDown
+    public void tearDown() {
+        manager.stop();
+        int i = 0;
+        for (GameWorld world : worlds) {
+            for (int k = 0; k < playersPerRoom; k++) {
+                world.unregisterPlayer(playerIds.get(i++));
+            }
+            manager.release(world);
+        }
+        worlds.clear();
+        playerIds.clear();
+        ServerLog.getInstance().setLevel(LogLevel.INFO);
+    }
+
+    @Benchmark
+    public void dispatchAndWait(Ticks counter) {
+        long before = completedTicks();
+        int expected = manager.getRoomCount();
+        manager.dispatchTick();
+        while (completedTicks() - before < expected) {
+            Thread.yield();
+        }
+        counter.ticks += expected;
+    }
+
+    private long completedTicks() {
+        long total = 0;
+        for (GameWorld world : worlds) {
+            total += manager.getTickStats(world.getRoomId()).getTicks();
+        }
+        return total;
+    }
+}
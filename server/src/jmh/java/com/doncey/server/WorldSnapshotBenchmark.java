@@ -0,0 +1,91 @@
+package com.doncey.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Costo de publicar una foto de la sala según la cantidad de frutas
+ *
+ * Con 1.000, 10.000 y 100.000 frutas (IDs secuenciales, como los da
+ * GameWorld) y 64 jugadores mide cada publicación de GameWorld:
+ *   - recambio de frutas: quitar la más vieja y agregar una con ID
+ *     nuevo (dos fotos, cada una copia el arreglo de frutas)
+ *   - fin de tick: withPositions (copia los arreglos de jugadores y
+ *     comparte las frutas)
+ *   - puntaje: withScore (copia sólo los puntajes)
+ *
+ *   mvn -Pjmh test-compile exec:exec -Djmh.args="WorldSnapshotBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorldSnapshotBenchmark {
+
+    @Param({ "1000", "10000", "100000" })
+    public int fruits;
+
+    @Param({ "64" })
+    public int players;
+
+    private WorldSnapshot snapshot;
+    private int nextFruitId;
+    private PositionHistory.Entry positions;
+    private int[] scores;
+    private long tick;
+
+    @Setup
+    public void setup() {
+        snapshot = WorldSnapshot.EMPTY;
+        while (nextFruitId < fruits) {
+            snapshot = snapshot.withFruit(newFruit());
+        }
+
+        List<Player> alive = new ArrayList<>();
+        for (int i = 0; i < players; i++) {
+            alive.add(new Player(i + 1, i * 10, 400));
+        }
+        positions = new PositionHistory(4).record(1, alive);
+        scores = new int[players];
+        snapshot = snapshot.withPositions(++tick, positions, scores);
+    }
+
+    @Benchmark
+    public WorldSnapshot fruitChurn() {
+        snapshot = snapshot.withoutFruit(snapshot.getFruits().get(0)); // La de ID más bajo
+        snapshot = snapshot.withFruit(newFruit());
+        return snapshot;
+    }
+
+    @Benchmark
+    public WorldSnapshot tickEnd() {
+        snapshot = snapshot.withPositions(++tick, positions, scores);
+        return snapshot;
+    }
+
+    @Benchmark
+    public WorldSnapshot score() {
+        snapshot = snapshot.withScore(1 + (int) (tick++ % players), (int) tick);
+        return snapshot;
+    }
+
+    private Fruit newFruit() {
+        int id = ++nextFruitId;
+        return new Fruit(id, id % 1000, id % 700, "banana", 10);
+    }
+}
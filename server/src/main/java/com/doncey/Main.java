@@ -1,42 +1,50 @@
 package com.doncey;
 
+import java.io.IOException;
+
 import javax.swing.SwingUtilities;
 import com.doncey.admin.ServerGUI;
 import com.doncey.server.GameServer;
 import com.doncey.patterns.observer.GameEventPublisher;
 import com.doncey.patterns.observer.GUIEventObserver;
+import com.doncey.utils.ServerConfig;
 
 // Clase principal que inicia el servidor de juego
 public class Main {
     public static void main(String[] args) {
-        // Crear la GUI primero
-        ServerGUI[] serverGUIRef = new ServerGUI[1];
-        SwingUtilities.invokeLater(() -> {
-            ServerGUI serverGUI = new ServerGUI();
-            serverGUIRef[0] = serverGUI;
-            serverGUI.setVisible(true);
-            GameEventPublisher.getInstance().subscribe(new GUIEventObserver(serverGUI));
-        });
-        
-        // Esperar a que la GUI se cree
-        while (serverGUIRef[0] == null) {
-            try {
-                Thread.sleep(100);
+        // Leer configuración de arranque (--mode=blocking|nio, --port=N, --headless, ...)
+        ServerConfig config = ServerConfig.fromArgs(args);
+
+        // Abrir el puerto primero: no espera a la GUI
+        GameServer server;
+        try {
+            server = new GameServer(null, config);
+        } catch (IOException e) {
+            System.err.println("[ERROR] > " + e.getMessage());
+            return;
+        }
 
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
+        // Sin GUI: el servidor corre en este thread y Swing nunca se carga
+        if (config.isHeadless()) {
+            server.start();
+            return;
         }
-        
-        // Iniciar el servidor con referencia a la GUI
-        new Thread(() -> {
-            try {
-                GameServer server = new GameServer(serverGUIRef[0]);
-                server.start();
 
-            } catch (Exception e) {
-                System.err.println("[ERROR] > " + e.getMessage());
-            }
-        }).start();
+        // Con GUI: servidor y GUI arrancan a la vez; la GUI se conecta
+        // cuando termina de construirse
+        Thread serverThread = new Thread(server::start);
+        serverThread.setName("GameServerThread");
+        serverThread.start();
+        SwingUtilities.invokeLater(() -> startGUI(server));
+    }
+
+    /**
+     * Construye la GUI (en el EDT) y la conecta al servidor en marcha
+     */
+    private static void startGUI(GameServer server) {
+        ServerGUI serverGUI = new ServerGUI();
+        serverGUI.setVisible(true);
+        server.attachGUI(serverGUI);
+        GameEventPublisher.getInstance().subscribe(new GUIEventObserver(serverGUI));
     }
-}
\ No newline at end of file
+}
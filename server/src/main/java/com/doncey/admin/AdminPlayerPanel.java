@@ -20,6 +20,7 @@ import javax.swing.JTextField;
 import javax.swing.SwingUtilities;
 import javax.swing.border.EmptyBorder;
 
+import com.doncey.patterns.factory.FruitFactory;
 import com.doncey.server.Fruit;
 import com.doncey.server.GameWorld;
 
@@ -440,13 +441,7 @@ public class AdminPlayerPanel extends JPanel {
      * @param heightY Altura Y
      */
     private void addFruit(String type, int heightX, int heightY) {
-        int points = 0;
-        switch (type.toUpperCase()) {
-            case "MANGO": points = 50; break;
-            case "BANANO": points = 30; break;
-            case "MANZANA": points = 20; break;
-            default: points = 10; break;
-        }
+        int points = FruitFactory.defaultPoints(type);
 
         // Crear en el GameWorld (esto enviará SPAWN_FRUIT a todos los clientes)
         Fruit f = GameWorld.getInstance().spawnFruit(type, heightX, heightY, points);
@@ -4,12 +4,35 @@ import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
 import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
 import java.util.Date;
+import javax.swing.text.Element;
 
+/**
+ * Panel de estado y registros del servidor
+ * 
+ * Los logs no se agregan al JTextArea uno por uno: addLog() los deja en
+ * un buffer (desde cualquier thread) y un Timer de Swing los vuelca en
+ * un único append LOG_REFRESH_MS veces por segundo. La vista conserva
+ * las últimas MAX_LOG_LINES líneas; lo que no entra se cuenta.
+ * 
+ * Los Timers corren sólo mientras el panel está en una ventana
+ * (addNotify/removeNotify): cerrarla no deja el EDT despertándose.
+ */
 public class ServerPanel extends JPanel {
     
+    private static final int LOG_REFRESH_MS = 100; // 10 Hz
+    private static final int MAX_LOG_LINES = 2000; // Líneas visibles (y pendientes) como máximo
+    
     private JTextArea logArea; // Área de logs
     private JLabel timeValueLabel; // Etiqueta de hora dinámica
+    private JLabel logStatsLabel; // Contadores de líneas descartadas
+    private Timer logTimer; // Vuelca los logs pendientes
+    private Timer clockTimer; // Actualiza la hora
+    
+    private final ArrayDeque<String> pendingLogs = new ArrayDeque<>(); // Por volcar (protegido por sí mismo)
+    private long droppedLines = 0; // Descartadas antes de mostrarse (protegido por pendingLogs)
+    private long trimmedLines = 0; // Sacadas de la vista por antigüedad (sólo EDT)
     
     private static final Color BG_PRIMARY = new Color(15, 15, 15);              
     private static final Color BG_SECONDARY = new Color(35, 35, 35);            
@@ -33,6 +56,22 @@ public class ServerPanel extends JPanel {
         add(createHeaderPanel(), BorderLayout.NORTH);
         add(createLogsPanel(), BorderLayout.CENTER);
         add(createFooterPanel(), BorderLayout.SOUTH);
+        
+        logTimer = new Timer(LOG_REFRESH_MS, e -> flushLogs());
+    }
+    
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        logTimer.start();
+        clockTimer.start();
+    }
+    
+    @Override
+    public void removeNotify() {
+        logTimer.stop();
+        clockTimer.stop();
+        super.removeNotify();
     }
     
     // Header: Estado y Hora
@@ -48,7 +87,7 @@ public class ServerPanel extends JPanel {
         statusPanel.add(createStatusWidget("HORA", getCurrentTime(), GRAY_LIGHT));
         
         timeValueLabel = (JLabel) ((JPanel) statusPanel.getComponent(1)).getComponent(1);
-        new Timer(1000, e -> timeValueLabel.setText(getCurrentTime())).start();
+        clockTimer = new Timer(1000, e -> timeValueLabel.setText(getCurrentTime()));
         
         panel.add(statusPanel, BorderLayout.WEST);
         panel.setBorder(BorderFactory.createMatteBorder(20, 20, 20, 0, BG_SECONDARY));
@@ -157,6 +196,12 @@ public class ServerPanel extends JPanel {
         buttonPanel.add(createButton("[ PURGAR REGISTROS ]", WHITE_PURE, GRAY_MEDIUM, e -> clearLogs()));
         buttonPanel.add(createButton("[ EXTRAER DATOS ]", WHITE_PURE, GRAY_MEDIUM, e -> downloadLogs()));
         
+        logStatsLabel = new JLabel();
+        logStatsLabel.setFont(FONT_LABEL);
+        logStatsLabel.setForeground(TEXT_SECONDARY);
+        updateLogStats(0);
+        
+        panel.add(logStatsLabel, BorderLayout.WEST);
         panel.add(buttonPanel, BorderLayout.EAST);
         panel.setBorder(BorderFactory.createMatteBorder(10, 0, 10, 0, BG_SECONDARY));
         
@@ -199,14 +244,76 @@ public class ServerPanel extends JPanel {
         return button;
     }
     
+    /**
+     * Agrega una línea de log (cualquier thread)
+     * 
+     * Se muestra en el próximo refresco. Si ya hay MAX_LOG_LINES
+     * pendientes, se descarta la más vieja.
+     * 
+     * @param message Línea de log
+     */
     public void addLog(String message) {
-        SwingUtilities.invokeLater(() -> {
-            String formatted = message.startsWith(">") || message.startsWith("[") 
-                ? message 
-                : "> " + message;
-            logArea.append(formatted + "\n");
-            logArea.setCaretPosition(logArea.getDocument().getLength());
-        });
+        synchronized (pendingLogs) {
+            if (pendingLogs.size() == MAX_LOG_LINES) {
+                pendingLogs.pollFirst();
+                droppedLines++;
+            }
+            pendingLogs.addLast(message);
+        }
+    }
+    
+    /**
+     * Cantidad de líneas que nunca llegaron a mostrarse
+     */
+    public long getDroppedLineCount() {
+        synchronized (pendingLogs) {
+            return droppedLines;
+        }
+    }
+    
+    /**
+     * Cantidad de líneas sacadas de la vista por antigüedad (EDT)
+     */
+    long getTrimmedLineCount() {
+        return trimmedLines;
+    }
+    
+    // Texto visible (EDT)
+    String getLogText() {
+        return logArea.getText();
+    }
+    
+    // Vuelca lo pendiente en un solo append y recorta la vista (EDT, cada LOG_REFRESH_MS)
+    void flushLogs() {
+        String[] lines;
+        long dropped;
+        synchronized (pendingLogs) {
+            if (pendingLogs.isEmpty()) return;
+            lines = pendingLogs.toArray(new String[0]);
+            pendingLogs.clear();
+            dropped = droppedLines;
+        }
+        
+        StringBuilder text = new StringBuilder(lines.length * 64);
+        for (String message : lines) {
+            if (!message.startsWith(">") && !message.startsWith("[")) text.append("> ");
+            text.append(message).append('\n');
+        }
+        logArea.append(text.toString());
+        
+        // Dejar sólo las últimas MAX_LOG_LINES (el último elemento es la línea vacía final)
+        Element root = logArea.getDocument().getDefaultRootElement();
+        int excess = root.getElementCount() - 1 - MAX_LOG_LINES;
+        if (excess > 0) {
+            logArea.replaceRange("", 0, root.getElement(excess - 1).getEndOffset());
+            trimmedLines += excess;
+        }
+        logArea.setCaretPosition(logArea.getDocument().getLength());
+        updateLogStats(dropped);
+    }
+    
+    private void updateLogStats(long dropped) {
+        logStatsLabel.setText("DESCARTADAS: " + dropped + "  ROTADAS: " + trimmedLines);
     }
     
     private void clearLogs() {
@@ -215,11 +322,22 @@ public class ServerPanel extends JPanel {
             "CONFIRMACIÓN REQUERIDA",
             JOptionPane.YES_NO_OPTION,
             JOptionPane.WARNING_MESSAGE) == JOptionPane.YES_OPTION) {
-            logArea.setText("");
+            purgeLogs();
             addLog("[" + getCurrentTime() + "] > Registros purgados con éxito");
         }
     }
     
+    // Vacía la vista y lo pendiente y pone los contadores en cero (EDT)
+    void purgeLogs() {
+        synchronized (pendingLogs) {
+            pendingLogs.clear();
+            droppedLines = 0;
+        }
+        logArea.setText("");
+        trimmedLines = 0;
+        updateLogStats(0);
+    }
+    
     private void downloadLogs() {
         JFileChooser fileChooser = new JFileChooser();
         fileChooser.setDialogTitle("EXTRAER DATOS DEL SISTEMA");
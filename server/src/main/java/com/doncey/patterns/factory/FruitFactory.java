@@ -52,4 +52,22 @@ public class FruitFactory implements GameEntityFactory {
                 );
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * Puntos que vale por defecto cada tipo de fruta
+     * 
+     * Los usan el panel de administración y la API HTTP cuando no se
+     * indican puntos.
+     * 
+     * @param type Tipo de fruta (sin importar mayúsculas)
+     * @return Puntos (10 para un tipo desconocido)
+     */
+    public static int defaultPoints(String type) {
+        switch (type.toUpperCase().trim()) {
+            case "MANGO": return 50;
+            case "BANANO": return 30;
+            case "MANZANA": return 20;
+            default: return 10;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.doncey.patterns.observer;
+
+/**
+ * Lote de eventos para un GameEventBatchObserver
+ *
+ * Es una vista sobre las celdas del EventRing que el observador todavía
+ * no liberó: no copia los eventos y se reutiliza entre lotes, así que
+ * sólo es válido durante onEvents().
+ */
+public final class EventBatch {
+
+    private final EventRing ring;
+    private long[] sequences = new long[64];
+    private int size = 0;
+    private long tick = -1;
+
+    EventBatch(EventRing ring) {
+        this.ring = ring;
+    }
+
+    void add(long sequence) {
+        if (size == sequences.length) {
+            long[] grown = new long[size * 2];
+            System.arraycopy(sequences, 0, grown, 0, size);
+            sequences = grown;
+        }
+        sequences[size++] = sequence;
+    }
+
+    void seal(long tick) {
+        this.tick = tick;
+    }
+
+    void clear() {
+        size = 0;
+        tick = -1;
+    }
+
+    private GameEvent event(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+        return ring.slot(sequences[index]);
+    }
+
+    /**
+     * Cantidad de eventos del lote
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Tick de la sala que cerró el lote (-1 si se entregó antes por tamaño)
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    public EventType getType(int index) { return event(index).type; }
+    public int getId(int index) { return event(index).id; }
+    public String getFruitType(int index) { return event(index).fruitType; }
+    public int getX(int index) { return event(index).x; }
+    public int getY(int index) { return event(index).y; }
+    public int getPoints(int index) { return event(index).points; }
+
+    /**
+     * Entrega un evento del lote a un GameObserver
+     *
+     * @param index Posición en el lote
+     * @param observer Observador
+     */
+    public void dispatch(int index, GameObserver observer) {
+        event(index).dispatch(observer);
+    }
+}
@@ -0,0 +1,162 @@
+package com.doncey.patterns.observer;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Anillo de eventos de muchos productores y muchos consumidores
+ *
+ * Cada consumidor (Cursor) recibe todos los eventos y avanza a su
+ * propio ritmo. Los productores reservan una posición con un CAS y la
+ * publican escribiendo su secuencia en la celda; una celda no se
+ * sobrescribe hasta que el consumidor más atrasado la pasó. Las celdas
+ * se reservan al crear el anillo y se reutilizan.
+ *
+ * Si el consumidor más lento está una vuelta atrás, publish() descarta
+ * el evento y devuelve false en vez de esperar.
+ */
+final class EventRing {
+
+    /**
+     * Posición de lectura de un consumidor
+     */
+    static final class Cursor {
+        private final AtomicLong next; // Próxima secuencia a leer
+
+        private Cursor(long start) {
+            next = new AtomicLong(start);
+        }
+
+        long next() {
+            return next.get();
+        }
+    }
+
+    private static final Cursor[] NO_CURSORS = new Cursor[0];
+
+    private final GameEvent[] slots;
+    private final AtomicLongArray published; // Secuencia publicada en cada celda
+    private final int mask;
+    private final AtomicLong claim = new AtomicLong(); // Próxima secuencia a reservar
+    private volatile Cursor[] cursors = NO_CURSORS; // Se reemplaza entero (con el monitor)
+
+    /**
+     * Crea el anillo
+     *
+     * @param capacity Cantidad de celdas (se redondea a potencia de 2)
+     */
+    EventRing(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new GameEvent[size];
+        this.published = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            slots[i] = new GameEvent();
+            published.set(i, -1);
+        }
+    }
+
+    // ======== PRODUCTORES ========
+
+    /**
+     * Publica un evento (cualquier thread, sin bloquear ni reservar memoria)
+     *
+     * @return false si no hay consumidores o el más lento está una vuelta atrás
+     */
+    boolean publish(EventType type, int id, String fruitType, int x, int y, int points, long tick) {
+        Cursor[] gating = cursors;
+        if (gating.length == 0) return false;
+
+        long pos = claim.get();
+        while (true) {
+            if (pos - minimum(gating, pos) >= slots.length) {
+                return false; // Lleno
+            }
+            if (claim.compareAndSet(pos, pos + 1)) break;
+            pos = claim.get(); // Otro productor la tomó
+        }
+
+        int index = (int) pos & mask;
+        GameEvent event = slots[index];
+        event.type = type;
+        event.id = id;
+        event.fruitType = fruitType;
+        event.x = x;
+        event.y = y;
+        event.points = points;
+        event.tick = tick;
+        published.set(index, pos); // Publica la celda
+        return true;
+    }
+
+    private static long minimum(Cursor[] gating, long limit) {
+        long min = limit;
+        for (Cursor cursor : gating) {
+            min = Math.min(min, cursor.next.get());
+        }
+        return min;
+    }
+
+    // ======== CONSUMIDORES ========
+
+    /**
+     * Agrega un consumidor que empieza a leer desde el próximo evento
+     */
+    synchronized Cursor addCursor() {
+        Cursor cursor = new Cursor(claim.get());
+        Cursor[] updated = Arrays.copyOf(cursors, cursors.length + 1);
+        updated[updated.length - 1] = cursor;
+        cursors = updated;
+        return cursor;
+    }
+
+    /**
+     * Quita un consumidor (deja de frenar a los productores)
+     */
+    synchronized void removeCursor(Cursor cursor) {
+        cursors = Arrays.stream(cursors).filter(c -> c != cursor).toArray(Cursor[]::new);
+    }
+
+    /**
+     * Busca un evento si ya fue publicado (consumidor)
+     *
+     * El consumidor puede leer por delante de su Cursor: las celdas que
+     * todavía no liberó con advance() no se sobrescriben.
+     *
+     * @param sequence Secuencia (entre el Cursor y lo publicado)
+     * @return Evento o null si todavía no se publicó
+     */
+    GameEvent get(long sequence) {
+        int index = (int) sequence & mask;
+        return published.get(index) == sequence ? slots[index] : null;
+    }
+
+    /**
+     * Celda de una secuencia ya leída y no liberada
+     */
+    GameEvent slot(long sequence) {
+        return slots[(int) sequence & mask];
+    }
+
+    /**
+     * Libera las celdas anteriores a una secuencia
+     *
+     * @param cursor Consumidor
+     * @param next Próxima secuencia que va a leer
+     */
+    void advance(Cursor cursor, long next) {
+        cursor.next.lazySet(next);
+    }
+
+    /**
+     * Eventos publicados que el consumidor todavía no leyó
+     */
+    long lag(Cursor cursor) {
+        return Math.max(0, claim.get() - cursor.next.get());
+    }
+
+    int capacity() {
+        return slots.length;
+    }
+}
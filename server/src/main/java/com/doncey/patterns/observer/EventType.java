@@ -0,0 +1,45 @@
+package com.doncey.patterns.observer;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Tipos de evento del juego (uno por método de GameObserver)
+ *
+ * Al suscribirse, un observador elige cuáles recibe; el publisher
+ * combina las elecciones en una máscara de bits.
+ */
+public enum EventType {
+    FRUIT_SPAWNED,
+    FRUIT_REMOVED,
+    PLAYER_CONNECTED,
+    PLAYER_DISCONNECTED;
+
+    /**
+     * Bit del tipo en una máscara
+     */
+    int bit() {
+        return 1 << ordinal();
+    }
+
+    /**
+     * Máscara con los tipos de un conjunto
+     *
+     * @param types Tipos (vacío: ninguno)
+     * @return Máscara de bits
+     */
+    static int mask(Set<EventType> types) {
+        int mask = 0;
+        for (EventType type : types) {
+            mask |= type.bit();
+        }
+        return mask;
+    }
+
+    /**
+     * Todos los tipos (lo que recibe subscribe() sin filtro)
+     */
+    public static Set<EventType> all() {
+        return EnumSet.allOf(EventType.class);
+    }
+}
@@ -0,0 +1,39 @@
+package com.doncey.patterns.observer;
+
+/**
+ * Celda reutilizable del bus de eventos
+ *
+ * Se crean todas al armar el EventRing y los productores sólo
+ * sobrescriben sus campos, así que publicar no reserva memoria.
+ */
+final class GameEvent {
+
+    static final int TICK_END_BIT = 1 << EventType.values().length; // Marca de fin de tick en las máscaras
+
+    EventType type; // null en una marca de fin de tick
+    int id; // Fruta o jugador, según el tipo
+    String fruitType; // Sólo FRUIT_SPAWNED
+    int x;
+    int y;
+    int points;
+    long tick; // Sólo en la marca de fin de tick
+
+    /**
+     * Bit del evento en una máscara de suscripción
+     */
+    int bit() {
+        return type == null ? TICK_END_BIT : type.bit();
+    }
+
+    /**
+     * Entrega el evento al método correspondiente del observador
+     */
+    void dispatch(GameObserver observer) {
+        switch (type) {
+            case FRUIT_SPAWNED -> observer.onFruitSpawned(id, fruitType, x, y, points);
+            case FRUIT_REMOVED -> observer.onFruitRemoved(id);
+            case PLAYER_CONNECTED -> observer.onPlayerConnected(id);
+            case PLAYER_DISCONNECTED -> observer.onPlayerDisconnected(id);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.doncey.patterns.observer;
+
+/**
+ * Observador que recibe los eventos de a lotes
+ *
+ * En lugar de una llamada por evento recibe una por tick de la sala,
+ * con todos los eventos de ese tick (pensado para destinos con costo
+ * fijo por escritura, como un archivo). Se suscribe con
+ * GameEventPublisher.subscribe(GameEventBatchObserver, Set).
+ */
+public interface GameEventBatchObserver {
+
+    /**
+     * Se llama con los eventos de un tick (nunca con un lote vacío)
+     *
+     * El lote sólo es válido durante la llamada: sus celdas se
+     * reutilizan después.
+     *
+     * @param batch Eventos en orden de publicación
+     */
+    void onEvents(EventBatch batch);
+}
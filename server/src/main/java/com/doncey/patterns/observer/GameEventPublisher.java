@@ -1,7 +1,19 @@
 package com.doncey.patterns.observer;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import com.doncey.utils.log.LogCategory;
+import com.doncey.utils.log.ServerLog;
+import com.doncey.utils.metrics.Counter;
+import com.doncey.utils.metrics.LatencyHistogram;
+import com.doncey.utils.metrics.MetricsRegistry;
 
 /**
  * @brief Subject del patrón Observer
@@ -9,11 +21,43 @@ import java.util.concurrent.CopyOnWriteArrayList;
  * Mantiene una lista de observadores y notifica a todos cuando ocurren
  * eventos importantes del juego.
  * 
- * Implementa Singleton para asegurar una única instancia en todo el servidor.
+ * getInstance() es el publisher de la sala por defecto (lobby), al que
+ * se suscribe la GUI; cada sala adicional crea el suyo.
+ * 
+ * Las notificaciones son asíncronas: notify*() escribe el evento en un
+ * EventRing (celdas reservadas de antemano) y vuelve enseguida, sin
+ * locks ni memoria nueva, así que se puede llamar desde el game loop.
+ * Cada observador tiene su propio thread ("GameEvents-Nombre") que lee
+ * el anillo a su ritmo, en orden. Si un observador se atrasa una vuelta
+ * entera, los eventos nuevos se descartan y se cuentan.
+ * 
+ * Cada observador elige qué tipos de evento recibe (EventType) y si los
+ * recibe de a uno (GameObserver) o en un lote por tick
+ * (GameEventBatchObserver).
+ * 
+ * En MetricsRegistry quedan, para todas las salas, el tiempo de cada
+ * entrega a un observador ("events.dispatch", un evento o un lote) y
+ * los eventos descartados. Por cada tipo de observador hay además dos
+ * gauges: "events.lag.Nombre" (el mayor atraso entre las salas) y
+ * "events.dropped.Nombre" (descartes de las salas donde escucha).
  */
 public class GameEventPublisher {
     
+    private static final int RING_CAPACITY = 4096; // Eventos pendientes por sala
+    private static final int MAX_BATCH = RING_CAPACITY / 4; // Eventos por lote como máximo
+    
+    private static final LatencyHistogram DISPATCH_TIME = MetricsRegistry.getInstance().histogram("events.dispatch");
+    private static final Counter DROPPED_EVENTS = MetricsRegistry.getInstance().counter("events.dropped");
+    
+    private static final CopyOnWriteArrayList<GameEventPublisher> ACTIVE = new CopyOnWriteArrayList<>(); // Publishers con observadores (los leen los gauges)
+    private static final Set<String> GAUGED = ConcurrentHashMap.newKeySet(); // Tipos de observador con gauges registrados
+    
     private static GameEventPublisher instance = null;
+    private static volatile WaitStrategy waitStrategy = WaitStrategy.PARK; // Espera de los threads observadores
+    
+    private final EventRing ring = new EventRing(RING_CAPACITY);
+    private final AtomicLong dropped = new AtomicLong(); // Eventos descartados por anillo lleno
+    private volatile int wanted = 0; // Unión de las máscaras de los observadores
     
     /**
      * Lista thread-safe de observadores
@@ -23,14 +67,105 @@ public class GameEventPublisher {
      * - Las notificaciones son frecuentes
      * - No necesita locks explícitos
      */
-    private final List<GameObserver> observers = new CopyOnWriteArrayList<>();
+    private final List<Subscriber> observers = new CopyOnWriteArrayList<>();
     
-    private GameEventPublisher() { }
+    /**
+     * Observador suscripto con su thread y su posición en el anillo
+     * 
+     * Lee por delante de su Cursor: los eventos de un lote quedan
+     * retenidos en el anillo hasta entregarlo.
+     */
+    private final class Subscriber implements Runnable {
+        final Object owner; // GameObserver o GameEventBatchObserver
+        final GameObserver observer; // null si recibe lotes
+        final GameEventBatchObserver batchObserver; // null si recibe de a uno
+        final int mask; // Tipos que recibe (más TICK_END_BIT si recibe lotes)
+        final EventBatch batch;
+        final EventRing.Cursor cursor = ring.addCursor();
+        final Thread thread;
+        volatile boolean running = true;
+        
+        Subscriber(Object owner, GameObserver observer, GameEventBatchObserver batchObserver, int mask) {
+            this.owner = owner;
+            this.observer = observer;
+            this.batchObserver = batchObserver;
+            this.mask = mask;
+            this.batch = batchObserver != null ? new EventBatch(ring) : null;
+            this.thread = new Thread(this, "GameEvents-" + owner.getClass().getSimpleName());
+            thread.setDaemon(true);
+        }
+        
+        @Override
+        public void run() {
+            long next = cursor.next();
+            int idle = 0;
+            while (running) {
+                GameEvent event = ring.get(next);
+                if (event == null) {
+                    waitStrategy.idle(idle++);
+                    continue;
+                }
+                idle = 0;
+                long sequence = next++;
+                boolean wanted = (event.bit() & mask) != 0;
+                
+                if (batch == null) {
+                    if (wanted) deliver(event);
+                    ring.advance(cursor, next);
+                } else if (event.type == null) {
+                    if (batch.size() > 0) deliver(event.tick, next);
+                    else ring.advance(cursor, next);
+                } else {
+                    if (wanted) batch.add(sequence);
+                    if (batch.size() >= MAX_BATCH) deliver(-1, next); // No retener medio anillo
+                    else if (batch.size() == 0) ring.advance(cursor, next);
+                }
+            }
+        }
+        
+        private void deliver(GameEvent event) {
+            long start = System.nanoTime();
+            try {
+                event.dispatch(observer);
+            } catch (RuntimeException e) {
+                // Un observador roto no debe frenar al resto ni perder su thread
+                ServerLog.error(LogCategory.GAME, "[OBSERVER] " + owner.getClass().getSimpleName()
+                    + " falló con " + event.type + ": " + e);
+            }
+            DISPATCH_TIME.recordSince(start);
+        }
+        
+        // Entrega el lote y libera sus celdas (y las salteadas en el medio)
+        private void deliver(long tick, long next) {
+            batch.seal(tick);
+            long start = System.nanoTime();
+            try {
+                batchObserver.onEvents(batch);
+            } catch (RuntimeException e) {
+                ServerLog.error(LogCategory.GAME, "[OBSERVER] " + owner.getClass().getSimpleName()
+                    + " falló con un lote de " + batch.size() + " eventos: " + e);
+            }
+            DISPATCH_TIME.recordSince(start);
+            batch.clear();
+            ring.advance(cursor, next);
+        }
+        
+        void stop() {
+            running = false;
+            ring.removeCursor(cursor);
+            LockSupport.unpark(thread);
+        }
+    }
+    
+    /**
+     * Crea un publisher sin observadores (uno por sala)
+     */
+    public GameEventPublisher() { }
     
     /**
-     * Obtiene la instancia única del publisher (Singleton)
+     * Obtiene el publisher de la sala por defecto
      * 
-     * @return La instancia única de GameEventPublisher
+     * @return La instancia compartida de GameEventPublisher
      */
     public static synchronized GameEventPublisher getInstance() {
         if (instance == null) {
@@ -40,29 +175,152 @@ public class GameEventPublisher {
     }
     
     /**
-     * Registra un observador para recibir notificaciones
+     * Cambia cómo esperan eventos los threads de todos los observadores
+     * 
+     * @param strategy Estrategia (se aplica desde la próxima espera)
+     */
+    public static void setWaitStrategy(WaitStrategy strategy) {
+        waitStrategy = strategy;
+    }
+    
+    /**
+     * Registra un observador para recibir todas las notificaciones
+     * 
+     * Recibe los eventos publicados a partir de este momento.
      * 
      * @param observer El observador a registrar
      */
-    public synchronized void subscribe(GameObserver observer) {
-        if (observer != null && !observers.contains(observer)) {
-            observers.add(observer);
-            System.out.println("[OBSERVER] Se registró: " + observer.getClass().getSimpleName());
+    public void subscribe(GameObserver observer) {
+        subscribe(observer, EventType.all());
+    }
+    
+    /**
+     * Registra un observador para algunos tipos de evento
+     * 
+     * Los eventos de otros tipos no le llegan; si ningún observador
+     * quiere un tipo, ni siquiera se publica.
+     * 
+     * @param observer El observador a registrar
+     * @param types Tipos que recibe
+     */
+    public void subscribe(GameObserver observer, Set<EventType> types) {
+        if (observer != null) add(new Subscriber(observer, observer, null, EventType.mask(types)));
+    }
+    
+    /**
+     * Registra un observador que recibe los eventos de a lotes, uno por
+     * tick de la sala (o antes, si el lote llega a MAX_BATCH eventos)
+     * 
+     * @param observer El observador a registrar
+     * @param types Tipos que recibe
+     */
+    public void subscribe(GameEventBatchObserver observer, Set<EventType> types) {
+        if (observer != null) {
+            add(new Subscriber(observer, null, observer, EventType.mask(types) | GameEvent.TICK_END_BIT));
+        }
+    }
+    
+    private synchronized void add(Subscriber subscriber) {
+        if (find(subscriber.owner) != null) {
+            subscriber.stop(); // Ya estaba suscripto: descartar el cursor nuevo
+            return;
         }
+        observers.add(subscriber);
+        wanted |= subscriber.mask;
+        ACTIVE.addIfAbsent(this);
+        registerGauges(nameOf(subscriber.owner));
+        subscriber.thread.start();
+        ServerLog.info(LogCategory.GAME, "[OBSERVER] Se registró: " + subscriber.owner.getClass().getSimpleName());
     }
     
     /**
-     * Desregistra un observador
+     * Desregistra un observador (de cualquiera de los dos tipos)
+     * 
+     * Los eventos que todavía no leyó se descartan.
      * 
      * @param observer El observador a remover
      */
-    public synchronized void unsubscribe(GameObserver observer) {
-        if (observer != null) {
-            observers.remove(observer);
-            System.out.println("[OBSERVER] Se desregistró: " + observer.getClass().getSimpleName());
+    public synchronized void unsubscribe(Object observer) {
+        Subscriber subscriber = find(observer);
+        if (subscriber != null) {
+            observers.remove(subscriber);
+            subscriber.stop();
+            int mask = 0;
+            for (Subscriber remaining : observers) {
+                mask |= remaining.mask;
+            }
+            wanted = mask;
+            if (observers.isEmpty()) ACTIVE.remove(this);
+            ServerLog.info(LogCategory.GAME, "[OBSERVER] Se desregistró: " + observer.getClass().getSimpleName());
+        }
+    }
+    
+    private Subscriber find(Object observer) {
+        for (Subscriber subscriber : observers) {
+            if (subscriber.owner == observer) return subscriber;
         }
+        return null;
     }
     
+    // ======== MÉTRICAS ========
+    
+    /**
+     * Eventos publicados que cada observador todavía no procesó
+     * 
+     * @return Atraso por observador, en orden de suscripción
+     */
+    public Map<Object, Long> getLags() {
+        Map<Object, Long> lags = new LinkedHashMap<>();
+        for (Subscriber subscriber : observers) {
+            lags.put(subscriber.owner, ring.lag(subscriber.cursor));
+        }
+        return lags;
+    }
+    
+    /**
+     * Cantidad de eventos descartados porque algún observador estaba
+     * una vuelta entera atrasado
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+    
+    // Gauges de un tipo de observador (una vez por nombre; siguen en 0 si se van todos)
+    private static void registerGauges(String name) {
+        if (!GAUGED.add(name)) return;
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        metrics.gauge("events.lag." + name, () -> {
+            long max = 0;
+            for (GameEventPublisher publisher : ACTIVE) {
+                for (Map.Entry<Object, Long> lag : publisher.getLags().entrySet()) {
+                    if (nameOf(lag.getKey()).equals(name)) max = Math.max(max, lag.getValue());
+                }
+            }
+            return max;
+        });
+        metrics.gauge("events.dropped." + name, () -> {
+            long total = 0;
+            for (GameEventPublisher publisher : ACTIVE) {
+                for (Object owner : publisher.getLags().keySet()) {
+                    if (nameOf(owner).equals(name)) {
+                        total += publisher.getDroppedCount();
+                        break;
+                    }
+                }
+            }
+            return total;
+        });
+    }
+    
+    // Nombre válido para un gauge (las clases anónimas y lambdas no tienen uno limpio)
+    private static String nameOf(Object observer) {
+        String name = observer.getClass().getSimpleName();
+        if (name.isEmpty()) name = "anonymous";
+        return name.replaceAll("[^A-Za-z0-9_]", "_");
+    }
+    
+    // ======== NOTIFICACIONES ========
+    
     /**
      * Notifica a todos los observadores que una fruta fue creada
      * 
@@ -73,9 +331,7 @@ public class GameEventPublisher {
      * @param points Puntos que otorga
      */
     public void notifyFruitSpawned(int fruitId, String type, int x, int y, int points) {
-        for (GameObserver observer : observers) {
-            observer.onFruitSpawned(fruitId, type, x, y, points);
-        }
+        publish(EventType.FRUIT_SPAWNED, fruitId, type, x, y, points);
     }
     
     /**
@@ -84,9 +340,7 @@ public class GameEventPublisher {
      * @param fruitId ID de la fruta eliminada
      */
     public void notifyFruitRemoved(int fruitId) {
-        for (GameObserver observer : observers) {
-            observer.onFruitRemoved(fruitId);
-        }
+        publish(EventType.FRUIT_REMOVED, fruitId, null, 0, 0, 0);
     }
     
     /**
@@ -95,9 +349,7 @@ public class GameEventPublisher {
      * @param playerId ID del jugador conectado
      */
     public void notifyPlayerConnected(int playerId) {
-        for (GameObserver observer : observers) {
-            observer.onPlayerConnected(playerId);
-        }
+        publish(EventType.PLAYER_CONNECTED, playerId, null, 0, 0, 0);
     }
     
     /**
@@ -106,8 +358,28 @@ public class GameEventPublisher {
      * @param playerId ID del jugador desconectado
      */
     public void notifyPlayerDisconnected(int playerId) {
-        for (GameObserver observer : observers) {
-            observer.onPlayerDisconnected(playerId);
+        publish(EventType.PLAYER_DISCONNECTED, playerId, null, 0, 0, 0);
+    }
+    
+    /**
+     * Cierra el tick de la sala: los observadores de lotes reciben lo
+     * acumulado (lo llama el game loop al final de cada tick)
+     * 
+     * @param tick Número de tick
+     */
+    public void notifyTickEnd(long tick) {
+        if ((wanted & GameEvent.TICK_END_BIT) == 0) return;
+        if (!ring.publish(null, 0, null, 0, 0, 0, tick)) {
+            dropped.incrementAndGet();
+            DROPPED_EVENTS.increment();
+        }
+    }
+    
+    private void publish(EventType type, int id, String fruitType, int x, int y, int points) {
+        if ((wanted & type.bit()) == 0) return; // Nadie lo pidió
+        if (!ring.publish(type, id, fruitType, x, y, points, 0)) {
+            dropped.incrementAndGet();
+            DROPPED_EVENTS.increment();
         }
     }
-}
\ No newline at end of file
+}
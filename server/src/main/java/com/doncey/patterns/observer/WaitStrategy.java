@@ -0,0 +1,58 @@
+package com.doncey.patterns.observer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Cómo espera el thread de un observador cuando no hay eventos nuevos
+ *
+ * - SPIN: Thread.onSpinWait() (menor latencia, ocupa un núcleo entero)
+ * - YIELD: cede el procesador en cada vuelta
+ * - PARK: duerme de a poco, hasta PARK_MAX_NANOS entre consultas
+ *
+ * Ninguna estrategia le pide nada al productor: publicar un evento
+ * nunca despierta threads ni toma locks.
+ */
+public enum WaitStrategy {
+    SPIN,
+    YIELD,
+    PARK;
+
+    private static final int SPIN_TRIES = 100; // Vueltas antes de empezar a dormir (PARK)
+    private static final long PARK_MAX_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * Espera una vuelta
+     *
+     * @param idle Vueltas seguidas sin eventos (0 en la primera)
+     */
+    void idle(int idle) {
+        switch (this) {
+            case SPIN -> Thread.onSpinWait();
+            case YIELD -> Thread.yield();
+            case PARK -> {
+                if (idle < SPIN_TRIES) {
+                    Thread.onSpinWait();
+                } else {
+                    // Espera creciente: 1 µs, 2 µs, ... hasta PARK_MAX_NANOS
+                    LockSupport.parkNanos(Math.min(PARK_MAX_NANOS, 1000L << Math.min(20, idle - SPIN_TRIES)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Convierte un texto de línea de comandos en una estrategia
+     *
+     * @param value Texto (spin, yield, park)
+     * @return Estrategia correspondiente
+     * @throws IllegalArgumentException si la estrategia no existe
+     */
+    public static WaitStrategy parse(String value) {
+        String normalized = value.trim();
+        for (WaitStrategy strategy : values()) {
+            if (strategy.name().equalsIgnoreCase(normalized)) return strategy;
+        }
+        throw new IllegalArgumentException("Estrategia de espera inválida: " + value);
+    }
+}
@@ -0,0 +1,98 @@
+package com.doncey.server;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.doncey.utils.metrics.Counter;
+import com.doncey.utils.metrics.LatencyHistogram;
+import com.doncey.utils.metrics.MetricsRegistry;
+
+/**
+ * Estadísticas de los broadcasts de GameWorld
+ *
+ * Cuenta broadcasts, destinatarios, bytes codificados y bytes encolados
+ * hacia los clientes (el ancho de banda de salida), y mide los bytes
+ * que reserva (allocation) el thread que hace el reparto. Como cada
+ * mensaje se codifica una sola vez, los bytes reservados por broadcast
+ * no deberían crecer con la cantidad de clientes.
+ *
+ * Las de todas las salas juntas también van a MetricsRegistry:
+ * duración del reparto ("broadcast.fanout") y destinatarios.
+ */
+public class BroadcastStats {
+
+    // Se carga con el primer reparto: java.management cuesta decenas de
+    // ms y no debe demorar la creación del lobby al arrancar
+    private static final class Threads {
+        static final com.sun.management.ThreadMXBean BEAN = threadBean();
+    }
+
+    private static final LatencyHistogram FANOUT_TIME = MetricsRegistry.getInstance().histogram("broadcast.fanout");
+    private static final Counter FANOUT_RECIPIENTS = MetricsRegistry.getInstance().counter("broadcast.recipients");
+
+    private final LongAdder broadcasts = new LongAdder();
+    private final LongAdder recipients = new LongAdder();
+    private final LongAdder bytesEncoded = new LongAdder();
+    private final LongAdder bytesQueued = new LongAdder();
+    private final LongAdder allocatedBytes = new LongAdder();
+
+    /**
+     * Marca el inicio de un reparto
+     *
+     * @return Bytes reservados hasta ahora por el thread actual (o -1)
+     */
+    long begin() {
+        com.sun.management.ThreadMXBean bean = Threads.BEAN;
+        return bean != null ? bean.getCurrentThreadAllocatedBytes() : -1;
+    }
+
+    /**
+     * Registra el fin de un reparto
+     *
+     * @param start Valor devuelto por begin()
+     * @param startNanos System.nanoTime() al empezar el reparto
+     * @param bytes Bytes codificados para este reparto
+     * @param queued Bytes encolados sumando todos los destinatarios
+     * @param count Cantidad de destinatarios
+     */
+    void end(long start, long startNanos, int bytes, long queued, int count) {
+        FANOUT_TIME.recordSince(startNanos);
+        FANOUT_RECIPIENTS.add(count);
+        if (start >= 0) {
+            allocatedBytes.add(Threads.BEAN.getCurrentThreadAllocatedBytes() - start);
+        }
+        broadcasts.increment();
+        recipients.add(count);
+        bytesEncoded.add(bytes);
+        bytesQueued.add(queued);
+    }
+
+    public long getBroadcasts() { return broadcasts.sum(); }
+    public long getRecipients() { return recipients.sum(); }
+    public long getBytesEncoded() { return bytesEncoded.sum(); }
+    public long getBytesQueued() { return bytesQueued.sum(); }
+    public long getAllocatedBytes() { return allocatedBytes.sum(); }
+
+    /**
+     * Promedio de bytes reservados por broadcast (0 si no hay datos)
+     */
+    public double getAllocatedBytesPerBroadcast() {
+        long count = broadcasts.sum();
+        return count == 0 ? 0 : (double) allocatedBytes.sum() / count;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("broadcasts=%d destinatarios=%d bytesCodificados=%d bytesEncolados=%d allocPorBroadcast=%.1fB",
+            getBroadcasts(), getRecipients(), getBytesEncoded(), getBytesQueued(), getAllocatedBytesPerBroadcast());
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported()) {
+            bean.setThreadAllocatedMemoryEnabled(true);
+            return bean;
+        }
+        return null;
+    }
+}
@@ -1,190 +1,158 @@
 package com.doncey.server;
 
-import java.io.BufferedReader;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.PrintWriter;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.Socket;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.nio.ByteBuffer;
 
 import com.doncey.admin.ServerGUI;
-
-// Manejador de clientes
-public class ClientHandler implements Runnable {
+import com.doncey.utils.ServerConfig;
+
+/**
+ * Manejador de clientes sobre sockets bloqueantes
+ *
+ * Cada cliente tiene un lector (el thread que ejecuta al handler) y un
+ * escritor dedicado que vacía la OutboundQueue, ambos bajo un mismo
+ * ConnectionScope:
+ * - run(): escritor en un thread de plataforma (modo BLOCKING)
+ * - runStructured(): pensado para correr en un virtual thread, con el
+ *   escritor también en un virtual thread (modo VIRTUAL)
+ */
+public class ClientHandler extends ClientSession implements Runnable {
 
     private Socket socket; // Socket de conexión con el cliente C
-    private static AtomicInteger clientCounter = new AtomicInteger(0); // Contador estático de clientes
-    private final Integer clientId; // ID único del cliente
-    private ServerGUI serverGUI; // Referencia a la GUI del servidor (puede ser null)
 
-    private PrintWriter out;
-    private BufferedReader in;
+    private static final int READ_BUFFER_SIZE = 8 * 1024;
+
+    private OutputStream out;
+    private InputStream in;
     private volatile boolean running = true;
-    
+
     // Constructor sin GUI (para compatibilidad)
     public ClientHandler(Socket socket) {
-        this.socket = socket;
-        this.clientId = clientCounter.incrementAndGet();
-        this.serverGUI = null;
+        this(socket, null, new ServerConfig());
     }
-    
+
     // Constructor con GUI
     public ClientHandler(Socket socket, ServerGUI serverGUI) {
+        this(socket, serverGUI, new ServerConfig());
+    }
+
+    // Constructor con GUI (puede ser null) y configuración
+    public ClientHandler(Socket socket, ServerGUI serverGUI, ServerConfig config) {
+        super(serverGUI, config);
         this.socket = socket;
-        this.clientId = clientCounter.incrementAndGet();
-        this.serverGUI = serverGUI;
     }
-    
+
     /**
      * Método principal del thread
-     * 
+     *
      * Lee mensajes del cliente C de forma continua y responde.
      * Se ejecuta en un thread separado para cada cliente.
      * El método termina cuando el cliente se desconecta.
      */
     @Override
     public void run() {
-        try {
-            this.in = new BufferedReader(new InputStreamReader(socket.getInputStream())); // Entrada
-            this.out = new PrintWriter(socket.getOutputStream(), true); // Salida
-            
-            log("[Cliente #" + clientId + "]: Conectado desde " + socket.getInetAddress().getHostAddress());
-            
-            // registrar en GameWorld
-            GameWorld.getInstance().registerPlayer(clientId, this);
-            GameWorld.getInstance().registerClient(this);
-
-            // Notificar a la GUI que se conectó un jugador
-            if (serverGUI != null) {
-                serverGUI.notifyPlayerConnected(clientId);
-            }
-
-            // enviar asignación de id al cliente
-            sendMessage("ASSIGN_ID " + clientId);
-
-            String message; // Mensaje del cliente
-            while (running && (message = this.in.readLine()) != null) {
-                if (message == null) break;
-                message = message.trim();
-                if (message.length() == 0) continue;
+        serve(Thread.ofPlatform().daemon(true));
+    }
 
-                log("[Cliente #" + clientId + "]: Recibido ( " + message + " )");
+    /**
+     * Atiende al cliente con el escritor en un virtual thread
+     *
+     * Debe llamarse desde un virtual thread para que el lector tampoco
+     * ocupe un thread de plataforma.
+     */
+    public void runStructured() {
+        serve(Thread.ofVirtual());
+    }
 
-                String response = processMessage(message);
-                // enviar respuesta sólo si hay algo que enviar
-                if (response != null) {
-                    sendMessage(response);
-                    log("[Cliente #" + clientId + "]: Enviado ( " + response + " )");
-                }
+    /**
+     * Lector en el thread actual y escritor en un thread nuevo
+     *
+     * Ambas tareas viven en el mismo ConnectionScope: si cualquiera
+     * falla o el cliente se desconecta, se cierra el socket, se cancela
+     * la otra y cleanup() se ejecuta una única vez.
+     *
+     * @param writerThreads Constructor del thread escritor
+     */
+    private void serve(Thread.Builder writerThreads) {
+        try (ConnectionScope scope = new ConnectionScope("Cliente-" + clientId, writerThreads, this::closeTransport)) {
+            this.in = socket.getInputStream(); // Entrada (el framing lo hace ClientSession)
+            this.out = new BufferedOutputStream(socket.getOutputStream(), 8 * 1024); // Salida (flush manual)
+
+            scope.fork("writer", this::writeLoop);
+            onConnected(socket.getInetAddress().getHostAddress());
+            scope.run(this::readLoop);
+            scope.join();
+
+            if (scope.failure() != null) {
+                warn("[Cliente #" + clientId + "]: Error de I/O: " + scope.failure().getMessage());
+            } else {
+                log("[Cliente #" + clientId + "]: Desconectado");
             }
 
-            log("[Cliente #" + clientId + "]: Desconectado");
-
         } catch (IOException e) {
-            log("[Cliente #" + clientId + "]: Error de I/O: " + e.getMessage());
+            warn("[Cliente #" + clientId + "]: Error de I/O: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         } finally {
             // cleanup garantizado
             cleanup();
         }
     }
-    
-    /**
-     * Procesa un mensaje recibido del cliente
-     *
-     * @param message Mensaje recibido
-     * @return Respuesta a enviar al cliente (o null si no corresponde enviar respuesta)
-     */
-    private String processMessage(String message) {
-        // Mensajes de movimiento: MOVE_LEFT, MOVE_RIGHT, STOP_MOVING
-        try {
-            if (message.startsWith("MOVE_LEFT") || message.startsWith("MOVE_RIGHT") || message.startsWith("STOP_MOVING") || message.startsWith("JUMP")) {
-                GameWorld.getInstance().processPlayerCommand(clientId, message);
-                return null; // No responder, el servidor broadcast la posición
-            }
-            
-            if (message.startsWith("EAT_FRUIT")) {
-                String[] parts = message.split("\\s+");
-                if (parts.length >= 3) {
-                    int cid = Integer.parseInt(parts[1]);
-                    int fid = Integer.parseInt(parts[2]);
-
-                    Fruit f = GameWorld.getInstance().getFruit(fid);
-                    if (f != null) {
-                        // remueve fruta del mundo -> broadcast REMOVE_FRUIT
-                        boolean removed = GameWorld.getInstance().removeFruit(fid);
-                        if (removed) {
-                            if (serverGUI != null) {
-                                serverGUI.removeFruitFromList(fid);
-                            }
-
-                            // broadcast de puntaje
-                            GameWorld.getInstance().broadcast(
-                                String.format("PLAYER_SCORE %d %d", cid, f.getPoints())
-                            );
-
-                            return "EAT_OK " + fid + " " + f.getPoints();
-                        } else {
-                            return "EAT_FAIL " + fid;
-                        }
-                    } else {
-                        return "EAT_FAIL " + fid;
-                    }
-                } else {
-                    return "ERROR invalid EAT_FRUIT";
-                }
-            }
-        } catch (Exception ex) {
-            return "ERROR " + ex.getMessage();
+
+    // Tarea lectora: procesa mensajes hasta que el cliente cierre
+    private void readLoop() throws IOException {
+        byte[] buffer = new byte[READ_BUFFER_SIZE];
+        ByteBuffer view = ByteBuffer.wrap(buffer);
+        int read;
+        while (running && (read = in.read(buffer)) >= 0) {
+            view.clear().limit(read);
+            onBytes(view);
         }
-        return null; // nada que responder
     }
 
-    public synchronized void sendMessage(String msg) {
-        // asegurar que out esté inicializado
-        if (out != null) {
-            out.println(msg);
-        } else {
-            // fallback: intentar escribir directamente al socket (opcional)
-            try {
-                if (socket != null && !socket.isClosed()) {
-                    PrintWriter p = new PrintWriter(socket.getOutputStream(), true);
-                    p.println(msg);
+    // Tarea escritora: vacía la cola de salida hacia el socket
+    private void writeLoop() throws InterruptedException, IOException {
+        while (running) {
+            OutboundFrame frame = outbound.take();
+            // Escribir todo lo que ya esté encolado antes de hacer flush
+            do {
+                try {
+                    frame.writeTo(out);
+                } finally {
+                    frame.release();
                 }
-            } catch (IOException ignored) {}
+            } while ((frame = outbound.poll()) != null);
+            out.flush();
         }
     }
 
-    private void cleanup() {
+    @Override
+    protected void onOutboundReady() {
+        // El escritor está bloqueado en take(): no hace falta avisarle
+    }
+
+    @Override
+    protected void disconnect() {
+        // Cerrar el socket despierta al lector, que completa el cleanup
+        running = false;
         try {
-            running = false;
-            // quitar del GameWorld
-            GameWorld.getInstance().unregisterPlayer(clientId);
-            GameWorld.getInstance().unregisterClient(this);
-            if (serverGUI != null) serverGUI.notifyPlayerDisconnected(clientId);
-            if (in != null) try { in.close(); } catch (IOException ignored) {}
-            if (out != null) out.close();
-            if (socket != null && !socket.isClosed()) socket.close();
-            log("[Cliente #" + clientId + "]: Conexión cerrada");
+            socket.close();
         } catch (IOException ignored) {}
     }
 
-    /**
-     * Envía logs a la consola Y a la GUI (si existe)
-     *
-     * @param message Mensaje de log
-     */
-    private void log(String message) {
-        String timestamp = new SimpleDateFormat("HH:mm:ss").format(new Date());
-        String logMessage = "[" + timestamp + "] > " + message;
-
-        // Imprimir en consola
-        System.out.println(logMessage);
-
-        // Enviar a GUI si existe
-        if (serverGUI != null) {
-            serverGUI.addServerLog(logMessage);
-        }
+    @Override
+    protected void closeTransport() {
+        try {
+            running = false;
+            // Cerrar primero el socket: desbloquea a un lector o escritor
+            // que esté esperando en otro thread y libera el lock del stream
+            if (socket != null && !socket.isClosed()) socket.close();
+            if (in != null) try { in.close(); } catch (IOException ignored) {}
+            if (out != null) try { out.close(); } catch (IOException ignored) {}
+        } catch (IOException ignored) {}
     }
-}
\ No newline at end of file
+}
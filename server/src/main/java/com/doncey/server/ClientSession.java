@@ -0,0 +1,685 @@
+package com.doncey.server;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.doncey.admin.ServerGUI;
+import com.doncey.server.protocol.Command;
+import com.doncey.server.protocol.InboundDecoder;
+import com.doncey.server.protocol.Opcode;
+import com.doncey.server.protocol.ServerMessage;
+import com.doncey.server.protocol.WireFormat;
+import com.doncey.utils.ServerConfig;
+import com.doncey.utils.log.LogCategory;
+import com.doncey.utils.log.LogLevel;
+import com.doncey.utils.log.ServerLog;
+import com.doncey.utils.metrics.Counter;
+import com.doncey.utils.metrics.MetricsRegistry;
+
+/**
+ * Sesión de un cliente conectado, independiente del transporte
+ *
+ * Contiene la lógica de protocolo común (registro en GameWorld,
+ * ASSIGN_ID, procesamiento de comandos y limpieza) para que tanto
+ * el modo bloqueante (ClientHandler) como el modo NIO compartan
+ * exactamente el mismo manejo de MOVE_*, JUMP y EAT_FRUIT.
+ *
+ * Los mensajes salientes nunca se escriben en el thread que los envía:
+ * se encolan en una OutboundQueue acotada que vacía el escritor propio
+ * de cada transporte.
+ *
+ * Cada sesión está en una sala (GameWorld): empieza en el lobby y puede
+ * cambiar con ROOM_CREATE, ROOM_JOIN id y ROOM_LEAVE (vuelve al lobby);
+ * el servidor confirma con ROOM_JOINED id.
+ *
+ * El protocolo empieza en texto; con "HELLO BINARY" el cliente pasa al
+ * protocolo binario (ver protocol.BinaryCodec) en ambas direcciones a
+ * partir del byte siguiente al HELLO y del HELLO_OK respectivamente.
+ */
+public abstract class ClientSession {
+
+    private static AtomicInteger clientCounter = new AtomicInteger(0); // Contador estático de clientes
+
+    // Métricas de red de todas las sesiones (cualquier modo de conexión)
+    private static final Counter MESSAGES_IN = MetricsRegistry.getInstance().counter("net.messages.in");
+    private static final Counter BYTES_IN = MetricsRegistry.getInstance().counter("net.bytes.in");
+    private static final Counter MESSAGES_OUT = MetricsRegistry.getInstance().counter("net.messages.out"); // Encolados
+    private static final Counter BYTES_OUT = MetricsRegistry.getInstance().counter("net.bytes.out"); // Encolados
+    private static final Counter PARSE_ERRORS = MetricsRegistry.getInstance().counter("net.parse_errors");
+    protected final Integer clientId; // ID único del cliente
+    protected ServerGUI serverGUI; // Referencia a la GUI del servidor (puede ser null)
+    private static volatile ServerGUI attachedGUI; // GUI conectada después del arranque (ver GameServer.attachGUI)
+
+    protected final OutboundQueue outbound; // Cola de salida acotada
+    private final AtomicBoolean closed = new AtomicBoolean(false); // Garantiza un único cleanup
+    private final AtomicBoolean overflowLogged = new AtomicBoolean(false); // Evita un log por descarte
+    private volatile boolean snapshots = false; // Negoció WORLD_SNAPSHOT (si no, recibe PLAYER_POS)
+    private volatile boolean deltas = false; // Negoció WORLD_DELTA contra el último tick confirmado
+    private volatile boolean state = false; // Negoció WORLD_STATE al entrar a una sala (si no, un SPAWN_FRUIT por fruta)
+    private volatile long ackedTick = -1; // Último tick confirmado con ACK (-1: ninguno)
+    private volatile Player player; // Jugador de la sesión (asignado en onConnected)
+    private volatile GameWorld world; // Sala actual (asignada en onConnected)
+    private final ReentrantLock roomLock = new ReentrantLock(); // Ordena los cambios de sala con el cleanup (ReentrantLock: se envía con él tomado sin fijar virtual threads)
+    private volatile WireFormat format = WireFormat.TEXT; // Formato de cable (entrada y salida)
+    private final ReentrantLock sendLock = new ReentrantLock(); // Ordena el cambio de formato con los envíos
+    private GameWorld broadcastRoom; // Sala cuyos broadcasts acepta (protegido por sendLock)
+    private final InboundDecoder inbound = new InboundDecoder(new Inbound()); // Framing de entrada
+
+    protected ClientSession(ServerGUI serverGUI, ServerConfig config) {
+        this.clientId = clientCounter.incrementAndGet();
+        this.serverGUI = serverGUI;
+        this.outbound = config.newOutboundQueue();
+    }
+
+    /**
+     * Obtiene el ID único del cliente
+     */
+    public Integer getClientId() {
+        return clientId;
+    }
+
+    /**
+     * Encola un mensaje para el cliente en su formato de cable
+     *
+     * Nunca bloquea salvo con la política BLOCK. Si la cola está llena
+     * y la política pide desconectar, el cliente se desconecta de forma
+     * asíncrona. El mensaje sigue siendo del que llama (que debe hacer
+     * release() al terminar de repartirlo).
+     *
+     * @param msg Mensaje a enviar
+     * @return Bytes encolados (0 si la sesión está cerrada o se rechazó)
+     */
+    public int send(ServerMessage msg) {
+        if (isClosed()) return 0;
+
+        sendLock.lock();
+        try {
+            return enqueue(msg.frame(format));
+        } finally {
+            sendLock.unlock();
+        }
+    }
+
+    /**
+     * Encola un broadcast de una sala
+     *
+     * Las salas reparten sobre una copia de sus clientes, sin monitor:
+     * un broadcast de la sala anterior puede llegar después de que el
+     * cliente se fue. Sólo se encola si la sesión sigue en esa sala,
+     * así nada de la sala vieja aparece después del ROOM_JOINED.
+     *
+     * @param room Sala que reparte
+     * @param msg Mensaje a enviar (sigue siendo del que llama)
+     * @return Bytes encolados (0 si la sesión está cerrada, en otra sala o se rechazó)
+     */
+    int sendFrom(GameWorld room, ServerMessage msg) {
+        if (isClosed()) return 0;
+
+        sendLock.lock();
+        try {
+            if (broadcastRoom != room) return 0;
+            return enqueue(msg.frame(format));
+        } finally {
+            sendLock.unlock();
+        }
+    }
+
+    // Acepta los broadcasts de la sala (GameWorld.registerClient)
+    void joinBroadcasts(GameWorld room) {
+        sendLock.lock();
+        try {
+            broadcastRoom = room;
+        } finally {
+            sendLock.unlock();
+        }
+    }
+
+    // Deja de aceptar los broadcasts de la sala (GameWorld.unregisterClient)
+    void leaveBroadcasts(GameWorld room) {
+        sendLock.lock();
+        try {
+            if (broadcastRoom == room) broadcastRoom = null;
+        } finally {
+            sendLock.unlock();
+        }
+    }
+
+    /**
+     * Encola un frame ya codificado (compartido entre destinatarios)
+     *
+     * Toma su propia referencia del frame; el que llama conserva la suya.
+     *
+     * @param frame Frame a enviar
+     * @return Bytes encolados (0 si se rechazó)
+     */
+    private int enqueue(OutboundFrame frame) {
+        frame.retain();
+        if (!outbound.offer(frame)) {
+            frame.release();
+            warn("[Cliente #" + clientId + "]: Cola de salida llena (" + outbound.getPolicy() + "), desconectando");
+            disconnect();
+            return 0;
+        }
+        if (outbound.getDroppedCount() > 0 && overflowLogged.compareAndSet(false, true)) {
+            warn("[Cliente #" + clientId + "]: Cola de salida llena, descartando mensajes viejos");
+        }
+        MESSAGES_OUT.increment();
+        BYTES_OUT.add(frame.length());
+        onOutboundReady();
+        return frame.length();
+    }
+
+    /**
+     * Avisa al escritor del transporte que hay mensajes en la cola
+     */
+    protected abstract void onOutboundReady();
+
+    /**
+     * Pide cerrar la conexión sin bloquear al thread que llama
+     *
+     * El cleanup lo completa el thread dueño de la conexión.
+     */
+    protected abstract void disconnect();
+
+    /**
+     * Cierra los recursos propios del transporte (socket, streams, canal)
+     */
+    protected abstract void closeTransport();
+
+    /**
+     * Indica si el cliente recibe posiciones en un frame WORLD_SNAPSHOT
+     * por tick en lugar del stream de PLAYER_POS (modo de compatibilidad)
+     */
+    public boolean wantsSnapshots() {
+        return snapshots;
+    }
+
+    /**
+     * Indica si el cliente recibe WORLD_DELTA contra el último tick que
+     * confirmó (con keyframes WORLD_SNAPSHOT periódicos)
+     */
+    public boolean wantsDeltas() {
+        return deltas;
+    }
+
+    /**
+     * Indica si el cliente recibe el estado de la sala en frames
+     * WORLD_STATE al entrar (en lugar de un SPAWN_FRUIT por fruta)
+     */
+    public boolean wantsState() {
+        return state;
+    }
+
+    /**
+     * Último tick confirmado por el cliente con ACK (-1 si ninguno)
+     */
+    public long getAckedTick() {
+        return ackedTick;
+    }
+
+    /**
+     * Toma como confirmado el tick de un WORLD_STATE recién enviado
+     *
+     * @param tick Tick de la foto
+     */
+    void setBaseTick(long tick) {
+        ackedTick = tick;
+    }
+
+    /**
+     * Formato de cable negociado (TEXT por defecto)
+     */
+    public WireFormat getWireFormat() {
+        return format;
+    }
+
+    // ======== MONITOREO ========
+
+    /**
+     * Cantidad de mensajes esperando ser escritos
+     */
+    public int getOutboundDepth() {
+        return outbound.getDepth();
+    }
+
+    /**
+     * Cantidad de mensajes descartados por desborde
+     */
+    public long getOutboundDropped() {
+        return outbound.getDroppedCount();
+    }
+
+    // ======== CICLO DE VIDA ========
+
+    /**
+     * Registra al cliente en el mundo y le envía su ID
+     *
+     * @param remoteAddress Dirección remota (solo para logs)
+     */
+    protected void onConnected(String remoteAddress) {
+        log("[Cliente #" + clientId + "]: Conectado desde " + remoteAddress);
+
+        // registrar en el lobby
+        roomLock.lock();
+        try {
+            enter(RoomManager.getInstance().getLobby());
+        } finally {
+            roomLock.unlock();
+        }
+
+        // Notificar a la GUI que se conectó un jugador
+        ServerGUI gui = gui();
+        if (gui != null) {
+            gui.notifyPlayerConnected(clientId);
+        }
+
+        // enviar asignación de id al cliente
+        ServerMessage assign = ServerMessage.of(Opcode.ASSIGN_ID, clientId);
+        send(assign);
+        assign.release();
+    }
+
+    /**
+     * Procesa los bytes recibidos del cliente (en el thread lector)
+     *
+     * Separa mensajes de texto o frames binarios según el formato
+     * negociado; un fragmento incompleto queda guardado para la
+     * próxima lectura.
+     *
+     * @param bytes Bytes entre position y limit
+     */
+    protected void onBytes(ByteBuffer bytes) {
+        BYTES_IN.add(bytes.remaining());
+        inbound.feed(bytes);
+    }
+
+    /**
+     * Procesa una línea completa recibida del cliente
+     *
+     * @param message Línea recibida (sin salto de línea)
+     */
+    private void onLine(String message) {
+        message = message.trim();
+        if (message.length() == 0) return;
+        MESSAGES_IN.increment();
+
+        if (ServerLog.isEnabled(LogCategory.TRAFFIC, LogLevel.DEBUG)) {
+            ServerLog.debug(LogCategory.TRAFFIC, "[Cliente #" + clientId + "]: Recibido ( " + message + " )");
+        }
+        reply(processMessage(message));
+    }
+
+    /**
+     * Procesa un comando ya decodificado (texto o binario)
+     *
+     * @param command Comando (se reutiliza después de volver)
+     */
+    private void onCommand(Command command) {
+        MESSAGES_IN.increment();
+        if (ServerLog.isEnabled(LogCategory.TRAFFIC, LogLevel.DEBUG)) {
+            ServerLog.debug(LogCategory.TRAFFIC, "[Cliente #" + clientId + "]: Recibido ( " + command + " )");
+        }
+        CommandHandler handler = DISPATCH[command.opcode().code];
+        if (handler != null) handler.handle(this, command);
+    }
+
+    // ======== TABLA DE DESPACHO ========
+
+    /**
+     * Acción asociada a un opcode del cliente
+     */
+    @FunctionalInterface
+    private interface CommandHandler {
+        void handle(ClientSession session, Command command);
+    }
+
+    // Indexada por Opcode.code; los lambdas no capturan nada (una sola instancia cada uno)
+    private static final CommandHandler[] DISPATCH = new CommandHandler[128];
+
+    static {
+        DISPATCH[Opcode.MOVE_LEFT.code] = (s, c) -> s.control(PlayerAction.MOVE_LEFT);
+        DISPATCH[Opcode.MOVE_RIGHT.code] = (s, c) -> s.control(PlayerAction.MOVE_RIGHT);
+        DISPATCH[Opcode.STOP_MOVING.code] = (s, c) -> s.control(PlayerAction.STOP_MOVING);
+        DISPATCH[Opcode.JUMP.code] = (s, c) -> s.control(PlayerAction.JUMP);
+        DISPATCH[Opcode.ACK.code] = (s, c) -> s.ack(c.a());
+
+        DISPATCH[Opcode.EAT_FRUIT.code] = (s, c) -> s.reply(s.eatFruit((int) c.b()));
+        DISPATCH[Opcode.ROOM_CREATE.code] = (s, c) -> s.reply(s.createRoom());
+        DISPATCH[Opcode.ROOM_JOIN.code] = (s, c) -> s.reply(s.joinRoom(RoomManager.getInstance().getRoom((int) c.a())));
+        DISPATCH[Opcode.ROOM_LEAVE.code] = (s, c) -> s.reply(s.joinRoom(RoomManager.getInstance().getLobby()));
+    }
+
+    private void control(PlayerAction action) {
+        Player p = player;
+        GameWorld w = world;
+        if (p != null && w != null) w.processPlayerAction(p, action);
+    }
+
+    // enviar respuesta sólo si hay algo que enviar
+    private void reply(ServerMessage response) {
+        if (response == null) return;
+        send(response);
+        traceSent(response);
+        response.release();
+    }
+
+    /**
+     * Quita al cliente del mundo y cierra el transporte
+     *
+     * Es idempotente: sólo la primera llamada tiene efecto.
+     */
+    protected final void cleanup() {
+        if (!closed.compareAndSet(false, true)) return;
+
+        // quitar de la sala
+        roomLock.lock();
+        try {
+            leave();
+        } finally {
+            roomLock.unlock();
+        }
+        ServerGUI gui = gui();
+        if (gui != null) gui.notifyPlayerDisconnected(clientId);
+        closeTransport();
+        outbound.clear();
+        log("[Cliente #" + clientId + "]: Conexión cerrada");
+    }
+
+    /**
+     * Indica si la sesión ya fue cerrada
+     */
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    // ======== PROTOCOLO ========
+
+    /**
+     * Procesa un mensaje recibido del cliente
+     *
+     * @param message Mensaje recibido
+     * @return Respuesta a enviar al cliente (o null si no corresponde enviar respuesta)
+     */
+    private ServerMessage processMessage(String message) {
+        // Mensajes de movimiento: MOVE_LEFT, MOVE_RIGHT, STOP_MOVING
+        try {
+            if (message.startsWith("MOVE_LEFT") || message.startsWith("MOVE_RIGHT") || message.startsWith("STOP_MOVING") || message.startsWith("JUMP")) {
+                world.processPlayerCommand(clientId, message);
+                return null; // No responder, el servidor broadcast la posición
+            }
+
+            if (message.startsWith("HELLO")) {
+                return processHello(message);
+            }
+
+            if (message.startsWith("EAT_FRUIT")) {
+                String[] parts = message.split("\\s+");
+                if (parts.length >= 3) {
+                    Integer.parseInt(parts[1]); // ID del jugador: se valida el formato pero no se usa
+                    int fid = Integer.parseInt(parts[2]);
+                    return eatFruit(fid);
+                } else {
+                    PARSE_ERRORS.increment();
+                    return ServerMessage.withText(Opcode.ERROR, "invalid EAT_FRUIT");
+                }
+            }
+        } catch (Exception ex) {
+            PARSE_ERRORS.increment();
+            return ServerMessage.withText(Opcode.ERROR, String.valueOf(ex.getMessage()));
+        }
+        return null; // nada que responder
+    }
+
+    /**
+     * Registra el último tick que el cliente aplicó
+     *
+     * Se ignoran ACKs que retroceden o que nombran un tick futuro.
+     *
+     * @param tick Tick confirmado
+     */
+    private void ack(long tick) {
+        if (tick > ackedTick && tick <= world.getTick()) {
+            ackedTick = tick;
+        }
+    }
+
+    /**
+     * Intenta comer una fruta
+     *
+     * El servidor detecta las frutas que toca cada jugador en el tick;
+     * este mensaje es sólo una pista que se valida contra la posición
+     * del jugador de la sesión (el ID que manda el cliente se ignora).
+     *
+     * @param fid ID de la fruta
+     * @return null (EAT_OK lo envía fruitEaten) o EAT_FAIL si la fruta
+     *         ya no existe o el jugador no la toca
+     */
+    private ServerMessage eatFruit(int fid) {
+        Player p = player;
+        GameWorld w = world;
+        Fruit f = w != null ? w.getSnapshot().getFruit(fid) : null;
+        if (p == null || f == null || !w.claimFruit(p, f)) {
+            return ServerMessage.of(Opcode.EAT_FAIL, fid);
+        }
+        return null;
+    }
+
+    /**
+     * Conecta la GUI a todas las sesiones, incluidas las ya abiertas
+     * 
+     * La usan las sesiones creadas sin GUI propia, cuando la GUI termina
+     * de construirse después de que el servidor empezó a aceptar.
+     * 
+     * @param gui GUI del servidor
+     */
+    static void attachGUI(ServerGUI gui) {
+        attachedGUI = gui;
+    }
+
+    // GUI propia de la sesión o, si no tiene, la conectada después
+    private ServerGUI gui() {
+        return serverGUI != null ? serverGUI : attachedGUI;
+    }
+
+    /**
+     * Avisa que el jugador de la sesión se llevó una fruta
+     *
+     * Lo llama la sala (desde el tick o al validar un EAT_FRUIT) después
+     * de quitar la fruta y anunciar el puntaje.
+     *
+     * @param w Sala de la fruta
+     * @param f Fruta recogida
+     */
+    void fruitEaten(GameWorld w, Fruit f) {
+        ServerGUI gui = gui();
+        if (gui != null && w.getRoomId() == RoomManager.LOBBY_ID) {
+            gui.removeFruitFromList(f.getId());
+        }
+        reply(ServerMessage.of(Opcode.EAT_OK, f.getId(), f.getPoints()));
+    }
+
+    // ======== SALAS ========
+
+    /**
+     * Crea una sala y entra en ella
+     *
+     * @return null (ROOM_JOINED lo envía joinRoom) o ERROR si no se pudo crear
+     */
+    private ServerMessage createRoom() {
+        GameWorld created = RoomManager.getInstance().createRoom();
+        if (created == null) return ServerMessage.withText(Opcode.ERROR, "too many rooms");
+        ServerMessage response = joinRoom(created);
+        if (world != created) {
+            RoomManager.getInstance().release(created); // No entró (la sesión se cerró): no dejarla abierta vacía
+        }
+        return response;
+    }
+
+    /**
+     * Pasa el cliente a otra sala
+     *
+     * Deja la sala actual (que se cierra si quedó vacía), confirma con
+     * ROOM_JOINED y entra con un jugador nuevo. El ACK se reinicia
+     * porque cada sala tiene su propio contador de ticks.
+     *
+     * @param target Sala destino (null si no existe)
+     * @return null o ERROR si la sala no existe o ya se cerró
+     */
+    private ServerMessage joinRoom(GameWorld target) {
+        if (target == null) return ServerMessage.withText(Opcode.ERROR, "unknown room");
+        roomLock.lock();
+        try {
+            if (isClosed()) return null;
+            if (target == world) return ServerMessage.of(Opcode.ROOM_JOINED, target.getRoomId());
+            leave();
+            if (!enter(target)) {
+                enter(RoomManager.getInstance().getLobby()); // La sala se cerró mientras tanto
+                return ServerMessage.withText(Opcode.ERROR, "unknown room");
+            }
+        } finally {
+            roomLock.unlock();
+        }
+        return null;
+    }
+
+    // Entra a una sala (con roomLock tomado); false si ya estaba cerrada
+    private boolean enter(GameWorld target) {
+        ackedTick = -1;
+        // registerClient confirma antes de las frutas y sólo si la sala
+        // sigue abierta (la entrada inicial al lobby no se confirma)
+        ServerMessage joined = target.getRoomId() != RoomManager.LOBBY_ID || world != null
+            ? ServerMessage.of(Opcode.ROOM_JOINED, target.getRoomId()) : null;
+        boolean registered = target.registerClient(this, joined);
+        if (joined != null) {
+            if (registered) traceSent(joined);
+            joined.release();
+        }
+        if (!registered) return false;
+        world = target;
+        player = target.registerPlayer(clientId, this);
+        return true;
+    }
+
+    // Deja la sala actual (con roomLock tomado)
+    private void leave() {
+        GameWorld current = world;
+        if (current == null) return;
+        current.unregisterPlayer(clientId);
+        current.unregisterClient(this);
+        player = null;
+        RoomManager.getInstance().release(current);
+    }
+
+    /**
+     * Procesa la negociación de capacidades del cliente
+     *
+     * Formato: "HELLO cap1 cap2 ..." (ej: "HELLO SNAPSHOT BINARY").
+     * Capacidades: SNAPSHOT, DELTA (WORLD_DELTA + ACK) y BINARY.
+     * Las capacidades desconocidas se ignoran. Con BINARY, el HELLO_OK
+     * es el último mensaje de texto: lo que sigue va en binario.
+     *
+     * @param message Mensaje HELLO
+     * @return null (el HELLO_OK se envía acá para ordenarlo con el cambio de formato)
+     */
+    private ServerMessage processHello(String message) {
+        StringBuilder accepted = new StringBuilder();
+        boolean binary = false;
+        boolean resync = false;
+        String[] parts = message.split("\\s+");
+        for (int i = 1; i < parts.length; i++) {
+            switch (parts[i].toUpperCase()) {
+                case "SNAPSHOT":
+                    snapshots = true;
+                    accepted.append(" SNAPSHOT");
+                    break;
+                case "DELTA":
+                    deltas = true;
+                    accepted.append(" DELTA");
+                    break;
+                case "BINARY":
+                    binary = true;
+                    accepted.append(" BINARY");
+                    break;
+                case "STATE":
+                    resync = !state;
+                    state = true;
+                    accepted.append(" STATE");
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        ServerMessage response = ServerMessage.withText(Opcode.HELLO_OK, accepted.toString().trim());
+        sendLock.lock();
+        try {
+            // Ningún broadcast puede colarse entre el HELLO_OK y el cambio de formato
+            send(response);
+            if (binary) format = WireFormat.BINARY;
+        } finally {
+            sendLock.unlock();
+        }
+        traceSent(response);
+        response.release();
+
+        // Ya recibió la sala con SPAWN_FRUIT al conectarse: reemplazarla
+        if (resync) {
+            roomLock.lock();
+            try {
+                GameWorld w = world;
+                if (w != null) w.resyncClient(this);
+            } finally {
+                roomLock.unlock();
+            }
+        }
+        return null;
+    }
+
+    // ======== ENTRADA ========
+
+    /**
+     * Conecta el decodificador de entrada con esta sesión
+     */
+    private final class Inbound implements InboundDecoder.Handler {
+        @Override public WireFormat inboundFormat() { return format; }
+        @Override public void onLine(String line) { ClientSession.this.onLine(line); }
+        @Override public void onCommand(Command command) { ClientSession.this.onCommand(command); }
+        @Override public boolean isClosed() { return ClientSession.this.isClosed(); }
+
+        @Override
+        public void onProtocolError(String reason) {
+            PARSE_ERRORS.increment();
+            warn("[Cliente #" + clientId + "]: " + reason + ", cerrando conexión");
+            disconnect();
+        }
+    }
+
+    // ======== LOGS ========
+
+    /**
+     * Log de la conexión (categoría NET, asíncrono)
+     *
+     * @param message Mensaje de log
+     */
+    protected void log(String message) {
+        ServerLog.info(LogCategory.NET, message);
+    }
+
+    /**
+     * Aviso de la conexión (errores de I/O, colas llenas, protocolo)
+     *
+     * @param message Mensaje de log
+     */
+    protected void warn(String message) {
+        ServerLog.warn(LogCategory.NET, message);
+    }
+
+    // Tráfico saliente: sólo se arma el texto si TRAFFIC está habilitado
+    private void traceSent(ServerMessage response) {
+        if (ServerLog.isEnabled(LogCategory.TRAFFIC, LogLevel.DEBUG)) {
+            ServerLog.debug(LogCategory.TRAFFIC, "[Cliente #" + clientId + "]: Enviado ( " + response + " )");
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.doncey.server;
+
+/**
+ * Modo de manejo de conexiones del servidor
+ *
+ * - BLOCKING: un thread de plataforma por cliente (ClientHandler)
+ * - VIRTUAL: un lector y un escritor por cliente en virtual threads
+ * - NIO: pocos event loops con Selector y canales no bloqueantes
+ */
+public enum ConnectionMode {
+    BLOCKING,
+    VIRTUAL,
+    NIO;
+
+    /**
+     * Convierte un texto de línea de comandos en un modo
+     *
+     * @param value Texto (blocking, virtual, nio)
+     * @return Modo correspondiente
+     * @throws IllegalArgumentException si el modo no existe
+     */
+    public static ConnectionMode parse(String value) {
+        for (ConnectionMode mode : values()) {
+            if (mode.name().equalsIgnoreCase(value.trim())) return mode;
+        }
+        throw new IllegalArgumentException("Modo de conexión inválido: " + value);
+    }
+}
@@ -0,0 +1,118 @@
+package com.doncey.server;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Alcance estructurado para las tareas de una conexión
+ *
+ * Agrupa las tareas de un cliente (lector y escritor). Las tareas
+ * lanzadas con fork() corren en threads creados por el Thread.Builder
+ * recibido (virtual o de plataforma); run() ejecuta una tarea en el
+ * thread actual con las mismas reglas. Cuando cualquiera de ellas
+ * termina, por error o porque el cliente se desconectó, se cancela el
+ * resto: se ejecuta la acción de apagado (cerrar el socket) y se
+ * interrumpen los demás threads. join() espera a que todas terminen.
+ *
+ * Cumple el mismo rol que StructuredTaskScope.ShutdownOnFailure, que en
+ * Java 21 sigue siendo una API preview.
+ */
+public class ConnectionScope implements AutoCloseable {
+
+    /**
+     * Tarea de una conexión; puede lanzar cualquier excepción
+     */
+    @FunctionalInterface
+    public interface Task {
+        void run() throws Exception;
+    }
+
+    private final String name; // Prefijo para los nombres de los threads
+    private final Thread.Builder builder; // Crea los threads de fork()
+    private final Runnable onShutdown; // Desbloquea a las tareas (ej: cerrar socket)
+    private final List<Thread> threads = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean shutdown = new AtomicBoolean(false);
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    /**
+     * Crea el alcance
+     *
+     * @param name Nombre base de los threads
+     * @param builder Constructor de threads (Thread.ofVirtual() o Thread.ofPlatform())
+     * @param onShutdown Acción que desbloquea a las tareas al cancelar
+     */
+    public ConnectionScope(String name, Thread.Builder builder, Runnable onShutdown) {
+        this.name = name;
+        this.builder = builder;
+        this.onShutdown = onShutdown;
+    }
+
+    /**
+     * Lanza una tarea en un nuevo thread
+     *
+     * @param taskName Nombre de la tarea (reader, writer...)
+     * @param task Tarea a ejecutar
+     */
+    public void fork(String taskName, Task task) {
+        Thread thread = builder.name(name + "-" + taskName).unstarted(() -> run(task));
+        threads.add(thread);
+        thread.start();
+        // Si otra tarea ya canceló el alcance, ésta no debe quedar viva
+        if (shutdown.get()) thread.interrupt();
+    }
+
+    /**
+     * Ejecuta una tarea del alcance en el thread actual
+     *
+     * Al terminar (normalmente o con error) cancela el resto de tareas.
+     *
+     * @param task Tarea a ejecutar
+     */
+    public void run(Task task) {
+        try {
+            task.run();
+        } catch (InterruptedException e) {
+            // Cancelada por otra tarea: no es un fallo
+        } catch (Throwable t) {
+            if (!shutdown.get()) failure.compareAndSet(null, t);
+        } finally {
+            shutdown();
+        }
+    }
+
+    /**
+     * Cancela todas las tareas del alcance (sólo la primera vez)
+     */
+    public void shutdown() {
+        if (!shutdown.compareAndSet(false, true)) return;
+        onShutdown.run();
+        for (Thread thread : threads) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * Espera a que terminen todas las tareas
+     *
+     * @throws InterruptedException si el thread que espera es interrumpido
+     */
+    public void join() throws InterruptedException {
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    /**
+     * Obtiene el primer error que provocó el cierre (o null)
+     */
+    public Throwable failure() {
+        return failure.get();
+    }
+
+    @Override
+    public void close() {
+        shutdown();
+    }
+}
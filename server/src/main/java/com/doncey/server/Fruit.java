@@ -1,6 +1,11 @@
 package com.doncey.server;
 
+import java.util.Comparator;
+
 public class Fruit {
+    public static final int SIZE = 32; // Lado de la caja de colisión (px), desde (x, y)
+    static final Comparator<Fruit> BY_ID = Comparator.comparingInt(Fruit::getId);
+
     private final int id;
     private final int x;
     private final int y;
@@ -0,0 +1,158 @@
+package com.doncey.server;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Hash espacial de las frutas activas de una sala
+ *
+ * El plano se divide en celdas de CELL_SIZE y cada celda se asigna a un
+ * balde de una tabla de tamaño fijo (dos celdas pueden compartir balde;
+ * la consulta igual verifica la superposición exacta). Una fruta se
+ * guarda una vez en el balde de cada celda que toca su caja.
+ *
+ * Todo es O(1) por fruta: cada entrada recuerda su posición en cada
+ * balde (el borrado intercambia con la última del balde) y cada
+ * consulta marca las entradas que ya visitó con un número de consulta,
+ * así una fruta que aparece en varios baldes se devuelve una sola vez.
+ *
+ * Se actualiza de forma incremental en spawnFruit/removeFruit (desde
+ * cualquier thread) y lo consulta el game loop una vez por jugador y
+ * por tick; los métodos se ordenan con el monitor del índice.
+ */
+final class FruitIndex {
+
+    private static final int CELL_SIZE = 64; // px
+    private static final int BUCKETS = 1024; // Potencia de 2
+    private static final int SPAN = (Fruit.SIZE - 1) / CELL_SIZE + 2; // Celdas por eje que puede tocar una fruta
+    private static final int MAX_CELLS = SPAN * SPAN;
+
+    /**
+     * Fruta indexada y su lugar en cada balde donde está
+     */
+    private static final class Entry {
+        final Fruit fruit;
+        final int[] buckets = new int[MAX_CELLS]; // Baldes distintos
+        final int[] positions = new int[MAX_CELLS]; // Posición en cada uno
+        int count = 0;
+        long seen = 0; // Última consulta que la visitó
+
+        Entry(Fruit fruit) {
+            this.fruit = fruit;
+        }
+
+        int slotOf(int bucket) {
+            for (int k = 0; k < count; k++) {
+                if (buckets[k] == bucket) return k;
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Entradas de un balde (sin orden; se borra intercambiando con la última)
+     */
+    private static final class Bucket {
+        Entry[] entries = new Entry[2];
+        int count = 0;
+    }
+
+    private final Bucket[] buckets = new Bucket[BUCKETS];
+    private final IntObjectMap<Entry> entries = new IntObjectMap<>(); // Por ID de fruta
+    private long queryEpoch = 0;
+    private int size = 0;
+
+    FruitIndex() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new Bucket();
+        }
+    }
+
+    /**
+     * Agrega una fruta (si ya estaba, no hace nada)
+     */
+    synchronized void add(Fruit f) {
+        if (entries.get(f.getId()) != null) return;
+        Entry entry = new Entry(f);
+        int x0 = cell(f.getX()), x1 = cell(f.getX() + Fruit.SIZE - 1);
+        int y0 = cell(f.getY()), y1 = cell(f.getY() + Fruit.SIZE - 1);
+        for (int cy = y0; cy <= y1; cy++) {
+            for (int cx = x0; cx <= x1; cx++) {
+                int b = bucket(cx, cy);
+                if (entry.slotOf(b) >= 0) continue; // Dos celdas pueden caer en el mismo balde
+                Bucket bucket = buckets[b];
+                if (bucket.count == bucket.entries.length) {
+                    bucket.entries = Arrays.copyOf(bucket.entries, bucket.count * 2);
+                }
+                entry.buckets[entry.count] = b;
+                entry.positions[entry.count] = bucket.count;
+                entry.count++;
+                bucket.entries[bucket.count++] = entry;
+            }
+        }
+        entries.put(f.getId(), entry);
+        size++;
+    }
+
+    /**
+     * Quita una fruta (si no estaba, no hace nada)
+     */
+    synchronized void remove(Fruit f) {
+        Entry entry = entries.remove(f.getId());
+        if (entry == null) return;
+        for (int k = 0; k < entry.count; k++) {
+            int b = entry.buckets[k];
+            Bucket bucket = buckets[b];
+            int position = entry.positions[k];
+            Entry last = bucket.entries[--bucket.count];
+            bucket.entries[position] = last;
+            bucket.entries[bucket.count] = null;
+            if (last != entry) last.positions[last.slotOf(b)] = position;
+        }
+        size--;
+    }
+
+    /**
+     * Busca las frutas que se superponen con una caja
+     *
+     * @param x Borde izquierdo
+     * @param y Borde superior
+     * @param width Ancho
+     * @param height Alto
+     * @param out Lista donde se agregan las frutas encontradas (sin repetir)
+     */
+    synchronized void query(int x, int y, int width, int height, List<Fruit> out) {
+        if (size == 0) return;
+        long epoch = ++queryEpoch;
+        int x0 = cell(x), x1 = cell(x + width - 1);
+        int y0 = cell(y), y1 = cell(y + height - 1);
+        for (int cy = y0; cy <= y1; cy++) {
+            for (int cx = x0; cx <= x1; cx++) {
+                Bucket bucket = buckets[bucket(cx, cy)];
+                for (int i = 0; i < bucket.count; i++) {
+                    Entry entry = bucket.entries[i];
+                    if (entry.seen == epoch) continue; // Ya vista en otro balde
+                    entry.seen = epoch;
+                    if (overlaps(entry.fruit, x, y, width, height)) out.add(entry.fruit);
+                }
+            }
+        }
+    }
+
+    /**
+     * Indica si una fruta se superpone con una caja
+     */
+    static boolean overlaps(Fruit f, int x, int y, int width, int height) {
+        return f.getX() < x + width && f.getX() + Fruit.SIZE > x
+            && f.getY() < y + height && f.getY() + Fruit.SIZE > y;
+    }
+
+    private static int cell(int v) {
+        return Math.floorDiv(v, CELL_SIZE);
+    }
+
+    private static int bucket(int cx, int cy) {
+        int h = cx * 0x9E3779B1 + cy * 0x85EBCA77;
+        return (h ^ (h >>> 16)) & (BUCKETS - 1);
+    }
+}
@@ -0,0 +1,151 @@
+package com.doncey.server;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import com.doncey.utils.log.LogCategory;
+import com.doncey.utils.log.ServerLog;
+import com.doncey.utils.metrics.Counter;
+import com.doncey.utils.metrics.LatencyHistogram;
+import com.doncey.utils.metrics.MetricsRegistry;
+
+/**
+ * Game loop de paso fijo basado en System.nanoTime()
+ *
+ * El tiempo transcurrido se acumula y se consume en pasos exactos de
+ * un tick, así la simulación avanza siempre al mismo ritmo aunque
+ * algún tick se atrase:
+ * - Si hay atraso, se ejecutan hasta MAX_CATCH_UP ticks seguidos.
+ * - Si el atraso es mayor, el resto se descarta (y se cuenta) para no
+ *   entrar en una espiral de ticks atrasados.
+ *
+ * La espera hasta el próximo tick es híbrida: parkNanos() hasta poco
+ * antes del instante programado y espera activa el último tramo, para
+ * no depender de la granularidad del sleep del sistema operativo.
+ *
+ * Además de TickStats, publica en MetricsRegistry la duración de cada
+ * tick ("gameloop.tick"), los overruns y los ticks descartados.
+ */
+public class GameLoop implements Runnable {
+
+    private static final int MAX_CATCH_UP = 5; // Ticks seguidos como máximo por despertar
+    private static final long SPIN_NANOS = TimeUnit.MICROSECONDS.toNanos(500); // Tramo final en espera activa
+    private static final long OVERRUN_LOG_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Runnable tick; // Trabajo de un tick (ej: RoomManager.dispatchTick)
+    private final long tickNanos;
+    private final TickStats stats;
+    private final LatencyHistogram tickTime = MetricsRegistry.getInstance().histogram("gameloop.tick");
+    private final Counter overruns = MetricsRegistry.getInstance().counter("gameloop.overruns");
+    private final Counter skippedTicks = MetricsRegistry.getInstance().counter("gameloop.skipped");
+    private volatile boolean running = true;
+
+    private long lastOverrunLog = 0; // Para no loguear cada overrun
+
+    /**
+     * Crea el game loop
+     *
+     * @param tick Trabajo a ejecutar en cada tick
+     * @param tickMillis Duración de un tick en milisegundos
+     */
+    public GameLoop(Runnable tick, long tickMillis) {
+        this.tick = tick;
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.stats = new TickStats(tickNanos);
+    }
+
+    @Override
+    public void run() {
+        long previous = System.nanoTime();
+        long accumulator = tickNanos; // El primer tick corre de inmediato
+        lastOverrunLog = previous - OVERRUN_LOG_INTERVAL_NANOS;
+
+        while (running) {
+            long now = System.nanoTime();
+            accumulator += now - previous;
+            previous = now;
+
+            // Jitter: cuánto tarde despertamos respecto del instante programado
+            stats.recordJitter(accumulator - tickNanos);
+
+            int steps = 0;
+            while (accumulator >= tickNanos && steps < MAX_CATCH_UP && running) {
+                if (steps > 0) stats.recordCatchUp();
+                runTick();
+                accumulator -= tickNanos;
+                steps++;
+            }
+
+            // Atraso mayor al que se puede recuperar: descartar ticks enteros
+            if (accumulator >= tickNanos) {
+                long skipped = accumulator / tickNanos;
+                stats.recordSkipped(skipped);
+                skippedTicks.add(skipped);
+                accumulator -= skipped * tickNanos;
+                ServerLog.warn(LogCategory.SERVER, "[GAMELOOP]: Atraso de " + skipped + " ticks, se descartan");
+            }
+
+            // Esperar hasta que se acumule un tick completo
+            waitUntil(previous + (tickNanos - accumulator));
+        }
+    }
+
+    private void runTick() {
+        long start = System.nanoTime();
+        try {
+            tick.run();
+        } catch (Exception e) {
+            ServerLog.error(LogCategory.SERVER, "[ERROR]: Error en game loop: " + e.getMessage());
+        }
+        long end = System.nanoTime();
+        long duration = end - start;
+        tickTime.record(duration);
+
+        boolean overrun = stats.recordTick(duration);
+        if (overrun) overruns.increment();
+        if (overrun && end - lastOverrunLog >= OVERRUN_LOG_INTERVAL_NANOS) {
+            lastOverrunLog = end;
+            ServerLog.warn(LogCategory.SERVER, "[GAMELOOP]: Tick de " + TimeUnit.NANOSECONDS.toMillis(duration)
+                + "ms excede el presupuesto de " + TimeUnit.NANOSECONDS.toMillis(tickNanos) + "ms (overruns: " + stats.getOverruns() + ")");
+        }
+    }
+
+    /**
+     * Espera hasta un instante de System.nanoTime()
+     *
+     * Duerme con parkNanos() hasta SPIN_NANOS antes y hace espera
+     * activa el resto.
+     */
+    private void waitUntil(long deadline) {
+        while (running) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) return;
+            if (remaining > SPIN_NANOS) {
+                LockSupport.parkNanos(remaining - SPIN_NANOS);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    /**
+     * Detiene el loop después del tick en curso
+     */
+    public void stop() {
+        running = false;
+    }
+
+    /**
+     * Estadísticas de duración, jitter y overruns
+     */
+    public TickStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Duración de un tick en nanosegundos
+     */
+    public long getTickNanos() {
+        return tickNanos;
+    }
+}
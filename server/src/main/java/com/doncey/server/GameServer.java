@@ -1,60 +1,99 @@
 package com.doncey.server;
 
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
 import java.net.ServerSocket;
 import java.net.Socket;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.util.EnumSet;
 
 import com.doncey.admin.ServerGUI;
+import com.doncey.patterns.observer.GameEventPublisher;
+import com.doncey.server.http.AdminHttpServer;
+import com.doncey.server.nio.NioServer;
 import com.doncey.utils.Constants;
+import com.doncey.utils.ServerConfig;
+import com.doncey.utils.log.FileSink;
+import com.doncey.utils.log.LogCategory;
+import com.doncey.utils.log.ServerLog;
+import com.doncey.utils.metrics.MetricsRegistry;
 
 /**
  * El servidor escucha en un puerto específico y acepta conexiones
- * de clientes C. Cada cliente es manejado en un thread separado
- * por una instancia de ClientHandler.
+ * de clientes C. Según el modo configurado, cada cliente es manejado
+ * en un thread separado por una instancia de ClientHandler (BLOCKING),
+ * en virtual threads por ClientHandler (VIRTUAL) o por los event loops
+ * de NioServer (NIO).
  * 
- * También ejecuta un game loop para actualizar la lógica del juego
+ * También ejecuta el reloj del game loop, que reparte un tick por período
+ * de cada sala (ver RoomManager) a un pool de workers
  */
-public class GameServer {
+public final class GameServer {
 
-    private ServerSocket serverSocket; // Socket del servidor
+    private ServerSocket serverSocket; // Socket del servidor (modo BLOCKING)
+    private NioServer nioServer; // Servidor NIO (modo NIO)
+    private volatile AdminHttpServer adminServer; // API HTTP de administración (null si --admin-port no está)
+    private final ServerConfig config; // Configuración de arranque
     private Integer clientCounter = 0; // Contador de clientes conectados
-    private ServerGUI serverGUI; // Referencia a la GUI del servidor (puede ser null)
+    private volatile ServerGUI serverGUI; // Referencia a la GUI del servidor (null hasta attachGUI)
+    private volatile long readyMillis = -1; // Arranque de la JVM -> listo para aceptar (-1: todavía no)
     
     private Thread gameLoopThread; // Thread del game loop
+    private final GameLoop gameLoop = new GameLoop(() -> RoomManager.getInstance().dispatchTick(), GAME_UPDATE_RATE);
     private volatile boolean running = true; // Flag para detener el servidor
-    private static final int GAME_UPDATE_RATE = 50; // ms (20 FPS)
+    static final int GAME_UPDATE_RATE = 50; // ms (20 FPS)
     
     // Constructor sin GUI (para compatibilidad)
     public GameServer() throws IOException {
-        this.serverSocket = new ServerSocket(Constants.SERVER_PORT);
-        this.serverGUI = null;
+        this(null, new ServerConfig());
     }
     
     // Constructor con GUI
     public GameServer(ServerGUI serverGUI) throws IOException {
-        this.serverSocket = new ServerSocket(Constants.SERVER_PORT);
-        this.serverGUI = serverGUI;
+        this(serverGUI, new ServerConfig());
+    }
+    
+    // Constructor con GUI (puede ser null) y configuración
+    public GameServer(ServerGUI serverGUI, ServerConfig config) throws IOException {
+        this.config = config;
+        configureLogging();
+        registerMetrics();
+        attachGUI(serverGUI);
+        if (config.getConnectionMode() == ConnectionMode.NIO) {
+            this.nioServer = new NioServer(config, serverGUI);
+        } else {
+            this.serverSocket = new ServerSocket(config.getPort());
+        }
     }
     
     /**
      * Inicia el servidor
      * 
      * El servidor escucha de forma continua en el puerto especificado.
-     * Para cada cliente que se conecta, crea un nuevo ClientHandler
-     * y lo ejecuta en un thread separado.
+     * En modo BLOCKING, para cada cliente que se conecta crea un nuevo
+     * ClientHandler y lo ejecuta en un thread separado. En modo NIO
+     * delega en los event loops de NioServer.
      */
     public void start() {
-        log("Servidor iniciado");
-        log("Escuchando en puerto " + Constants.SERVER_PORT);
+        log("Servidor iniciado (modo " + config.getConnectionMode() + ")");
+        log("Escuchando en puerto " + config.getPort());
         log("Esperando conexiones de clientes...");
         
-        // Iniciar game loop
+        // Iniciar workers de salas y reloj del game loop
+        GameWorld.setParallelPhysicsThreshold(config.getParallelPhysicsThreshold());
+        GameEventPublisher.setWaitStrategy(config.getEventWaitStrategy());
+        RoomManager.getInstance().start(config.getRoomWorkers());
         gameLoopThread = new Thread(this::gameLoop);
         gameLoopThread.setName("GameLoopThread");
         gameLoopThread.start();
         
+        if (nioServer != null) {
+            log("Event loops NIO: " + config.getIoThreads());
+            nioServer.run(this::acceptReady);
+            return;
+        }
+        
+        acceptReady();
+        
         // LOOP INFINITO: Aceptar clientes
         while (running) {
             try {
@@ -67,57 +106,129 @@ public class GameServer {
                 }
                 
                 // Log de nueva conexión
-                log("Nuevo cliente conectado (Total: " + clientCounter + ")");
+                ServerLog.info(LogCategory.NET, "Nuevo cliente conectado (Total: " + clientCounter + ")");
                 // Crear ClientHandler para este cliente (pasando ServerGUI)
-                ClientHandler handler = new ClientHandler(clientSocket, serverGUI);
+                ClientHandler handler = new ClientHandler(clientSocket, serverGUI, config);
                 
-                // Ejecutar en un thread separado
-                Thread clientThread = new Thread(handler);
-                clientThread.setName("ClientThread-" + clientCounter);
-                clientThread.start();
+                if (config.getConnectionMode() == ConnectionMode.VIRTUAL) {
+                    // Lector y escritor en virtual threads bajo un mismo scope
+                    Thread.ofVirtual().name("ClientVThread-" + clientCounter).start(handler::runStructured);
+                } else {
+                    // Ejecutar en un thread separado
+                    Thread clientThread = new Thread(handler);
+                    clientThread.setName("ClientThread-" + clientCounter);
+                    clientThread.start();
+                }
                 
             } catch (IOException e) {
                 if (running) {
-                    log("[ERROR]: no se acepto el cliente: " + e.getMessage());
+                    ServerLog.error(LogCategory.NET, "[ERROR]: no se acepto el cliente: " + e.getMessage());
                 }
             }
         }
     }
     
     /**
-     * Game Loop - actualiza la lógica del juego a intervalos regulares
+     * Abre la API HTTP de administración si se pidió con --admin-port
+     * 
+     * Si el puerto no se puede abrir el servidor de juego sigue sin ella.
+     * Arrancar HttpServer cuesta unos 90 ms: se hace después de quedar
+     * listo para aceptar (ver acceptReady).
      */
-    private void gameLoop() {
-        log("Game Loop iniciado (actualización cada " + GAME_UPDATE_RATE + "ms)");
+    private void startAdmin() {
+        if (config.getAdminPort() <= 0) return;
+        try {
+            adminServer = new AdminHttpServer(config.getAdminPort());
+            adminServer.start();
+            log("API de administración en http://127.0.0.1:" + adminServer.getPort() + "/");
+        } catch (IOException e) {
+            ServerLog.error(LogCategory.SERVER, "[ERROR]: No se pudo abrir la API de administración en el puerto "
+                + config.getAdminPort() + ": " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Registra y reporta el tiempo hasta poder aceptar el primer cliente
+     * 
+     * Se mide desde el arranque de la JVM (incluye su inicio y la carga
+     * de clases), no desde main(). Lo que no hace falta para aceptar
+     * (cargar java.management para la cuenta, unos 50 ms, y la API de
+     * administración) sigue en otro thread.
+     */
+    private void acceptReady() {
+        long readyAt = System.currentTimeMillis();
+        Thread startup = new Thread(() -> {
+            readyMillis = readyAt - ManagementFactory.getRuntimeMXBean().getStartTime();
+            log("Listo para aceptar conexiones en " + readyMillis + " ms desde el arranque de la JVM");
+            if (running) startAdmin();
+        });
+        startup.setName("ServerStartup");
+        startup.setDaemon(true);
+        startup.start();
+    }
+    
+    /**
+     * Tiempo desde el arranque de la JVM hasta que el servidor quedó
+     * listo para aceptar conexiones
+     * 
+     * @return Milisegundos o -1 si todavía no está listo
+     */
+    public long getReadyMillis() {
+        return readyMillis;
+    }
+    
+    /**
+     * Conecta la GUI de administración con el servidor ya arrancado
+     * 
+     * Main construye la GUI en paralelo con el servidor y la conecta
+     * cuando termina; desde ese momento recibe los logs y los avisos de
+     * las sesiones (también las abiertas antes). Los jugadores que ya
+     * estaban conectados se agregan a la lista de una vez.
+     * 
+     * @param gui GUI del servidor (null no hace nada)
+     */
+    public synchronized void attachGUI(ServerGUI gui) {
+        if (gui == null || serverGUI != null) return;
+        serverGUI = gui;
+        ClientSession.attachGUI(gui);
+        ServerLog.getInstance().addSink((level, category, line) -> gui.addServerLog(line),
+            EnumSet.of(LogCategory.SERVER, LogCategory.NET, LogCategory.TRAFFIC));
         
-        while (running) {
-            long startTime = System.currentTimeMillis();
-            
-            try {
-                // Actualizar lógica del juego
-                GameWorld.getInstance().updateGameLogic();
-                
-                long elapsedTime = System.currentTimeMillis() - startTime;
-                long sleepTime = GAME_UPDATE_RATE - elapsedTime;
-                
-                if (sleepTime > 0) {
-                    Thread.sleep(sleepTime);
-                }
-                
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
-            } catch (Exception e) {
-                log("[ERROR]: Error en game loop: " + e.getMessage());
+        for (GameWorld room : RoomManager.getInstance().listRooms()) {
+            for (Player p : room.listPlayers()) {
+                gui.notifyPlayerConnected(p.getId());
             }
         }
-        
-        log("Game Loop detenido");
+    }
+    
+    /**
+     * Game Loop - reparte los ticks de las salas a paso fijo (ver GameLoop)
+     */
+    private void gameLoop() {
+        log("Game Loop iniciado (actualización cada " + GAME_UPDATE_RATE + "ms)");
+        gameLoop.run();
+        log("Game Loop detenido (" + gameLoop.getStats() + ")");
+    }
+    
+    /**
+     * Estadísticas del reloj del game loop (reparto de ticks)
+     * 
+     * Las de cada sala están en RoomManager.getTickStats().
+     */
+    public TickStats getTickStats() {
+        return gameLoop.getStats();
     }
     
     // Detiene el servidor
     public void stop() throws IOException {
         running = false;
+        gameLoop.stop();
+        RoomManager.getInstance().stop();
+        if (adminServer != null) adminServer.stop();
+        if (nioServer != null) {
+            nioServer.stop();
+            log("Servidor detenido");
+        }
         if (serverSocket != null && !serverSocket.isClosed()) {
             serverSocket.close();
             log("Servidor detenido");
@@ -125,29 +236,49 @@ public class GameServer {
     }
     
     /**
-     * Envía logs a la consola Y a la GUI (si existe)
+     * Aplica la configuración de logs
+     * 
+     * La GUI se agrega como destino en attachGUI: recibe servidor, red y
+     * tráfico si está habilitado; los eventos de GAME sólo van a consola
+     * y archivo.
+     */
+    private void configureLogging() throws IOException {
+        ServerLog serverLog = ServerLog.getInstance();
+        if (config.getLogLevel() != null) serverLog.setLevel(config.getLogLevel());
+        serverLog.setLevels(config.getLogCategoryLevels());
+        if (config.getLogFile() != null) serverLog.addSink(new FileSink(config.getLogFile()));
+    }
+    
+    /**
+     * Gauges del servidor en MetricsRegistry (se calculan al pedir un snapshot)
+     * 
+     * Los contadores e histogramas los registran GameLoop, RoomManager,
+     * ClientSession, BroadcastStats y GameEventPublisher.
+     */
+    private void registerMetrics() {
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        metrics.gauge("server.ready_ms", this::getReadyMillis);
+        metrics.gauge("server.rooms", () -> RoomManager.getInstance().getRoomCount());
+        metrics.gauge("log.dropped", () -> ServerLog.getInstance().getDroppedCount());
+    }
+    
+    /**
+     * Envía un log del servidor (asíncrono: consola, GUI y archivo)
      */
     private void log(String message) {
-        String timestamp = new SimpleDateFormat("HH:mm:ss").format(new Date());
-        String logMessage = "[" + timestamp + "] > " + message;
-        
-        // Imprimir en consola
-        System.out.println(logMessage);
-        
-        // Enviar a GUI si existe
-        if (serverGUI != null) {
-            serverGUI.addServerLog(logMessage);
-        }
+        ServerLog.info(LogCategory.SERVER, message);
     }
     
     /**
-     * Método principal de inicio del servidor
+     * Método principal de inicio del servidor (sin GUI)
+     * 
+     * Equivale a Main con --headless: nunca carga clases de Swing ni AWT.
      *      
-     * @param args Argumentos de línea de comandos (no usados)
+     * @param args Argumentos de línea de comandos (ver ServerConfig)
      */
     public static void main(String[] args) {
         try {
-            GameServer server = new GameServer();
+            GameServer server = new GameServer(null, ServerConfig.fromArgs(args));
             server.start();
         } catch (IOException e) {
             System.err.println("[ERROR]: No se pudo iniciar el servidor: " + e.getMessage());
@@ -1,64 +1,140 @@
 package com.doncey.server;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 
 import com.doncey.patterns.observer.GameEventPublisher;
 import com.doncey.patterns.factory.FruitFactory;
 import com.doncey.patterns.factory.GameEntityFactory;
+import com.doncey.server.protocol.BinaryCodec;
+import com.doncey.server.protocol.Opcode;
+import com.doncey.server.protocol.ServerMessage;
+import com.doncey.utils.log.LogCategory;
+import com.doncey.utils.log.ServerLog;
 
 /**
  * GameWorld mantiene el estado de frutas (spawn/remove), plataformas y jugadores.
  * Permite notificar a los clientes conectados sobre estas acciones.
  * 
+ * Cada sala de juego es un GameWorld (ver RoomManager); getInstance()
+ * devuelve la sala por defecto (lobby). Los ticks de una sala nunca
+ * corren en paralelo consigo mismos, pero pueden tocarle a distintos
+ * workers del pool.
+ * 
  * Implementa el patrón Observer para notificar eventos importantes.
  * Implementa el patrón Factory para crear frutas de forma desacoplada.
  */
 public class GameWorld {
     private static GameWorld instance = null;
 
+    private final int roomId; // ID de la sala (RoomManager.LOBBY_ID para el lobby)
+    private boolean closed = false; // Sala cerrada: no acepta clientes (protegido por clients)
+    private int joining = 0; // Clientes entrando: la sala no se cierra (protegido por clients)
+
     private final AtomicInteger fruitIdCounter = new AtomicInteger(0);
-    private final Map<Integer, Fruit> fruits = new ConcurrentHashMap<>();
-    private final Map<Integer, Player> players = new ConcurrentHashMap<>();
-    private final Set<ClientHandler> clients = Collections.synchronizedSet(new HashSet<>());
-    private final List<Platform> platforms = new ArrayList<>();
+    private final IntObjectMap<Fruit> fruits = new IntObjectMap<>(); // Por ID, sin boxing
+    private final FruitIndex fruitIndex = new FruitIndex(); // Broadphase de recolección
+    private final List<Fruit> touched = new ArrayList<>(); // Resultado de consultas (sólo el tick)
+    private final IntObjectMap<Player> players = new IntObjectMap<>();
+    private final PlayerStore store = new PlayerStore(16); // Estado de simulación de los jugadores
+    private final Set<ClientSession> clients = Collections.synchronizedSet(new HashSet<>());
+    private volatile ClientSession[] recipients = new ClientSession[0]; // Copia de clients para los broadcasts (se reemplaza con clients tomado)
+    private final List<Platform> platforms = LEVEL; // Geometría compartida por todas las salas
+    private final PlatformGrid platformGrid = LEVEL_GRID;
+    private volatile long tick = 0; // Número de tick del game loop (sólo lo escribe el loop)
+    private volatile WorldSnapshot published = WorldSnapshot.EMPTY; // Última foto para lectores externos
+    private final ReentrantLock publishLock = new ReentrantLock(); // Ordena frutas y puntajes con sus broadcasts (ReentrantLock: se envía con él tomado sin fijar virtual threads)
+    private final Object snapshotLock = new Object(); // Ordena los reemplazos de published (nunca se envía con él tomado)
+    private final BroadcastStats broadcastStats = new BroadcastStats(); // Métricas de reparto
+    private final PositionHistory history = new PositionHistory(HISTORY_TICKS); // Bases para WORLD_DELTA
+    private final InputQueue inputs = new InputQueue(INPUT_QUEUE_CAPACITY); // Comandos pendientes de aplicar
+    private long reportedInputDrops = 0; // Descartes ya avisados (sólo el loop)
+    private Player[] roster = new Player[16]; // Jugadores del tick (se reutiliza)
+    private final List<Player> alive = new ArrayList<>(); // Vivos del tick, ordenados por ID (se reutiliza)
+    private int[] scores = new int[16]; // Puntajes del tick, en el orden de alive (se reutiliza)
+    private boolean[] died = new boolean[16]; // Muertes del tick, por slot del store
+    private final ServerMessage[] deltas = new ServerMessage[HISTORY_TICKS]; // WORLD_DELTA del tick por base (índice: como en history)
+    private final int[] deltaSlots = new int[HISTORY_TICKS]; // Índices de deltas usados en este tick
+
+    private static final int HISTORY_TICKS = 64; // ~3 s a 20 FPS
+    private static final int KEYFRAME_INTERVAL = 40; // Cada 2 s los clientes DELTA reciben el mundo completo
+    private static final int INPUT_QUEUE_CAPACITY = 4096; // Comandos encolados entre dos ticks
+    private static final int STATE_CHUNK = 512; // Entidades por frame WORLD_STATE
+    private static final int HINT_SLACK = 16; // Margen (px) al validar un EAT_FRUIT del cliente
+    private static volatile int parallelPhysicsThreshold = 512; // Jugadores desde los que la física va en paralelo
     
     // Publisher del patrón Observer
-    private final GameEventPublisher eventPublisher = GameEventPublisher.getInstance();
+    private final GameEventPublisher eventPublisher;
     
     // Factory del patrón Factory para crear frutas
     private final GameEntityFactory fruitFactory = new FruitFactory();
 
-    // ======== CONSTRUCTOR ========
+    // ======== NIVEL ========
+
+    // Se carga una sola vez: el índice es inmutable y lo comparten todas las salas
+    private static final List<Platform> LEVEL = loadLevel();
+    private static final PlatformGrid LEVEL_GRID = new PlatformGrid(LEVEL);
+
+    private static List<Platform> loadLevel() {
+        List<Platform> level = new ArrayList<>();
 
-    private GameWorld() {
         // =======================
         //  PLATAFORMAS DEL NIVEL
         // =======================
 
         // === CAFÉS (las largas marrón oscuro) ===
-        platforms.add(new Platform(0, 210, 680, 25));
-        platforms.add(new Platform(210, 350, 200, 25));
-        platforms.add(new Platform(640, 240, 200, 25));
-        platforms.add(new Platform(160, 520, 250, 25));
-        platforms.add(new Platform(800, 420, 220, 25));
+        level.add(new Platform(0, 210, 680, 25));
+        level.add(new Platform(210, 350, 200, 25));
+        level.add(new Platform(640, 240, 200, 25));
+        level.add(new Platform(160, 520, 250, 25));
+        level.add(new Platform(800, 420, 220, 25));
 
         // === VERDES (las que tienen césped) ===
-        platforms.add(new Platform(0, 720, 350, 25));
-        platforms.add(new Platform(410, 680, 110, 25));
-        platforms.add(new Platform(727, 640, 110, 25));
-        platforms.add(new Platform(900, 600, 110, 25));
-        platforms.add(new Platform(585, 720, 100, 25));
-        
-        System.out.println("[GAMEWORLD] Plataformas cargadas: " + platforms.size());
+        level.add(new Platform(0, 720, 350, 25));
+        level.add(new Platform(410, 680, 110, 25));
+        level.add(new Platform(727, 640, 110, 25));
+        level.add(new Platform(900, 600, 110, 25));
+        level.add(new Platform(585, 720, 100, 25));
+        return List.copyOf(level);
+    }
+
+    // ======== CONSTRUCTOR ========
+
+    /**
+     * Crea una sala con el nivel por defecto
+     * 
+     * @param roomId ID de la sala
+     * @param eventPublisher Publisher de eventos propio de la sala
+     */
+    GameWorld(int roomId, GameEventPublisher eventPublisher) {
+        this.roomId = roomId;
+        this.eventPublisher = eventPublisher;
+        ServerLog.info(LogCategory.GAME, "[GAMEWORLD] Sala " + roomId + ": plataformas cargadas: " + platforms.size());
     }
 
+    /**
+     * Obtiene la sala por defecto (lobby)
+     */
     public static synchronized GameWorld getInstance() {
-        if (instance == null) instance = new GameWorld();
+        if (instance == null) instance = new GameWorld(RoomManager.LOBBY_ID, GameEventPublisher.getInstance());
         return instance;
     }
 
+    /**
+     * Obtiene el ID de la sala
+     */
+    public int getRoomId() {
+        return roomId;
+    }
+
+    /**
+     * Obtiene el publisher de eventos de la sala
+     */
+    public GameEventPublisher getEventPublisher() {
+        return eventPublisher;
+    }
+
     // ======== FRUTAS ========
 
     /**
@@ -80,13 +156,24 @@ public class GameWorld {
         // Usar la factory para crear la fruta
         Fruit f = fruitFactory.createFruit(id, x, y, type, points);
         
-        fruits.put(id, f);
-        broadcast(String.format("SPAWN_FRUIT %d %d %d %s %d", id, x, y, type, points));
+        // Mapa, índice, foto y SPAWN_FRUIT juntos: si no, una recolección
+        // entre medio deja la fruta en la foto y en los clientes para siempre
+        publishLock.lock();
+        try {
+            fruits.put(id, f);
+            fruitIndex.add(f);
+            synchronized (snapshotLock) {
+                published = published.withFruit(f);
+            }
+            broadcast(spawnFruitMessage(f));
+        } finally {
+            publishLock.unlock();
+        }
         
         // Notificar observadores del patrón Observer
         eventPublisher.notifyFruitSpawned(id, type, x, y, points);
         
-        System.out.println("[GAMEWORLD] Fruta creada: " + f);
+        ServerLog.info(LogCategory.GAME, "[GAMEWORLD] Fruta creada: " + f);
         return f;
     }
 
@@ -97,17 +184,38 @@ public class GameWorld {
      * @return true si fue eliminada, false si no existía
      */
     public boolean removeFruit(int id) {
-        Fruit removed = fruits.remove(id);
-        if (removed != null) {
-            broadcast(String.format("REMOVE_FRUIT %d", id));
-            
-            // Notificar observadores del patrón Observer
-            eventPublisher.notifyFruitRemoved(id);
-            
-            System.out.println("[GAMEWORLD] Fruta removida: " + removed);
-            return true;
+        Fruit removed;
+        publishLock.lock();
+        try {
+            removed = fruits.remove(id);
+            if (removed == null) return false;
+            fruitIndex.remove(removed);
+            synchronized (snapshotLock) {
+                published = published.withoutFruit(removed);
+            }
+            broadcast(ServerMessage.of(Opcode.REMOVE_FRUIT, id));
+        } finally {
+            publishLock.unlock();
         }
-        return false;
+        
+        // Notificar observadores del patrón Observer
+        eventPublisher.notifyFruitRemoved(id);
+        
+        ServerLog.info(LogCategory.GAME, "[GAMEWORLD] Fruta removida: " + removed);
+        return true;
+    }
+
+    /**
+     * Crea el mensaje SPAWN_FRUIT de una fruta
+     * 
+     * Formato de texto: "SPAWN_FRUIT id x y TYPE pts"
+     * 
+     * @param f Fruta
+     * @return Mensaje sin codificar
+     */
+    private ServerMessage spawnFruitMessage(Fruit f) {
+        return ServerMessage.of(Opcode.SPAWN_FRUIT,
+            f.getId(), f.getX(), f.getY(), BinaryCodec.fruitCode(f.getType()), f.getPoints());
     }
 
     /**
@@ -123,10 +231,10 @@ public class GameWorld {
     /**
      * Lista todas las frutas activas
      * 
-     * @return Colección de frutas
+     * @return Frutas de la última foto publicada (inmutable)
      */
     public Collection<Fruit> listFruits() {
-        return fruits.values();
+        return published.getFruits();
     }
 
     // ======== JUGADORES ========
@@ -135,19 +243,23 @@ public class GameWorld {
      * Registra un nuevo jugador en el mundo
      * 
      * @param playerId ID del jugador
-     * @param handler ClientHandler asociado
+     * @param handler ClientSession asociado
+     * @return Jugador creado
      */
-    public void registerPlayer(int playerId, ClientHandler handler) {
+    public Player registerPlayer(int playerId, ClientSession handler) {
         int startX = 50;
         int startY = 400;   // justo arriba de la plataforma
 
-        Player player = new Player(playerId, startX, startY);
-        players.put(playerId, player);
+        Player player = store.allocate(playerId, startX, startY);
+        player.setSession(handler);
+        Player previous = players.put(playerId, player);
+        if (previous != null) release(previous);
         
         // Notificar observadores del patrón Observer
         eventPublisher.notifyPlayerConnected(playerId);
         
-        System.out.println("[GAMEWORLD] Jugador registrado: " + player);
+        ServerLog.info(LogCategory.GAME, "[GAMEWORLD] Jugador registrado: " + player);
+        return player;
     }
 
     /**
@@ -156,12 +268,21 @@ public class GameWorld {
      * @param playerId ID del jugador
      */
     public void unregisterPlayer(int playerId) {
-        players.remove(playerId);
+        Player removed = players.remove(playerId);
+        if (removed != null) release(removed);
         
         // Notificar observadores del patrón Observer
         eventPublisher.notifyPlayerDisconnected(playerId);
         
-        System.out.println("[GAMEWORLD] Jugador removido: " + playerId);
+        ServerLog.info(LogCategory.GAME, "[GAMEWORLD] Jugador removido: " + playerId);
+    }
+
+    // Devuelve el slot del jugador al store (se reutiliza desde el próximo tick)
+    private void release(Player player) {
+        synchronized (store) {
+            player.release();
+            store.release(player.getSlot());
+        }
     }
 
     /**
@@ -177,7 +298,10 @@ public class GameWorld {
     /**
      * Lista todos los jugadores activos
      * 
-     * @return Colección de jugadores
+     * Son fachadas sobre el estado vivo: fuera del game loop, las
+     * posiciones se leen de getSnapshot().
+     * 
+     * @return Copia de los jugadores al momento de la llamada
      */
     public Collection<Player> listPlayers() {
         return players.values();
@@ -192,30 +316,90 @@ public class GameWorld {
      * @param command Comando a procesar (MOVE_LEFT, MOVE_RIGHT, STOP_MOVING, JUMP)
      */
     public void processPlayerCommand(int playerId, String command) {
+        String[] parts = command.split("\\s+");
+        if (parts.length == 0) return;
+
+        PlayerAction action = PlayerAction.parse(parts[0]);
+        if (action == null) {
+            ServerLog.warn(LogCategory.GAME, "[GAMEWORLD] Comando desconocido: " + parts[0].toUpperCase());
+            return;
+        }
+        processPlayerAction(playerId, action);
+    }
+
+    /**
+     * Encola una acción de control de un jugador
+     * 
+     * @param playerId ID del jugador
+     * @param action Acción ya decodificada (texto o binario)
+     */
+    public void processPlayerAction(int playerId, PlayerAction action) {
         Player player = getPlayer(playerId);
         if (player == null) return;
+        processPlayerAction(player, action);
+    }
 
-        String[] parts = command.split("\\s+");
-        if (parts.length == 0) return;
+    /**
+     * Encola una acción de control de un jugador ya resuelto
+     * 
+     * Se puede llamar desde cualquier thread: la acción se aplica al
+     * principio del próximo tick, en el thread del game loop.
+     * 
+     * @param player Jugador
+     * @param action Acción ya decodificada (texto o binario)
+     * @return false si la cola estaba llena y la acción se descartó
+     */
+    public boolean processPlayerAction(Player player, PlayerAction action) {
+        return inputs.offer(player, action);
+    }
 
-        String action = parts[0].toUpperCase();
+    /**
+     * Aplica los comandos encolados desde el tick anterior
+     * 
+     * Se aplican en orden de llegada y cada jugador queda marcado con
+     * el tick en que se aplicó su último comando. Como máximo se vacía
+     * una vuelta de la cola, para que un cliente que no para de enviar
+     * no demore el tick.
+     */
+    private void applyInputs() {
+        InputQueue.Slot slot;
+        int applied = 0;
+        while (applied < INPUT_QUEUE_CAPACITY && (slot = inputs.peek()) != null) {
+            applyAction(slot.player, slot.action);
+            inputs.release();
+            applied++;
+        }
+
+        long drops = inputs.getDroppedCount();
+        if (drops > reportedInputDrops) {
+            ServerLog.warn(LogCategory.GAME, "[GAMEWORLD] " + (drops - reportedInputDrops) + " comandos descartados (cola de entrada llena)");
+            reportedInputDrops = drops;
+        }
+    }
 
+    private void applyAction(Player player, PlayerAction action) {
         switch (action) {
-            case "MOVE_LEFT":
+            case MOVE_LEFT:
                 player.moveLeft();
                 break;
-            case "MOVE_RIGHT":
+            case MOVE_RIGHT:
                 player.moveRight();
                 break;
-            case "STOP_MOVING":
+            case STOP_MOVING:
                 player.stopMoving();
                 break;
-            case "JUMP":
+            case JUMP:
                 player.jump();
                 break;
-            default:
-                System.out.println("[GAMEWORLD] Comando desconocido: " + action);
         }
+        player.setLastInputTick(tick);
+    }
+
+    /**
+     * Cantidad de comandos descartados por cola de entrada llena
+     */
+    public long getDroppedInputCount() {
+        return inputs.getDroppedCount();
     }
 
     // ======== GAME LOOP ========
@@ -224,20 +408,264 @@ public class GameWorld {
      * Actualiza la lógica del juego cada frame
      * 
      * Procesa:
-     * - Actualización de posición de jugadores (con colisiones)
-     * - Envío de posiciones a todos los clientes
+     * - Comandos de los jugadores encolados desde el tick anterior
+     * - Actualización de posición de jugadores (con colisiones): un
+     *   barrido sobre el PlayerStore, repartido en paralelo si hay
+     *   muchos jugadores (ver PhysicsTask)
+     * - Muertes y envío de posiciones, en el thread del tick
+     * 
+     * Las posiciones se envían una vez por tick: un único mensaje
+     * WORLD_SNAPSHOT para los clientes que lo negociaron (HELLO SNAPSHOT),
+     * un WORLD_DELTA contra el último tick confirmado para los que
+     * negociaron HELLO DELTA, y el stream clásico de PLAYER_POS para
+     * los clientes viejos.
      */
     public void updateGameLogic() {
-        for (Player player : players.values()) {
-            // Actualizar posición del jugador pasando las plataformas
-            player.update(platforms);
+        tick++;
+        
+        int n = 0;
+        synchronized (store) {
+            store.reclaim();
+            applyInputs();
+            
+            // Jugadores del tick ordenados por ID: lo necesita el historial
+            // para calcular deltas y fija el orden en que se procesan muertes
+            int slots = store.highWater();
+            if (roster.length < slots) roster = new Player[Math.max(slots, roster.length * 2)];
+            n = store.sortedById(roster);
+            
+            // Fase de física: un barrido sobre los arreglos del store, en
+            // paralelo sólo si hay suficientes jugadores
+            if (died.length < slots) died = new boolean[Math.max(slots, died.length * 2)];
+            if (n >= parallelPhysicsThreshold) {
+                PhysicsTask.pool().invoke(new PhysicsTask(store, died, platformGrid, 0, slots));
+            } else {
+                store.step(platformGrid, died, 0, slots);
+            }
+        }
+        
+        // Fase serial: muertes y envío
+        alive.clear();
+        for (int i = 0; i < n; i++) {
+            Player player = roster[i];
+            roster[i] = null; // No retener jugadores que se van
+            if (died[player.getSlot()]) {
+                player.die();
+                playerDied(player.getId());
+            }
             
             // Si está muerto, no enviar más posiciones
             if (!player.isAlive()) continue;
+            alive.add(player);
+        }
+        collectFruits(alive);
+        
+        PositionHistory.Entry current = history.record(tick, alive);
+        if (scores.length < alive.size()) scores = new int[Math.max(alive.size(), scores.length * 2)];
+        // Sólo snapshotLock: el tick no espera a un broadcast de frutas en curso
+        synchronized (snapshotLock) {
+            for (int i = 0; i < alive.size(); i++) {
+                scores[i] = alive.get(i).getScore();
+            }
+            published = published.withPositions(tick, current, scores);
+        }
+        broadcastPositions(current, alive);
+        alive.clear(); // No retener jugadores que se van
+        eventPublisher.notifyTickEnd(tick);
+    }
+
+    /**
+     * Última foto publicada de la sala
+     * 
+     * Los threads que no son el game loop deben leer el estado de acá y
+     * no de los objetos vivos. Incluye las frutas al momento de la
+     * llamada y las posiciones del último tick.
+     * 
+     * @return Foto inmutable
+     */
+    public WorldSnapshot getSnapshot() {
+        return published;
+    }
+
+    // ======== RECOLECCIÓN ========
+
+    /**
+     * Recoge las frutas que toca cada jugador vivo (game loop)
+     * 
+     * Se consulta el hash espacial con la caja de cada jugador, así que
+     * el costo depende de las frutas cercanas y no del total.
+     * 
+     * @param alive Jugadores vivos, ordenados por ID (desempata quién
+     *              se lleva una fruta que tocan dos en el mismo tick)
+     */
+    private void collectFruits(List<Player> alive) {
+        if (fruits.isEmpty()) return;
+        for (Player player : alive) {
+            touched.clear();
+            fruitIndex.query(player.getX(), player.getY(), Player.WIDTH, Player.HEIGHT, touched);
+            for (int i = 0; i < touched.size(); i++) {
+                pickUp(player, touched.get(i));
+            }
+        }
+        touched.clear();
+    }
+
+    /**
+     * Valida un EAT_FRUIT del cliente contra el índice de frutas
+     * 
+     * El mensaje es sólo una pista: la fruta se entrega si el jugador
+     * está en esta sala y su caja (con HINT_SLACK de margen por la
+     * latencia) la toca. Si no, el tick la recogerá cuando corresponda.
+     * 
+     * @param player Jugador de la sesión que envió el mensaje
+     * @param f Fruta reclamada
+     * @return true si el jugador se la llevó
+     */
+    boolean claimFruit(Player player, Fruit f) {
+        if (players.get(player.getId()) != player) return false;
+        
+        // Posición del último tick publicado, no la del store en pleno tick
+        WorldSnapshot snapshot = published;
+        int i = snapshot.indexOfPlayer(player.getId());
+        if (i < 0) return false;
+        if (!FruitIndex.overlaps(f, snapshot.getPlayerX(i) - HINT_SLACK, snapshot.getPlayerY(i) - HINT_SLACK,
+                Player.WIDTH + 2 * HINT_SLACK, Player.HEIGHT + 2 * HINT_SLACK)) {
+            return false;
+        }
+        return pickUp(player, f);
+    }
+
+    // Entrega la fruta si sigue en el mundo (la primera remoción gana)
+    private boolean pickUp(Player player, Fruit f) {
+        publishLock.lock();
+        try {
+            if (!removeFruit(f.getId())) return false;
+            int score = player.addScore(f.getPoints());
+            synchronized (snapshotLock) {
+                published = published.withScore(player.getId(), score);
+            }
+            broadcast(ServerMessage.of(Opcode.PLAYER_SCORE, player.getId(), f.getPoints()));
+        } finally {
+            publishLock.unlock();
+        }
+        ClientSession session = player.getSession();
+        if (session != null) session.fruitEaten(this, f);
+        return true;
+    }
+
+    /**
+     * Cambia desde cuántos jugadores la física de una sala se reparte en
+     * el pool fork-join (por debajo se ejecuta en el thread del tick)
+     * 
+     * @param threshold Cantidad mínima de jugadores
+     */
+    public static void setParallelPhysicsThreshold(int threshold) {
+        parallelPhysicsThreshold = Math.max(1, threshold);
+    }
+
+    /**
+     * Obtiene el número del último tick procesado
+     * 
+     * @return Número de tick (empieza en 1)
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Envía las posiciones del tick a todos los clientes
+     * 
+     * El mensaje WORLD_SNAPSHOT y los mensajes PLAYER_POS se crean una
+     * sola vez, sólo si hay algún cliente que los use, y cada formato de
+     * cable se codifica a lo sumo una vez y se comparte entre todos los
+     * destinatarios. Los WORLD_DELTA se comparten entre los clientes que
+     * confirmaron el mismo tick base.
+     * 
+     * Un cliente DELTA recibe el WORLD_SNAPSHOT completo (keyframe) cada
+     * KEYFRAME_INTERVAL ticks, o antes si su base ya salió del historial
+     * o todavía no confirmó ningún tick.
+     * 
+     * @param current Posiciones del tick (ya registradas en el historial)
+     * @param alive Jugadores vivos en este tick, ordenados por ID
+     */
+    private void broadcastPositions(PositionHistory.Entry current, List<Player> alive) {
+        long startNanos = System.nanoTime();
+        long start = broadcastStats.begin();
+        boolean keyframe = tick % KEYFRAME_INTERVAL == 0;
+        ServerMessage snapshot = null;
+        ServerMessage[] legacy = null;
+        int deltaCount = 0;
+        long queued = 0;
+        ClientSession[] targets = recipients; // Sin el monitor de clients: los envíos pueden tardar
+        
+        for (ClientSession ch : targets) {
+            PositionHistory.Entry base = null;
+            if (ch.wantsDeltas() && !keyframe) {
+                base = history.get(ch.getAckedTick());
+            }
             
-            // Enviar posición actualizada a todos los clientes
-            broadcast(player.getPositionMessage());
+            if (base != null) {
+                // Un delta por tick base; el historial guarda cada tick en base % HISTORY_TICKS
+                int slot = (int) (base.tick % HISTORY_TICKS);
+                ServerMessage delta = deltas[slot];
+                if (delta == null) {
+                    delta = PositionHistory.delta(base, current);
+                    deltas[slot] = delta;
+                    deltaSlots[deltaCount++] = slot;
+                }
+                queued += ch.sendFrom(this, delta);
+            } else if (ch.wantsSnapshots() || ch.wantsDeltas()) {
+                if (snapshot == null) snapshot = buildSnapshot(alive);
+                queued += ch.sendFrom(this, snapshot);
+            } else {
+                if (legacy == null) {
+                    legacy = new ServerMessage[alive.size()];
+                    for (int i = 0; i < legacy.length; i++) {
+                        legacy[i] = alive.get(i).getPositionUpdate();
+                    }
+                }
+                for (ServerMessage msg : legacy) {
+                    queued += ch.sendFrom(this, msg);
+                }
+            }
+        }
+        
+        // Soltar la referencia propia de cada frame
+        int bytes = 0;
+        if (snapshot != null) {
+            bytes += snapshot.encodedBytes();
+            snapshot.release();
+        }
+        if (legacy != null) {
+            for (ServerMessage msg : legacy) {
+                bytes += msg.encodedBytes();
+                msg.release();
+            }
+        }
+        for (int i = 0; i < deltaCount; i++) {
+            ServerMessage msg = deltas[deltaSlots[i]];
+            deltas[deltaSlots[i]] = null;
+            bytes += msg.encodedBytes();
+            msg.release();
         }
+        broadcastStats.end(start, startNanos, bytes, queued, targets.length);
+    }
+
+    /**
+     * Construye el mensaje con todas las posiciones del tick
+     * 
+     * Formato de texto: "WORLD_SNAPSHOT tick n id1 x1 y1 id2 x2 y2 ..."
+     * 
+     * @param alive Jugadores vivos en este tick
+     * @return Mensaje sin codificar
+     */
+    private ServerMessage buildSnapshot(List<Player> alive) {
+        ServerMessage.Builder builder = ServerMessage.builder(Opcode.WORLD_SNAPSHOT, 2 + alive.size() * 3)
+            .add(tick).add(alive.size());
+        for (Player player : alive) {
+            builder.add(player.getId()).add(player.getX()).add(player.getY());
+        }
+        return builder.build();
     }
 
     /**
@@ -249,8 +677,8 @@ public class GameWorld {
     public void playerDied(int playerId) {
         Player player = getPlayer(playerId);
         if (player != null) {
-            System.out.println("[GAMEWORLD] Jugador #" + playerId + " murió");
-            broadcast("GAME_OVER " + playerId);
+            ServerLog.info(LogCategory.GAME, "[GAMEWORLD] Jugador #" + playerId + " murió");
+            broadcast(ServerMessage.of(Opcode.GAME_OVER, playerId));
             
             // Notificar observadores del patrón Observer
             eventPublisher.notifyPlayerDisconnected(playerId);
@@ -262,44 +690,191 @@ public class GameWorld {
     /**
      * Registra un cliente para recibir broadcasts
      * 
-     * @param ch ClientHandler del cliente
-     */
-    public void registerClient(ClientHandler ch) {
-        clients.add(ch);
-
-        // Enviar todas las frutas actuales al conectarse
-        for (Fruit f : listFruits()) {
-            ch.sendMessage(String.format(
-                "SPAWN_FRUIT %d %d %d %s %d",
-                f.getId(),
-                f.getX(),
-                f.getY(),
-                f.getType(),
-                f.getPoints()
-            ));
+     * @param ch ClientSession del cliente
+     * @return false si la sala ya se cerró
+     */
+    public boolean registerClient(ClientSession ch) {
+        return registerClient(ch, null);
+    }
+
+    /**
+     * Registra un cliente y le envía primero una confirmación
+     * 
+     * La confirmación (ej: ROOM_JOINED) sólo se envía si la sala sigue
+     * abierta, y llega antes que cualquier broadcast y que la foto de la
+     * sala. Se envía fuera del monitor de clients (con BLOCK el envío
+     * puede esperar): mientras tanto el lugar queda reservado y la sala
+     * no se puede cerrar.
+     * 
+     * @param ch ClientSession del cliente
+     * @param joined Mensaje a enviar antes que nada (null: ninguno; lo libera el que llama)
+     * @return false si la sala ya se cerró (no se envió nada)
+     */
+    boolean registerClient(ClientSession ch, ServerMessage joined) {
+        // Con publishLock tomado ningún cambio de frutas ni de puntajes
+        // puede colarse: el cliente recibe la foto y, a partir de ella,
+        // exactamente los broadcasts que vienen después
+        publishLock.lock();
+        try {
+            synchronized (clients) {
+                if (closed) return false;
+                joining++;
+            }
+            if (joined != null) ch.send(joined);
+            ch.joinBroadcasts(this); // Desde acá sólo recibe los broadcasts de esta sala
+            synchronized (clients) {
+                joining--;
+                clients.add(ch);
+                recipients = clients.toArray(new ClientSession[0]);
+            }
+            
+            WorldSnapshot snapshot = published;
+            if (ch.wantsState()) {
+                sendState(ch, snapshot);
+            } else {
+                // Clientes viejos: un SPAWN_FRUIT por fruta
+                for (Fruit f : snapshot.getFruits()) {
+                    ServerMessage msg = spawnFruitMessage(f);
+                    ch.send(msg);
+                    msg.release();
+                }
+            }
+        } finally {
+            publishLock.unlock();
+        }
+        return true;
+    }
+
+    /**
+     * Reenvía el estado completo de la sala a un cliente ya registrado
+     * 
+     * Lo usa la sesión cuando el cliente negocia HELLO STATE: su vista
+     * del mundo se reemplaza por la del WORLD_STATE.
+     * 
+     * @param ch ClientSession del cliente
+     */
+    void resyncClient(ClientSession ch) {
+        publishLock.lock();
+        try {
+            sendState(ch, published);
+        } finally {
+            publishLock.unlock();
         }
     }
 
+    /**
+     * Envía una foto en frames WORLD_STATE (con publishLock tomado)
+     * 
+     * Formato de texto: "WORLD_STATE tick version chunk chunks n (kind id x y a b)*"
+     * 
+     * - kind WorldSnapshot.STATE_PLAYER: a = puntaje, b = 0
+     * - kind WorldSnapshot.STATE_FRUIT: a = tipo (BinaryCodec.fruitCode), b = puntos
+     * 
+     * Primero van los jugadores y después las frutas, de a STATE_CHUNK
+     * entidades por frame; el cliente aplica el estado al recibir el
+     * último (chunk == chunks - 1). Un cliente DELTA queda con el tick de
+     * la foto como base confirmada.
+     * 
+     * @param ch ClientSession del cliente
+     * @param snapshot Foto a enviar
+     */
+    private void sendState(ClientSession ch, WorldSnapshot snapshot) {
+        List<Fruit> stateFruits = snapshot.getFruits();
+        int playerCount = snapshot.getPlayerCount();
+        int total = playerCount + stateFruits.size();
+        int chunks = Math.max(1, (total + STATE_CHUNK - 1) / STATE_CHUNK);
+        
+        int next = 0;
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            int n = Math.min(STATE_CHUNK, total - next);
+            ServerMessage.Builder builder = ServerMessage.builder(Opcode.WORLD_STATE, 5 + n * 6)
+                .add(snapshot.getTick()).add(snapshot.getVersion()).add(chunk).add(chunks).add(n);
+            for (int end = next + n; next < end; next++) {
+                if (next < playerCount) {
+                    builder.add(WorldSnapshot.STATE_PLAYER).add(snapshot.getPlayerId(next))
+                        .add(snapshot.getPlayerX(next)).add(snapshot.getPlayerY(next))
+                        .add(snapshot.getPlayerScore(next)).add(0);
+                } else {
+                    Fruit f = stateFruits.get(next - playerCount);
+                    builder.add(WorldSnapshot.STATE_FRUIT).add(f.getId()).add(f.getX()).add(f.getY())
+                        .add(BinaryCodec.fruitCode(f.getType())).add(f.getPoints());
+                }
+            }
+            ServerMessage msg = builder.build();
+            ch.send(msg);
+            msg.release();
+        }
+        if (snapshot.getTick() > 0) ch.setBaseTick(snapshot.getTick());
+    }
+
     /**
      * Desregistra un cliente
      * 
-     * @param ch ClientHandler del cliente
+     * @param ch ClientSession del cliente
      */
-    public void unregisterClient(ClientHandler ch) {
-        clients.remove(ch);
+    public void unregisterClient(ClientSession ch) {
+        synchronized (clients) {
+            if (!clients.remove(ch)) return;
+            recipients = clients.toArray(new ClientSession[0]);
+        }
+        // Un broadcast que ya tomó la copia vieja no le llega
+        ch.leaveBroadcasts(this);
+    }
+
+    /**
+     * Cierra la sala si no tiene clientes (ver RoomManager.release)
+     * 
+     * @return true si quedó cerrada
+     */
+    boolean closeIfEmpty() {
+        synchronized (clients) {
+            if (!clients.isEmpty() || joining > 0) return false;
+            closed = true;
+            return true;
+        }
+    }
+
+    /**
+     * Lista los clientes conectados (copia, para monitoreo de colas)
+     * 
+     * @return Lista de sesiones
+     */
+    public List<ClientSession> listClients() {
+        synchronized (clients) {
+            return new ArrayList<>(clients);
+        }
     }
 
     /**
      * Envía un mensaje a todos los clientes (broadcast)
      * 
+     * Sólo encola el mensaje en la cola de salida de cada cliente;
+     * nunca escribe en sockets desde el thread que llama. El mensaje
+     * se codifica una sola vez por formato de cable y cada cliente
+     * recibe una referencia al mismo arreglo de bytes. Consume el
+     * mensaje del que llama.
+     * 
      * @param msg Mensaje a enviar
      */
-    public void broadcast(String msg) {
-        synchronized (clients) {
-            for (ClientHandler ch : clients) {
-                ch.sendMessage(msg);
-            }
+    public void broadcast(ServerMessage msg) {
+        long startNanos = System.nanoTime();
+        long start = broadcastStats.begin();
+        long queued = 0;
+        ClientSession[] targets = recipients; // Sin el monitor de clients: los envíos pueden tardar
+        for (ClientSession ch : targets) {
+            queued += ch.sendFrom(this, msg);
         }
+        broadcastStats.end(start, startNanos, msg.encodedBytes(), queued, targets.length);
+        msg.release();
+    }
+
+    /**
+     * Obtiene las estadísticas de broadcast (bytes y allocation por envío)
+     * 
+     * @return Estadísticas acumuladas
+     */
+    public BroadcastStats getBroadcastStats() {
+        return broadcastStats;
     }
 
     // ======== PLATAFORMAS ========
@@ -0,0 +1,111 @@
+package com.doncey.server;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cola de comandos de control de los jugadores
+ *
+ * Los threads de los clientes (lectores, event loops) publican los
+ * comandos sin locks; el game loop los aplica todos juntos al principio
+ * de cada tick. Así el estado de los jugadores sólo lo toca el thread
+ * del loop y cada tick ve una entrada consistente.
+ *
+ * Es una cola circular acotada de muchos productores y un consumidor
+ * (igual que LogRing): cada celda tiene un número de secuencia que
+ * indica de quién es el turno y las celdas se reutilizan. Si la cola
+ * está llena, el comando se descarta y se cuenta.
+ */
+final class InputQueue {
+
+    /**
+     * Celda reutilizable con un comando
+     */
+    static final class Slot {
+        Player player;
+        PlayerAction action;
+    }
+
+    private final Slot[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong(); // Próxima posición a reservar (productores)
+    private long head = 0; // Próxima posición a leer (sólo el game loop)
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * Crea la cola
+     *
+     * @param capacity Cantidad de celdas (se redondea a potencia de 2)
+     */
+    InputQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new Slot[size];
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot();
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Publica un comando (cualquier thread)
+     *
+     * @param player Jugador
+     * @param action Acción
+     * @return false si la cola estaba llena y el comando se descartó
+     */
+    boolean offer(Player player, PlayerAction action) {
+        long pos = tail.get();
+        while (true) {
+            int index = (int) pos & mask;
+            long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    Slot slot = slots[index];
+                    slot.player = player;
+                    slot.action = action;
+                    sequences.set(index, pos + 1); // Publica la celda
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                dropped.increment(); // Llena: el loop todavía no la vació
+                return false;
+            } else {
+                pos = tail.get(); // Otro productor la tomó
+            }
+        }
+    }
+
+    /**
+     * Toma el próximo comando publicado (sólo el game loop)
+     *
+     * La celda debe devolverse con release() antes del próximo peek().
+     *
+     * @return Celda o null si la cola está vacía
+     */
+    Slot peek() {
+        int index = (int) head & mask;
+        return sequences.get(index) == head + 1 ? slots[index] : null;
+    }
+
+    /**
+     * Devuelve la celda leída a los productores
+     */
+    void release() {
+        int index = (int) head & mask;
+        slots[index].player = null;
+        sequences.set(index, head + slots.length);
+        head++;
+    }
+
+    /**
+     * Cantidad de comandos descartados por cola llena
+     */
+    long getDroppedCount() {
+        return dropped.sum();
+    }
+}
@@ -0,0 +1,229 @@
+package com.doncey.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Mapa de claves int a objetos, con direccionamiento abierto
+ *
+ * Reemplaza a ConcurrentHashMap<Integer, V> para frutas y jugadores:
+ * las claves quedan en un int[] (sin Integer ni nodos por entrada) y
+ * los valores en un Object[] paralelo. Sondeo lineal y borrado por
+ * corrimiento hacia atrás, así que no hay lápidas.
+ *
+ * Concurrencia:
+ * - Las escrituras (put/remove) se serializan con el lock de escritura
+ *   de un StampedLock; en la práctica hay un solo escritor por vez.
+ * - Las lecturas (get) son optimistas: leen sin bloquear y sólo toman
+ *   el lock de lectura si una escritura se cruzó. Las tablas viajan
+ *   juntas en un Table inmutable, así una lectura cruzada con un
+ *   rehash nunca se sale del arreglo; el resultado se descarta igual.
+ * - values() devuelve una copia, apta para la GUI o un cliente que entra.
+ *
+ * No admite valores null.
+ */
+final class IntObjectMap<V> {
+
+    private static final int MIN_CAPACITY = 16; // Potencia de 2
+
+    private static final class Table {
+        final int[] keys;
+        final Object[] values; // null = slot libre
+        final int mask;
+
+        Table(int capacity) {
+            keys = new int[capacity];
+            values = new Object[capacity];
+            mask = capacity - 1;
+        }
+    }
+
+    private final StampedLock lock = new StampedLock();
+    private Table table; // Se reemplaza entera al crecer (con el lock de escritura)
+    private int size = 0;
+
+    IntObjectMap() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * @param expected Cantidad de entradas esperada (evita rehashes)
+     */
+    IntObjectMap(int expected) {
+        table = new Table(capacityFor(expected));
+    }
+
+    // ======== LECTURA ========
+
+    /**
+     * Busca un valor
+     *
+     * @param key Clave
+     * @return Valor o null si no existe
+     */
+    V get(int key) {
+        long stamp = lock.tryOptimisticRead();
+        V value = find(table, key);
+        if (lock.validate(stamp)) return value;
+
+        stamp = lock.readLock();
+        try {
+            return find(table, key);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Cantidad de entradas
+     */
+    int size() {
+        long stamp = lock.tryOptimisticRead();
+        int n = size;
+        if (lock.validate(stamp)) return n;
+
+        stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Copia de los valores actuales (sin orden definido)
+     *
+     * @return Lista nueva; no cambia con el mapa
+     */
+    @SuppressWarnings("unchecked")
+    List<V> values() {
+        long stamp = lock.readLock();
+        try {
+            List<V> out = new ArrayList<>(size);
+            for (Object value : table.values) {
+                if (value != null) out.add((V) value);
+            }
+            return out;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // ======== ESCRITURA ========
+
+    /**
+     * Asocia un valor a una clave
+     *
+     * @param key Clave
+     * @param value Valor (no null)
+     * @return Valor anterior o null
+     */
+    @SuppressWarnings("unchecked")
+    V put(int key, V value) {
+        if (value == null) throw new NullPointerException("value");
+        long stamp = lock.writeLock();
+        try {
+            Table t = table;
+            int i = indexOf(t, key);
+            if (i >= 0) {
+                V previous = (V) t.values[i];
+                t.values[i] = value;
+                return previous;
+            }
+            if ((size + 1) * 2 > t.keys.length) {
+                t = resize(t.keys.length * 2);
+            }
+            for (i = mix(key) & t.mask; t.values[i] != null; i = (i + 1) & t.mask) { }
+            t.keys[i] = key;
+            t.values[i] = value;
+            size++;
+            return null;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Quita una clave
+     *
+     * @param key Clave
+     * @return Valor quitado o null si no existía
+     */
+    @SuppressWarnings("unchecked")
+    V remove(int key) {
+        long stamp = lock.writeLock();
+        try {
+            Table t = table;
+            int i = indexOf(t, key);
+            if (i < 0) return null;
+            V removed = (V) t.values[i];
+
+            // Corrimiento hacia atrás: mover las entradas siguientes del
+            // cluster que no quedarían alcanzables con el hueco
+            int hole = i;
+            for (int j = (i + 1) & t.mask; t.values[j] != null; j = (j + 1) & t.mask) {
+                int home = mix(t.keys[j]) & t.mask;
+                if (((j - home) & t.mask) >= ((j - hole) & t.mask)) {
+                    t.keys[hole] = t.keys[j];
+                    t.values[hole] = t.values[j];
+                    hole = j;
+                }
+            }
+            t.values[hole] = null;
+            size--;
+            return removed;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // ======== INTERNOS ========
+
+    @SuppressWarnings("unchecked")
+    private static <V> V find(Table t, int key) {
+        int i = indexOf(t, key);
+        return i >= 0 ? (V) t.values[i] : null;
+    }
+
+    // Slot de la clave o -1; acotado por el largo de la tabla para que
+    // una lectura optimista sobre una tabla a medio modificar termine
+    private static int indexOf(Table t, int key) {
+        int i = mix(key) & t.mask;
+        for (int probes = 0; probes <= t.mask; probes++, i = (i + 1) & t.mask) {
+            if (t.values[i] == null) return -1;
+            if (t.keys[i] == key) return i;
+        }
+        return -1;
+    }
+
+    private Table resize(int capacity) {
+        Table old = table;
+        Table t = new Table(capacity);
+        for (int i = 0; i < old.keys.length; i++) {
+            if (old.values[i] == null) continue;
+            int j = mix(old.keys[i]) & t.mask;
+            while (t.values[j] != null) j = (j + 1) & t.mask;
+            t.keys[j] = old.keys[i];
+            t.values[j] = old.values[i];
+        }
+        table = t;
+        return t;
+    }
+
+    // Los IDs son secuenciales: dispersarlos para no armar clusters
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static int capacityFor(int expected) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expected * 2) capacity <<= 1;
+        return capacity;
+    }
+}
@@ -0,0 +1,318 @@
+package com.doncey.server;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Mensaje saliente ya codificado a bytes
+ *
+ * Un broadcast codifica el mensaje una sola vez y entrega el mismo frame
+ * a todos los destinatarios. Cada destinatario toma una referencia con
+ * retain() al encolarlo y la suelta con release() cuando su escritor
+ * terminó de escribirlo. Cuando el contador llega a cero, el arreglo de
+ * bytes vuelve a un pool para reutilizarse en el siguiente mensaje.
+ *
+ * Los bytes son de sólo lectura para los escritores: buffer() devuelve
+ * una vista read-only independiente para cada uno.
+ */
+public final class OutboundFrame {
+
+    private final byte[] data; // Bytes del mensaje (incluye '\n' final en texto)
+    private final int length;
+    private final boolean pooled; // Si el arreglo pertenece al pool
+    private final boolean binary; // Frame del protocolo binario (sin '\n')
+    private final AtomicInteger refCount = new AtomicInteger(1);
+
+    private OutboundFrame(byte[] data, int length, boolean pooled, boolean binary) {
+        this.data = data;
+        this.length = length;
+        this.pooled = pooled;
+        this.binary = binary;
+    }
+
+    /**
+     * Codifica una línea de texto como frame
+     *
+     * @param line Línea sin salto de línea final
+     * @return Frame con una referencia (la del que lo crea)
+     */
+    public static OutboundFrame of(String line) {
+        byte[] bytes = (line + "\n").getBytes(StandardCharsets.UTF_8);
+        return new OutboundFrame(bytes, bytes.length, false, false);
+    }
+
+    /**
+     * Empieza a construir un frame de texto ASCII sin pasar por String
+     *
+     * @param command Comando inicial (ej: "SPAWN_FRUIT")
+     * @return Builder listo para agregar argumentos
+     */
+    public static Builder builder(String command) {
+        return new Builder().word(command);
+    }
+
+    /**
+     * Empieza a construir un frame binario (ver protocol.BinaryCodec)
+     *
+     * @return Builder vacío para escribir campos de ancho fijo
+     */
+    public static Builder binary() {
+        return new Builder();
+    }
+
+    // ======== CONTADOR DE REFERENCIAS ========
+
+    /**
+     * Toma una referencia adicional (un destinatario más)
+     *
+     * @return Este mismo frame
+     */
+    public OutboundFrame retain() {
+        refCount.incrementAndGet();
+        return this;
+    }
+
+    /**
+     * Suelta una referencia; con la última, el arreglo vuelve al pool
+     */
+    public void release() {
+        int remaining = refCount.decrementAndGet();
+        if (remaining == 0 && pooled) {
+            Pool.give(data);
+        } else if (remaining < 0) {
+            throw new IllegalStateException("release() de un frame ya liberado");
+        }
+    }
+
+    // ======== ESCRITURA ========
+
+    /**
+     * Escribe los bytes del frame en un stream
+     *
+     * @param out Stream de salida (normalmente con buffer)
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(data, 0, length);
+    }
+
+    /**
+     * Vista de sólo lectura de los bytes, con posición propia
+     */
+    public ByteBuffer buffer() {
+        return ByteBuffer.wrap(data, 0, length).asReadOnlyBuffer();
+    }
+
+    /**
+     * Cantidad de bytes del frame
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Indica si el frame pertenece al protocolo binario
+     */
+    public boolean isBinary() {
+        return binary;
+    }
+
+    @Override
+    public String toString() {
+        if (binary) return "binario[" + length + " bytes]";
+        // Sin el '\n' final; sólo para logs
+        return new String(data, 0, Math.max(0, length - 1), StandardCharsets.UTF_8);
+    }
+
+    // ======== BUILDER ========
+
+    /**
+     * Construye un frame directamente sobre un arreglo del pool
+     *
+     * En texto, los argumentos se separan con un espacio y los números se
+     * escriben en decimal sin crear Strings intermedios. En binario, los
+     * put*() escriben enteros big-endian de ancho fijo.
+     */
+    public static final class Builder {
+        private byte[] buf = Pool.take(64);
+        private int pos = 0;
+
+        private Builder() { }
+
+        /**
+         * Agrega una palabra ASCII precedida por un espacio
+         */
+        public Builder arg(String value) {
+            ensure(value.length() + 1);
+            buf[pos++] = ' ';
+            return word(value);
+        }
+
+        /**
+         * Agrega un entero precedido por un espacio
+         */
+        public Builder arg(long value) {
+            ensure(21);
+            buf[pos++] = ' ';
+            // Se trabaja en negativo: -Long.MIN_VALUE no entra en un long
+            if (value < 0) {
+                buf[pos++] = '-';
+            } else {
+                value = -value;
+            }
+            int start = pos;
+            do {
+                buf[pos++] = (byte) ('0' - (value % 10));
+                value /= 10;
+            } while (value != 0);
+            // Los dígitos quedaron al revés
+            for (int i = start, j = pos - 1; i < j; i++, j--) {
+                byte tmp = buf[i];
+                buf[i] = buf[j];
+                buf[j] = tmp;
+            }
+            return this;
+        }
+
+        /**
+         * Agrega texto libre (UTF-8) precedido por un espacio
+         */
+        public Builder text(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            ensure(bytes.length + 1);
+            buf[pos++] = ' ';
+            System.arraycopy(bytes, 0, buf, pos, bytes.length);
+            pos += bytes.length;
+            return this;
+        }
+
+        // ======== CAMPOS BINARIOS ========
+
+        public Builder putByte(int value) {
+            ensure(1);
+            buf[pos++] = (byte) value;
+            return this;
+        }
+
+        public Builder putShort(int value) {
+            ensure(2);
+            buf[pos++] = (byte) (value >>> 8);
+            buf[pos++] = (byte) value;
+            return this;
+        }
+
+        public Builder putInt(int value) {
+            ensure(4);
+            putInt(pos, value);
+            pos += 4;
+            return this;
+        }
+
+        public Builder putLong(long value) {
+            putInt((int) (value >>> 32));
+            return putInt((int) value);
+        }
+
+        public Builder putBytes(byte[] bytes) {
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buf, pos, bytes.length);
+            pos += bytes.length;
+            return this;
+        }
+
+        /**
+         * Sobrescribe un entero ya reservado (ej: el largo del frame)
+         *
+         * @param at Posición donde empieza el entero
+         * @param value Valor a escribir
+         */
+        public Builder putInt(int at, int value) {
+            buf[at] = (byte) (value >>> 24);
+            buf[at + 1] = (byte) (value >>> 16);
+            buf[at + 2] = (byte) (value >>> 8);
+            buf[at + 3] = (byte) value;
+            return this;
+        }
+
+        /**
+         * Bytes escritos hasta ahora
+         */
+        public int position() {
+            return pos;
+        }
+
+        private Builder word(String value) {
+            ensure(value.length());
+            for (int i = 0; i < value.length(); i++) {
+                buf[pos++] = (byte) value.charAt(i);
+            }
+            return this;
+        }
+
+        /**
+         * Termina la línea y entrega el frame (con una referencia)
+         */
+        public OutboundFrame build() {
+            ensure(1);
+            buf[pos++] = '\n';
+            OutboundFrame frame = new OutboundFrame(buf, pos, true, false);
+            buf = null;
+            return frame;
+        }
+
+        /**
+         * Entrega el frame binario tal cual (con una referencia)
+         */
+        public OutboundFrame buildBinary() {
+            OutboundFrame frame = new OutboundFrame(buf, pos, true, true);
+            buf = null;
+            return frame;
+        }
+
+        private void ensure(int extra) {
+            if (pos + extra <= buf.length) return;
+            byte[] bigger = Pool.take(Math.max(buf.length * 2, pos + extra));
+            System.arraycopy(buf, 0, bigger, 0, pos);
+            Pool.give(buf);
+            buf = bigger;
+        }
+    }
+
+    // ======== POOL ========
+
+    /**
+     * Pool de arreglos por clases de tamaño (potencias de 2 de 64 B a 64 KB)
+     *
+     * Los arreglos más grandes no se reciclan.
+     */
+    private static final class Pool {
+        private static final int MIN_SHIFT = 6; // 64 B
+        private static final int MAX_SHIFT = 16; // 64 KB
+        private static final int PER_CLASS = 256; // Arreglos guardados por clase
+
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        private static final ArrayBlockingQueue<byte[]>[] CLASSES = new ArrayBlockingQueue[MAX_SHIFT - MIN_SHIFT + 1];
+
+        static {
+            for (int i = 0; i < CLASSES.length; i++) {
+                CLASSES[i] = new ArrayBlockingQueue<>(PER_CLASS);
+            }
+        }
+
+        static byte[] take(int size) {
+            int shift = Math.max(MIN_SHIFT, 32 - Integer.numberOfLeadingZeros(size - 1));
+            if (shift > MAX_SHIFT) return new byte[size];
+            byte[] array = CLASSES[shift - MIN_SHIFT].poll();
+            return array != null ? array : new byte[1 << shift];
+        }
+
+        static void give(byte[] array) {
+            int shift = 31 - Integer.numberOfLeadingZeros(array.length);
+            if (array.length != (1 << shift) || shift < MIN_SHIFT || shift > MAX_SHIFT) return;
+            CLASSES[shift - MIN_SHIFT].offer(array);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.doncey.server;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cola de salida acotada de un cliente
+ *
+ * Guarda OutboundFrame ya codificados. La cola es dueña de una
+ * referencia de cada frame encolado: la suelta al descartarlo y el
+ * escritor la suelta después de escribirlo.
+ *
+ * El game loop y los broadcasts sólo encolan; un escritor (thread
+ * dedicado o event loop NIO) la vacía hacia el socket. Así un cliente
+ * con la ventana TCP llena no frena al resto.
+ *
+ * Cuando la cola se llena se aplica la OverflowPolicy configurada.
+ * La profundidad y la cantidad de descartes quedan expuestas para
+ * monitoreo.
+ */
+public class OutboundQueue {
+
+    private final ArrayBlockingQueue<OutboundFrame> queue;
+    private final OverflowPolicy policy;
+    private final long blockTimeoutMillis;
+
+    private final AtomicLong enqueued = new AtomicLong(); // Mensajes aceptados
+    private final AtomicLong dropped = new AtomicLong(); // Mensajes descartados
+
+    /**
+     * Crea la cola
+     *
+     * @param capacity Cantidad máxima de mensajes pendientes
+     * @param policy Política ante desborde
+     * @param blockTimeoutMillis Espera máxima con la política BLOCK
+     */
+    public OutboundQueue(int capacity, OverflowPolicy policy, long blockTimeoutMillis) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.policy = policy;
+        this.blockTimeoutMillis = blockTimeoutMillis;
+    }
+
+    /**
+     * Encola un frame aplicando la política de desborde
+     *
+     * Si devuelve false la referencia sigue siendo del que llama.
+     *
+     * @param msg Frame a enviar (con una referencia para la cola)
+     * @return false si el cliente debe ser desconectado
+     */
+    public boolean offer(OutboundFrame msg) {
+        if (queue.offer(msg)) {
+            enqueued.incrementAndGet();
+            return true;
+        }
+
+        switch (policy) {
+            case DROP_OLDEST:
+                while (!queue.offer(msg)) {
+                    OutboundFrame oldest = queue.poll();
+                    if (oldest != null) {
+                        oldest.release();
+                        dropped.incrementAndGet();
+                    }
+                }
+                enqueued.incrementAndGet();
+                return true;
+
+            case BLOCK:
+                try {
+                    if (queue.offer(msg, blockTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                        enqueued.incrementAndGet();
+                        return true;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                dropped.incrementAndGet();
+                return false;
+
+            case DISCONNECT:
+            default:
+                dropped.incrementAndGet();
+                return false;
+        }
+    }
+
+    /**
+     * Espera y retira el siguiente frame (la referencia pasa al escritor)
+     */
+    public OutboundFrame take() throws InterruptedException {
+        return queue.take();
+    }
+
+    /**
+     * Retira el siguiente frame o null si no hay
+     */
+    public OutboundFrame poll() {
+        return queue.poll();
+    }
+
+    /**
+     * Descarta todos los frames pendientes
+     */
+    public void clear() {
+        OutboundFrame frame;
+        while ((frame = queue.poll()) != null) {
+            frame.release();
+        }
+    }
+
+    public boolean isEmpty() { return queue.isEmpty(); }
+    public int getDepth() { return queue.size(); }
+    public int getCapacity() { return queue.size() + queue.remainingCapacity(); }
+    public long getEnqueuedCount() { return enqueued.get(); }
+    public long getDroppedCount() { return dropped.get(); }
+    public OverflowPolicy getPolicy() { return policy; }
+}
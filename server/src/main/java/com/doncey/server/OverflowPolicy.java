@@ -0,0 +1,29 @@
+package com.doncey.server;
+
+/**
+ * Política cuando la cola de salida de un cliente está llena
+ *
+ * - DROP_OLDEST: descarta el mensaje más viejo para hacer lugar
+ * - DISCONNECT: desconecta al cliente lento
+ * - BLOCK: espera hasta un timeout; si no hay lugar, desconecta
+ */
+public enum OverflowPolicy {
+    DROP_OLDEST,
+    DISCONNECT,
+    BLOCK;
+
+    /**
+     * Convierte un texto de línea de comandos en una política
+     *
+     * @param value Texto (drop-oldest, disconnect, block)
+     * @return Política correspondiente
+     * @throws IllegalArgumentException si la política no existe
+     */
+    public static OverflowPolicy parse(String value) {
+        String normalized = value.trim().replace('-', '_');
+        for (OverflowPolicy policy : values()) {
+            if (policy.name().equalsIgnoreCase(normalized)) return policy;
+        }
+        throw new IllegalArgumentException("Política de desborde inválida: " + value);
+    }
+}
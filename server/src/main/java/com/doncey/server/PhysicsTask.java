@@ -0,0 +1,63 @@
+package com.doncey.server;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Fase de física de un tick repartida en un pool fork-join
+ *
+ * Cada slot del PlayerStore se actualiza sólo con su propio estado y el
+ * índice de plataformas (inmutable), así que los slots se pueden
+ * repartir en tramos sin sincronizar nada y el resultado es idéntico al
+ * de la ejecución serial. Las muertes se marcan en un arreglo y
+ * GameWorld las procesa después, en orden de ID y en un solo thread.
+ */
+@SuppressWarnings("serial") // RecursiveAction es Serializable, pero la tarea nunca se serializa
+final class PhysicsTask extends RecursiveAction {
+
+    private static final int CHUNK = 256; // Slots por tarea hoja
+
+    private static ForkJoinPool pool = null;
+
+    private final PlayerStore store;
+    private final boolean[] died;
+    private final PlatformGrid platforms;
+    private final int from;
+    private final int to;
+
+    /**
+     * Crea la tarea para los slots [from, to)
+     *
+     * @param store Estado de los jugadores de la sala
+     * @param died Salida: true en cada slot cuyo jugador murió
+     * @param platforms Índice de plataformas del nivel
+     * @param from Primer slot
+     * @param to Slot final (exclusivo)
+     */
+    PhysicsTask(PlayerStore store, boolean[] died, PlatformGrid platforms, int from, int to) {
+        this.store = store;
+        this.died = died;
+        this.platforms = platforms;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+        if (to - from <= CHUNK) {
+            store.step(platforms, died, from, to);
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        invokeAll(new PhysicsTask(store, died, platforms, from, mid),
+                  new PhysicsTask(store, died, platforms, mid, to));
+    }
+
+    /**
+     * Pool compartido por todas las salas (se crea al primer uso)
+     */
+    static synchronized ForkJoinPool pool() {
+        if (pool == null) pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        return pool;
+    }
+}
@@ -14,15 +14,22 @@ public class Platform {
     }
 
     public boolean collides(Player p) {
+        return collides(p.getX(), p.getY(), p.getPrevY(), p.getWidth(), p.getHeight());
+    }
+
+    /**
+     * Colisión con una caja dada por valores primitivos (PlayerStore)
+     */
+    public boolean collides(int px, int py, int prevY, int pWidth, int pHeight) {
 
         boolean horizontal =
-                p.getX() < x + width &&
-                p.getX() + p.getWidth() > x;
+                px < x + width &&
+                px + pWidth > x;
 
         // El jugador viene cayendo y toca la parte superior de la plataforma
         boolean vertical =
-                p.getY() + p.getHeight() >= y &&
-                p.getPrevY() + p.getHeight() <= y;
+                py + pHeight >= y &&
+                prevY + pHeight <= y;
 
         return horizontal && vertical;
     }
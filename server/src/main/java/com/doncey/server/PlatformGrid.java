@@ -0,0 +1,165 @@
+package com.doncey.server;
+
+import java.util.List;
+
+/**
+ * Índice espacial (grilla uniforme) de las plataformas de un nivel
+ *
+ * Un jugador sólo puede chocar con el borde superior de una plataforma,
+ * así que cada plataforma se guarda en las celdas que cubre su borde
+ * superior. La consulta recorre sólo las celdas del recorrido del
+ * jugador en el frame (de prevY a y) y, dentro de cada celda, las
+ * plataformas en el orden del nivel: devuelve la misma plataforma que
+ * el recorrido lineal con Platform.collides().
+ *
+ * Se construye una vez al cargar el nivel y es inmutable, así que lo
+ * comparten sin sincronizar todos los jugadores y todas las salas.
+ */
+public final class PlatformGrid {
+
+    private static final int MIN_CELL_SIZE = 64; // px
+    private static final int CELLS_PER_PLATFORM = 4; // Limita la memoria en niveles muy grandes
+
+    private final Platform[] platforms;
+    private final int minX;
+    private final int minY;
+    private final int cellSize;
+    private final int cols;
+    private final int rows;
+    private final int[] cellStart; // Inicio de cada celda en entries (cols * rows + 1)
+    private final int[] entries; // Índices de plataforma, crecientes dentro de cada celda
+
+    /**
+     * Construye el índice
+     *
+     * @param level Plataformas en el orden del nivel (define la prioridad)
+     */
+    public PlatformGrid(List<Platform> level) {
+        this.platforms = level.toArray(new Platform[0]);
+
+        long minX = Long.MAX_VALUE, maxX = Long.MIN_VALUE;
+        long minY = Long.MAX_VALUE, maxY = Long.MIN_VALUE;
+        for (Platform p : platforms) {
+            minX = Math.min(minX, left(p));
+            maxX = Math.max(maxX, right(p));
+            minY = Math.min(minY, p.getY());
+            maxY = Math.max(maxY, p.getY());
+        }
+        if (minX > maxX) {
+            minX = maxX = minY = maxY = 0; // Nivel sin plataformas
+        }
+
+        // Celdas de al menos MIN_CELL_SIZE, agrandadas si el nivel es enorme
+        double area = (double) (maxX - minX + 1) * (maxY - minY + 1);
+        long maxCells = Math.max(1024L, (long) platforms.length * CELLS_PER_PLATFORM);
+        this.cellSize = (int) Math.max(MIN_CELL_SIZE, Math.ceil(Math.sqrt(area / maxCells)));
+        this.minX = (int) minX;
+        this.minY = (int) minY;
+        this.cols = (int) ((maxX - minX) / cellSize + 1);
+        this.rows = (int) ((maxY - minY) / cellSize + 1);
+
+        // Dos pasadas: contar por celda y después llenar
+        this.cellStart = new int[cols * rows + 1];
+        for (Platform p : platforms) {
+            int row = row(p.getY());
+            for (int c = col(left(p)); c <= col(right(p)); c++) {
+                cellStart[row * cols + c + 1]++;
+            }
+        }
+        for (int i = 1; i < cellStart.length; i++) {
+            cellStart[i] += cellStart[i - 1];
+        }
+        this.entries = new int[cellStart[cellStart.length - 1]];
+        int[] fill = new int[cols * rows];
+        for (int i = 0; i < platforms.length; i++) {
+            Platform p = platforms[i];
+            int row = row(p.getY());
+            for (int c = col(left(p)); c <= col(right(p)); c++) {
+                int cell = row * cols + c;
+                entries[cellStart[cell] + fill[cell]++] = i;
+            }
+        }
+    }
+
+    /**
+     * Busca la plataforma sobre la que aterriza el jugador en este frame
+     *
+     * Sólo revisa las plataformas cuyo borde superior cae dentro del
+     * recorrido del jugador: columnas de x a x + ancho y filas de
+     * prevY + alto a y + alto.
+     *
+     * @param p Jugador (con x, y y prevY del frame)
+     * @return Primera plataforma del nivel que colisiona, o null
+     */
+    public Platform firstCollision(Player p) {
+        return firstCollision(p.getX(), p.getY(), p.getPrevY(), p.getWidth(), p.getHeight());
+    }
+
+    /**
+     * Igual que firstCollision(Player), con la caja en valores primitivos
+     *
+     * @param x Posición X
+     * @param y Posición Y al final del frame
+     * @param prevY Posición Y al principio del frame
+     * @param width Ancho
+     * @param height Alto
+     * @return Primera plataforma del nivel que colisiona, o null
+     */
+    public Platform firstCollision(int x, int y, int prevY, int width, int height) {
+        int top = prevY + height;
+        int bottom = y + height;
+        // Con ancho <= 0 Platform.collides igual puede dar true: se toma
+        // el tramo entre x y x + ancho - 1 en cualquier orden
+        int left = Math.min(x, x + width - 1);
+        int right = Math.max(x, x + width - 1);
+        if (top > bottom || entries.length == 0) return null;
+
+        int c0 = col(left), c1 = col(right);
+        int r0 = row(top), r1 = row(bottom);
+        if (c1 < 0 || c0 >= cols || r1 < 0 || r0 >= rows) return null;
+        c0 = Math.max(c0, 0);
+        c1 = Math.min(c1, cols - 1);
+        r0 = Math.max(r0, 0);
+        r1 = Math.min(r1, rows - 1);
+
+        int best = Integer.MAX_VALUE;
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                int cell = r * cols + c;
+                for (int k = cellStart[cell]; k < cellStart[cell + 1]; k++) {
+                    int index = entries[k];
+                    if (index >= best) break; // Las que siguen tienen menos prioridad
+                    if (platforms[index].collides(x, y, prevY, width, height)) {
+                        best = index;
+                        break;
+                    }
+                }
+            }
+        }
+        return best == Integer.MAX_VALUE ? null : platforms[best];
+    }
+
+    /**
+     * Cantidad de plataformas indexadas
+     */
+    public int size() {
+        return platforms.length;
+    }
+
+    // Columnas que ocupa una plataforma (un ancho <= 0 cubre x + ancho - 1 .. x)
+    private static long left(Platform p) {
+        return Math.min(p.getX(), (long) p.getX() + p.getWidth() - 1);
+    }
+
+    private static long right(Platform p) {
+        return Math.max(p.getX(), (long) p.getX() + p.getWidth() - 1);
+    }
+
+    private int col(long x) {
+        return (int) Math.floorDiv(x - minX, cellSize);
+    }
+
+    private int row(long y) {
+        return (int) Math.floorDiv(y - minY, cellSize);
+    }
+}
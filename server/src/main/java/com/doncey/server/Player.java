@@ -1,12 +1,20 @@
 package com.doncey.server;
 
-import java.util.List;
+import com.doncey.server.protocol.Opcode;
+import com.doncey.server.protocol.ServerMessage;
+import com.doncey.utils.log.LogCategory;
+import com.doncey.utils.log.LogLevel;
+import com.doncey.utils.log.ServerLog;
 
 /**
  * Player - Jugador del juego DonCEy Kong Jr
  * 
  * Maneja el estado, física y controles del jugador.
  * 
+ * El estado vive en el PlayerStore de la sala (arreglos paralelos por
+ * slot); esta clase es la fachada sobre su slot. No debe usarse después
+ * de GameWorld.unregisterPlayer(): el slot pasa a otro jugador.
+ * 
  * Características:
  * - Movimiento horizontal (izquierda/derecha)
  * - Salto con gravedad realista
@@ -15,87 +23,160 @@ import java.util.List;
  */
 public class Player {
     private final int id;
-    private int x;
-    private int y;
-    private int prevY;   
-    private boolean alive = true;
-    
-    // Control de movimiento
-    private boolean movingLeft = false;
-    private boolean movingRight = false;
-    
-    // Física
-    private float velocityY = 0;
-    private boolean onGround = false;
+    private final PlayerStore store; // Estado de simulación (arreglos paralelos)
+    private final int slot; // Posición del jugador en el store
+    private boolean released = false; // Ya salió de la sala (protegido por el store)
+    private volatile ClientSession session; // Sesión dueña (null en jugadores sueltos)
     
     // Constantes de física
-    private static final float GRAVITY = 1.2f;
-    private static final float JUMP_FORCE = -20.0f;
-    private static final int WALK_SPEED = 5;
+    static final float GRAVITY = 1.2f;
+    static final float JUMP_FORCE = -20.0f;
+    static final int WALK_SPEED = 5;
     
     // Dimensiones
-    private static final int WIDTH = 32;
-    private static final int HEIGHT = 48;
+    static final int WIDTH = 32;
+    static final int HEIGHT = 48;
     
     // Límites de pantalla
-    private static final int MIN_X = 0;
-    private static final int MAX_X = 1024 - WIDTH;
-    private static final int FLOOR_Y = 768 - HEIGHT;
+    static final int MIN_X = 0;
+    static final int MAX_X = 1024 - WIDTH;
+    static final int FLOOR_Y = 768 - HEIGHT;
     public static final int SCREEN_HEIGHT = 768;
     
     /**
      * Constructor del Jugador
      * 
+     * Crea un jugador suelto, con su propio almacenamiento. Los de una
+     * sala se crean con GameWorld.registerPlayer() y comparten el
+     * PlayerStore de la sala.
+     * 
      * @param id ID único del jugador
      * @param startX Posición X inicial
      * @param startY Posición Y inicial
      */
     public Player(int id, int startX, int startY) {
         this.id = id;
-        this.x = startX;
-        this.y = startY;
-        this.prevY = startY;
-        this.velocityY = 0;
-        this.onGround = false;
+        this.store = new PlayerStore(1);
+        this.slot = store.allocateSlot(id, startX, startY);
+    }
+    
+    /**
+     * Crea la fachada de un slot ya reservado
+     * 
+     * @param store Store de la sala
+     * @param id ID único del jugador
+     * @param slot Slot reservado con store.allocate()
+     */
+    Player(PlayerStore store, int id, int slot) {
+        this.id = id;
+        this.store = store;
+        this.slot = slot;
+    }
+    
+    int getSlot() {
+        return slot;
+    }
+    
+    ClientSession getSession() {
+        return session;
+    }
+    
+    void setSession(ClientSession session) {
+        this.session = session;
+    }
+    
+    /**
+     * Marca al jugador como fuera de la sala (con el monitor del store)
+     * 
+     * Los comandos que todavía estén en la cola de entrada se ignoran.
+     */
+    void release() {
+        released = true;
     }
     
     // ==========================
     // CONTROLES
     // ==========================
+    // Sólo los llama el game loop al aplicar la cola de entrada
+    // (GameWorld.processPlayerAction), nunca el thread del cliente
     
     /**
      * Inicia movimiento hacia la izquierda
      */
     public void moveLeft() { 
-        movingLeft = true; 
+        if (released) return;
+        store.setMoving(slot, true, (store.flags[slot] & PlayerStore.RIGHT) != 0);
     }
     
     /**
      * Inicia movimiento hacia la derecha
      */
     public void moveRight() { 
-        movingRight = true; 
+        if (released) return;
+        store.setMoving(slot, (store.flags[slot] & PlayerStore.LEFT) != 0, true);
     }
     
     /**
      * Detiene todo movimiento horizontal
      */
     public void stopMoving() {
-        movingLeft = false;
-        movingRight = false;
+        if (released) return;
+        store.setMoving(slot, false, false);
     }
     
     /**
      * Realiza un salto si está en el suelo
      */
     public void jump() {
-        if (onGround) {
-            velocityY = JUMP_FORCE;
-            onGround = false;
-            System.out.println("[PLAYER #" + id + "] SALTO");
+        if (released) return;
+        if ((store.flags[slot] & PlayerStore.GROUND) != 0) {
+            store.velocityYs[slot] = JUMP_FORCE;
+            store.flags[slot] &= ~PlayerStore.GROUND;
+            if (ServerLog.isEnabled(LogCategory.GAME, LogLevel.DEBUG)) {
+                ServerLog.debug(LogCategory.GAME, "[PLAYER #" + id + "] SALTO");
+            }
+        }
+    }
+    
+    /**
+     * Marca el tick en que se aplicó el último comando (game loop)
+     * 
+     * @param tick Número de tick
+     */
+    void setLastInputTick(long tick) {
+        if (released) return;
+        store.lastInputTicks[slot] = tick;
+    }
+    
+    /**
+     * Tick en que se aplicó el último comando del jugador
+     * 
+     * @return Número de tick (0 si nunca envió uno)
+     */
+    public long getLastInputTick() {
+        return store.lastInputTicks[slot];
+    }
+    
+    /**
+     * Suma puntos al jugador (con el monitor del store)
+     * 
+     * @param points Puntos ganados
+     * @return Puntaje acumulado en la sala
+     */
+    int addScore(int points) {
+        synchronized (store) {
+            if (released) return 0;
+            return store.scores[slot] += points;
         }
     }
     
+    /**
+     * Puntaje acumulado en la sala
+     */
+    public int getScore() {
+        return store.scores[slot];
+    }
+    
     // ==========================
     // UPDATE (FÍSICA Y COLISIONES)
     // ==========================
@@ -110,59 +191,18 @@ public class Player {
      * - Colisión con suelo
      * - Límites de pantalla
      * 
-     * @param platforms Lista de plataformas para detectar colisiones
+     * Las salas no la usan: avanzan todos sus jugadores de una vez con
+     * PlayerStore.step(), que hace exactamente lo mismo.
+     * 
+     * @param platforms Índice de plataformas del nivel (puede ser null)
+     * @return true si el jugador murió en este frame (lo notifica la sala)
      */
-    public void update(List<Platform> platforms) {
-        // Guardar la posición previa ANTES de mover
-        prevY = y;
-        
-        // ----------- MOVIMIENTO HORIZONTAL -----------
-        if (movingLeft) {
-            x -= WALK_SPEED;
-        }
-        if (movingRight) {
-            x += WALK_SPEED;
-        }
-        
-        // ----------- FÍSICA DE GRAVEDAD -----------
-        velocityY += GRAVITY;
-        y += (int)velocityY;
-        
-        // Aún no está en suelo (se resetea cada frame)
-        onGround = false;
-        
-        // ----------- COLISIÓN CON PLATAFORMAS -----------
-        if (platforms != null) {
-            for (Platform p : platforms) {
-                if (velocityY >= 0 && p.collides(this)) {
-                    // Aterriza encima de la plataforma
-                    y = p.getY() - HEIGHT;
-                    velocityY = 0;
-                    onGround = true;
-                    break;
-                }
-            }
-        }
-        
-        // ----------- COLISIÓN CON EL SUELO -----------
-        if (y >= FLOOR_Y) {
-            y = FLOOR_Y;
-            velocityY = 0;
-            onGround = true;
-        }
-        
-        // ----------- LÍMITES DE PANTALLA HORIZONTAL -----------
-        if (x < MIN_X) x = MIN_X;
-        if (x > MAX_X) x = MAX_X;
-
-        // ============================================================
-        //         MUERTE: cuando la parte de abajo toca el borde
-        // ============================================================
-
-        if (y + HEIGHT >= SCREEN_HEIGHT) {
-            die();
-            GameWorld.getInstance().playerDied(id);
+    public boolean update(PlatformGrid platforms) {
+        synchronized (store) {
+            if (store.step(platforms, null, slot, slot + 1) == 0) return false;
         }
+        die();
+        return true;
     }
     
     // ==========================
@@ -173,13 +213,15 @@ public class Player {
      * Pierde una vida
      */
     public void loseLive() {
-        System.out.println("[PLAYER #" + id + "] Perdió una vida");
+        ServerLog.info(LogCategory.GAME, "[PLAYER #" + id + "] Perdió una vida");
     }
 
     public void die() {
-        alive = false;
+        synchronized (store) {
+            if (!released) store.flags[slot] &= ~PlayerStore.ALIVE;
+        }
         // Mostrar mensaje o animación de muerte si querés
-        System.out.println("Jugador " + id + " murió");
+        ServerLog.info(LogCategory.GAME, "Jugador " + id + " murió");
     }
 
     /**
@@ -206,21 +248,21 @@ public class Player {
      * Obtiene posición X actual
      */
     public int getX() { 
-        return x; 
+        return store.xs[slot]; 
     }
     
     /**
      * Obtiene posición Y actual
      */
     public int getY() { 
-        return y; 
+        return store.ys[slot]; 
     }
     
     /**
      * Obtiene la posición Y anterior (antes de este frame)
      */
     public int getPrevY() { 
-        return prevY; 
+        return store.prevYs[slot]; 
     }
     
     /**
@@ -241,14 +283,14 @@ public class Player {
      * Verifica si el jugador está en el suelo
      */
     public boolean isOnGround() {
-        return onGround;
+        return (store.flags[slot] & PlayerStore.GROUND) != 0;
     }
     
     /**
      * Obtiene la velocidad Y actual
      */
     public float getVelocityY() {
-        return velocityY;
+        return store.velocityYs[slot];
     }
     
     // ==========================
@@ -261,11 +303,22 @@ public class Player {
      * Formato: "PLAYER_POS id x y"
      */
     public String getPositionMessage() {
-        return String.format("PLAYER_POS %d %d %d", id, x, y);
+        return "PLAYER_POS " + id + " " + getX() + " " + getY();
+    }
+    
+    /**
+     * Crea el mensaje de posición sin codificar (texto o binario)
+     * 
+     * Formato de texto: "PLAYER_POS id x y"
+     * 
+     * @return Mensaje con la posición actual
+     */
+    public ServerMessage getPositionUpdate() {
+        return ServerMessage.of(Opcode.PLAYER_POS, id, getX(), getY());
     }
     
     @Override
     public String toString() {
-        return "Player{id=" + id + ", pos=(" + x + "," + y + "), onGround=" + onGround + "}";
+        return "Player{id=" + id + ", pos=(" + getX() + "," + getY() + "), onGround=" + isOnGround() + "}";
     }
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.doncey.server;
+
+/**
+ * Acciones de control de un jugador
+ *
+ * Las producen tanto el protocolo de texto (MOVE_LEFT, ...) como el
+ * binario (un opcode por acción) y las aplica GameWorld.
+ */
+public enum PlayerAction {
+    MOVE_LEFT,
+    MOVE_RIGHT,
+    STOP_MOVING,
+    JUMP;
+
+    /**
+     * Convierte el nombre de un comando de texto en acción
+     *
+     * @param command Comando (ej: "MOVE_LEFT"), sin importar mayúsculas
+     * @return Acción o null si no es un comando de control
+     */
+    public static PlayerAction parse(String command) {
+        switch (command.toUpperCase()) {
+            case "MOVE_LEFT": return MOVE_LEFT;
+            case "MOVE_RIGHT": return MOVE_RIGHT;
+            case "STOP_MOVING": return STOP_MOVING;
+            case "JUMP": return JUMP;
+            default: return null;
+        }
+    }
+}
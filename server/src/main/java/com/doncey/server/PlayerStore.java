@@ -0,0 +1,254 @@
+package com.doncey.server;
+
+import java.util.Arrays;
+
+/**
+ * Estado de simulación de los jugadores de una sala en arreglos paralelos
+ *
+ * Cada jugador ocupa un slot (índice denso) y sus datos están en
+ * arreglos primitivos: posición, velocidad, flags, etc. Player es sólo
+ * una fachada sobre su slot. La física del tick recorre los arreglos de
+ * forma secuencial (step), en dos pasadas:
+ * - Movimiento y gravedad: aritmética pura sobre todos los slots, sin
+ *   saltos ni accesos indirectos (el JIT la puede vectorizar).
+ * - Colisiones, suelo, límites y muerte: sólo los slots ocupados.
+ * El resultado es idéntico al de actualizar jugador por jugador.
+ *
+ * Los slots libres se reutilizan (lista libre). Un slot liberado no se
+ * reutiliza hasta el próximo tick (reclaim), para que nadie lea en el
+ * tick en curso los datos de otro jugador. Las altas, bajas y la física
+ * se ordenan con el monitor del store.
+ */
+final class PlayerStore {
+
+    // Flags por slot
+    static final byte USED = 1;
+    static final byte LEFT = 2;
+    static final byte RIGHT = 4;
+    static final byte GROUND = 8;
+    static final byte ALIVE = 16;
+
+    // Arreglos paralelos (se reemplazan al crecer, con el monitor tomado)
+    int[] ids;
+    int[] xs;
+    int[] ys;
+    int[] prevYs;
+    int[] walks; // Desplazamiento horizontal por frame según LEFT/RIGHT
+    float[] velocityYs;
+    byte[] flags;
+    long[] lastInputTicks;
+    int[] scores; // Puntos acumulados en la sala
+    private Player[] players; // Fachada de cada slot ocupado (null si es un jugador suelto)
+    private long[] order = new long[16]; // (id << 32 | slot) para ordenar sin comparar objetos
+
+    private int highWater = 0; // Slots usados alguna vez: [0, highWater)
+    private int[] freeSlots = new int[16];
+    private int freeCount = 0;
+    private int[] pendingSlots = new int[16]; // Liberados en este tick
+    private int pendingCount = 0;
+
+    /**
+     * Crea un store vacío
+     *
+     * @param capacity Slots iniciales (crece si hace falta)
+     */
+    PlayerStore(int capacity) {
+        resize(Math.max(1, capacity));
+    }
+
+    // ======== ALTAS Y BAJAS ========
+
+    /**
+     * Reserva un slot para un jugador nuevo de la sala
+     *
+     * @param id ID del jugador
+     * @param x Posición X inicial
+     * @param y Posición Y inicial
+     * @return Fachada del jugador
+     */
+    synchronized Player allocate(int id, int x, int y) {
+        int slot = allocateSlot(id, x, y);
+        Player player = new Player(this, id, slot);
+        players[slot] = player;
+        return player;
+    }
+
+    /**
+     * Reserva un slot y lo inicializa
+     *
+     * @param id ID del jugador
+     * @param x Posición X inicial
+     * @param y Posición Y inicial
+     * @return Slot asignado
+     */
+    synchronized int allocateSlot(int id, int x, int y) {
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            if (highWater == ids.length) resize(ids.length * 2);
+            slot = highWater++;
+        }
+        ids[slot] = id;
+        xs[slot] = x;
+        ys[slot] = y;
+        prevYs[slot] = y;
+        walks[slot] = 0;
+        velocityYs[slot] = 0;
+        flags[slot] = USED | ALIVE;
+        lastInputTicks[slot] = 0;
+        scores[slot] = 0;
+        return slot;
+    }
+
+    /**
+     * Libera un slot; se reutiliza a partir del próximo tick
+     *
+     * @param slot Slot a liberar
+     */
+    synchronized void release(int slot) {
+        flags[slot] = 0;
+        players[slot] = null;
+        if (pendingCount == pendingSlots.length) pendingSlots = Arrays.copyOf(pendingSlots, pendingCount * 2);
+        pendingSlots[pendingCount++] = slot;
+    }
+
+    /**
+     * Pasa a la lista libre los slots liberados en el tick anterior
+     *
+     * Se llama al principio de cada tick, con el monitor tomado.
+     */
+    void reclaim() {
+        if (freeCount + pendingCount > freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, Math.max(freeSlots.length * 2, freeCount + pendingCount));
+        }
+        System.arraycopy(pendingSlots, 0, freeSlots, freeCount, pendingCount);
+        freeCount += pendingCount;
+        pendingCount = 0;
+    }
+
+    /**
+     * Límite superior de los slots en uso (para recorrer [0, highWater))
+     */
+    int highWater() {
+        return highWater;
+    }
+
+    private void resize(int capacity) {
+        ids = grow(ids, capacity);
+        xs = grow(xs, capacity);
+        ys = grow(ys, capacity);
+        prevYs = grow(prevYs, capacity);
+        walks = grow(walks, capacity);
+        velocityYs = velocityYs == null ? new float[capacity] : Arrays.copyOf(velocityYs, capacity);
+        flags = flags == null ? new byte[capacity] : Arrays.copyOf(flags, capacity);
+        lastInputTicks = lastInputTicks == null ? new long[capacity] : Arrays.copyOf(lastInputTicks, capacity);
+        scores = grow(scores, capacity);
+        players = players == null ? new Player[capacity] : Arrays.copyOf(players, capacity);
+    }
+
+    private static int[] grow(int[] array, int capacity) {
+        return array == null ? new int[capacity] : Arrays.copyOf(array, capacity);
+    }
+
+    /**
+     * Copia los jugadores de la sala ordenados por ID (game loop)
+     *
+     * Recorre los slots en vez de un mapa y ordena claves primitivas.
+     * Se llama con el monitor tomado.
+     *
+     * @param out Destino (de al menos highWater() posiciones)
+     * @return Cantidad de jugadores
+     */
+    int sortedById(Player[] out) {
+        if (order.length < highWater) order = new long[Math.max(highWater, order.length * 2)];
+        int n = 0;
+        for (int i = 0; i < highWater; i++) {
+            if (players[i] != null) order[n++] = ((long) ids[i] << 32) | i;
+        }
+        Arrays.sort(order, 0, n);
+        for (int k = 0; k < n; k++) {
+            out[k] = players[(int) order[k]];
+        }
+        return n;
+    }
+
+    // ======== CONTROLES (game loop) ========
+
+    /**
+     * Activa o desactiva un flag de movimiento y recalcula el desplazamiento
+     */
+    void setMoving(int slot, boolean left, boolean right) {
+        byte f = (byte) (flags[slot] & ~(LEFT | RIGHT));
+        if (left) f |= LEFT;
+        if (right) f |= RIGHT;
+        flags[slot] = f;
+        walks[slot] = (right ? Player.WALK_SPEED : 0) - (left ? Player.WALK_SPEED : 0);
+    }
+
+    // ======== FÍSICA ========
+
+    /**
+     * Avanza un frame de los slots [from, to)
+     *
+     * @param platforms Índice de plataformas (puede ser null)
+     * @param died Salida: true en cada slot cuyo jugador murió en este frame (puede ser null)
+     * @param from Primer slot
+     * @param to Slot final (exclusivo)
+     * @return Cantidad de jugadores que murieron
+     */
+    int step(PlatformGrid platforms, boolean[] died, int from, int to) {
+        int[] xs = this.xs, ys = this.ys, prevYs = this.prevYs, walks = this.walks;
+        float[] velocityYs = this.velocityYs;
+        byte[] flags = this.flags;
+
+        // Pasada 1: movimiento horizontal y gravedad (sin ramas)
+        for (int i = from; i < to; i++) {
+            prevYs[i] = ys[i];
+            xs[i] += walks[i];
+            float v = velocityYs[i] + Player.GRAVITY;
+            velocityYs[i] = v;
+            ys[i] += (int) v;
+        }
+
+        // Pasada 2: colisiones, suelo, límites y muerte (slots ocupados)
+        int deaths = 0;
+        for (int i = from; i < to; i++) {
+            byte f = flags[i];
+            if ((f & USED) == 0) {
+                if (died != null) died[i] = false;
+                continue;
+            }
+            f &= ~GROUND; // Aún no está en suelo (se resetea cada frame)
+
+            // Colisión con plataformas (sólo las que cruzó en este frame)
+            if (platforms != null && velocityYs[i] >= 0) {
+                Platform p = platforms.firstCollision(xs[i], ys[i], prevYs[i], Player.WIDTH, Player.HEIGHT);
+                if (p != null) {
+                    // Aterriza encima de la plataforma
+                    ys[i] = p.getY() - Player.HEIGHT;
+                    velocityYs[i] = 0;
+                    f |= GROUND;
+                }
+            }
+
+            // Colisión con el suelo
+            if (ys[i] >= Player.FLOOR_Y) {
+                ys[i] = Player.FLOOR_Y;
+                velocityYs[i] = 0;
+                f |= GROUND;
+            }
+
+            // Límites de pantalla horizontal
+            if (xs[i] < Player.MIN_X) xs[i] = Player.MIN_X;
+            if (xs[i] > Player.MAX_X) xs[i] = Player.MAX_X;
+            flags[i] = f;
+
+            // Muerte: cuando la parte de abajo toca el borde
+            boolean dead = ys[i] + Player.HEIGHT >= Player.SCREEN_HEIGHT;
+            if (died != null) died[i] = dead;
+            if (dead) deaths++;
+        }
+        return deaths;
+    }
+}
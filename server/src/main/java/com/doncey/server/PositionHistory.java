@@ -0,0 +1,135 @@
+package com.doncey.server;
+
+import java.util.List;
+
+import com.doncey.server.protocol.Opcode;
+import com.doncey.server.protocol.ServerMessage;
+
+/**
+ * Historial de posiciones de los últimos ticks
+ *
+ * Guarda, en un anillo de tamaño fijo, las posiciones de todos los
+ * jugadores vivos en cada tick (ordenadas por ID). Sirve de base
+ * (baseline) para codificar WORLD_DELTA: sólo los jugadores que
+ * cambiaron desde el último tick que el cliente confirmó con ACK.
+ *
+ * Los arreglos de cada entrada se reutilizan, así que registrar un
+ * tick no reserva memoria salvo cuando crece la cantidad de jugadores.
+ * Lo usa sólo el thread del game loop.
+ */
+public class PositionHistory {
+
+    // Tipos de entrada de WORLD_DELTA
+    public static final int MOVED = 0; // a, b = desplazamiento (dx, dy)
+    public static final int ADDED = 1; // a, b = posición absoluta (x, y)
+    public static final int REMOVED = 2; // a, b = 0
+
+    private final Entry[] ring;
+
+    /**
+     * Posiciones de todos los jugadores en un tick
+     */
+    static final class Entry {
+        long tick = -1;
+        int count = 0;
+        int[] ids = new int[16];
+        int[] xs = new int[16];
+        int[] ys = new int[16];
+    }
+
+    /**
+     * Crea un historial
+     *
+     * @param size Cantidad de ticks que se recuerdan
+     */
+    public PositionHistory(int size) {
+        ring = new Entry[size];
+        for (int i = 0; i < size; i++) {
+            ring[i] = new Entry();
+        }
+    }
+
+    /**
+     * Guarda las posiciones de un tick (pisa el tick más viejo)
+     *
+     * @param tick Número de tick
+     * @param alive Jugadores vivos ordenados por ID
+     * @return Entrada del tick
+     */
+    Entry record(long tick, List<Player> alive) {
+        Entry entry = ring[(int) (tick % ring.length)];
+        int n = alive.size();
+        if (entry.ids.length < n) {
+            int size = Math.max(n, entry.ids.length * 2);
+            entry.ids = new int[size];
+            entry.xs = new int[size];
+            entry.ys = new int[size];
+        }
+        for (int i = 0; i < n; i++) {
+            Player player = alive.get(i);
+            entry.ids[i] = player.getId();
+            entry.xs[i] = player.getX();
+            entry.ys[i] = player.getY();
+        }
+        entry.count = n;
+        entry.tick = tick;
+        return entry;
+    }
+
+    /**
+     * Busca las posiciones de un tick si todavía están en el historial
+     *
+     * @param tick Número de tick
+     * @return Entrada o null si es muy viejo o nunca existió
+     */
+    Entry get(long tick) {
+        if (tick < 0) return null;
+        Entry entry = ring[(int) (tick % ring.length)];
+        return entry.tick == tick ? entry : null;
+    }
+
+    /**
+     * Construye el WORLD_DELTA entre dos ticks
+     *
+     * Recorre ambas listas ordenadas por ID a la vez: un ID que está en
+     * las dos y se movió es MOVED, uno que sólo está en el tick actual es
+     * ADDED y uno que sólo está en la base es REMOVED.
+     *
+     * Formato de texto: "WORLD_DELTA tick base n id kind a b ..."
+     *
+     * @param base Tick confirmado por el cliente
+     * @param current Tick actual
+     * @return Mensaje sin codificar
+     */
+    static ServerMessage delta(Entry base, Entry current) {
+        ServerMessage.Builder builder = ServerMessage.builder(Opcode.WORLD_DELTA, 3 + 4 * 8)
+            .add(current.tick).add(base.tick).add(0);
+        int changes = 0;
+        int i = 0;
+        int j = 0;
+        while (i < base.count || j < current.count) {
+            int baseId = i < base.count ? base.ids[i] : Integer.MAX_VALUE;
+            int currentId = j < current.count ? current.ids[j] : Integer.MAX_VALUE;
+
+            if (baseId == currentId) {
+                int dx = current.xs[j] - base.xs[i];
+                int dy = current.ys[j] - base.ys[i];
+                if (dx != 0 || dy != 0) {
+                    builder.add(currentId).add(MOVED).add(dx).add(dy);
+                    changes++;
+                }
+                i++;
+                j++;
+            } else if (currentId < baseId) {
+                builder.add(currentId).add(ADDED).add(current.xs[j]).add(current.ys[j]);
+                changes++;
+                j++;
+            } else {
+                builder.add(baseId).add(REMOVED).add(0).add(0);
+                changes++;
+                i++;
+            }
+        }
+        return builder.set(2, changes).build();
+    }
+}
@@ -0,0 +1,272 @@
+package com.doncey.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.doncey.patterns.observer.GameEventPublisher;
+import com.doncey.utils.log.LogCategory;
+import com.doncey.utils.log.ServerLog;
+import com.doncey.utils.metrics.Counter;
+import com.doncey.utils.metrics.LatencyHistogram;
+import com.doncey.utils.metrics.MetricsRegistry;
+
+/**
+ * Salas de juego y su planificación
+ *
+ * Cada sala es un GameWorld independiente (jugadores, frutas, clientes
+ * y publisher de eventos propios). La sala 0 (lobby) existe siempre y
+ * es la de GameWorld.getInstance(); las demás se crean con ROOM_CREATE
+ * y se cierran cuando se va su último cliente.
+ *
+ * Los ticks de todas las salas los ejecuta un pool fijo de workers:
+ * el reloj del servidor (GameLoop) llama a dispatchTick() una vez por
+ * período y cada sala recibe a lo sumo un tick en la cola del pool.
+ * Garantía de equidad:
+ * - Una sala nunca tiene más de una tarea en la cola o en ejecución.
+ *   Si todavía no terminó, los ticks repartidos mientras tanto se le
+ *   deben y los ejecuta seguidos (catch-up) cuando el worker la toma,
+ *   hasta MAX_OWED_TICKS; el atraso por encima de eso se descarta y se
+ *   cuenta como saltado. Así una sala pesada ocupa como mucho un worker.
+ * - La cola del pool es FIFO y el orden de reparto rota en cada
+ *   período, así ninguna sala queda siempre al final. Si una sala
+ *   acumuló más ticks mientras corría, vuelve al final de la cola.
+ */
+public class RoomManager {
+
+    public static final int LOBBY_ID = 0;
+    private static final int MAX_ROOMS = 1024;
+    private static final int MAX_OWED_TICKS = 5; // Catch-up máximo por tarea (como GameLoop.MAX_CATCH_UP)
+
+    // Métricas de los ticks de sala, sumadas entre todas las salas (por sala: getTickStats)
+    private static final LatencyHistogram ROOM_TICK_TIME = MetricsRegistry.getInstance().histogram("room.tick");
+    private static final Counter ROOM_OVERRUNS = MetricsRegistry.getInstance().counter("room.overruns");
+    private static final Counter ROOM_SKIPPED = MetricsRegistry.getInstance().counter("room.skipped");
+
+    private static RoomManager instance = null;
+
+    private final Map<Integer, RoomTask> rooms = new ConcurrentHashMap<>();
+    private volatile RoomTask[] schedule = new RoomTask[0]; // Copia para repartir sin iterar el mapa
+    private final AtomicInteger roomIdCounter = new AtomicInteger(LOBBY_ID);
+    private final long tickNanos;
+    private volatile ExecutorService workers; // null hasta start()
+    private int rotation = 0; // Primera sala del próximo reparto (sólo el reloj)
+
+    /**
+     * Tick de una sala listo para el pool
+     */
+    private static final class RoomTask implements Runnable {
+        final GameWorld world;
+        final TickStats stats;
+        final AtomicInteger owed = new AtomicInteger(0); // Ticks repartidos y no ejecutados (> 0: encolada o en ejecución)
+        volatile long dispatchedAt; // nanoTime del reparto (para medir la espera en cola)
+        volatile ExecutorService pool; // Pool al que se repartió (null: corre en el thread del reloj)
+
+        RoomTask(GameWorld world, long tickNanos) {
+            this.world = world;
+            this.stats = new TickStats(tickNanos);
+        }
+
+        @Override
+        public void run() {
+            int due = owed.get();
+            if (due > MAX_OWED_TICKS) {
+                // Demasiado atraso: se ejecutan MAX_OWED_TICKS y el resto se descarta
+                stats.recordSkipped(due - MAX_OWED_TICKS);
+                ROOM_SKIPPED.add(due - MAX_OWED_TICKS);
+                owed.addAndGet(MAX_OWED_TICKS - due);
+                due = MAX_OWED_TICKS;
+            }
+            long start = System.nanoTime();
+            stats.recordJitter(start - dispatchedAt);
+            for (int i = 0; i < due; i++) {
+                if (i > 0) {
+                    stats.recordCatchUp();
+                    start = System.nanoTime();
+                }
+                try {
+                    world.updateGameLogic();
+                } catch (Exception e) {
+                    ServerLog.error(LogCategory.SERVER, "[ERROR]: Error en la sala " + world.getRoomId() + ": " + e.getMessage());
+                } finally {
+                    long duration = System.nanoTime() - start;
+                    ROOM_TICK_TIME.record(duration);
+                    if (stats.recordTick(duration)) ROOM_OVERRUNS.increment();
+                }
+            }
+            // Lo que se acumuló mientras corría: al final de la cola
+            if (owed.addAndGet(-due) > 0) requeue();
+        }
+
+        private void requeue() {
+            dispatchedAt = System.nanoTime();
+            ExecutorService current = pool;
+            if (current == null) {
+                run();
+                return;
+            }
+            try {
+                current.execute(this);
+            } catch (RejectedExecutionException e) {
+                owed.set(0); // Pool detenido
+            }
+        }
+    }
+
+    // ======== CONSTRUCTOR ========
+
+    private RoomManager() {
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(GameServer.GAME_UPDATE_RATE);
+        add(GameWorld.getInstance());
+    }
+
+    public static synchronized RoomManager getInstance() {
+        if (instance == null) instance = new RoomManager();
+        return instance;
+    }
+
+    // ======== SALAS ========
+
+    /**
+     * Crea una sala nueva con el nivel por defecto
+     *
+     * @return Sala creada o null si se alcanzó el máximo de salas
+     */
+    public synchronized GameWorld createRoom() {
+        if (rooms.size() >= MAX_ROOMS) return null;
+        GameWorld world = new GameWorld(roomIdCounter.incrementAndGet(), new GameEventPublisher());
+        add(world);
+        ServerLog.info(LogCategory.GAME, "[ROOMS] Sala creada: " + world.getRoomId() + " (total: " + rooms.size() + ")");
+        return world;
+    }
+
+    /**
+     * Busca una sala abierta
+     *
+     * @param roomId ID de la sala
+     * @return Sala o null si no existe
+     */
+    public GameWorld getRoom(int roomId) {
+        RoomTask task = rooms.get(roomId);
+        return task != null ? task.world : null;
+    }
+
+    /**
+     * Sala por defecto, a la que entra cada cliente al conectarse
+     */
+    public GameWorld getLobby() {
+        return GameWorld.getInstance();
+    }
+
+    /**
+     * Cierra una sala si se quedó sin clientes (el lobby nunca se cierra)
+     *
+     * @param world Sala que un cliente acaba de dejar
+     */
+    public synchronized void release(GameWorld world) {
+        if (world.getRoomId() == LOBBY_ID || !world.closeIfEmpty()) return;
+        rooms.remove(world.getRoomId());
+        schedule = rooms.values().toArray(new RoomTask[0]);
+        ServerLog.info(LogCategory.GAME, "[ROOMS] Sala cerrada: " + world.getRoomId() + " (total: " + rooms.size() + ")");
+    }
+
+    /**
+     * Lista las salas abiertas
+     *
+     * @return Copia de la lista de salas
+     */
+    public List<GameWorld> listRooms() {
+        List<GameWorld> list = new ArrayList<>(rooms.size());
+        for (RoomTask task : rooms.values()) list.add(task.world);
+        return list;
+    }
+
+    /**
+     * Cantidad de salas abiertas (incluye el lobby)
+     */
+    public int getRoomCount() {
+        return rooms.size();
+    }
+
+    /**
+     * Estadísticas de ticks de una sala
+     *
+     * @param roomId ID de la sala
+     * @return Estadísticas o null si la sala no existe
+     */
+    public TickStats getTickStats(int roomId) {
+        RoomTask task = rooms.get(roomId);
+        return task != null ? task.stats : null;
+    }
+
+    private synchronized void add(GameWorld world) {
+        rooms.put(world.getRoomId(), new RoomTask(world, tickNanos));
+        schedule = rooms.values().toArray(new RoomTask[0]);
+    }
+
+    // ======== PLANIFICACIÓN ========
+
+    /**
+     * Crea el pool de workers que ejecuta los ticks de las salas
+     *
+     * @param workerCount Cantidad de workers (normalmente, los núcleos)
+     */
+    public synchronized void start(int workerCount) {
+        if (workers != null) return;
+        AtomicInteger n = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(workerCount, r -> {
+            Thread t = new Thread(r, "RoomWorker-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        ServerLog.info(LogCategory.SERVER, "Workers de salas: " + workerCount);
+    }
+
+    /**
+     * Reparte un tick de cada sala al pool (lo llama el reloj del servidor)
+     *
+     * Sin pool (antes de start()) los ticks corren en el thread que llama.
+     */
+    public void dispatchTick() {
+        RoomTask[] tasks = schedule;
+        int n = tasks.length;
+        if (n == 0) return;
+        int first = Math.floorMod(rotation++, n);
+        long now = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            RoomTask task = tasks[(first + i) % n];
+            if (task.owed.getAndIncrement() > 0) continue; // Todavía no terminó: se le debe el tick
+            task.dispatchedAt = now;
+            ExecutorService pool = workers;
+            task.pool = pool;
+            if (pool == null) {
+                task.run();
+                continue;
+            }
+            try {
+                pool.execute(task);
+            } catch (RejectedExecutionException e) {
+                task.owed.set(0); // Pool detenido
+            }
+        }
+    }
+
+    /**
+     * Detiene el pool de workers
+     */
+    public synchronized void stop() {
+        if (workers != null) {
+            // Las salas que quedaron en la cola no van a correr: se les perdona el atraso
+            for (Runnable task : workers.shutdownNow()) {
+                if (task instanceof RoomTask room) room.owed.set(0);
+            }
+            workers = null;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.doncey.server;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Estadísticas de tiempo del game loop
+ *
+ * - Duración: cuánto tarda cada tick en ejecutarse
+ * - Jitter: cuánto tarde (respecto del instante programado) arrancó
+ *   el tick; sólo se mide en el primer tick de cada despertar
+ * - Overruns: ticks que tardaron más que su presupuesto
+ * - Catch-up: ticks ejecutados seguidos para recuperar atraso
+ * - Saltados: ticks descartados cuando el atraso superó el máximo
+ *   de catch-up
+ *
+ * La escribe sólo el thread del game loop; se puede leer desde
+ * cualquier thread (GUI, métricas).
+ */
+public class TickStats {
+
+    private final long budgetNanos; // Duración de un tick
+
+    private final LongAdder ticks = new LongAdder();
+    private final LongAdder totalDurationNanos = new LongAdder();
+    private final LongAccumulator maxDurationNanos = new LongAccumulator(Math::max, 0);
+    private volatile long lastDurationNanos = 0;
+
+    private final LongAdder jitterSamples = new LongAdder();
+    private final LongAdder totalJitterNanos = new LongAdder();
+    private final LongAccumulator maxJitterNanos = new LongAccumulator(Math::max, 0);
+
+    private final LongAdder overruns = new LongAdder();
+    private final LongAdder catchUpTicks = new LongAdder();
+    private final LongAdder skippedTicks = new LongAdder();
+
+    TickStats(long budgetNanos) {
+        this.budgetNanos = budgetNanos;
+    }
+
+    // ======== REGISTRO (thread del game loop) ========
+
+    /**
+     * Registra un tick ejecutado
+     *
+     * @param durationNanos Duración del tick
+     * @return true si se pasó del presupuesto (overrun)
+     */
+    boolean recordTick(long durationNanos) {
+        ticks.increment();
+        totalDurationNanos.add(durationNanos);
+        maxDurationNanos.accumulate(durationNanos);
+        lastDurationNanos = durationNanos;
+        if (durationNanos > budgetNanos) {
+            overruns.increment();
+            return true;
+        }
+        return false;
+    }
+
+    void recordJitter(long lateNanos) {
+        long jitter = Math.max(0, lateNanos);
+        jitterSamples.increment();
+        totalJitterNanos.add(jitter);
+        maxJitterNanos.accumulate(jitter);
+    }
+
+    void recordCatchUp() {
+        catchUpTicks.increment();
+    }
+
+    void recordSkipped(long count) {
+        skippedTicks.add(count);
+    }
+
+    // ======== LECTURA ========
+
+    public long getTicks() { return ticks.sum(); }
+    public long getOverruns() { return overruns.sum(); }
+    public long getCatchUpTicks() { return catchUpTicks.sum(); }
+    public long getSkippedTicks() { return skippedTicks.sum(); }
+    public long getBudgetNanos() { return budgetNanos; }
+    public long getLastDurationNanos() { return lastDurationNanos; }
+    public long getMaxDurationNanos() { return maxDurationNanos.get(); }
+    public long getMaxJitterNanos() { return maxJitterNanos.get(); }
+
+    /**
+     * Duración promedio de un tick en nanosegundos
+     */
+    public double getAverageDurationNanos() {
+        long count = ticks.sum();
+        return count == 0 ? 0 : (double) totalDurationNanos.sum() / count;
+    }
+
+    /**
+     * Jitter promedio en nanosegundos
+     */
+    public double getAverageJitterNanos() {
+        long count = jitterSamples.sum();
+        return count == 0 ? 0 : (double) totalJitterNanos.sum() / count;
+    }
+
+    @Override
+    public String toString() {
+        double us = 1000.0;
+        return String.format("ticks=%d duración(prom/max)=%.0f/%.0fus jitter(prom/max)=%.0f/%.0fus overruns=%d catchUp=%d saltados=%d",
+            getTicks(), getAverageDurationNanos() / us, getMaxDurationNanos() / us,
+            getAverageJitterNanos() / us, getMaxJitterNanos() / us,
+            getOverruns(), getCatchUpTicks(), getSkippedTicks());
+    }
+}
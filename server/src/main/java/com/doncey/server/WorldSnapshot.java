@@ -0,0 +1,205 @@
+package com.doncey.server;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Foto inmutable del estado de una sala
+ *
+ * Es lo que leen los threads que no son el game loop (clientes que
+ * entran, validación de EAT_FRUIT, paneles de administración): nunca
+ * tocan los objetos vivos. GameWorld publica una foto nueva con un
+ * único cambio de referencia volatile al final de cada tick y cada vez
+ * que cambian las frutas.
+ *
+ * Las frutas son copy-on-write: cada alta o baja copia el arreglo
+ * entero (O(n) en las frutas de la sala) y las fotos siguientes lo
+ * comparten tal cual hasta el próximo cambio. Los arreglos de jugadores
+ * se copian en cada tick (withPositions) y se comparten en las fotos de
+ * frutas; un puntaje copia sólo el arreglo de puntajes. El costo de
+ * cada publicación está en WorldSnapshotBenchmark.
+ */
+public final class WorldSnapshot {
+
+    // Tipos de entidad de WORLD_STATE
+    public static final int STATE_PLAYER = 0; // a = puntaje, b = 0
+    public static final int STATE_FRUIT = 1; // a = tipo de fruta, b = puntos
+
+    static final WorldSnapshot EMPTY =
+        new WorldSnapshot(0, 0, new int[0], new int[0], new int[0], new int[0], 0, new Fruit[0], List.of());
+
+    private final long version; // Crece con cada publicación
+    private final long tick;
+
+    // Jugadores vivos del tick, ordenados por ID
+    private final int playerCount;
+    private final int[] ids;
+    private final int[] xs;
+    private final int[] ys;
+    private final int[] scores;
+
+    private final Fruit[] fruits; // Ordenadas por ID
+    private final List<Fruit> fruitList; // Vista de sólo lectura de fruits
+
+    private WorldSnapshot(long version, long tick, int[] ids, int[] xs, int[] ys, int[] scores, int playerCount,
+                          Fruit[] fruits, List<Fruit> fruitList) {
+        this.version = version;
+        this.tick = tick;
+        this.ids = ids;
+        this.xs = xs;
+        this.ys = ys;
+        this.scores = scores;
+        this.playerCount = playerCount;
+        this.fruits = fruits;
+        this.fruitList = fruitList;
+    }
+
+    // Foto que comparte los jugadores de esta y reemplaza las frutas
+    private WorldSnapshot withFruits(Fruit[] updated) {
+        return new WorldSnapshot(version + 1, tick, ids, xs, ys, scores, playerCount,
+            updated, Collections.unmodifiableList(Arrays.asList(updated)));
+    }
+
+    // ======== CONSTRUCCIÓN (GameWorld) ========
+
+    /**
+     * Foto con las posiciones de un tick y las frutas de esta
+     *
+     * @param tick Número de tick
+     * @param positions Posiciones del tick (se copian)
+     * @param tickScores Puntaje de cada jugador, en el orden de positions (se copia)
+     * @return Foto nueva
+     */
+    WorldSnapshot withPositions(long tick, PositionHistory.Entry positions, int[] tickScores) {
+        int n = positions.count;
+        return new WorldSnapshot(version + 1, tick,
+            Arrays.copyOf(positions.ids, n), Arrays.copyOf(positions.xs, n), Arrays.copyOf(positions.ys, n),
+            Arrays.copyOf(tickScores, n), n, fruits, fruitList);
+    }
+
+    /**
+     * Foto con el puntaje de un jugador actualizado
+     *
+     * @param playerId ID del jugador
+     * @param score Puntaje acumulado
+     * @return Foto nueva (o esta si el jugador no está en la foto)
+     */
+    WorldSnapshot withScore(int playerId, int score) {
+        int i = indexOfPlayer(playerId);
+        if (i < 0) return this;
+        int[] updated = scores.clone();
+        updated[i] = score;
+        return new WorldSnapshot(version + 1, tick, ids, xs, ys, updated, playerCount, fruits, fruitList);
+    }
+
+    /**
+     * Foto con una fruta más (los jugadores se comparten)
+     */
+    WorldSnapshot withFruit(Fruit f) {
+        int i = Arrays.binarySearch(fruits, f, Fruit.BY_ID);
+        if (i >= 0) return this;
+        i = -i - 1;
+        Fruit[] updated = new Fruit[fruits.length + 1];
+        System.arraycopy(fruits, 0, updated, 0, i);
+        updated[i] = f;
+        System.arraycopy(fruits, i, updated, i + 1, fruits.length - i);
+        return withFruits(updated);
+    }
+
+    /**
+     * Foto sin una fruta (los jugadores se comparten)
+     */
+    WorldSnapshot withoutFruit(Fruit f) {
+        int i = Arrays.binarySearch(fruits, f, Fruit.BY_ID);
+        if (i < 0) return this;
+        Fruit[] updated = new Fruit[fruits.length - 1];
+        System.arraycopy(fruits, 0, updated, 0, i);
+        System.arraycopy(fruits, i + 1, updated, i, updated.length - i);
+        return withFruits(updated);
+    }
+
+    // ======== LECTURA ========
+
+    /**
+     * Número de publicación (crece con cada foto de la sala)
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Tick al que corresponden las posiciones
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Frutas activas, ordenadas por ID
+     *
+     * @return Lista inmutable
+     */
+    public List<Fruit> getFruits() {
+        return fruitList;
+    }
+
+    /**
+     * Busca una fruta por ID
+     *
+     * @param id ID de la fruta
+     * @return Fruta o null si no está en la foto
+     */
+    public Fruit getFruit(int id) {
+        int lo = 0;
+        int hi = fruits.length - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int midId = fruits[mid].getId();
+            if (midId < id) lo = mid + 1;
+            else if (midId > id) hi = mid - 1;
+            else return fruits[mid];
+        }
+        return null;
+    }
+
+    /**
+     * Cantidad de jugadores vivos en el tick
+     */
+    public int getPlayerCount() {
+        return playerCount;
+    }
+
+    /**
+     * Posición de un jugador en la foto
+     *
+     * @param playerId ID del jugador
+     * @return Índice para getPlayerX/getPlayerY o -1 si no estaba vivo
+     */
+    public int indexOfPlayer(int playerId) {
+        int i = Arrays.binarySearch(ids, 0, playerCount, playerId);
+        return i >= 0 ? i : -1;
+    }
+
+    public int getPlayerId(int index) {
+        return ids[index];
+    }
+
+    public int getPlayerX(int index) {
+        return xs[index];
+    }
+
+    public int getPlayerY(int index) {
+        return ys[index];
+    }
+
+    public int getPlayerScore(int index) {
+        return scores[index];
+    }
+
+    @Override
+    public String toString() {
+        return "WorldSnapshot{version=" + version + ", tick=" + tick
+            + ", players=" + playerCount + ", fruits=" + fruits.length + "}";
+    }
+}
@@ -0,0 +1,442 @@
+package com.doncey.server.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.doncey.patterns.factory.FruitFactory;
+import com.doncey.server.Fruit;
+import com.doncey.server.GameWorld;
+import com.doncey.server.RoomManager;
+import com.doncey.server.WorldSnapshot;
+import com.doncey.utils.log.LogCategory;
+import com.doncey.utils.log.ServerLog;
+import com.doncey.utils.metrics.Counter;
+import com.doncey.utils.metrics.LatencyHistogram;
+import com.doncey.utils.metrics.MetricsRegistry;
+import com.doncey.utils.metrics.MetricsSnapshot;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * API HTTP de administración y métricas (sólo en 127.0.0.1)
+ *
+ * Hace lo mismo que el panel de Swing sin necesitar pantalla, para los
+ * servidores que corren con --headless (se habilita con --admin-port):
+ *
+ *   GET  /metrics                 Métricas en formato de texto de Prometheus
+ *   GET  /rooms                   Salas abiertas (JSON)
+ *   GET  /players?room=N          Jugadores vivos de la sala (JSON, default: lobby)
+ *   GET  /fruits?room=N           Frutas activas de la sala (JSON)
+ *   POST /fruits/spawn            type, x, y [, points] [, room]: GameWorld.spawnFruit
+ *   POST /fruits/remove           id [, room]: GameWorld.removeFruit
+ *   POST /players/die             id [, room]: GameWorld.playerDied (GAME_OVER)
+ *
+ * Los parámetros van en la query o en un cuerpo application/x-www-form-urlencoded.
+ * Las rutas son exactas: cualquier otra (ej: /players/x) es 404.
+ *
+ * Escuchar sólo en loopback no alcanza: un navegador de la misma máquina
+ * también llega, desde una página ajena con un formulario (CSRF) o con
+ * un nombre que resuelve a 127.0.0.1 (DNS rebinding). Por eso se
+ * responde 403 si el Host no es 127.0.0.1, localhost o [::1] con este
+ * puerto, o si viene un Origin que no sea uno de esos con http://.
+ *
+ * Las lecturas salen de WorldSnapshot y MetricsRegistry, sin tocar los
+ * objetos vivos; las acciones usan los mismos métodos thread-safe que el
+ * panel de Swing. Las peticiones corren en un pool propio de THREADS
+ * threads con prioridad mínima y una cola acotada: con la cola llena se
+ * cierra la conexión, así una ráfaga de peticiones nunca suma threads
+ * ni frena el tick.
+ */
+public final class AdminHttpServer {
+
+    private static final int THREADS = 2;
+    private static final int QUEUE_CAPACITY = 32; // Peticiones esperando un thread
+    private static final int MAX_BODY_BYTES = 4 * 1024;
+    private static final String JSON = "application/json; charset=utf-8";
+    private static final String PROMETHEUS = "text/plain; version=0.0.4; charset=utf-8";
+    private static final String[] LOCAL_HOSTS = { "127.0.0.1", "localhost", "[::1]" };
+
+    private static final Counter REQUESTS = MetricsRegistry.getInstance().counter("admin.requests");
+    private static final Counter REJECTED = MetricsRegistry.getInstance().counter("admin.rejected");
+    private static final Counter FORBIDDEN = MetricsRegistry.getInstance().counter("admin.forbidden");
+    private static final LatencyHistogram REQUEST_TIME = MetricsRegistry.getInstance().histogram("admin.request");
+
+    private final HttpServer http;
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Error con su código de estado HTTP
+     */
+    private static final class HttpError extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        final int status;
+
+        HttpError(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    /**
+     * Atiende una ruta y devuelve el cuerpo de la respuesta
+     */
+    @FunctionalInterface
+    private interface Route {
+        String handle(Map<String, String> params);
+    }
+
+    /**
+     * Abre el puerto (todavía no atiende peticiones)
+     *
+     * @param port Puerto en 127.0.0.1 (0 elige uno libre)
+     * @throws IOException si no se puede abrir el puerto
+     */
+    public AdminHttpServer(int port) throws IOException {
+        this.http = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(THREADS, THREADS, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+            task -> {
+                Thread t = new Thread(task, "AdminHttp-" + threadCount.incrementAndGet());
+                t.setDaemon(true);
+                t.setPriority(Thread.MIN_PRIORITY);
+                return t;
+            },
+            (task, pool) -> {
+                REJECTED.increment();
+                throw new RejectedExecutionException("Cola de la API de administración llena");
+            });
+        http.setExecutor(executor);
+
+        // Un contexto atiende todo lo que empieza con su ruta: cada uno compara la ruta entera
+        http.createContext("/metrics", exchange -> {
+            if (exchange.getRequestURI().getPath().equals("/metrics")) {
+                serve(exchange, "GET", PROMETHEUS, params -> metrics());
+            } else {
+                notFound(exchange);
+            }
+        });
+        http.createContext("/rooms", exchange -> {
+            if (exchange.getRequestURI().getPath().equals("/rooms")) {
+                serve(exchange, "GET", JSON, params -> rooms());
+            } else {
+                notFound(exchange);
+            }
+        });
+        http.createContext("/players", exchange -> {
+            switch (exchange.getRequestURI().getPath()) {
+                case "/players": serve(exchange, "GET", JSON, this::players); break;
+                case "/players/die": serve(exchange, "POST", JSON, this::playerDie); break;
+                default: notFound(exchange); break;
+            }
+        });
+        http.createContext("/fruits", exchange -> {
+            switch (exchange.getRequestURI().getPath()) {
+                case "/fruits": serve(exchange, "GET", JSON, this::fruits); break;
+                case "/fruits/spawn": serve(exchange, "POST", JSON, this::fruitSpawn); break;
+                case "/fruits/remove": serve(exchange, "POST", JSON, this::fruitRemove); break;
+                default: notFound(exchange); break;
+            }
+        });
+    }
+
+    public void start() {
+        http.start();
+    }
+
+    /**
+     * Cierra el puerto y el pool (las peticiones en curso terminan)
+     */
+    public void stop() {
+        http.stop(0);
+        executor.shutdown();
+    }
+
+    public int getPort() {
+        return http.getAddress().getPort();
+    }
+
+    // ======== LECTURAS ========
+
+    // Prometheus: "net.bytes.in" -> doncey_net_bytes_in_total; histogramas en segundos
+    private String metrics() {
+        MetricsSnapshot snapshot = MetricsRegistry.getInstance().snapshot();
+        StringBuilder sb = new StringBuilder(4096);
+
+        snapshot.getCounters().forEach((name, value) -> {
+            String metric = metricName(name) + "_total";
+            sb.append("# TYPE ").append(metric).append(" counter\n");
+            sb.append(metric).append(' ').append(value).append('\n');
+        });
+        snapshot.getGauges().forEach((name, value) -> {
+            String metric = metricName(name);
+            sb.append("# TYPE ").append(metric).append(" gauge\n");
+            sb.append(metric).append(' ').append(value).append('\n');
+        });
+        snapshot.getHistograms().forEach((name, h) -> {
+            String metric = metricName(name) + "_seconds";
+            sb.append("# TYPE ").append(metric).append(" histogram\n");
+            long cumulative = 0;
+            for (int i = 0; i < h.getBucketCount(); i++) {
+                cumulative += h.getBucket(i);
+                long bound = h.getBucketUpperBoundNanos(i);
+                String le = bound == Long.MAX_VALUE ? "+Inf" : String.format(Locale.ROOT, "%.6f", bound / 1e9);
+                sb.append(metric).append("_bucket{le=\"").append(le).append("\"} ").append(cumulative).append('\n');
+            }
+            sb.append(metric).append("_sum ").append(String.format(Locale.ROOT, "%.9f", h.getTotalNanos() / 1e9)).append('\n');
+            sb.append(metric).append("_count ").append(cumulative).append('\n');
+        });
+        return sb.toString();
+    }
+
+    private String rooms() {
+        StringBuilder sb = new StringBuilder("[");
+        for (GameWorld room : RoomManager.getInstance().listRooms()) {
+            WorldSnapshot snapshot = room.getSnapshot();
+            if (sb.length() > 1) sb.append(',');
+            sb.append("{\"id\":").append(room.getRoomId())
+              .append(",\"tick\":").append(snapshot.getTick())
+              .append(",\"version\":").append(snapshot.getVersion())
+              .append(",\"players\":").append(snapshot.getPlayerCount())
+              .append(",\"fruits\":").append(snapshot.getFruits().size())
+              .append('}');
+        }
+        return sb.append("]").toString();
+    }
+
+    private String players(Map<String, String> params) {
+        GameWorld room = room(params);
+        WorldSnapshot snapshot = room.getSnapshot();
+        StringBuilder sb = header(room, snapshot).append(",\"players\":[");
+        for (int i = 0; i < snapshot.getPlayerCount(); i++) {
+            if (i > 0) sb.append(',');
+            sb.append("{\"id\":").append(snapshot.getPlayerId(i))
+              .append(",\"x\":").append(snapshot.getPlayerX(i))
+              .append(",\"y\":").append(snapshot.getPlayerY(i))
+              .append(",\"score\":").append(snapshot.getPlayerScore(i))
+              .append('}');
+        }
+        return sb.append("]}").toString();
+    }
+
+    private String fruits(Map<String, String> params) {
+        GameWorld room = room(params);
+        WorldSnapshot snapshot = room.getSnapshot();
+        StringBuilder sb = header(room, snapshot).append(",\"fruits\":[");
+        boolean first = true;
+        for (Fruit f : snapshot.getFruits()) {
+            if (!first) sb.append(',');
+            first = false;
+            appendFruit(sb, f);
+        }
+        return sb.append("]}").toString();
+    }
+
+    // ======== ACCIONES ========
+
+    private String fruitSpawn(Map<String, String> params) {
+        GameWorld room = room(params);
+        String type = required(params, "type");
+        int x = intParam(params, "x");
+        int y = intParam(params, "y");
+        int points = params.containsKey("points") ? intParam(params, "points") : FruitFactory.defaultPoints(type);
+
+        Fruit f = room.spawnFruit(type, x, y, points); // IllegalArgumentException si el tipo es inválido
+        ServerLog.info(LogCategory.SERVER, "[ADMIN HTTP] Fruta creada en sala " + room.getRoomId() + ": " + f);
+        return appendFruit(new StringBuilder(), f).toString();
+    }
+
+    private String fruitRemove(Map<String, String> params) {
+        GameWorld room = room(params);
+        int id = intParam(params, "id");
+        if (!room.removeFruit(id)) throw new HttpError(404, "No existe la fruta " + id);
+        ServerLog.info(LogCategory.SERVER, "[ADMIN HTTP] Fruta eliminada en sala " + room.getRoomId() + ": " + id);
+        return "{\"removed\":" + id + "}";
+    }
+
+    private String playerDie(Map<String, String> params) {
+        GameWorld room = room(params);
+        int id = intParam(params, "id");
+        if (room.getPlayer(id) == null) throw new HttpError(404, "No existe el jugador " + id);
+        room.playerDied(id);
+        ServerLog.info(LogCategory.SERVER, "[ADMIN HTTP] GAME_OVER enviado al jugador " + id);
+        return "{\"died\":" + id + "}";
+    }
+
+    // ======== INTERNOS ========
+
+    /**
+     * Valida el método, arma los parámetros, atiende y responde
+     *
+     * Los errores de parámetros (IllegalArgumentException) son 400.
+     */
+    private void serve(HttpExchange exchange, String method, String contentType, Route route) throws IOException {
+        long start = System.nanoTime();
+        REQUESTS.increment();
+        int status = 200;
+        String body;
+        try {
+            checkLocal(exchange);
+            if (!exchange.getRequestMethod().equals(method)) {
+                exchange.getResponseHeaders().set("Allow", method);
+                throw new HttpError(405, "Use " + method);
+            }
+            body = route.handle(params(exchange));
+        } catch (HttpError e) {
+            status = e.status;
+            body = error(e.getMessage());
+            contentType = JSON;
+        } catch (IllegalArgumentException e) {
+            status = 400;
+            body = error(e.getMessage());
+            contentType = JSON;
+        } catch (RuntimeException e) {
+            status = 500;
+            body = error(String.valueOf(e));
+            contentType = JSON;
+            ServerLog.error(LogCategory.SERVER, "[ADMIN HTTP] " + exchange.getRequestURI() + " falló: " + e);
+        }
+
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+        REQUEST_TIME.recordSince(start);
+    }
+
+    /**
+     * Responde 404 a una ruta que no existe (con cualquier método)
+     */
+    private void notFound(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        serve(exchange, exchange.getRequestMethod(), JSON, params -> {
+            throw new HttpError(404, "No existe la ruta " + path);
+        });
+    }
+
+    /**
+     * Rechaza (403) las peticiones de páginas ajenas (ver la clase)
+     */
+    private void checkLocal(HttpExchange exchange) {
+        String host = exchange.getRequestHeaders().getFirst("Host");
+        if (host == null || !isLocal(host)) {
+            FORBIDDEN.increment();
+            throw new HttpError(403, "Host no permitido: " + host);
+        }
+        String origin = exchange.getRequestHeaders().getFirst("Origin");
+        if (origin != null && !(origin.startsWith("http://") && isLocal(origin.substring("http://".length())))) {
+            FORBIDDEN.increment();
+            throw new HttpError(403, "Origin no permitido: " + origin);
+        }
+    }
+
+    // "host[:puerto]" de loopback con nuestro puerto (sin puerto sólo vale el 80)
+    private boolean isLocal(String authority) {
+        String value = authority.toLowerCase(Locale.ROOT);
+        int port = getPort();
+        for (String name : LOCAL_HOSTS) {
+            if (value.equals(name + ":" + port) || (port == 80 && value.equals(name))) return true;
+        }
+        return false;
+    }
+
+    // Query y, en POST, cuerpo form-urlencoded (el cuerpo pisa a la query)
+    private static Map<String, String> params(HttpExchange exchange) throws IOException {
+        Map<String, String> params = new HashMap<>();
+        parseForm(exchange.getRequestURI().getRawQuery(), params);
+        if (exchange.getRequestMethod().equals("POST")) {
+            try (InputStream in = exchange.getRequestBody()) {
+                byte[] body = in.readNBytes(MAX_BODY_BYTES + 1);
+                if (body.length > MAX_BODY_BYTES) throw new HttpError(413, "Cuerpo mayor a " + MAX_BODY_BYTES + " bytes");
+                parseForm(new String(body, StandardCharsets.UTF_8), params);
+            }
+        }
+        return params;
+    }
+
+    private static void parseForm(String form, Map<String, String> out) {
+        if (form == null || form.isEmpty()) return;
+        for (String pair : form.split("&")) {
+            if (pair.isEmpty()) continue;
+            int eq = pair.indexOf('=');
+            String key = eq == -1 ? pair : pair.substring(0, eq);
+            String value = eq == -1 ? "" : pair.substring(eq + 1);
+            out.put(URLDecoder.decode(key.trim(), StandardCharsets.UTF_8), URLDecoder.decode(value.trim(), StandardCharsets.UTF_8));
+        }
+    }
+
+    // Sala del parámetro room (default: lobby)
+    private static GameWorld room(Map<String, String> params) {
+        int roomId = params.containsKey("room") ? intParam(params, "room") : RoomManager.LOBBY_ID;
+        GameWorld room = RoomManager.getInstance().getRoom(roomId);
+        if (room == null) throw new HttpError(404, "No existe la sala " + roomId);
+        return room;
+    }
+
+    private static String required(Map<String, String> params, String name) {
+        String value = params.get(name);
+        if (value == null || value.isEmpty()) throw new IllegalArgumentException("Falta el parámetro " + name);
+        return value;
+    }
+
+    private static int intParam(Map<String, String> params, String name) {
+        String value = required(params, name);
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("El parámetro " + name + " debe ser un entero: " + value);
+        }
+    }
+
+    private static StringBuilder header(GameWorld room, WorldSnapshot snapshot) {
+        return new StringBuilder(256)
+            .append("{\"room\":").append(room.getRoomId())
+            .append(",\"tick\":").append(snapshot.getTick())
+            .append(",\"version\":").append(snapshot.getVersion());
+    }
+
+    private static StringBuilder appendFruit(StringBuilder sb, Fruit f) {
+        return sb.append("{\"id\":").append(f.getId())
+            .append(",\"type\":").append(quote(f.getType()))
+            .append(",\"x\":").append(f.getX())
+            .append(",\"y\":").append(f.getY())
+            .append(",\"points\":").append(f.getPoints())
+            .append('}');
+    }
+
+    private static String error(String message) {
+        return "{\"error\":" + quote(String.valueOf(message)) + "}"; // Hay excepciones sin mensaje
+    }
+
+    private static String quote(String s) {
+        StringBuilder sb = new StringBuilder(s.length() + 2).append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') sb.append('\\').append(c);
+            else if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+            else sb.append(c);
+        }
+        return sb.append('"').toString();
+    }
+
+    private static String metricName(String name) {
+        return "doncey_" + name.replace('.', '_');
+    }
+}
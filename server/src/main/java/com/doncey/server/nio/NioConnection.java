@@ -0,0 +1,162 @@
+package com.doncey.server.nio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.doncey.admin.ServerGUI;
+import com.doncey.server.ClientSession;
+import com.doncey.server.OutboundFrame;
+import com.doncey.utils.ServerConfig;
+
+/**
+ * Conexión de un cliente en modo NIO
+ *
+ * Toda la E/S ocurre en el thread del event loop dueño:
+ * - Lectura: se lee al buffer compartido del loop y se separan mensajes
+ *   directamente sobre los bytes; sólo un fragmento de mensaje incompleto
+ *   se copia al buffer propio de la conexión.
+ * - Escritura: send() puede llamarse desde cualquier thread,
+ *   encola el mensaje en la OutboundQueue y agenda un flush en el loop.
+ */
+public class NioConnection extends ClientSession {
+
+    private final SocketChannel channel;
+    private final NioEventLoop loop;
+    private SelectionKey key;
+
+    private OutboundFrame pendingFrame; // Frame escrito parcialmente (sólo en el loop)
+    private ByteBuffer pendingWrite; // Vista de sólo lectura de pendingFrame
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+
+    NioConnection(SocketChannel channel, NioEventLoop loop, ServerGUI serverGUI, ServerConfig config) {
+        super(serverGUI, config);
+        this.channel = channel;
+        this.loop = loop;
+    }
+
+    void attach(SelectionKey key) {
+        this.key = key;
+    }
+
+    /**
+     * Registra al cliente en el mundo (se llama en el event loop)
+     */
+    void onOpen() {
+        String remote;
+        try {
+            remote = String.valueOf(channel.getRemoteAddress());
+        } catch (IOException e) {
+            remote = "desconocido";
+        }
+        onConnected(remote);
+    }
+
+    // ======== LECTURA ========
+
+    /**
+     * Lee los bytes disponibles y procesa cada mensaje completo
+     *
+     * @param buffer Buffer compartido del event loop
+     */
+    void handleRead(ByteBuffer buffer) {
+        buffer.clear();
+        int read;
+        try {
+            read = channel.read(buffer);
+        } catch (IOException e) {
+            warn("[Cliente #" + clientId + "]: Error de I/O: " + e.getMessage());
+            close();
+            return;
+        }
+
+        if (read < 0) {
+            log("[Cliente #" + clientId + "]: Desconectado");
+            close();
+            return;
+        }
+
+        buffer.flip();
+        onBytes(buffer);
+    }
+
+    // ======== ESCRITURA ========
+
+    @Override
+    protected void onOutboundReady() {
+        if (flushScheduled.compareAndSet(false, true)) {
+            if (loop.inEventLoop()) {
+                flush();
+            } else {
+                loop.execute(this::flush);
+            }
+        }
+    }
+
+    @Override
+    protected void disconnect() {
+        loop.execute(this::close);
+    }
+
+    /**
+     * Escribe todo lo posible de la cola de salida (en el event loop)
+     *
+     * Si el socket no acepta más datos, se activa OP_WRITE y el
+     * resto se escribe cuando el Selector avise.
+     */
+    void flush() {
+        if (key == null || !key.isValid()) return;
+
+        try {
+            do {
+                while (true) {
+                    if (pendingFrame == null) {
+                        pendingFrame = outbound.poll();
+                        if (pendingFrame == null) break;
+                        pendingWrite = pendingFrame.buffer();
+                    }
+                    channel.write(pendingWrite);
+                    if (pendingWrite.hasRemaining()) {
+                        key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+                        return;
+                    }
+                    releasePending();
+                }
+                key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+                flushScheduled.set(false);
+                // Un mensaje pudo haberse encolado entre el último poll y el set(false)
+            } while (!outbound.isEmpty() && flushScheduled.compareAndSet(false, true));
+        } catch (IOException e) {
+            warn("[Cliente #" + clientId + "]: Error de I/O: " + e.getMessage());
+            close();
+        }
+    }
+
+    private void releasePending() {
+        if (pendingFrame != null) {
+            pendingFrame.release();
+            pendingFrame = null;
+            pendingWrite = null;
+        }
+    }
+
+    // ======== CIERRE ========
+
+    /**
+     * Cierra la conexión y libera al cliente del mundo
+     */
+    void close() {
+        cleanup();
+    }
+
+    @Override
+    protected void closeTransport() {
+        if (key != null) key.cancel();
+        releasePending();
+        try {
+            channel.close();
+        } catch (IOException ignored) {}
+    }
+}
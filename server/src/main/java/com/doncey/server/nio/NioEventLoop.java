@@ -0,0 +1,238 @@
+package com.doncey.server.nio;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Event loop de red basado en Selector
+ *
+ * Cada event loop corre en un único thread y atiende muchas conexiones
+ * no bloqueantes: accept (sólo el loop 0), lectura y escritura.
+ * Otros threads le piden trabajo mediante execute(), que encola la
+ * tarea y despierta al Selector.
+ *
+ * Un error inesperado (RuntimeException) de una conexión o de una tarea
+ * no detiene el loop: se cierra sólo esa conexión o se descarta la
+ * tarea, y el resto de las conexiones del loop sigue atendida.
+ */
+public class NioEventLoop implements Runnable {
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final NioServer server; // Servidor dueño (para aceptar conexiones)
+    private final Selector selector;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>(); // Tareas de otros threads
+    private final PriorityQueue<Timer> timers = new PriorityQueue<>(); // Tareas diferidas (sólo el thread del loop)
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE); // Compartido por todas las conexiones del loop
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    /**
+     * Tarea diferida, ordenada por vencimiento
+     */
+    private record Timer(long deadlineNanos, Runnable task) implements Comparable<Timer> {
+        @Override
+        public int compareTo(Timer other) {
+            return Long.compare(deadlineNanos, other.deadlineNanos);
+        }
+    }
+
+    /**
+     * Crea un event loop
+     *
+     * @param server Servidor dueño
+     * @param index Índice del loop (para el nombre del thread)
+     * @throws IOException si no se puede abrir el Selector
+     */
+    NioEventLoop(NioServer server, int index) throws IOException {
+        this.server = server;
+        this.selector = Selector.open();
+        this.thread = new Thread(this, "NioEventLoop-" + index);
+        // Timer se usa justo cuando faltan descriptores (ej: EMFILE en
+        // accept) y entonces no se podría leer la clase del classpath
+        try {
+            MethodHandles.lookup().ensureInitialized(Timer.class);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    Selector selector() {
+        return selector;
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    void join() throws InterruptedException {
+        thread.join();
+    }
+
+    /**
+     * Indica si el thread actual es el de este event loop
+     */
+    boolean inEventLoop() {
+        return Thread.currentThread() == thread;
+    }
+
+    /**
+     * Ejecuta una tarea dentro del event loop
+     *
+     * @param task Tarea a ejecutar
+     */
+    void execute(Runnable task) {
+        tasks.add(task);
+        selector.wakeup();
+    }
+
+    /**
+     * Ejecuta una tarea dentro del event loop después de una demora
+     *
+     * Sólo puede llamarse desde el thread del loop.
+     *
+     * @param task Tarea a ejecutar
+     * @param delayMillis Demora en milisegundos
+     */
+    void schedule(Runnable task, long delayMillis) {
+        timers.add(new Timer(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis), task));
+    }
+
+    /**
+     * Asigna un canal recién aceptado a este event loop
+     *
+     * @param channel Canal del cliente (ya no bloqueante)
+     */
+    void register(SocketChannel channel) {
+        execute(() -> {
+            NioConnection connection = null;
+            try {
+                connection = new NioConnection(channel, this, server.getServerGUI(), server.getConfig());
+                SelectionKey key = channel.register(selector, SelectionKey.OP_READ, connection);
+                connection.attach(key);
+                connection.onOpen();
+            } catch (IOException | RuntimeException e) {
+                if (e instanceof RuntimeException) {
+                    server.logError("[ERROR]: no se pudo abrir la conexión: " + e);
+                }
+                if (connection != null) {
+                    connection.close();
+                } else {
+                    try { channel.close(); } catch (IOException ignored) {}
+                }
+            }
+        });
+    }
+
+    /**
+     * Detiene el event loop y cierra todas sus conexiones
+     */
+    void shutdown() {
+        running = false;
+        selector.wakeup();
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            try {
+                selector.select(selectTimeoutMillis());
+                runTimers();
+                runTasks();
+
+                Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                while (it.hasNext()) {
+                    SelectionKey key = it.next();
+                    it.remove();
+                    processKey(key);
+                }
+            } catch (IOException e) {
+                server.logError("[ERROR]: Error en event loop " + thread.getName() + ": " + e.getMessage());
+            }
+        }
+
+        // Cerrar todas las conexiones del loop
+        for (SelectionKey key : selector.keys()) {
+            if (key.attachment() instanceof NioConnection connection) {
+                connection.close();
+            }
+        }
+        try { selector.close(); } catch (IOException ignored) {}
+    }
+
+    // 0 (sin límite) si no hay tareas diferidas; si no, hasta la primera
+    private long selectTimeoutMillis() {
+        Timer first = timers.peek();
+        if (first == null) return 0;
+        long remaining = first.deadlineNanos() - System.nanoTime();
+        return Math.max(1, TimeUnit.NANOSECONDS.toMillis(remaining));
+    }
+
+    private void runTimers() {
+        long now = System.nanoTime();
+        Timer timer;
+        while ((timer = timers.peek()) != null && timer.deadlineNanos() - now <= 0) {
+            timers.poll();
+            runTask(timer.task());
+        }
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            runTask(task);
+        }
+    }
+
+    private void runTask(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            server.logError("[ERROR]: Tarea fallida en " + thread.getName() + ": " + e);
+        }
+    }
+
+    // Un error de una conexión cierra sólo esa conexión
+    private void processKey(SelectionKey key) {
+        try {
+            handleKey(key);
+        } catch (RuntimeException e) {
+            if (key.attachment() instanceof NioConnection connection) {
+                server.logError("[ERROR]: Cliente #" + connection.getClientId() + " cerrado por un error inesperado: " + e);
+                try {
+                    connection.close();
+                } catch (RuntimeException ignored) {
+                    key.cancel();
+                }
+            } else {
+                server.logError("[ERROR]: Error en event loop " + thread.getName() + ": " + e);
+            }
+        }
+    }
+
+    private void handleKey(SelectionKey key) {
+        if (!key.isValid()) return;
+
+        if (key.isAcceptable()) {
+            server.acceptPending();
+            return;
+        }
+
+        NioConnection connection = (NioConnection) key.attachment();
+        if (key.isReadable()) {
+            connection.handleRead(readBuffer);
+        }
+        if (key.isValid() && key.isWritable()) {
+            connection.flush();
+        }
+    }
+}
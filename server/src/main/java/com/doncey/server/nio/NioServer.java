@@ -0,0 +1,174 @@
+package com.doncey.server.nio;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.doncey.admin.ServerGUI;
+import com.doncey.utils.ServerConfig;
+import com.doncey.utils.log.LogCategory;
+import com.doncey.utils.log.ServerLog;
+
+/**
+ * Servidor de conexiones basado en NIO
+ *
+ * Reemplaza el modelo de un thread por cliente: un conjunto pequeño de
+ * event loops atiende todas las conexiones. El loop 0 además acepta
+ * conexiones nuevas y las reparte en round-robin entre los loops.
+ *
+ * Las líneas recibidas se procesan con la misma lógica de ClientSession
+ * que usa el modo bloqueante.
+ */
+public final class NioServer {
+
+    private static final int ACCEPT_BACKLOG = 1024;
+    private static final long ACCEPT_BACKOFF_MILLIS = 100; // Pausa si accept() falla (ej: EMFILE)
+
+    private final ServerSocketChannel serverChannel;
+    private final NioEventLoop[] loops;
+    private final ServerGUI serverGUI; // Puede ser null
+    private final ServerConfig config;
+
+    private final AtomicInteger clientCounter = new AtomicInteger(0); // Conexiones aceptadas
+    private int nextLoop = 0; // Sólo se usa desde el loop 0
+    private SelectionKey acceptKey; // Sólo se usa desde el loop 0
+    private final Runnable resumeAccept = this::resumeAccept; // Creado antes de quedarse sin descriptores
+
+    /**
+     * Abre el canal del servidor y crea los event loops
+     *
+     * @param config Configuración (puerto, event loops, colas de salida)
+     * @param serverGUI GUI del servidor (puede ser null)
+     * @throws IOException si no se puede abrir el puerto
+     */
+    public NioServer(ServerConfig config, ServerGUI serverGUI) throws IOException {
+        this.serverGUI = serverGUI;
+        this.config = config;
+        int ioThreads = config.getIoThreads();
+
+        this.serverChannel = ServerSocketChannel.open();
+        this.serverChannel.configureBlocking(false);
+        this.serverChannel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+        this.serverChannel.bind(new InetSocketAddress(config.getPort()), ACCEPT_BACKLOG);
+
+        this.loops = new NioEventLoop[ioThreads];
+        for (int i = 0; i < ioThreads; i++) {
+            loops[i] = new NioEventLoop(this, i);
+        }
+    }
+
+    /**
+     * Arranca los event loops y bloquea hasta que se detengan
+     */
+    public void run() {
+        run(null);
+    }
+
+    /**
+     * Arranca los event loops y bloquea hasta que se detengan
+     *
+     * @param onAcceptReady Se ejecuta en el loop 0 apenas el accept queda
+     *                      registrado (puede ser null)
+     */
+    public void run(Runnable onAcceptReady) {
+        for (NioEventLoop loop : loops) {
+            loop.start();
+        }
+
+        // El loop 0 es el encargado de aceptar conexiones
+        loops[0].execute(() -> {
+            try {
+                acceptKey = serverChannel.register(loops[0].selector(), SelectionKey.OP_ACCEPT);
+                if (onAcceptReady != null) onAcceptReady.run();
+            } catch (IOException e) {
+                ServerLog.error(LogCategory.NET, "[ERROR]: no se pudo registrar el accept: " + e.getMessage());
+            }
+        });
+
+        for (NioEventLoop loop : loops) {
+            try {
+                loop.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Acepta todas las conexiones pendientes (en el loop 0)
+     *
+     * Si accept() falla (ej: sin descriptores libres) la conexión sigue
+     * en el backlog y el Selector la volvería a reportar enseguida: se
+     * deja de escuchar OP_ACCEPT un momento para no girar al 100% de CPU.
+     */
+    void acceptPending() {
+        SocketChannel channel;
+        while (true) {
+            try {
+                channel = serverChannel.accept();
+            } catch (IOException e) {
+                if (serverChannel.isOpen()) {
+                    ServerLog.error(LogCategory.NET, "[ERROR]: no se acepto el cliente: " + e.getMessage()
+                        + " (reintento en " + ACCEPT_BACKOFF_MILLIS + " ms)");
+                    pauseAccept();
+                }
+                return;
+            }
+            if (channel == null) return;
+
+            try {
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            } catch (IOException e) {
+                ServerLog.error(LogCategory.NET, "[ERROR]: no se acepto el cliente: " + e.getMessage());
+                try { channel.close(); } catch (IOException ignored) {}
+                continue;
+            }
+
+            ServerLog.info(LogCategory.NET, "Nuevo cliente conectado (Total: " + clientCounter.incrementAndGet() + ")");
+
+            NioEventLoop loop = loops[nextLoop];
+            nextLoop = (nextLoop + 1) % loops.length;
+            loop.register(channel);
+        }
+    }
+
+    private void pauseAccept() {
+        if (acceptKey == null || !acceptKey.isValid()) return;
+        acceptKey.interestOps(0);
+        loops[0].schedule(resumeAccept, ACCEPT_BACKOFF_MILLIS);
+    }
+
+    private void resumeAccept() {
+        if (acceptKey.isValid()) {
+            acceptKey.interestOps(SelectionKey.OP_ACCEPT);
+        }
+    }
+
+    /**
+     * Detiene los event loops y cierra el puerto
+     */
+    public void stop() throws IOException {
+        serverChannel.close();
+        for (NioEventLoop loop : loops) {
+            loop.shutdown();
+        }
+    }
+
+    ServerGUI getServerGUI() {
+        return serverGUI;
+    }
+
+    ServerConfig getConfig() {
+        return config;
+    }
+
+    void logError(String message) {
+        ServerLog.error(LogCategory.NET, message);
+    }
+}
@@ -0,0 +1,140 @@
+package com.doncey.server.protocol;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import com.doncey.server.OutboundFrame;
+
+/**
+ * Codificador del protocolo binario
+ *
+ * Cada frame es:
+ *   [largo: int32][opcode: u8][campos de ancho fijo...]
+ * donde el largo cuenta el opcode y los campos (no a sí mismo). Todos
+ * los enteros van en big-endian. Los mensajes con texto libre (ERROR,
+ * HELLO_OK) llevan [largo: u16][bytes UTF-8] después de los campos.
+ *
+ * Ejemplos:
+ *   PLAYER_POS id x y          -> 00 00 00 0D | 02 | id(4) x(4) y(4)
+ *   WORLD_SNAPSHOT tick n ...  -> largo | 07 | tick(8) n(2) (id x y)*n
+ */
+public final class BinaryCodec {
+
+    public static final int LENGTH_PREFIX = 4; // Bytes del largo
+    public static final int MAX_INBOUND_FRAME = 8 * 1024; // Límite para frames del cliente
+
+    // Tipos de fruta en el orden de su código (código = índice + 1)
+    private static final String[] FRUIT_TYPES = { "MANZANA", "BANANO", "MANGO" };
+
+    private BinaryCodec() { }
+
+    /**
+     * Codifica un mensaje como frame binario
+     *
+     * @param msg Mensaje a codificar
+     * @return Frame con una referencia
+     */
+    public static OutboundFrame encode(ServerMessage msg) {
+        Opcode opcode = msg.opcode();
+        Opcode.Field[] fields = opcode.fields();
+        Opcode.Field[] repeated = opcode.repeated();
+
+        OutboundFrame.Builder builder = OutboundFrame.binary()
+            .putInt(0) // Largo, se completa al final
+            .putByte(opcode.code);
+        for (int i = 0; i < msg.argCount(); i++) {
+            Opcode.Field field = i < fields.length ? fields[i] : repeated[(i - fields.length) % repeated.length];
+            put(builder, field, msg.arg(i));
+        }
+        if (msg.text() != null) {
+            byte[] bytes = msg.text().getBytes(StandardCharsets.UTF_8);
+            builder.putShort(bytes.length).putBytes(bytes);
+        }
+        return builder.putInt(0, builder.position() - LENGTH_PREFIX).buildBinary();
+    }
+
+    private static void put(OutboundFrame.Builder builder, Opcode.Field field, long value) {
+        switch (field) {
+            case U8, FRUIT -> builder.putByte((int) value);
+            case U16, I16 -> builder.putShort((int) value);
+            case I32 -> builder.putInt((int) value);
+            case I64 -> builder.putLong(value);
+        }
+    }
+
+    /**
+     * Decodifica el cuerpo de un frame de comando del cliente
+     *
+     * @param buf Bytes recibidos
+     * @param at Posición del opcode (después del largo)
+     * @param length Largo del frame (opcode + campos)
+     * @param command Registro donde se escribe el comando
+     * @return null si es válido, o la razón por la que no lo es
+     */
+    static String decode(ByteBuffer buf, int at, int length, Command command) {
+        Opcode opcode = Opcode.fromCode(buf.get(at) & 0xFF);
+        if (opcode == null || !opcode.isClientCommand()) {
+            return "Opcode desconocido: " + (buf.get(at) & 0xFF);
+        }
+        if (length != 1 + opcode.fixedWidth()) {
+            return "Largo inválido para " + opcode + ": " + length;
+        }
+
+        Opcode.Field[] fields = opcode.fields();
+        long a = 0;
+        long b = 0;
+        int pos = at + 1;
+        if (fields.length > 0) {
+            a = get(buf, pos, fields[0]);
+            pos += fields[0].width;
+        }
+        if (fields.length > 1) {
+            b = get(buf, pos, fields[1]);
+        }
+        command.set(opcode, a, b);
+        return null;
+    }
+
+    /**
+     * Lee un campo entero de un comando del cliente
+     *
+     * @param buffer Bytes recibidos
+     * @param at Posición absoluta del campo
+     * @param field Tipo de campo
+     * @return Valor leído
+     */
+    private static long get(ByteBuffer buffer, int at, Opcode.Field field) {
+        return switch (field) {
+            case U8, FRUIT -> buffer.get(at) & 0xFF;
+            case U16 -> buffer.getShort(at) & 0xFFFF;
+            case I16 -> buffer.getShort(at);
+            case I32 -> buffer.getInt(at);
+            case I64 -> buffer.getLong(at);
+        };
+    }
+
+    // ======== TIPOS DE FRUTA ========
+
+    /**
+     * Código de un byte de un tipo de fruta
+     *
+     * @param type Tipo (MANZANA, BANANO, MANGO)
+     * @return Código (1..3) o 0 si es desconocido
+     */
+    public static int fruitCode(String type) {
+        for (int i = 0; i < FRUIT_TYPES.length; i++) {
+            if (FRUIT_TYPES[i].equalsIgnoreCase(type)) return i + 1;
+        }
+        return 0;
+    }
+
+    /**
+     * Tipo de fruta a partir de su código
+     *
+     * @param code Código de un byte
+     * @return Nombre del tipo ("DESCONOCIDA" si no existe)
+     */
+    public static String fruitType(int code) {
+        return code >= 1 && code <= FRUIT_TYPES.length ? FRUIT_TYPES[code - 1] : "DESCONOCIDA";
+    }
+}
@@ -0,0 +1,33 @@
+package com.doncey.server.protocol;
+
+/**
+ * Comando recibido de un cliente, ya decodificado
+ *
+ * Es un registro mutable de campos primitivos: cada InboundDecoder
+ * tiene uno solo y lo sobrescribe con cada comando, así que procesar
+ * un comando no reserva memoria. No debe guardarse fuera de la
+ * llamada a Handler.onCommand().
+ */
+public final class Command {
+
+    private Opcode opcode;
+    private long a; // Primer campo (si tiene)
+    private long b; // Segundo campo (si tiene)
+
+    void set(Opcode opcode, long a, long b) {
+        this.opcode = opcode;
+        this.a = a;
+        this.b = b;
+    }
+
+    public Opcode opcode() { return opcode; }
+    public long a() { return a; }
+    public long b() { return b; }
+
+    @Override
+    public String toString() {
+        // Forma de texto, sólo para logs
+        int fields = opcode.fields().length;
+        return opcode + (fields > 0 ? " " + a : "") + (fields > 1 ? " " + b : "");
+    }
+}
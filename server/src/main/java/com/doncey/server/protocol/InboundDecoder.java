@@ -0,0 +1,154 @@
+package com.doncey.server.protocol;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Separa los bytes recibidos de un cliente en mensajes
+ *
+ * Soporta los dos formatos y el cambio entre ellos en medio de un
+ * mismo bloque de bytes: después de cada mensaje se vuelve a consultar
+ * el formato al Handler, así los bytes que siguen a "HELLO BINARY" ya
+ * se interpretan como frames binarios.
+ *
+ * Los mensajes completos se procesan directamente sobre el buffer
+ * recibido; sólo un mensaje incompleto se copia al buffer propio.
+ * Tanto las líneas de texto como los frames binarios se decodifican
+ * al mismo registro Command reutilizable, así que en régimen estable
+ * no se reserva memoria por comando. Sólo las líneas que no son
+ * comandos conocidos (HELLO, errores) se entregan como String.
+ * Lo usa un único thread (el lector de la conexión).
+ */
+public final class InboundDecoder {
+
+    public static final int MAX_LINE_LENGTH = 8 * 1024; // Protege contra clientes que nunca envían '\n'
+
+    /**
+     * Receptor de los mensajes decodificados
+     */
+    public interface Handler {
+        /** Formato con el que se interpretan los próximos bytes */
+        WireFormat inboundFormat();
+
+        /** Línea de texto que no es un comando conocido (sin '\n') */
+        void onLine(String line);
+
+        /** Comando decodificado (el registro se reutiliza al volver) */
+        void onCommand(Command command);
+
+        /** Error de framing: la conexión debe cerrarse */
+        void onProtocolError(String reason);
+
+        /** Si ya no hay que seguir entregando mensajes */
+        boolean isClosed();
+    }
+
+    private final Handler handler;
+    private final Command command = new Command(); // Registro reutilizado para cada comando
+    private byte[] partial = new byte[0]; // Bytes de un mensaje incompleto
+    private ByteBuffer partialView = ByteBuffer.wrap(partial);
+    private int partialLength = 0;
+    private boolean failed = false; // Hubo un error de framing: se ignora el resto
+
+    public InboundDecoder(Handler handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * Procesa los bytes entre position y limit del buffer
+     *
+     * @param in Bytes recibidos (no se modifica su posición)
+     */
+    public void feed(ByteBuffer in) {
+        if (failed) return;
+        int from = in.position();
+        int to = in.limit();
+
+        if (partialLength == 0) {
+            int consumed = decode(in, from, to);
+            if (consumed < to && !failed && !handler.isClosed()) append(in, consumed, to);
+        } else {
+            append(in, from, to);
+            int consumed = decode(partialView, 0, partialLength);
+            if (failed) return;
+            // Compactar lo que quedó sin procesar
+            System.arraycopy(partial, consumed, partial, 0, partialLength - consumed);
+            partialLength -= consumed;
+        }
+
+        if (partialLength > MAX_LINE_LENGTH && !failed && !handler.isClosed()) {
+            fail("Mensaje demasiado largo");
+        }
+    }
+
+    /**
+     * Entrega todos los mensajes completos de un rango
+     *
+     * @return Posición del primer byte no consumido
+     */
+    private int decode(ByteBuffer buf, int from, int to) {
+        while (from < to && !failed && !handler.isClosed()) {
+            if (handler.inboundFormat() == WireFormat.BINARY) {
+                if (to - from < BinaryCodec.LENGTH_PREFIX) break;
+                int length = buf.getInt(from);
+                if (length < 1 || length > BinaryCodec.MAX_INBOUND_FRAME) {
+                    fail("Largo de frame inválido: " + length);
+                    return to;
+                }
+                if (to - from < BinaryCodec.LENGTH_PREFIX + length) break;
+                String error = BinaryCodec.decode(buf, from + BinaryCodec.LENGTH_PREFIX, length, command);
+                if (error != null) {
+                    fail(error);
+                    return to;
+                }
+                handler.onCommand(command);
+                from += BinaryCodec.LENGTH_PREFIX + length;
+            } else {
+                int newline = indexOf(buf, from, to, (byte) '\n');
+                if (newline < 0) break;
+                decodeLine(buf, from, newline);
+                from = newline + 1;
+            }
+        }
+        return from;
+    }
+
+    private void decodeLine(ByteBuffer buf, int from, int to) {
+        // Equivalente a trim() sobre los bytes (incluye el '\r' de "\r\n")
+        while (from < to && buf.get(from) <= ' ') from++;
+        while (to > from && buf.get(to - 1) <= ' ') to--;
+        if (from == to) return;
+
+        if (TextCodec.decode(buf, from, to, command)) {
+            handler.onCommand(command);
+        } else {
+            byte[] bytes = new byte[to - from];
+            buf.get(from, bytes);
+            handler.onLine(new String(bytes, StandardCharsets.UTF_8));
+        }
+    }
+
+    private void fail(String reason) {
+        failed = true;
+        partialLength = 0;
+        handler.onProtocolError(reason);
+    }
+
+    private static int indexOf(ByteBuffer buf, int from, int to, byte value) {
+        for (int i = from; i < to; i++) {
+            if (buf.get(i) == value) return i;
+        }
+        return -1;
+    }
+
+    private void append(ByteBuffer buf, int from, int to) {
+        int length = to - from;
+        if (partialLength + length > partial.length) {
+            partial = Arrays.copyOf(partial, Math.max(partialLength + length, partial.length * 2));
+            partialView = ByteBuffer.wrap(partial);
+        }
+        buf.get(from, partial, partialLength, length);
+        partialLength += length;
+    }
+}
@@ -0,0 +1,117 @@
+package com.doncey.server.protocol;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Mensajes del protocolo y su esquema de campos
+ *
+ * Cada opcode tiene un nombre (protocolo de texto), un código de un byte
+ * (protocolo binario) y la lista de campos de ancho fijo. WORLD_SNAPSHOT
+ * además tiene un grupo de campos que se repite una vez por jugador.
+ *
+ * Los códigos 0x01-0x3F van del servidor al cliente y 0x40-0x7F del
+ * cliente al servidor.
+ */
+public enum Opcode {
+
+    // ======== SERVIDOR -> CLIENTE ========
+    ASSIGN_ID(0x01, Field.I32),                                          // id
+    PLAYER_POS(0x02, Field.I32, Field.I32, Field.I32),                  // id x y
+    SPAWN_FRUIT(0x03, Field.I32, Field.I32, Field.I32, Field.FRUIT, Field.I32), // id x y TYPE pts
+    REMOVE_FRUIT(0x04, Field.I32),                                       // id
+    PLAYER_SCORE(0x05, Field.I32, Field.I32),                            // id pts
+    GAME_OVER(0x06, Field.I32),                                          // id
+    WORLD_SNAPSHOT(0x07, new Field[] { Field.I64, Field.U16 },
+                   new Field[] { Field.I32, Field.I32, Field.I32 }),      // tick n (id x y)*
+    EAT_OK(0x08, Field.I32, Field.I32),                                  // fid pts
+    EAT_FAIL(0x09, Field.I32),                                           // fid
+    ERROR(0x0A),                                                         // + texto
+    HELLO_OK(0x0B),                                                      // + capacidades
+    WORLD_DELTA(0x0C, new Field[] { Field.I64, Field.I64, Field.U16 },
+                new Field[] { Field.I32, Field.U8, Field.I32, Field.I32 }), // tick base n (id kind a b)*
+    ROOM_JOINED(0x0D, Field.I32),                                        // room
+    WORLD_STATE(0x0E, new Field[] { Field.I64, Field.I64, Field.U16, Field.U16, Field.U16 },
+                new Field[] { Field.U8, Field.I32, Field.I32, Field.I32, Field.I32, Field.I32 }),
+                                                                         // tick version chunk chunks n (kind id x y a b)*
+
+    // ======== CLIENTE -> SERVIDOR ========
+    MOVE_LEFT(0x41),
+    MOVE_RIGHT(0x42),
+    STOP_MOVING(0x43),
+    JUMP(0x44),
+    EAT_FRUIT(0x45, Field.I32, Field.I32),                               // cid fid
+    ACK(0x46, Field.I64),                                                // tick
+    ROOM_CREATE(0x47),
+    ROOM_JOIN(0x48, Field.I32),                                          // room
+    ROOM_LEAVE(0x49);
+
+    /**
+     * Tipos de campo y su ancho en el protocolo binario
+     */
+    public enum Field {
+        U8(1),
+        U16(2),
+        I16(2),
+        I32(4),
+        I64(8),
+        FRUIT(1); // Tipo de fruta codificado en un byte (ver BinaryCodec)
+
+        public final int width;
+
+        Field(int width) {
+            this.width = width;
+        }
+    }
+
+    private static final Opcode[] BY_CODE = new Opcode[128];
+    static final Opcode[] CLIENT_OPCODES; // Comandos que puede enviar un cliente
+
+    static {
+        for (Opcode op : values()) {
+            BY_CODE[op.code] = op;
+        }
+        CLIENT_OPCODES = Arrays.stream(values()).filter(Opcode::isClientCommand).toArray(Opcode[]::new);
+    }
+
+    public final int code; // Código binario
+    private final Field[] fields; // Campos fijos
+    private final Field[] repeated; // Grupo repetido (vacío si no hay)
+    private final int fixedWidth; // Bytes de los campos fijos
+    final byte[] ascii; // Nombre en ASCII (para reconocerlo en texto sin crear Strings)
+
+    Opcode(int code, Field... fields) {
+        this(code, fields, new Field[0]);
+    }
+
+    Opcode(int code, Field[] fields, Field[] repeated) {
+        this.code = code;
+        this.fields = fields;
+        this.repeated = repeated;
+        int width = 0;
+        for (Field f : fields) width += f.width;
+        this.fixedWidth = width;
+        this.ascii = name().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    Field[] fields() { return fields; }
+    Field[] repeated() { return repeated; }
+    int fixedWidth() { return fixedWidth; }
+
+    /**
+     * Indica si es un comando del cliente al servidor (0x40-0x7F)
+     */
+    public boolean isClientCommand() {
+        return code >= 0x40;
+    }
+
+    /**
+     * Busca un opcode por su código binario
+     *
+     * @param code Código (0-255)
+     * @return Opcode o null si no existe
+     */
+    public static Opcode fromCode(int code) {
+        return code >= 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+    }
+}
@@ -0,0 +1,167 @@
+package com.doncey.server.protocol;
+
+import java.util.Arrays;
+
+import com.doncey.server.OutboundFrame;
+
+/**
+ * Mensaje del servidor independiente del formato de cable
+ *
+ * Guarda el opcode y sus campos numéricos; cada formato se codifica
+ * de forma perezosa la primera vez que algún destinatario lo pide y
+ * se reutiliza para el resto. Así un broadcast codifica el mensaje a
+ * lo sumo una vez por formato, sin importar la cantidad de clientes.
+ *
+ * No es thread-safe: lo usa sólo el thread que lo creó (el que hace
+ * el reparto). Los frames que entrega sí pueden compartirse.
+ */
+public final class ServerMessage {
+
+    private final Opcode opcode;
+    private final long[] args; // Campos en el orden del esquema del opcode
+    private final int argCount;
+    private final String text; // Texto libre al final (ERROR, HELLO_OK) o null
+
+    private OutboundFrame textFrame; // Codificación de texto (perezosa)
+    private OutboundFrame binaryFrame; // Codificación binaria (perezosa)
+
+    private ServerMessage(Opcode opcode, long[] args, int argCount, String text) {
+        this.opcode = opcode;
+        this.args = args;
+        this.argCount = argCount;
+        this.text = text;
+    }
+
+    /**
+     * Crea un mensaje con campos de ancho fijo
+     *
+     * @param opcode Tipo de mensaje
+     * @param args Campos (los de tipo FRUIT van con BinaryCodec.fruitCode)
+     * @return Mensaje sin codificar
+     */
+    public static ServerMessage of(Opcode opcode, long... args) {
+        return new ServerMessage(opcode, args, args.length, null);
+    }
+
+    /**
+     * Crea un mensaje con texto libre al final
+     *
+     * @param opcode Tipo de mensaje (ERROR, HELLO_OK)
+     * @param text Texto (puede estar vacío)
+     * @return Mensaje sin codificar
+     */
+    public static ServerMessage withText(Opcode opcode, String text) {
+        return new ServerMessage(opcode, new long[0], 0, text);
+    }
+
+    /**
+     * Empieza a construir un mensaje con grupo repetido (WORLD_SNAPSHOT)
+     *
+     * @param opcode Tipo de mensaje
+     * @param expectedArgs Cantidad estimada de campos
+     * @return Builder vacío
+     */
+    public static Builder builder(Opcode opcode, int expectedArgs) {
+        return new Builder(opcode, expectedArgs);
+    }
+
+    // ======== CODIFICACIÓN ========
+
+    /**
+     * Obtiene el frame codificado en el formato pedido
+     *
+     * El mensaje conserva su referencia al frame hasta release(); el
+     * que encola el frame debe tomar la suya con retain().
+     *
+     * @param format Formato de cable del destinatario
+     * @return Frame compartido
+     */
+    public OutboundFrame frame(WireFormat format) {
+        if (format == WireFormat.BINARY) {
+            if (binaryFrame == null) binaryFrame = BinaryCodec.encode(this);
+            return binaryFrame;
+        }
+        if (textFrame == null) textFrame = TextCodec.encode(this);
+        return textFrame;
+    }
+
+    /**
+     * Bytes codificados hasta ahora (suma de todos los formatos)
+     */
+    public int encodedBytes() {
+        return (textFrame != null ? textFrame.length() : 0)
+             + (binaryFrame != null ? binaryFrame.length() : 0);
+    }
+
+    /**
+     * Suelta las referencias del mensaje a sus frames
+     */
+    public void release() {
+        if (textFrame != null) {
+            textFrame.release();
+            textFrame = null;
+        }
+        if (binaryFrame != null) {
+            binaryFrame.release();
+            binaryFrame = null;
+        }
+    }
+
+    // ======== ACCESO ========
+
+    public Opcode opcode() { return opcode; }
+    public int argCount() { return argCount; }
+    public long arg(int index) { return args[index]; }
+    public String text() { return text; }
+
+    @Override
+    public String toString() {
+        // Forma de texto, sólo para logs
+        StringBuilder sb = new StringBuilder(opcode.name());
+        Opcode.Field[] fields = opcode.fields();
+        Opcode.Field[] repeated = opcode.repeated();
+        for (int i = 0; i < argCount; i++) {
+            Opcode.Field field = i < fields.length ? fields[i] : repeated[(i - fields.length) % repeated.length];
+            sb.append(' ');
+            if (field == Opcode.Field.FRUIT) sb.append(BinaryCodec.fruitType((int) args[i]));
+            else sb.append(args[i]);
+        }
+        if (text != null && !text.isEmpty()) sb.append(' ').append(text);
+        return sb.toString();
+    }
+
+    // ======== BUILDER ========
+
+    /**
+     * Acumula campos en un arreglo primitivo que crece al doble
+     */
+    public static final class Builder {
+        private final Opcode opcode;
+        private long[] args;
+        private int count = 0;
+
+        private Builder(Opcode opcode, int expectedArgs) {
+            this.opcode = opcode;
+            this.args = new long[Math.max(4, expectedArgs)];
+        }
+
+        public Builder add(long value) {
+            if (count == args.length) args = Arrays.copyOf(args, args.length * 2);
+            args[count++] = value;
+            return this;
+        }
+
+        /**
+         * Sobrescribe un campo ya agregado (ej: una cantidad que se
+         * conoce recién al final)
+         */
+        public Builder set(int index, long value) {
+            args[index] = value;
+            return this;
+        }
+
+        public ServerMessage build() {
+            return new ServerMessage(opcode, args, count, null);
+        }
+    }
+}
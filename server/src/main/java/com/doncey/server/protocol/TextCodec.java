@@ -0,0 +1,110 @@
+package com.doncey.server.protocol;
+
+import java.nio.ByteBuffer;
+
+import com.doncey.server.OutboundFrame;
+
+/**
+ * Codificador y decodificador del protocolo de texto (el del cliente C)
+ *
+ * Formato: "OPCODE campo1 campo2 ...\n", con los números en decimal y
+ * los tipos de fruta por nombre (ej: "SPAWN_FRUIT 3 100 200 MANGO 50").
+ *
+ * Los comandos del cliente se reconocen comparando bytes contra el
+ * nombre ASCII de cada opcode y los números se leen dígito a dígito,
+ * sin crear Strings ni arreglos.
+ */
+public final class TextCodec {
+
+    private TextCodec() { }
+
+    /**
+     * Codifica un mensaje como una línea de texto
+     *
+     * @param msg Mensaje a codificar
+     * @return Frame con una referencia
+     */
+    public static OutboundFrame encode(ServerMessage msg) {
+        Opcode opcode = msg.opcode();
+        Opcode.Field[] fields = opcode.fields();
+        Opcode.Field[] repeated = opcode.repeated();
+
+        OutboundFrame.Builder builder = OutboundFrame.builder(opcode.name());
+        for (int i = 0; i < msg.argCount(); i++) {
+            Opcode.Field field = i < fields.length ? fields[i] : repeated[(i - fields.length) % repeated.length];
+            if (field == Opcode.Field.FRUIT) {
+                builder.arg(BinaryCodec.fruitType((int) msg.arg(i)));
+            } else {
+                builder.arg(msg.arg(i));
+            }
+        }
+        if (msg.text() != null && !msg.text().isEmpty()) {
+            builder.text(msg.text());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Decodifica una línea de comando del cliente
+     *
+     * Reconoce "OPCODE [n1 [n2]]" para los comandos con campos enteros
+     * (MOVE_*, JUMP, EAT_FRUIT, ACK). Lo que no reconoce (HELLO, líneas
+     * mal formadas) se deja para el camino lento basado en Strings.
+     *
+     * @param buf Bytes recibidos
+     * @param from Inicio de la línea (sin espacios iniciales)
+     * @param to Fin de la línea (sin '\n' ni espacios finales)
+     * @param command Registro donde se escribe el comando
+     * @return true si la línea era un comando válido
+     */
+    public static boolean decode(ByteBuffer buf, int from, int to, Command command) {
+        int end = from;
+        while (end < to && buf.get(end) != ' ') end++;
+
+        Opcode opcode = match(buf, from, end);
+        if (opcode == null) return false;
+
+        Opcode.Field[] fields = opcode.fields();
+        long a = 0;
+        long b = 0;
+        int pos = end;
+        for (int k = 0; k < fields.length; k++) {
+            while (pos < to && buf.get(pos) == ' ') pos++;
+
+            boolean negative = pos < to && buf.get(pos) == '-';
+            if (negative) pos++;
+            int digitsStart = pos;
+            long value = 0;
+            while (pos < to) {
+                int digit = buf.get(pos) - '0';
+                if (digit < 0 || digit > 9) break;
+                value = value * 10 + digit;
+                pos++;
+            }
+            // Campo faltante, con basura o fuera de rango
+            if (pos == digitsStart || pos - digitsStart > 18) return false;
+            if (pos < to && buf.get(pos) != ' ') return false;
+            if (negative) value = -value;
+            if (fields[k] == Opcode.Field.I32 && (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE)) return false;
+
+            if (k == 0) a = value;
+            else b = value;
+        }
+
+        command.set(opcode, a, b);
+        return true;
+    }
+
+    // Busca el comando cuyo nombre coincide con los bytes [from, to)
+    private static Opcode match(ByteBuffer buf, int from, int to) {
+        int length = to - from;
+        for (Opcode opcode : Opcode.CLIENT_OPCODES) {
+            byte[] name = opcode.ascii;
+            if (name.length != length) continue;
+            int i = 0;
+            while (i < length && buf.get(from + i) == name[i]) i++;
+            if (i == length) return opcode;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,13 @@
+package com.doncey.server.protocol;
+
+/**
+ * Formato de cable de una conexión
+ *
+ * - TEXT: líneas de texto separadas por '\n' (default, cliente C)
+ * - BINARY: frames con largo prefijado, opcode de un byte y campos
+ *   de ancho fijo (ver BinaryCodec)
+ */
+public enum WireFormat {
+    TEXT,
+    BINARY
+}
@@ -0,0 +1,151 @@
+package com.doncey.utils;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import com.doncey.patterns.observer.WaitStrategy;
+import com.doncey.server.ConnectionMode;
+import com.doncey.server.OutboundQueue;
+import com.doncey.server.OverflowPolicy;
+import com.doncey.utils.log.LogCategory;
+import com.doncey.utils.log.LogLevel;
+
+/**
+ * Configuración de arranque del servidor
+ *
+ * Se construye a partir de los argumentos de línea de comandos:
+ *   --mode=blocking|virtual|nio  Modo de manejo de conexiones (default: blocking)
+ *   --port=N                     Puerto de escucha (default: Constants.SERVER_PORT)
+ *   --io-threads=N               Cantidad de event loops en modo NIO (default: núcleos / 2)
+ *   --room-workers=N             Threads que ejecutan los ticks de las salas (default: núcleos)
+ *   --parallel-physics=N         Jugadores por sala desde los que la física se reparte
+ *                                en un pool fork-join (default: 512)
+ *   --outbound-capacity=N        Mensajes pendientes por cliente (default: 1024)
+ *   --overflow-policy=P          drop-oldest|disconnect|block (default: drop-oldest)
+ *   --overflow-timeout-ms=N      Espera máxima con la política block (default: 100)
+ *   --event-wait=W               spin|yield|park: cómo esperan eventos los threads de
+ *                                los observadores (default: park)
+ *   --log-level=L                debug|info|warn|error|off para todas las categorías
+ *                                salvo traffic (default: info)
+ *   --log=CAT:L[,CAT:L...]       Umbral por categoría: server, net, traffic, game
+ *                                (ej: --log=traffic:debug; traffic está en off por defecto)
+ *   --log-file=RUTA              Además de la consola, agrega los logs a un archivo
+ *   --headless                   Arranca sin la GUI de administración (Main); no carga
+ *                                ninguna clase de Swing ni AWT
+ *   --admin-port=N               Abre la API HTTP de administración y métricas en
+ *                                127.0.0.1:N (default: 0, cerrada)
+ */
+public class ServerConfig {
+
+    private ConnectionMode connectionMode = ConnectionMode.BLOCKING;
+    private int port = Constants.SERVER_PORT;
+    private int ioThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    private int roomWorkers = Runtime.getRuntime().availableProcessors();
+    private int parallelPhysicsThreshold = 512;
+    private int outboundCapacity = 1024;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_OLDEST;
+    private long overflowTimeoutMillis = 100;
+    private WaitStrategy eventWaitStrategy = WaitStrategy.PARK;
+    private LogLevel logLevel = null; // null: el default de ServerLog
+    private final Map<LogCategory, LogLevel> logCategoryLevels = new EnumMap<>(LogCategory.class);
+    private String logFile = null;
+    private boolean headless = false;
+    private int adminPort = 0; // 0: sin API HTTP de administración
+
+    /**
+     * Crea la configuración por defecto
+     */
+    public ServerConfig() { }
+
+    /**
+     * Crea la configuración a partir de los argumentos del programa
+     *
+     * @param args Argumentos de línea de comandos
+     * @return Configuración resultante
+     * @throws IllegalArgumentException si algún argumento es inválido
+     */
+    public static ServerConfig fromArgs(String[] args) {
+        ServerConfig config = new ServerConfig();
+        if (args == null) return config;
+
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            String key = eq == -1 ? arg : arg.substring(0, eq);
+            String value = eq == -1 ? "" : arg.substring(eq + 1);
+
+            switch (key) {
+                case "--mode":
+                    config.connectionMode = ConnectionMode.parse(value);
+                    break;
+                case "--port":
+                    config.port = Integer.parseInt(value);
+                    break;
+                case "--io-threads":
+                    config.ioThreads = Math.max(1, Integer.parseInt(value));
+                    break;
+                case "--room-workers":
+                    config.roomWorkers = Math.max(1, Integer.parseInt(value));
+                    break;
+                case "--parallel-physics":
+                    config.parallelPhysicsThreshold = Math.max(1, Integer.parseInt(value));
+                    break;
+                case "--outbound-capacity":
+                    config.outboundCapacity = Math.max(1, Integer.parseInt(value));
+                    break;
+                case "--overflow-policy":
+                    config.overflowPolicy = OverflowPolicy.parse(value);
+                    break;
+                case "--overflow-timeout-ms":
+                    config.overflowTimeoutMillis = Math.max(0, Long.parseLong(value));
+                    break;
+                case "--event-wait":
+                    config.eventWaitStrategy = WaitStrategy.parse(value);
+                    break;
+                case "--log-level":
+                    config.logLevel = LogLevel.parse(value);
+                    break;
+                case "--log":
+                    for (String entry : value.split(",")) {
+                        String[] parts = entry.split(":");
+                        if (parts.length != 2) throw new IllegalArgumentException("Formato inválido en --log: " + entry);
+                        config.logCategoryLevels.put(LogCategory.parse(parts[0]), LogLevel.parse(parts[1]));
+                    }
+                    break;
+                case "--log-file":
+                    config.logFile = value;
+                    break;
+                case "--headless":
+                    config.headless = true;
+                    break;
+                case "--admin-port":
+                    config.adminPort = Math.max(0, Integer.parseInt(value));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Argumento desconocido: " + arg);
+            }
+        }
+        return config;
+    }
+
+    public ConnectionMode getConnectionMode() { return connectionMode; }
+    public int getPort() { return port; }
+    public int getIoThreads() { return ioThreads; }
+    public int getRoomWorkers() { return roomWorkers; }
+    public int getParallelPhysicsThreshold() { return parallelPhysicsThreshold; }
+    public int getOutboundCapacity() { return outboundCapacity; }
+    public OverflowPolicy getOverflowPolicy() { return overflowPolicy; }
+    public long getOverflowTimeoutMillis() { return overflowTimeoutMillis; }
+    public WaitStrategy getEventWaitStrategy() { return eventWaitStrategy; }
+    public LogLevel getLogLevel() { return logLevel; }
+    public Map<LogCategory, LogLevel> getLogCategoryLevels() { return logCategoryLevels; }
+    public String getLogFile() { return logFile; }
+    public boolean isHeadless() { return headless; }
+    public int getAdminPort() { return adminPort; }
+
+    /**
+     * Crea una cola de salida para un cliente según esta configuración
+     */
+    public OutboundQueue newOutboundQueue() {
+        return new OutboundQueue(outboundCapacity, overflowPolicy, overflowTimeoutMillis);
+    }
+}
@@ -0,0 +1,21 @@
+package com.doncey.utils.log;
+
+/**
+ * Escribe los logs en la consola (los errores en stderr)
+ */
+public class ConsoleSink implements LogSink {
+
+    @Override
+    public void write(LogLevel level, LogCategory category, String line) {
+        if (level == LogLevel.ERROR) {
+            System.err.println(line);
+        } else {
+            System.out.println(line);
+        }
+    }
+
+    @Override
+    public void flush() {
+        System.out.flush();
+    }
+}
@@ -0,0 +1,47 @@
+package com.doncey.utils.log;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+
+/**
+ * Agrega los logs al final de un archivo
+ *
+ * Escribe con buffer y sólo hace flush cuando la cola de logs se vacía.
+ */
+public class FileSink implements LogSink {
+
+    private final BufferedWriter writer;
+
+    /**
+     * Abre (o crea) el archivo de log
+     *
+     * @param path Ruta del archivo
+     * @throws IOException si no se puede abrir
+     */
+    public FileSink(String path) throws IOException {
+        this.writer = new BufferedWriter(new FileWriter(path, true), 64 * 1024);
+    }
+
+    @Override
+    public void write(LogLevel level, LogCategory category, String line) {
+        try {
+            writer.write(line);
+            writer.newLine();
+        } catch (IOException ignored) {}
+    }
+
+    @Override
+    public void flush() {
+        try {
+            writer.flush();
+        } catch (IOException ignored) {}
+    }
+
+    @Override
+    public void close() {
+        try {
+            writer.close();
+        } catch (IOException ignored) {}
+    }
+}
@@ -0,0 +1,31 @@
+package com.doncey.utils.log;
+
+/**
+ * Categorías de log, cada una con su propio umbral
+ *
+ * - SERVER: arranque, modo y parada del servidor
+ * - NET: conexiones, desconexiones, errores de I/O y colas llenas
+ * - TRAFFIC: cada mensaje recibido/enviado (apagado por defecto)
+ * - GAME: eventos del mundo (frutas, jugadores, muertes)
+ */
+public enum LogCategory {
+    SERVER,
+    NET,
+    TRAFFIC,
+    GAME;
+
+    /**
+     * Convierte un nombre de categoría (sin importar mayúsculas)
+     *
+     * @param value Nombre (ej: "traffic")
+     * @return Categoría correspondiente
+     * @throws IllegalArgumentException si el nombre no es válido
+     */
+    public static LogCategory parse(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Categoría de log inválida: " + value + ". Use: server, net, traffic, game");
+        }
+    }
+}
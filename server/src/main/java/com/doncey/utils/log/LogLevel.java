@@ -0,0 +1,29 @@
+package com.doncey.utils.log;
+
+/**
+ * Niveles de log, de menor a mayor severidad
+ *
+ * OFF no es un nivel de mensaje: como umbral de una categoría, la apaga.
+ */
+public enum LogLevel {
+    DEBUG,
+    INFO,
+    WARN,
+    ERROR,
+    OFF;
+
+    /**
+     * Convierte un nombre de nivel (sin importar mayúsculas)
+     *
+     * @param value "debug", "info", "warn", "error" u "off"
+     * @return Nivel correspondiente
+     * @throws IllegalArgumentException si el nombre no es válido
+     */
+    public static LogLevel parse(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Nivel de log inválido: " + value + ". Use: debug, info, warn, error, off");
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.doncey.utils.log;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Cola circular acotada, sin locks, de muchos productores y un consumidor
+ *
+ * Cada celda tiene un número de secuencia que indica de quién es el
+ * turno: los productores reservan una posición con un CAS sobre la cola
+ * y publican la celda al avanzar su secuencia; el consumidor la lee y
+ * la devuelve avanzando la secuencia una vuelta completa. Las celdas se
+ * reservan al crear la cola y se reutilizan.
+ *
+ * Si la cola está llena, offer() devuelve false en vez de esperar.
+ */
+final class LogRing {
+
+    /**
+     * Celda reutilizable con los datos de un mensaje
+     */
+    static final class Slot {
+        LogLevel level;
+        LogCategory category;
+        long millis;
+        String message;
+    }
+
+    private final Slot[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong(); // Próxima posición a reservar (productores)
+    private long head = 0; // Próxima posición a leer (sólo el consumidor)
+
+    /**
+     * Crea la cola
+     *
+     * @param capacity Cantidad de celdas (se redondea a potencia de 2)
+     */
+    LogRing(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new Slot[size];
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot();
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Publica un mensaje (cualquier thread)
+     *
+     * @return false si la cola estaba llena
+     */
+    boolean offer(LogLevel level, LogCategory category, long millis, String message) {
+        long pos = tail.get();
+        while (true) {
+            int index = (int) pos & mask;
+            long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    Slot slot = slots[index];
+                    slot.level = level;
+                    slot.category = category;
+                    slot.millis = millis;
+                    slot.message = message;
+                    sequences.set(index, pos + 1); // Publica la celda
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                return false; // Llena: el consumidor no devolvió esta celda
+            } else {
+                pos = tail.get(); // Otro productor la tomó
+            }
+        }
+    }
+
+    /**
+     * Toma la próxima celda publicada (sólo el consumidor)
+     *
+     * La celda debe devolverse con release() antes del próximo peek().
+     *
+     * @return Celda o null si la cola está vacía
+     */
+    Slot peek() {
+        int index = (int) head & mask;
+        return sequences.get(index) == head + 1 ? slots[index] : null;
+    }
+
+    /**
+     * Devuelve la celda leída a los productores
+     */
+    void release() {
+        int index = (int) head & mask;
+        slots[index].message = null;
+        sequences.set(index, head + slots.length);
+        head++;
+    }
+}
@@ -0,0 +1,30 @@
+package com.doncey.utils.log;
+
+/**
+ * Destino de las líneas de log (consola, GUI, archivo)
+ *
+ * Sólo lo llama el thread consumidor de ServerLog, así que una
+ * implementación no necesita ser thread-safe ni rápida.
+ */
+@FunctionalInterface
+public interface LogSink {
+
+    /**
+     * Escribe una línea ya formateada
+     *
+     * @param level Nivel del mensaje
+     * @param category Categoría del mensaje
+     * @param line Línea con timestamp (sin salto de línea)
+     */
+    void write(LogLevel level, LogCategory category, String line);
+
+    /**
+     * Vacía los buffers (se llama cuando la cola de logs queda vacía)
+     */
+    default void flush() { }
+
+    /**
+     * Libera los recursos del destino
+     */
+    default void close() { }
+}
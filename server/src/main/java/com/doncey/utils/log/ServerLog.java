@@ -0,0 +1,276 @@
+package com.doncey.utils.log;
+
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Log asíncrono del servidor
+ *
+ * Los threads que loguean (game loop, lectores, event loops) sólo
+ * consultan el umbral de la categoría y, si corresponde, publican el
+ * mensaje en una LogRing sin locks. El formateo (timestamp) y la
+ * escritura a consola, GUI y archivo ocurren en un único thread de
+ * fondo, "ServerLog".
+ *
+ * - El timestamp sale de un reloj cacheado que actualiza el consumidor,
+ *   así que loguear no llama a System.currentTimeMillis().
+ * - Si la cola está llena, el mensaje se descarta y se cuenta; nunca
+ *   se bloquea al que loguea.
+ * - Los mensajes caros de armar deben protegerse con isEnabled().
+ */
+public class ServerLog {
+
+    private static final int RING_CAPACITY = 8192;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10); // También es la resolución del reloj
+
+    // Se crea al cargar la clase: getInstance() no necesita sincronizar
+    // y los atajos estáticos cuestan sólo una lectura del umbral
+    private static final ServerLog INSTANCE = new ServerLog();
+
+    private final LogRing ring = new LogRing(RING_CAPACITY);
+    private final List<SinkEntry> sinks = new CopyOnWriteArrayList<>();
+    private volatile LogLevel[] thresholds; // Umbral por categoría (se reemplaza entero al cambiar)
+    private final LongAdder dropped = new LongAdder();
+    private final Thread consumer;
+
+    private volatile long clockMillis = System.currentTimeMillis(); // Reloj cacheado
+    private volatile boolean running = true;
+
+    // Cache del texto del timestamp (sólo el consumidor)
+    private long cachedSecond = -1;
+    private String cachedPrefix = "";
+
+    /**
+     * Zona horaria y formato del timestamp
+     * 
+     * Leer la base de zonas horarias cuesta decenas de ms: se carga con
+     * el primer mensaje escrito, en el thread consumidor, y no demora
+     * el arranque del servidor.
+     */
+    private static final class Clock {
+        static final ZoneId ZONE = ZoneId.systemDefault();
+        static final DateTimeFormatter FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss");
+    }
+
+    /**
+     * Destino con las categorías que acepta
+     */
+    private record SinkEntry(LogSink sink, Set<LogCategory> categories) { }
+
+    // ======== CONSTRUCTOR ========
+
+    private ServerLog() {
+        LogLevel[] initial = new LogLevel[LogCategory.values().length];
+        for (LogCategory category : LogCategory.values()) {
+            initial[category.ordinal()] = LogLevel.INFO;
+        }
+        initial[LogCategory.TRAFFIC.ordinal()] = LogLevel.OFF;
+        thresholds = initial;
+
+        sinks.add(new SinkEntry(new ConsoleSink(), EnumSet.allOf(LogCategory.class)));
+
+        consumer = new Thread(this::consume, "ServerLog");
+        consumer.setDaemon(true);
+        consumer.start();
+
+        // Vaciar lo pendiente al terminar la JVM
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, "ServerLog-shutdown"));
+    }
+
+    public static ServerLog getInstance() {
+        return INSTANCE;
+    }
+
+    // ======== ATAJOS ESTÁTICOS ========
+
+    public static void debug(LogCategory category, String message) { getInstance().log(LogLevel.DEBUG, category, message); }
+    public static void info(LogCategory category, String message) { getInstance().log(LogLevel.INFO, category, message); }
+    public static void warn(LogCategory category, String message) { getInstance().log(LogLevel.WARN, category, message); }
+    public static void error(LogCategory category, String message) { getInstance().log(LogLevel.ERROR, category, message); }
+
+    /**
+     * Indica si un mensaje de ese nivel y categoría se registraría
+     *
+     * Sirve para no armar el String de un mensaje que se va a descartar.
+     */
+    public static boolean isEnabled(LogCategory category, LogLevel level) {
+        return getInstance().enabled(category, level);
+    }
+
+    // ======== PRODUCTORES ========
+
+    /**
+     * Publica un mensaje sin bloquear
+     *
+     * @param level Nivel del mensaje
+     * @param category Categoría
+     * @param message Texto (sin timestamp)
+     */
+    public void log(LogLevel level, LogCategory category, String message) {
+        if (!enabled(category, level)) return;
+
+        if (!ring.offer(level, category, clockMillis, message)) {
+            dropped.increment();
+            return;
+        }
+        // Los avisos y errores no esperan al próximo ciclo del consumidor
+        if (level.compareTo(LogLevel.WARN) >= 0) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    private boolean enabled(LogCategory category, LogLevel level) {
+        return level.compareTo(thresholds[category.ordinal()]) >= 0;
+    }
+
+    // ======== CONFIGURACIÓN ========
+
+    /**
+     * Cambia el umbral de todas las categorías salvo TRAFFIC
+     *
+     * @param level Nivel mínimo a registrar
+     */
+    public synchronized void setLevel(LogLevel level) {
+        LogLevel[] updated = thresholds.clone();
+        for (LogCategory category : LogCategory.values()) {
+            if (category != LogCategory.TRAFFIC) updated[category.ordinal()] = level;
+        }
+        thresholds = updated;
+    }
+
+    /**
+     * Cambia el umbral de una categoría (OFF la apaga)
+     *
+     * @param category Categoría
+     * @param level Nivel mínimo a registrar
+     */
+    public synchronized void setLevel(LogCategory category, LogLevel level) {
+        LogLevel[] updated = thresholds.clone();
+        updated[category.ordinal()] = level;
+        thresholds = updated;
+    }
+
+    /**
+     * Aplica varios umbrales por categoría
+     *
+     * @param levels Umbral por categoría
+     */
+    public void setLevels(Map<LogCategory, LogLevel> levels) {
+        levels.forEach(this::setLevel);
+    }
+
+    /**
+     * Agrega un destino que recibe todas las categorías
+     *
+     * @param sink Destino
+     */
+    public void addSink(LogSink sink) {
+        addSink(sink, EnumSet.allOf(LogCategory.class));
+    }
+
+    /**
+     * Agrega un destino que sólo recibe algunas categorías
+     *
+     * @param sink Destino
+     * @param categories Categorías aceptadas
+     */
+    public void addSink(LogSink sink, Set<LogCategory> categories) {
+        sinks.add(new SinkEntry(sink, EnumSet.copyOf(categories)));
+    }
+
+    /**
+     * Cantidad de mensajes descartados por cola llena
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    // ======== CONSUMIDOR ========
+
+    private void consume() {
+        long reportedDrops = 0;
+        while (running) {
+            clockMillis = System.currentTimeMillis();
+            if (drain() == 0) {
+                long drops = dropped.sum();
+                if (drops > reportedDrops) {
+                    writeLine(LogLevel.WARN, LogCategory.SERVER, clockMillis,
+                        "[LOG]: " + (drops - reportedDrops) + " mensajes descartados (cola de logs llena)");
+                    reportedDrops = drops;
+                }
+                flushSinks();
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    // Escribe todo lo publicado; devuelve cuántos mensajes procesó
+    private int drain() {
+        int count = 0;
+        LogRing.Slot slot;
+        while ((slot = ring.peek()) != null) {
+            writeLine(slot.level, slot.category, slot.millis, slot.message);
+            ring.release();
+            count++;
+        }
+        return count;
+    }
+
+    private void writeLine(LogLevel level, LogCategory category, long millis, String message) {
+        String line = timestampPrefix(millis) + message;
+        for (SinkEntry entry : sinks) {
+            if (entry.categories().contains(category)) {
+                try {
+                    entry.sink().write(level, category, line);
+                } catch (RuntimeException ignored) {
+                    // Un destino roto no debe detener al resto
+                }
+            }
+        }
+    }
+
+    // "[HH:mm:ss] > ", recalculado sólo cuando cambia el segundo
+    private String timestampPrefix(long millis) {
+        long second = millis / 1000;
+        if (second != cachedSecond) {
+            cachedSecond = second;
+            cachedPrefix = "[" + Clock.FORMAT.format(LocalTime.ofInstant(Instant.ofEpochMilli(millis), Clock.ZONE)) + "] > ";
+        }
+        return cachedPrefix;
+    }
+
+    private void flushSinks() {
+        for (SinkEntry entry : sinks) {
+            entry.sink().flush();
+        }
+    }
+
+    /**
+     * Escribe lo pendiente y cierra los destinos
+     */
+    public void close() {
+        if (!running) return;
+        running = false;
+        LockSupport.unpark(consumer);
+        try {
+            consumer.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        drain();
+        for (SinkEntry entry : sinks) {
+            entry.sink().flush();
+            entry.sink().close();
+        }
+    }
+}
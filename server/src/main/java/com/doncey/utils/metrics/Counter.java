@@ -0,0 +1,47 @@
+package com.doncey.utils.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contador monótono (mensajes, bytes, errores)
+ *
+ * Es un LongAdder: cada thread suma en su propia celda, así que varios
+ * threads de red o de salas pueden incrementarlo a la vez sin competir
+ * por la misma línea de cache. Sumar no reserva memoria.
+ */
+public final class Counter {
+
+    private final String name;
+    private final LongAdder value = new LongAdder();
+
+    Counter(String name) {
+        this.name = name;
+    }
+
+    public void increment() {
+        value.increment();
+    }
+
+    /**
+     * @param delta Cantidad a sumar (no negativa)
+     */
+    public void add(long delta) {
+        value.add(delta);
+    }
+
+    /**
+     * Valor acumulado (suma de las celdas, sin bloquear a los que escriben)
+     */
+    public long get() {
+        return value.sum();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return name + "=" + get();
+    }
+}
@@ -0,0 +1,46 @@
+package com.doncey.utils.metrics;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Valor instantáneo (salas abiertas, tiempo de arranque)
+ *
+ * Puede guardar el último valor con set() o leerlo de una función en
+ * cada snapshot; la función la llama el thread que pide el snapshot,
+ * así que debe ser barata y thread-safe.
+ */
+public final class Gauge {
+
+    private final String name;
+    private final LongSupplier source; // null: valor guardado con set()
+    private volatile long value;
+
+    Gauge(String name, LongSupplier source) {
+        this.name = name;
+        this.source = source;
+    }
+
+    /**
+     * Guarda el valor actual (sólo en gauges sin función)
+     *
+     * @param value Valor nuevo
+     * @throws IllegalStateException si el gauge lee su valor de una función
+     */
+    public void set(long value) {
+        if (source != null) throw new IllegalStateException("El gauge " + name + " se calcula con una función");
+        this.value = value;
+    }
+
+    public long get() {
+        return source != null ? source.getAsLong() : value;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return name + "=" + get();
+    }
+}
@@ -0,0 +1,162 @@
+package com.doncey.utils.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latencias con buckets fijos
+ *
+ * Los buckets son potencias de 2 en microsegundos: el bucket i cuenta
+ * las muestras de hasta 2^i us (1us, 2us, 4us ... ~1s) y el último las
+ * mayores. El bucket de una muestra sale de contar ceros a la izquierda,
+ * sin recorrer límites, y cada bucket es un LongAdder: registrar no
+ * reserva memoria ni bloquea, y varios threads pueden hacerlo a la vez.
+ *
+ * Los percentiles que se obtienen del snapshot son el límite superior
+ * del bucket (error de hasta 2x), suficiente para ver órdenes de
+ * magnitud y colas largas.
+ */
+public final class LatencyHistogram {
+
+    static final int BOUNDED_BUCKETS = 21; // Hasta 2^20 us (~1s)
+    static final int BUCKETS = BOUNDED_BUCKETS + 1; // Más el de desborde
+
+    private final String name;
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    LatencyHistogram(String name) {
+        this.name = name;
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Registra una muestra
+     *
+     * @param nanos Duración en nanosegundos (las negativas cuentan como 0)
+     */
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        buckets[bucketOf(nanos)].increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    /**
+     * Registra el tiempo transcurrido desde un System.nanoTime()
+     *
+     * @param startNanos Valor de System.nanoTime() al empezar
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Copia de los contadores actuales
+     *
+     * No detiene a los que registran: una muestra que entra mientras se
+     * copia puede aparecer en el total y todavía no en su bucket.
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+            count += counts[i];
+        }
+        return new Snapshot(counts, count, totalNanos.sum(), maxNanos.get());
+    }
+
+    // ceil(log2(us)) con los us redondeados hacia arriba (una muestra nunca
+    // supera el límite de su bucket), acotado al bucket de desborde
+    static int bucketOf(long nanos) {
+        long micros = nanos / 1000 + (nanos % 1000 != 0 ? 1 : 0);
+        if (micros <= 1) return 0;
+        return Math.min(BOUNDED_BUCKETS, 64 - Long.numberOfLeadingZeros(micros - 1));
+    }
+
+    /**
+     * Límite superior de un bucket en nanosegundos
+     *
+     * @return Nanosegundos o Long.MAX_VALUE para el de desborde
+     */
+    static long upperBoundNanos(int bucket) {
+        return bucket >= BOUNDED_BUCKETS ? Long.MAX_VALUE : (1L << bucket) * 1000;
+    }
+
+    /**
+     * Estado inmutable de un histograma
+     */
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long totalNanos;
+        private final long maxNanos;
+
+        Snapshot(long[] counts, long count, long totalNanos, long maxNanos) {
+            this.counts = counts;
+            this.count = count;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+        }
+
+        public long getCount() { return count; }
+        public long getTotalNanos() { return totalNanos; }
+        public long getMaxNanos() { return maxNanos; }
+        public int getBucketCount() { return counts.length; }
+
+        /**
+         * Muestras del bucket i
+         */
+        public long getBucket(int i) {
+            return counts[i];
+        }
+
+        /**
+         * Límite superior del bucket i en nanosegundos (Long.MAX_VALUE en el último)
+         */
+        public long getBucketUpperBoundNanos(int i) {
+            return upperBoundNanos(i);
+        }
+
+        /**
+         * Duración promedio (0 si no hay muestras)
+         */
+        public double getMeanNanos() {
+            return count == 0 ? 0 : (double) totalNanos / count;
+        }
+
+        /**
+         * Percentil aproximado
+         *
+         * @param q Fracción entre 0 y 1 (ej: 0.99)
+         * @return Límite superior del bucket que lo contiene, sin pasar
+         *         del máximo registrado (0 si no hay muestras)
+         */
+        public long getPercentileNanos(double q) {
+            if (count == 0) return 0;
+            long rank = (long) Math.ceil(q * count);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) return Math.min(upperBoundNanos(i), maxNanos);
+            }
+            return maxNanos;
+        }
+
+        @Override
+        public String toString() {
+            double us = 1000.0;
+            return String.format("n=%d prom=%.1fus p50=%.0fus p99=%.0fus max=%.0fus",
+                count, getMeanNanos() / us, getPercentileNanos(0.5) / us,
+                getPercentileNanos(0.99) / us, maxNanos / us);
+        }
+    }
+}
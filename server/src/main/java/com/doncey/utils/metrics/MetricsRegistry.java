@@ -0,0 +1,100 @@
+package com.doncey.utils.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Registro de métricas del servidor
+ *
+ * Contadores (Counter), valores instantáneos (Gauge) e histogramas de
+ * latencia (LatencyHistogram), identificados por nombre con puntos
+ * (ej: "net.bytes.in"). Registrar es raro y puede buscar en un mapa;
+ * medir no: cada componente guarda la métrica en un campo (normalmente
+ * static final) y la actualiza sin locks ni memoria nueva.
+ *
+ * snapshot() devuelve una foto de todo para la GUI, logs o un endpoint
+ * de administración; se puede pedir desde cualquier thread sin frenar
+ * el game loop.
+ */
+public final class MetricsRegistry {
+
+    private static final MetricsRegistry INSTANCE = new MetricsRegistry();
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, Gauge> gauges = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    private MetricsRegistry() { }
+
+    public static MetricsRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    // ======== REGISTRO ========
+
+    /**
+     * Contador con ese nombre (lo crea la primera vez)
+     */
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, Counter::new);
+    }
+
+    /**
+     * Gauge con ese nombre, actualizado con set() (lo crea la primera vez)
+     */
+    public Gauge gauge(String name) {
+        return gauges.computeIfAbsent(name, n -> new Gauge(n, null));
+    }
+
+    /**
+     * Registra un gauge que se calcula en cada snapshot
+     *
+     * Reemplaza al anterior con el mismo nombre (ej: un servidor nuevo
+     * en el mismo proceso).
+     *
+     * @param name Nombre del gauge
+     * @param source Función barata y thread-safe
+     * @return Gauge registrado
+     */
+    public Gauge gauge(String name, LongSupplier source) {
+        Gauge gauge = new Gauge(name, source);
+        gauges.put(name, gauge);
+        return gauge;
+    }
+
+    /**
+     * Histograma con ese nombre (lo crea la primera vez)
+     */
+    public LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, LatencyHistogram::new);
+    }
+
+    // ======== LECTURA ========
+
+    /**
+     * Foto de todas las métricas, ordenadas por nombre
+     */
+    public MetricsSnapshot snapshot() {
+        Map<String, Long> counterValues = new TreeMap<>();
+        for (Counter counter : counters.values()) {
+            counterValues.put(counter.getName(), counter.get());
+        }
+
+        Map<String, Long> gaugeValues = new TreeMap<>();
+        for (Gauge gauge : gauges.values()) {
+            try {
+                gaugeValues.put(gauge.getName(), gauge.get());
+            } catch (RuntimeException ignored) {
+                // Un gauge roto no debe impedir ver el resto
+            }
+        }
+
+        Map<String, LatencyHistogram.Snapshot> histogramValues = new TreeMap<>();
+        for (LatencyHistogram histogram : histograms.values()) {
+            histogramValues.put(histogram.getName(), histogram.snapshot());
+        }
+        return new MetricsSnapshot(System.currentTimeMillis(), counterValues, gaugeValues, histogramValues);
+    }
+}
@@ -0,0 +1,91 @@
+package com.doncey.utils.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Foto inmutable de todas las métricas del servidor
+ *
+ * La arma MetricsRegistry.snapshot() sumando los contadores sin frenar
+ * a nadie; cada valor es consistente por sí solo, pero dos métricas
+ * distintas pueden venir de instantes apenas diferentes.
+ */
+public final class MetricsSnapshot {
+
+    private final long takenAtMillis;
+    private final Map<String, Long> counters;
+    private final Map<String, Long> gauges;
+    private final Map<String, LatencyHistogram.Snapshot> histograms;
+
+    MetricsSnapshot(long takenAtMillis, Map<String, Long> counters, Map<String, Long> gauges,
+                    Map<String, LatencyHistogram.Snapshot> histograms) {
+        this.takenAtMillis = takenAtMillis;
+        this.counters = Collections.unmodifiableMap(counters);
+        this.gauges = Collections.unmodifiableMap(gauges);
+        this.histograms = Collections.unmodifiableMap(histograms);
+    }
+
+    /**
+     * Instante de la foto (System.currentTimeMillis())
+     */
+    public long getTakenAtMillis() {
+        return takenAtMillis;
+    }
+
+    /**
+     * Contadores ordenados por nombre
+     */
+    public Map<String, Long> getCounters() {
+        return counters;
+    }
+
+    /**
+     * Gauges ordenados por nombre
+     */
+    public Map<String, Long> getGauges() {
+        return gauges;
+    }
+
+    /**
+     * Histogramas ordenados por nombre
+     */
+    public Map<String, LatencyHistogram.Snapshot> getHistograms() {
+        return histograms;
+    }
+
+    /**
+     * Valor de un contador
+     *
+     * @return Valor o 0 si no existe
+     */
+    public long getCounter(String name) {
+        return counters.getOrDefault(name, 0L);
+    }
+
+    /**
+     * Valor de un gauge
+     *
+     * @return Valor o 0 si no existe
+     */
+    public long getGauge(String name) {
+        return gauges.getOrDefault(name, 0L);
+    }
+
+    /**
+     * Histograma por nombre
+     *
+     * @return Snapshot o null si no existe
+     */
+    public LatencyHistogram.Snapshot getHistogram(String name) {
+        return histograms.get(name);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        counters.forEach((name, value) -> sb.append(name).append('=').append(value).append('\n'));
+        gauges.forEach((name, value) -> sb.append(name).append('=').append(value).append('\n'));
+        histograms.forEach((name, value) -> sb.append(name).append(' ').append(value).append('\n'));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,59 @@
+package com.doncey;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Arranque con --headless
+ *
+ * Lanza Main en otra JVM con -verbose:class hasta que reporta que está
+ * listo para aceptar conexiones, y verifica que no cargó ninguna clase
+ * de Swing ni AWT y que informó el tiempo de arranque.
+ */
+class HeadlessStartupTest {
+
+    private static final long TIMEOUT_MS = 30_000;
+    private static final Pattern READY = Pattern.compile("Listo para aceptar conexiones en (\\d+) ms");
+
+    @Test
+    void headlessNeverLoadsSwingOrAwt() throws IOException, InterruptedException {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        Process process = new ProcessBuilder(java, "-verbose:class", "-cp", System.getProperty("java.class.path"),
+                "com.doncey.Main", "--headless", "--mode=nio", "--port=0")
+            .redirectErrorStream(true)
+            .start();
+
+        List<String> guiClasses = new ArrayList<>();
+        String ready = null;
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        try (BufferedReader out = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while (ready == null && System.currentTimeMillis() < deadline && (line = out.readLine()) != null) {
+                if (line.contains("] javax.swing.") || line.contains("] java.awt.")) guiClasses.add(line);
+                Matcher m = READY.matcher(line);
+                if (m.find()) ready = m.group(1);
+            }
+        } finally {
+            process.destroy();
+            process.waitFor(5, TimeUnit.SECONDS);
+        }
+
+        assertNotNull(ready, "el servidor no reportó que estaba listo");
+        assertTrue(Long.parseLong(ready) >= 0);
+        assertEquals(List.of(), guiClasses);
+    }
+}
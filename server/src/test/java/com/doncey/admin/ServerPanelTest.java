@@ -0,0 +1,83 @@
+package com.doncey.admin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import javax.swing.SwingUtilities;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Buffer y recorte de logs de ServerPanel
+ *
+ * El panel no se agrega a ninguna ventana (corre sin display): los
+ * Timers no arrancan y cada volcado se hace a mano en el EDT.
+ */
+class ServerPanelTest {
+
+    private static final int MAX_LOG_LINES = 2000; // ServerPanel.MAX_LOG_LINES
+
+    @Test
+    void pendingOverflowIsDroppedAndViewKeepsTheNewestLines() throws Exception {
+        ServerPanel panel = onEdt(ServerPanel::new);
+
+        // Más pendientes que el máximo: se descartan las más viejas antes de mostrarse
+        for (int i = 0; i < MAX_LOG_LINES + 500; i++) {
+            panel.addLog("[t] > linea " + i);
+        }
+        assertEquals(500, panel.getDroppedLineCount());
+        onEdt(() -> { panel.flushLogs(); return null; });
+        assertEquals(MAX_LOG_LINES, lines(panel).length);
+        assertEquals("[t] > linea 500", lines(panel)[0]);
+        assertEquals(0, (long) onEdt(panel::getTrimmedLineCount));
+
+        // La vista llena: cada línea nueva saca una vieja
+        for (int i = 0; i < 10; i++) {
+            panel.addLog("sin prefijo " + i);
+        }
+        onEdt(() -> { panel.flushLogs(); return null; });
+        String[] lines = lines(panel);
+        assertEquals(MAX_LOG_LINES, lines.length);
+        assertEquals("[t] > linea 510", lines[0]);
+        assertEquals("> sin prefijo 9", lines[lines.length - 1]);
+        assertEquals(10, (long) onEdt(panel::getTrimmedLineCount));
+        assertEquals(500, panel.getDroppedLineCount());
+    }
+
+    @Test
+    void purgeResetsViewAndCounters() throws Exception {
+        ServerPanel panel = onEdt(ServerPanel::new);
+        for (int round = 0; round < 2; round++) {
+            for (int i = 0; i < MAX_LOG_LINES; i++) {
+                panel.addLog("[t] > linea " + i);
+            }
+            onEdt(() -> { panel.flushLogs(); return null; });
+        }
+        assertEquals(MAX_LOG_LINES, (long) onEdt(panel::getTrimmedLineCount));
+        panel.addLog("pendiente");
+        for (int i = 0; i < MAX_LOG_LINES; i++) {
+            panel.addLog("[t] > desborde " + i);
+        }
+        assertEquals(1, panel.getDroppedLineCount());
+
+        onEdt(() -> { panel.purgeLogs(); return null; });
+        assertEquals(0, panel.getDroppedLineCount());
+        assertEquals(0, (long) onEdt(panel::getTrimmedLineCount));
+        assertEquals("", onEdt(panel::getLogText));
+        onEdt(() -> { panel.flushLogs(); return null; }); // Lo pendiente también se fue
+        assertEquals("", onEdt(panel::getLogText));
+    }
+
+    private static String[] lines(ServerPanel panel) throws Exception {
+        return onEdt(panel::getLogText).split("\n");
+    }
+
+    private static <T> T onEdt(Supplier<T> action) throws InterruptedException, InvocationTargetException {
+        AtomicReference<T> result = new AtomicReference<>();
+        SwingUtilities.invokeAndWait(() -> result.set(action.get()));
+        return result.get();
+    }
+}
@@ -0,0 +1,137 @@
+package com.doncey.patterns.observer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * EventRing: orden con varios productores, descarte con el consumidor
+ * más lento una vuelta atrás y liberación de celdas
+ */
+class EventRingTest {
+
+    private static final int PRODUCERS = 4;
+    private static final int PER_PRODUCER = 10_000;
+
+    @Test
+    void deliversEveryEventInProducerOrder() throws InterruptedException {
+        EventRing ring = new EventRing(64); // Chico: los productores chocan con el consumidor
+        EventRing.Cursor cursor = ring.addCursor();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < PRODUCERS; p++) {
+            int producer = p;
+            Thread t = new Thread(() -> {
+                await(start);
+                for (int k = 0; k < PER_PRODUCER; k++) {
+                    // Lleno: reintentar hasta que el consumidor avance
+                    while (!ring.publish(EventType.FRUIT_SPAWNED, k, null, producer, 0, 0, 0)) {
+                        Thread.yield();
+                    }
+                }
+            });
+            t.start();
+            producers.add(t);
+        }
+        start.countDown();
+
+        int[] expected = new int[PRODUCERS]; // Próximo id de cada productor
+        long next = cursor.next();
+        for (int received = 0; received < PRODUCERS * PER_PRODUCER; received++) {
+            GameEvent event;
+            while ((event = ring.get(next)) == null) {
+                Thread.yield();
+            }
+            int producer = event.x;
+            assertEquals(expected[producer], event.id, "productor " + producer);
+            expected[producer]++;
+            ring.advance(cursor, ++next);
+        }
+        for (Thread t : producers) {
+            t.join();
+        }
+        for (int p = 0; p < PRODUCERS; p++) {
+            assertEquals(PER_PRODUCER, expected[p]);
+        }
+        assertNull(ring.get(next)); // Nada de más
+        assertEquals(0, ring.lag(cursor));
+    }
+
+    @Test
+    void dropsWhenSlowestCursorIsALapBehind() {
+        EventRing ring = new EventRing(8);
+        EventRing.Cursor fast = ring.addCursor();
+        EventRing.Cursor slow = ring.addCursor();
+        for (int i = 0; i < ring.capacity(); i++) {
+            assertTrue(publish(ring, i));
+            ring.advance(fast, i + 1);
+        }
+        assertFalse(publish(ring, 99)); // El lento no liberó nada
+        assertEquals(ring.capacity(), ring.lag(slow));
+        assertEquals(0, ring.lag(fast));
+    }
+
+    @Test
+    void slotsAreReusedOnlyAfterAdvance() {
+        EventRing ring = new EventRing(8);
+        EventRing.Cursor cursor = ring.addCursor();
+        for (int i = 0; i < ring.capacity(); i++) {
+            assertTrue(publish(ring, i));
+        }
+
+        // Leído por delante del cursor pero no liberado: la celda sigue intacta
+        for (int i = 0; i < ring.capacity(); i++) {
+            assertNotNull(ring.get(i));
+        }
+        assertFalse(publish(ring, 100));
+        assertEquals(0, ring.slot(0).id);
+
+        // Liberar una sola celda habilita exactamente una publicación
+        ring.advance(cursor, 1);
+        assertTrue(publish(ring, 100));
+        assertFalse(publish(ring, 101));
+        assertNull(ring.get(0)); // Reutilizada por la secuencia 8
+        assertEquals(100, ring.get(ring.capacity()).id);
+        assertEquals(1, ring.get(1).id);
+    }
+
+    @Test
+    void removedCursorNoLongerGates() {
+        EventRing ring = new EventRing(8);
+        EventRing.Cursor live = ring.addCursor();
+        EventRing.Cursor stuck = ring.addCursor();
+        for (int i = 0; i < ring.capacity(); i++) {
+            assertTrue(publish(ring, i));
+        }
+        ring.advance(live, ring.capacity());
+        assertFalse(publish(ring, 99));
+
+        ring.removeCursor(stuck);
+        assertTrue(publish(ring, 99));
+        assertEquals(1, ring.lag(live));
+
+        // Sin consumidores no se publica nada
+        ring.removeCursor(live);
+        assertFalse(publish(ring, 100));
+    }
+
+    private static boolean publish(EventRing ring, int id) {
+        return ring.publish(EventType.FRUIT_REMOVED, id, null, 0, 0, 0, 0);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
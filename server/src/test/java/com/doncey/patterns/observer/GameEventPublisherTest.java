@@ -0,0 +1,256 @@
+package com.doncey.patterns.observer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.doncey.utils.log.LogLevel;
+import com.doncey.utils.log.ServerLog;
+import com.doncey.utils.metrics.MetricsRegistry;
+import com.doncey.utils.metrics.MetricsSnapshot;
+
+/**
+ * GameEventPublisher: filtros por tipo, entrega por lotes, atraso y
+ * descartes por observador y suscripciones
+ */
+class GameEventPublisherTest {
+
+    private static final long TIMEOUT_MS = 10_000;
+
+    @BeforeAll
+    static void quiet() {
+        ServerLog.getInstance().setLevel(LogLevel.WARN);
+    }
+
+    @AfterAll
+    static void restore() {
+        ServerLog.getInstance().setLevel(LogLevel.INFO);
+    }
+
+    @Test
+    void stuckObserverLagAndDropsAreGaugedUntilUnsubscribed() throws InterruptedException {
+        GameEventPublisher publisher = new GameEventPublisher();
+        StuckObserver stuck = new StuckObserver();
+        CountingObserver counting = new CountingObserver();
+        publisher.subscribe(stuck);
+        publisher.subscribe(counting);
+
+        int events = 5_000; // Más que el anillo
+        for (int i = 0; i < events; i++) {
+            publisher.notifyFruitRemoved(i);
+        }
+        assertTrue(stuck.entered.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        long dropped = publisher.getDroppedCount();
+        assertTrue(dropped > 0, "el anillo debía llenarse");
+        assertEquals(events - dropped, counting.await(events - dropped));
+
+        MetricsSnapshot metrics = MetricsRegistry.getInstance().snapshot();
+        assertEquals(publisher.getLags().get(stuck), metrics.getGauge("events.lag.StuckObserver"));
+        assertTrue(metrics.getGauge("events.lag.StuckObserver") >= events - dropped - 1);
+        assertEquals(0, metrics.getGauge("events.lag.CountingObserver"));
+        assertEquals(dropped, metrics.getGauge("events.dropped.StuckObserver"));
+
+        // Al desuscribirse deja de frenar a los productores (menos de una vuelta: nada se descarta)
+        publisher.unsubscribe(stuck);
+        stuck.release.countDown();
+        int more = 1_000;
+        for (int i = 0; i < more; i++) {
+            publisher.notifyFruitRemoved(i);
+        }
+        assertEquals(dropped, publisher.getDroppedCount());
+        assertEquals(events - dropped + more, counting.await(events - dropped + more));
+        assertEquals(0, MetricsRegistry.getInstance().snapshot().getGauge("events.lag.StuckObserver"));
+        publisher.unsubscribe(counting);
+    }
+
+    @Test
+    void maskedObserverReceivesOnlyItsTypes() throws InterruptedException {
+        GameEventPublisher publisher = new GameEventPublisher();
+        CountingObserver spawns = new CountingObserver();
+        CountingObserver all = new CountingObserver();
+        publisher.subscribe(spawns, EnumSet.of(EventType.FRUIT_SPAWNED));
+        publisher.subscribe(all);
+
+        publisher.notifyPlayerConnected(1);
+        publisher.notifyFruitSpawned(10, "MANGO", 1, 2, 50);
+        publisher.notifyFruitRemoved(10);
+        publisher.notifyFruitSpawned(11, "BANANO", 3, 4, 30);
+        publisher.notifyPlayerDisconnected(1);
+
+        assertEquals(5, all.await(5));
+        assertEquals(2, spawns.await(2));
+        Thread.sleep(50); // Nada más en camino
+        assertEquals(List.of("FRUIT_SPAWNED 10", "FRUIT_SPAWNED 11"), spawns.events);
+        publisher.unsubscribe(spawns);
+        publisher.unsubscribe(all);
+    }
+
+    @Test
+    void batchObserverGetsOneBatchPerTick() throws InterruptedException {
+        GameEventPublisher publisher = new GameEventPublisher();
+        RecordingBatchObserver batches = new RecordingBatchObserver();
+        publisher.subscribe(batches, EnumSet.of(EventType.FRUIT_SPAWNED, EventType.FRUIT_REMOVED));
+
+        publisher.notifyFruitSpawned(1, "MANGO", 0, 0, 50);
+        publisher.notifyPlayerConnected(7); // Filtrado: queda entre celdas retenidas
+        publisher.notifyFruitRemoved(1);
+        publisher.notifyTickEnd(41);
+        publisher.notifyTickEnd(42); // Sin eventos: no hay lote
+        publisher.notifyFruitSpawned(2, "BANANO", 0, 0, 30);
+        publisher.notifyTickEnd(43);
+
+        assertEquals(2, batches.await(2));
+        Thread.sleep(50);
+        assertEquals(List.of(
+            "41: FRUIT_SPAWNED 1, FRUIT_REMOVED 1",
+            "43: FRUIT_SPAWNED 2"), batches.batches);
+        publisher.unsubscribe(batches);
+    }
+
+    @Test
+    void fullBatchIsFlushedWithoutTick() throws InterruptedException {
+        GameEventPublisher publisher = new GameEventPublisher();
+        RecordingBatchObserver batches = new RecordingBatchObserver();
+        publisher.subscribe(batches, EnumSet.of(EventType.FRUIT_REMOVED));
+
+        int maxBatch = 1024; // GameEventPublisher.MAX_BATCH
+        for (int i = 0; i < maxBatch + 3; i++) {
+            publisher.notifyFruitRemoved(i);
+        }
+        publisher.notifyTickEnd(5);
+
+        assertEquals(2, batches.await(2));
+        assertEquals(List.of(-1L, 5L), batches.ticks);
+        assertEquals(List.of(maxBatch, 3), batches.sizes);
+        publisher.unsubscribe(batches);
+    }
+
+    @Test
+    void batchSlotsSurviveProducersDuringDelivery() throws InterruptedException {
+        GameEventPublisher publisher = new GameEventPublisher();
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> seen = Collections.synchronizedList(new ArrayList<>());
+        GameEventBatchObserver slow = batch -> {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                seen.add(batch.getId(i));
+            }
+        };
+        publisher.subscribe(slow, EnumSet.of(EventType.FRUIT_REMOVED));
+
+        for (int i = 0; i < 10; i++) {
+            publisher.notifyFruitRemoved(i);
+        }
+        publisher.notifyTickEnd(1);
+        assertTrue(entered.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+
+        // Más de una vuelta mientras el lote se entrega: se descartan, no pisan el lote
+        for (int i = 0; i < 5_000; i++) {
+            publisher.notifyFruitRemoved(1_000 + i);
+        }
+        assertTrue(publisher.getDroppedCount() > 0);
+        release.countDown();
+
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (seen.size() < 10 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), seen.subList(0, 10));
+        publisher.unsubscribe(slow);
+    }
+
+    /**
+     * Se queda trabado en el primer evento hasta que lo suelten
+     */
+    static final class StuckObserver implements GameObserver {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public void onFruitRemoved(int fruitId) {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override public void onFruitSpawned(int fruitId, String type, int x, int y, int points) { }
+        @Override public void onPlayerConnected(int playerId) { }
+        @Override public void onPlayerDisconnected(int playerId) { }
+    }
+
+    /**
+     * Cuenta los eventos recibidos (y guarda los primeros)
+     */
+    static final class CountingObserver implements GameObserver {
+        final AtomicInteger received = new AtomicInteger();
+        final List<String> events = Collections.synchronizedList(new ArrayList<>());
+
+        @Override public void onFruitRemoved(int fruitId) { record("FRUIT_REMOVED " + fruitId); }
+        @Override public void onFruitSpawned(int fruitId, String type, int x, int y, int points) { record("FRUIT_SPAWNED " + fruitId); }
+        @Override public void onPlayerConnected(int playerId) { record("PLAYER_CONNECTED " + playerId); }
+        @Override public void onPlayerDisconnected(int playerId) { record("PLAYER_DISCONNECTED " + playerId); }
+
+        private void record(String event) {
+            if (events.size() < 100) events.add(event);
+            received.incrementAndGet();
+        }
+
+        // Espera a recibir al menos n eventos y devuelve cuántos llegaron
+        long await(long n) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+            while (received.get() < n && System.currentTimeMillis() < deadline) {
+                Thread.sleep(1);
+            }
+            return received.get();
+        }
+    }
+
+    /**
+     * Anota cada lote como "tick: TIPO id, ..."
+     */
+    static final class RecordingBatchObserver implements GameEventBatchObserver {
+        final List<String> batches = Collections.synchronizedList(new ArrayList<>());
+        final List<Long> ticks = Collections.synchronizedList(new ArrayList<>());
+        final List<Integer> sizes = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void onEvents(EventBatch batch) {
+            StringBuilder sb = new StringBuilder().append(batch.getTick()).append(':');
+            for (int i = 0; i < batch.size(); i++) {
+                sb.append(i == 0 ? " " : ", ").append(batch.getType(i)).append(' ').append(batch.getId(i));
+            }
+            ticks.add(batch.getTick());
+            sizes.add(batch.size());
+            batches.add(sb.toString());
+        }
+
+        // Espera a recibir al menos n lotes y devuelve cuántos llegaron
+        int await(int n) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+            while (sizes.size() < n && System.currentTimeMillis() < deadline) {
+                Thread.sleep(1);
+            }
+            return sizes.size();
+        }
+    }
+}
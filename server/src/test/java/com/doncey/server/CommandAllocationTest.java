@@ -0,0 +1,101 @@
+package com.doncey.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.doncey.server.protocol.WireFormat;
+
+/**
+ * Tasa de asignación del camino de comandos del cliente
+ *
+ * Desde los bytes leídos hasta la tabla de despacho (InboundDecoder,
+ * TextCodec/BinaryCodec, DISPATCH y la cola de inputs) no debe
+ * reservarse memoria por comando una vez que la sesión está armada.
+ * Se mide con los bytes asignados por el thread actual.
+ */
+class CommandAllocationTest {
+
+    private static final int ROUNDS = 50_000;
+    private static final long MAX_BYTES = 16 * 1024; // Margen para la propia medición
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+        ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean t ? t : null;
+
+    private TestSession session;
+
+    @BeforeEach
+    void connect() {
+        assumeTrue(THREADS != null && THREADS.isThreadAllocatedMemorySupported(), "Sin medición de memoria por thread");
+        THREADS.setThreadAllocatedMemoryEnabled(true);
+        session = new TestSession().connect();
+    }
+
+    @AfterEach
+    void close() {
+        if (session != null) session.close();
+    }
+
+    @Test
+    void textCommandsDoNotAllocate() {
+        ByteBuffer batch = ByteBuffer.wrap("MOVE_LEFT\nMOVE_RIGHT\r\nJUMP\nSTOP_MOVING\nACK 123456\n"
+            .getBytes(StandardCharsets.US_ASCII));
+        assertAllocationFree(batch, 5);
+    }
+
+    @Test
+    void binaryCommandsDoNotAllocate() {
+        session.receiveLine("HELLO BINARY");
+        assertEquals(WireFormat.BINARY, session.getWireFormat());
+
+        ByteBuffer batch = ByteBuffer.allocate(4 * 5 + 13); // 4 frames sin campos y un ACK
+        for (int code : new int[] { 0x41, 0x42, 0x44, 0x43 }) {
+            batch.putInt(1).put((byte) code);
+        }
+        batch.putInt(9).put((byte) 0x46).putLong(123456).flip();
+        assertAllocationFree(batch, 5);
+    }
+
+    @Test
+    void splitCommandsDoNotAllocateOnceBuffered() {
+        // Frame partido en dos lecturas: usa el buffer propio del decoder
+        ByteBuffer first = ByteBuffer.wrap("MOVE_LE".getBytes(StandardCharsets.US_ASCII));
+        ByteBuffer second = ByteBuffer.wrap("FT\nJUMP\n".getBytes(StandardCharsets.US_ASCII));
+        for (int i = 0; i < 1000; i++) {
+            session.receive(first);
+            session.receive(second);
+        }
+
+        long before = THREADS.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < ROUNDS; i++) {
+            session.receive(first);
+            session.receive(second);
+        }
+        long allocated = THREADS.getCurrentThreadAllocatedBytes() - before;
+        assertTrue(allocated < MAX_BYTES, allocated + " bytes para " + (2L * ROUNDS) + " comandos");
+    }
+
+    private void assertAllocationFree(ByteBuffer batch, int commandsPerBatch) {
+        // Calentamiento: clases cargadas y código compilado
+        for (int i = 0; i < 1000; i++) {
+            session.receive(batch);
+        }
+
+        long before = THREADS.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < ROUNDS; i++) {
+            session.receive(batch);
+        }
+        long allocated = THREADS.getCurrentThreadAllocatedBytes() - before;
+
+        long commands = (long) ROUNDS * commandsPerBatch;
+        assertTrue(allocated < MAX_BYTES, allocated + " bytes para " + commands + " comandos");
+    }
+}
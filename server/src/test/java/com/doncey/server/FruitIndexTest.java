@@ -0,0 +1,83 @@
+package com.doncey.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * FruitIndex.query contra el recorrido lineal de las frutas activas
+ *
+ * Altas, bajas y consultas al azar (semilla fija): la consulta debe
+ * devolver exactamente las frutas que se superponen con la caja, sin
+ * repetir, aunque compartan baldes o crucen bordes de celda.
+ */
+class FruitIndexTest {
+
+    private static final int OPERATIONS = 50_000;
+    private static final Comparator<Fruit> BY_ID = Comparator.comparingInt(Fruit::getId);
+
+    @Test
+    void matchesLinearScanUnderChurn() {
+        Random random = new Random(20261018L);
+        FruitIndex index = new FruitIndex();
+        List<Fruit> live = new ArrayList<>();
+        int nextId = 1;
+
+        for (int op = 0; op < OPERATIONS; op++) {
+            int choice = random.nextInt(10);
+            if (choice < 4 || live.isEmpty()) {
+                // Área chica para que haya baldes y celdas compartidas; a veces lejos (otros baldes)
+                int spread = random.nextInt(5) == 0 ? 1_000_000 : 600;
+                Fruit f = new Fruit(nextId++, random.nextInt(2 * spread) - spread, random.nextInt(2 * spread) - spread, "banana", 10);
+                index.add(f);
+                live.add(f);
+            } else if (choice < 7) {
+                Fruit f = live.remove(random.nextInt(live.size()));
+                index.remove(f);
+            } else {
+                int x = random.nextInt(1400) - 700;
+                int y = random.nextInt(1400) - 700;
+                int width = 1 + random.nextInt(random.nextInt(10) == 0 ? 400 : 60);
+                int height = 1 + random.nextInt(random.nextInt(10) == 0 ? 400 : 60);
+                assertQuery(index, live, x, y, width, height, op);
+            }
+        }
+    }
+
+    @Test
+    void duplicateAddAndMissingRemoveAreIgnored() {
+        FruitIndex index = new FruitIndex();
+        Fruit f = new Fruit(1, 60, 60, "banana", 10); // Cruza cuatro celdas
+        index.add(f);
+        index.add(f);
+        assertQuery(index, List.of(f), 0, 0, 200, 200, 0);
+
+        index.remove(new Fruit(2, 60, 60, "banana", 10));
+        assertQuery(index, List.of(f), 0, 0, 200, 200, 1);
+
+        index.remove(f);
+        index.remove(f);
+        assertQuery(index, List.of(), 0, 0, 200, 200, 2);
+    }
+
+    private static void assertQuery(FruitIndex index, List<Fruit> live, int x, int y, int width, int height, int op) {
+        List<Fruit> expected = new ArrayList<>();
+        for (Fruit f : live) {
+            if (FruitIndex.overlaps(f, x, y, width, height)) expected.add(f);
+        }
+        List<Fruit> actual = new ArrayList<>();
+        index.query(x, y, width, height, actual);
+
+        String where = String.format("operación %d: x=%d y=%d w=%d h=%d", op, x, y, width, height);
+        assertEquals(actual.size(), new HashSet<>(actual).size(), where + ": repetidas");
+        expected.sort(BY_ID);
+        actual.sort(BY_ID);
+        assertEquals(expected, actual, where);
+    }
+}
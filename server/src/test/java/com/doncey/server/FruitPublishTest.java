@@ -0,0 +1,61 @@
+package com.doncey.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.doncey.patterns.observer.GameEventPublisher;
+import com.doncey.utils.log.LogLevel;
+import com.doncey.utils.log.ServerLog;
+
+/**
+ * Alta y baja de frutas contra la foto publicada
+ *
+ * Un thread crea frutas y otro las borra apenas aparecen en el mapa
+ * (como un EAT_FRUIT o el tick): la foto nunca puede quedarse con una
+ * fruta que ya no está en el mundo.
+ */
+class FruitPublishTest {
+
+    private static final int FRUITS = 20_000;
+
+    @BeforeAll
+    static void quiet() {
+        ServerLog.getInstance().setLevel(LogLevel.WARN);
+    }
+
+    @AfterAll
+    static void restore() {
+        ServerLog.getInstance().setLevel(LogLevel.INFO);
+    }
+
+    @Test
+    void snapshotMatchesLiveFruitsUnderRace() throws InterruptedException {
+        GameWorld room = new GameWorld(-1, new GameEventPublisher());
+
+        Thread remover = new Thread(() -> {
+            int next = 1;
+            while (next <= FRUITS) {
+                if (room.removeFruit(next)) next++;
+                else Thread.onSpinWait();
+            }
+        });
+        remover.start();
+        for (int i = 0; i < FRUITS; i++) {
+            room.spawnFruit("BANANO", i % 1000, 100, 10);
+        }
+        remover.join(TimeUnit.SECONDS.toMillis(30));
+        assertFalse(remover.isAlive(), "el borrado no terminó");
+
+        for (int id = 1; id <= FRUITS; id++) {
+            assertNull(room.getFruit(id), "fruta #" + id + " sigue en el mapa");
+        }
+        assertEquals(0, room.getSnapshot().getFruits().size(), "frutas fantasma en la foto");
+    }
+}
@@ -0,0 +1,86 @@
+package com.doncey.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.doncey.utils.log.LogLevel;
+import com.doncey.utils.log.ServerLog;
+import com.doncey.utils.metrics.MetricsRegistry;
+import com.doncey.utils.metrics.MetricsSnapshot;
+
+/**
+ * Cuentas de overruns, catch-up y ticks descartados de GameLoop
+ *
+ * El primer tick tarda SLOW_TICKS ticks: es el único overrun, el
+ * siguiente despertar recupera MAX_CATCH_UP ticks seguidos y descarta
+ * el resto. Ejecutados más descartados nunca se adelantan al reloj.
+ */
+class GameLoopTest {
+
+    private static final long TICK_MS = 10;
+    private static final int SLOW_TICKS = 12;
+    private static final int MAX_CATCH_UP = 5; // GameLoop.MAX_CATCH_UP
+    private static final long TIMEOUT_MS = 10_000;
+
+    @BeforeAll
+    static void quiet() {
+        ServerLog.getInstance().setLevel(LogLevel.WARN);
+    }
+
+    @AfterAll
+    static void restore() {
+        ServerLog.getInstance().setLevel(LogLevel.INFO);
+    }
+
+    @Test
+    void slowTickIsOneOverrunThenCatchUpThenSkip() throws InterruptedException {
+        AtomicInteger calls = new AtomicInteger();
+        GameLoop loop = new GameLoop(() -> {
+            if (calls.getAndIncrement() == 0) sleep(SLOW_TICKS * TICK_MS);
+        }, TICK_MS);
+        TickStats stats = loop.getStats();
+        MetricsSnapshot before = MetricsRegistry.getInstance().snapshot();
+
+        long start = System.nanoTime();
+        Thread thread = new Thread(loop, "GameLoopTest");
+        thread.start();
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (stats.getTicks() + stats.getSkippedTicks() < 3 * SLOW_TICKS && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        long elapsed = System.nanoTime() - start;
+        loop.stop();
+        thread.join(TIMEOUT_MS);
+
+        long ticks = stats.getTicks();
+        long skipped = stats.getSkippedTicks();
+        assertEquals(calls.get(), ticks);
+        assertEquals(1, stats.getOverruns());
+        assertTrue(stats.getCatchUpTicks() >= MAX_CATCH_UP - 1, stats.toString());
+        assertTrue(skipped >= SLOW_TICKS - MAX_CATCH_UP - 2, stats.toString());
+        assertTrue(stats.getMaxDurationNanos() >= TimeUnit.MILLISECONDS.toNanos(SLOW_TICKS * TICK_MS));
+
+        // El primero corre de inmediato; después, a lo sumo uno por tick transcurrido
+        long elapsedTicks = elapsed / loop.getTickNanos();
+        assertTrue(ticks + skipped <= elapsedTicks + 1, stats + " en " + elapsedTicks + " ticks");
+
+        MetricsSnapshot after = MetricsRegistry.getInstance().snapshot();
+        assertEquals(1, after.getCounter("gameloop.overruns") - before.getCounter("gameloop.overruns"));
+        assertEquals(skipped, after.getCounter("gameloop.skipped") - before.getCounter("gameloop.skipped"));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
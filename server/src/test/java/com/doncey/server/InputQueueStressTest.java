@@ -0,0 +1,129 @@
+package com.doncey.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+/**
+ * Prueba de carga de InputQueue con muchos productores
+ *
+ * Cada productor publica una secuencia propia (reintentando cuando la
+ * cola está llena) y el thread de la prueba la vacía por ticks como
+ * GameWorld.applyInputs: a lo sumo una cola entera por tick. Cada
+ * comando identifica a su productor y su número de secuencia por el
+ * jugador y la acción, así se detectan pérdidas, duplicados, celdas
+ * leídas a medio escribir y desorden por productor.
+ */
+class InputQueueStressTest {
+
+    private static final int PRODUCERS = Math.max(8, 2 * Runtime.getRuntime().availableProcessors());
+    private static final int PER_PRODUCER = 50_000;
+    private static final int CAPACITY = 64; // Chica para forzar vueltas y colas llenas
+    private static final int WINDOW = 256; // Jugadores por productor (secuencia módulo WINDOW)
+    private static final PlayerAction[] ACTIONS = PlayerAction.values();
+
+    @Test
+    @Timeout(value = 60, unit = TimeUnit.SECONDS)
+    void manyProducersLoseNothingAndKeepOrder() throws InterruptedException {
+        InputQueue queue = new InputQueue(CAPACITY);
+        Player[][] players = new Player[PRODUCERS][WINDOW];
+        for (int p = 0; p < PRODUCERS; p++) {
+            for (int k = 0; k < WINDOW; k++) {
+                players[p][k] = new Player(p * WINDOW + k, 0, 0);
+            }
+        }
+
+        AtomicLong rejected = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] producers = new Thread[PRODUCERS];
+        for (int p = 0; p < PRODUCERS; p++) {
+            Player[] own = players[p];
+            producers[p] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int seq = 0; seq < PER_PRODUCER; seq++) {
+                    while (!queue.offer(own[seq % WINDOW], action(seq))) {
+                        rejected.incrementAndGet();
+                        Thread.yield();
+                    }
+                }
+            }, "Productor-" + p);
+            producers[p].start();
+        }
+        start.countDown();
+
+        // Consumidor: un "tick" vacía lo publicado hasta el primer hueco
+        int[] next = new int[PRODUCERS];
+        long total = (long) PRODUCERS * PER_PRODUCER;
+        long consumed = 0;
+        long ticks = 0;
+        while (consumed < total) {
+            ticks++;
+            int applied = 0;
+            InputQueue.Slot slot;
+            while (applied < CAPACITY && (slot = queue.peek()) != null) {
+                assertNotNull(slot.player, "Celda publicada sin jugador (tick " + ticks + ")");
+                assertNotNull(slot.action, "Celda publicada sin acción (tick " + ticks + ")");
+                int p = slot.player.getId() / WINDOW;
+                int seq = next[p];
+                assertSame(players[p][seq % WINDOW], slot.player, "Productor " + p + ": esperaba la secuencia " + seq);
+                assertEquals(action(seq), slot.action, "Productor " + p + ": acción de la secuencia " + seq);
+                next[p]++;
+                queue.release();
+                applied++;
+            }
+            consumed += applied;
+            if (applied == 0) Thread.yield();
+        }
+
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        for (int p = 0; p < PRODUCERS; p++) {
+            assertEquals(PER_PRODUCER, next[p], "Productor " + p);
+        }
+        assertNull(queue.peek(), "Comandos de más en la cola");
+        assertEquals(rejected.get(), queue.getDroppedCount());
+        assertTrue(ticks > 1);
+    }
+
+    @Test
+    void fullQueueDropsAndCounts() {
+        InputQueue queue = new InputQueue(4);
+        Player player = new Player(1, 0, 0);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(queue.offer(player, action(i)));
+        }
+        assertFalse(queue.offer(player, PlayerAction.JUMP));
+        assertEquals(1, queue.getDroppedCount());
+
+        // Al liberar una celda vuelve a haber lugar, en orden
+        assertEquals(action(0), queue.peek().action);
+        queue.release();
+        assertTrue(queue.offer(player, PlayerAction.JUMP));
+        for (int i = 1; i < 4; i++) {
+            assertEquals(action(i), queue.peek().action);
+            queue.release();
+        }
+        assertEquals(PlayerAction.JUMP, queue.peek().action);
+        queue.release();
+        assertNull(queue.peek());
+    }
+
+    private static PlayerAction action(int seq) {
+        return ACTIONS[(seq / WINDOW + seq) % ACTIONS.length];
+    }
+}
@@ -0,0 +1,96 @@
+package com.doncey.server;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * PlatformGrid.firstCollision contra el recorrido lineal con Platform.collides
+ *
+ * Niveles y consultas al azar (con semilla fija para poder repetir un
+ * fallo): el índice debe devolver exactamente la misma plataforma, la
+ * primera del nivel que colisiona, incluso con plataformas
+ * superpuestas, anchos degenerados y cajas fuera del nivel.
+ */
+class PlatformGridTest {
+
+    private static final int LEVELS = 200;
+    private static final int QUERIES_PER_LEVEL = 2_000;
+
+    @Test
+    void matchesLinearScanOnRandomLevels() {
+        Random random = new Random(20261018L);
+        for (int level = 0; level < LEVELS; level++) {
+            // Niveles chicos y densos, y grandes y dispersos (celdas agrandadas)
+            int extent = level % 4 == 0 ? 1_000_000 : 2_000;
+            List<Platform> platforms = randomLevel(random, random.nextInt(300), extent);
+            PlatformGrid grid = new PlatformGrid(platforms);
+
+            for (int q = 0; q < QUERIES_PER_LEVEL; q++) {
+                int x = random.nextInt(2 * extent + 200) - extent - 100;
+                int prevY = random.nextInt(2 * extent + 200) - extent - 100;
+                // Casi siempre cayendo poco, a veces subiendo o en un salto grande
+                int dy = random.nextInt(10) == 0 ? random.nextInt(4 * extent) - 2 * extent : random.nextInt(40) - 5;
+                int width = random.nextInt(10) == 0 ? random.nextInt(5) - 2 : 1 + random.nextInt(60);
+                int height = random.nextInt(60);
+                assertQuery(platforms, grid, x, prevY + dy, prevY, width, height, level, q);
+            }
+
+            // Aterrizajes exactos sobre cada borde superior
+            for (Platform p : platforms) {
+                int x = p.getX() + random.nextInt(3) - 1;
+                int height = 1 + random.nextInt(40);
+                int prevY = p.getY() - height - random.nextInt(3);
+                assertQuery(platforms, grid, x, p.getY() - height + random.nextInt(3), prevY, 1 + random.nextInt(30), height, level, -1);
+            }
+        }
+    }
+
+    @Test
+    void matchesLinearScanOnDefaultLevel() {
+        List<Platform> platforms = GameWorld.getInstance().getPlatforms();
+        PlatformGrid grid = new PlatformGrid(platforms);
+        for (int x = -50; x <= 1100; x += 3) {
+            for (int prevY = -50; prevY <= 800; prevY += 3) {
+                for (int dy : new int[] { 0, 1, 7, 15, 40 }) {
+                    assertQuery(platforms, grid, x, prevY + dy, prevY, Player.WIDTH, Player.HEIGHT, 0, 0);
+                }
+            }
+        }
+    }
+
+    @Test
+    void emptyLevelNeverCollides() {
+        PlatformGrid grid = new PlatformGrid(List.of());
+        assertNull(grid.firstCollision(0, 10, 0, 10, 10));
+    }
+
+    private static List<Platform> randomLevel(Random random, int count, int extent) {
+        List<Platform> platforms = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int x = random.nextInt(2 * extent) - extent;
+            int y = random.nextInt(2 * extent) - extent;
+            int width = random.nextInt(20) == 0 ? random.nextInt(5) - 3 : 1 + random.nextInt(Math.min(extent, 400));
+            platforms.add(new Platform(x, y, width, 1 + random.nextInt(30)));
+        }
+        return platforms;
+    }
+
+    private static void assertQuery(List<Platform> platforms, PlatformGrid grid,
+                                    int x, int y, int prevY, int width, int height, int level, int query) {
+        Platform expected = null;
+        for (Platform p : platforms) {
+            if (p.collides(x, y, prevY, width, height)) {
+                expected = p;
+                break;
+            }
+        }
+        assertSame(expected, grid.firstCollision(x, y, prevY, width, height),
+            () -> String.format("nivel %d consulta %d: x=%d y=%d prevY=%d w=%d h=%d", level, query, x, y, prevY, width, height));
+    }
+}
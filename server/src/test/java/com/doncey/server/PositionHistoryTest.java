@@ -0,0 +1,52 @@
+package com.doncey.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.doncey.server.protocol.BinaryCodec;
+import com.doncey.server.protocol.Opcode;
+import com.doncey.server.protocol.ServerMessage;
+import com.doncey.server.protocol.WireFormat;
+
+/**
+ * WORLD_DELTA binario con posiciones y desplazamientos fuera del rango
+ * de un short (las entradas ADDED llevan la posición absoluta)
+ */
+class PositionHistoryTest {
+
+    @Test
+    void deltaKeepsCoordinatesBeyondShortRange() {
+        PositionHistory history = new PositionHistory(4);
+        PositionHistory.Entry base = history.record(1, List.of(new Player(1, 0, 0)));
+        PositionHistory.Entry current = history.record(2, List.of(
+            new Player(1, 70_000, -40_000),   // MOVED con dx, dy grandes
+            new Player(2, 1_000_000, 33_000)  // ADDED en posición absoluta
+        ));
+
+        ServerMessage msg = PositionHistory.delta(base, current);
+        OutboundFrame frame = msg.frame(WireFormat.BINARY);
+        ByteBuffer buf = frame.buffer();
+        assertEquals(frame.length() - BinaryCodec.LENGTH_PREFIX, buf.getInt());
+        assertEquals(Opcode.WORLD_DELTA.code, buf.get() & 0xFF);
+        assertEquals(2, buf.getLong());
+        assertEquals(1, buf.getLong());
+        assertEquals(2, buf.getShort() & 0xFFFF);
+
+        assertEntry(buf, 1, PositionHistory.MOVED, 70_000, -40_000);
+        assertEntry(buf, 2, PositionHistory.ADDED, 1_000_000, 33_000);
+        assertFalse(buf.hasRemaining());
+        msg.release();
+    }
+
+    private static void assertEntry(ByteBuffer buf, int id, int kind, int a, int b) {
+        assertEquals(id, buf.getInt());
+        assertEquals(kind, buf.get() & 0xFF);
+        assertEquals(a, buf.getInt());
+        assertEquals(b, buf.getInt());
+    }
+}
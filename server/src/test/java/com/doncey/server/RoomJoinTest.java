@@ -0,0 +1,103 @@
+package com.doncey.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.doncey.server.protocol.Opcode;
+import com.doncey.server.protocol.ServerMessage;
+import com.doncey.utils.log.LogLevel;
+import com.doncey.utils.log.ServerLog;
+
+/**
+ * Entrada a salas: no quedan salas vacías abiertas ni ROOM_JOINED de
+ * salas en las que el cliente no quedó registrado
+ */
+class RoomJoinTest {
+
+    @BeforeAll
+    static void quiet() {
+        ServerLog.getInstance().setLevel(LogLevel.WARN);
+    }
+
+    @AfterAll
+    static void restore() {
+        ServerLog.getInstance().setLevel(LogLevel.INFO);
+    }
+
+    @Test
+    void createRoomAndCloseLeavesNoRoom() {
+        RoomManager manager = RoomManager.getInstance();
+        int roomsBefore = manager.getRoomCount();
+
+        TestSession session = new TestSession().connect();
+        session.receiveLine("ROOM_CREATE");
+        assertEquals(roomsBefore + 1, manager.getRoomCount());
+        session.close();
+
+        assertEquals(roomsBefore, manager.getRoomCount());
+    }
+
+    @Test
+    void closedRoomSendsNoConfirmation() {
+        RoomManager manager = RoomManager.getInstance();
+        GameWorld room = manager.createRoom();
+        manager.release(room); // Vacía: se cierra
+
+        TestSession session = new TestSession().connect();
+        int depth = session.getOutboundDepth();
+        ServerMessage joined = ServerMessage.of(Opcode.ROOM_JOINED, room.getRoomId());
+        try {
+            assertFalse(room.registerClient(session, joined));
+            assertEquals(depth, session.getOutboundDepth());
+        } finally {
+            joined.release();
+            session.close();
+        }
+    }
+
+    @Test
+    void joiningRoomCannotBeClosed() {
+        RoomManager manager = RoomManager.getInstance();
+        GameWorld room = manager.createRoom();
+        TestSession session = new TestSession().connect();
+        int depth = session.getOutboundDepth();
+        ServerMessage joined = ServerMessage.of(Opcode.ROOM_JOINED, room.getRoomId());
+        try {
+            assertTrue(room.registerClient(session, joined));
+            assertTrue(session.getOutboundDepth() > depth); // Confirmación encolada
+            manager.release(room);
+            assertEquals(room, manager.getRoom(room.getRoomId())); // Tiene un cliente: sigue abierta
+        } finally {
+            joined.release();
+            room.unregisterClient(session);
+            manager.release(room);
+            session.close();
+        }
+    }
+
+    @Test
+    void leftRoomBroadcastsAreDropped() {
+        RoomManager manager = RoomManager.getInstance();
+        GameWorld room = manager.createRoom();
+        TestSession session = new TestSession().connect();
+        try {
+            assertTrue(room.registerClient(session));
+            int depth = session.getOutboundDepth();
+            room.broadcast(ServerMessage.of(Opcode.GAME_OVER, -1));
+            assertEquals(depth + 1, session.getOutboundDepth());
+
+            // Un broadcast que tomó la copia de clientes antes de la salida
+            room.unregisterClient(session);
+            assertEquals(0, session.sendFrom(room, ServerMessage.of(Opcode.GAME_OVER, -1)));
+            assertEquals(depth + 1, session.getOutboundDepth());
+        } finally {
+            manager.release(room);
+            session.close();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.doncey.server;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.doncey.utils.log.LogLevel;
+import com.doncey.utils.log.ServerLog;
+
+/**
+ * Bytes de posiciones al reproducir una sesión grabada
+ *
+ * session-8p.trace tiene los comandos de 8 clientes, tick por tick. Se
+ * reproduce tres veces en una sala nueva, con todos los clientes en el
+ * mismo modo: PLAYER_POS (viejo), WORLD_SNAPSHOT y WORLD_DELTA. Los
+ * clientes DELTA confirman cada tick con ACK_DELAY_TICKS de atraso
+ * (~100 ms de ida y vuelta). Imprime los bytes por cliente y por
+ * segundo de cada modo y verifica que el delta gane.
+ */
+class SessionReplayTest {
+
+    private static final String TRACE = "session-8p.trace";
+    private static final int ACK_DELAY_TICKS = 2;
+    private static final int TICKS_PER_SECOND = 20;
+
+    private record Input(int tick, int client, String command) { }
+
+    @BeforeAll
+    static void quiet() {
+        ServerLog.getInstance().setLevel(LogLevel.WARN);
+    }
+
+    @AfterAll
+    static void restore() {
+        ServerLog.getInstance().setLevel(LogLevel.INFO);
+    }
+
+    @Test
+    void deltaUsesLessBandwidthThanSnapshotAndLegacy() throws IOException {
+        List<Input> trace = load();
+        int clients = trace.stream().mapToInt(Input::client).max().orElseThrow() + 1;
+        int ticks = trace.get(trace.size() - 1).tick() + 1;
+
+        long legacy = replay(trace, clients, ticks, null);
+        long snapshot = replay(trace, clients, ticks, "HELLO SNAPSHOT");
+        long delta = replay(trace, clients, ticks, "HELLO DELTA");
+
+        double seconds = (double) ticks / TICKS_PER_SECOND;
+        System.out.printf("%s (%d clientes, %d ticks): PLAYER_POS %.0f B/s, WORLD_SNAPSHOT %.0f B/s, WORLD_DELTA %.0f B/s por cliente%n",
+            TRACE, clients, ticks, legacy / seconds / clients, snapshot / seconds / clients, delta / seconds / clients);
+        assertTrue(snapshot < legacy, "WORLD_SNAPSHOT " + snapshot + " >= PLAYER_POS " + legacy);
+        assertTrue(delta < snapshot, "WORLD_DELTA " + delta + " >= WORLD_SNAPSHOT " + snapshot);
+    }
+
+    // Reproduce la sesión y devuelve los bytes encolados a todos los clientes
+    private static long replay(List<Input> trace, int clients, int ticks, String hello) {
+        GameWorld room = RoomManager.getInstance().createRoom();
+        List<TestSession> sessions = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            TestSession session = new TestSession().connect();
+            session.receiveLine("ROOM_JOIN " + room.getRoomId());
+            if (hello != null) session.receiveLine(hello);
+            sessions.add(session);
+        }
+        RoomManager.getInstance().release(room); // Sólo la sostienen sus clientes
+        drain(sessions);
+
+        long bytes = 0;
+        int next = 0;
+        try {
+            for (int tick = 0; tick < ticks; tick++) {
+                for (; next < trace.size() && trace.get(next).tick() == tick; next++) {
+                    Input input = trace.get(next);
+                    sessions.get(input.client()).receiveLine(input.command());
+                }
+                room.updateGameLogic();
+                bytes += drain(sessions);
+
+                long acked = room.getTick() - ACK_DELAY_TICKS;
+                if (hello != null && hello.contains("DELTA") && acked > 0) {
+                    for (TestSession session : sessions) {
+                        session.receiveLine("ACK " + acked);
+                    }
+                }
+            }
+        } finally {
+            for (TestSession session : sessions) {
+                session.close();
+            }
+        }
+        return bytes;
+    }
+
+    private static long drain(List<TestSession> sessions) {
+        long bytes = 0;
+        for (TestSession session : sessions) {
+            OutboundFrame frame;
+            while ((frame = session.outbound.poll()) != null) {
+                bytes += frame.length();
+                frame.release();
+            }
+        }
+        return bytes;
+    }
+
+    private static List<Input> load() throws IOException {
+        InputStream in = SessionReplayTest.class.getResourceAsStream(TRACE);
+        assertNotNull(in, TRACE);
+        List<Input> trace = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) continue;
+                String[] parts = line.trim().split(" ", 3);
+                trace.add(new Input(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), parts[2]));
+            }
+        }
+        return trace;
+    }
+}
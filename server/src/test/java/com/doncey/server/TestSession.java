@@ -0,0 +1,63 @@
+package com.doncey.server;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import com.doncey.utils.ServerConfig;
+
+/**
+ * Sesión sin transporte para pruebas y benchmarks
+ *
+ * Los mensajes salientes quedan en la cola de salida (nadie la vacía)
+ * y los bytes de entrada se pasan directamente con receive().
+ */
+public class TestSession extends ClientSession {
+
+    public TestSession(ServerConfig config) {
+        super(null, config);
+    }
+
+    public TestSession() {
+        this(ServerConfig.fromArgs(new String[0]));
+    }
+
+    /**
+     * Registra la sesión en el lobby (como al aceptar la conexión)
+     */
+    public TestSession connect() {
+        onConnected("test");
+        return this;
+    }
+
+    /**
+     * Entrega bytes como si se hubieran leído del socket
+     */
+    public void receive(ByteBuffer bytes) {
+        onBytes(bytes);
+    }
+
+    /**
+     * Entrega una línea de texto (se agrega el '\n')
+     */
+    public void receiveLine(String line) {
+        onBytes(ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Cierra la sesión y la quita de su sala
+     */
+    public void close() {
+        cleanup();
+    }
+
+    @Override
+    protected void onOutboundReady() { }
+
+    @Override
+    protected void disconnect() {
+        cleanup();
+    }
+
+    @Override
+    protected void closeTransport() { }
+}
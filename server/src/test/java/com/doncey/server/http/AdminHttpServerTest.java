@@ -0,0 +1,173 @@
+package com.doncey.server.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.doncey.utils.log.LogLevel;
+import com.doncey.utils.log.ServerLog;
+import com.doncey.utils.metrics.LatencyHistogram;
+import com.doncey.utils.metrics.MetricsRegistry;
+
+/**
+ * API de administración: filtro de Host y Origin, rutas y formato de
+ * /metrics
+ *
+ * Las peticiones se escriben a mano sobre un socket para poder mandar
+ * cualquier Host (HttpClient no deja cambiarlo).
+ */
+class AdminHttpServerTest {
+
+    private static AdminHttpServer server;
+    private static int port;
+
+    @BeforeAll
+    static void start() throws IOException {
+        ServerLog.getInstance().setLevel(LogLevel.WARN);
+        server = new AdminHttpServer(0);
+        server.start();
+        port = server.getPort();
+    }
+
+    @AfterAll
+    static void stop() {
+        server.stop();
+        ServerLog.getInstance().setLevel(LogLevel.INFO);
+    }
+
+    @Test
+    void localHostsAreAccepted() throws IOException {
+        assertEquals(200, status("GET", "/rooms", "127.0.0.1:" + port, null));
+        assertEquals(200, status("GET", "/rooms", "localhost:" + port, null));
+        assertEquals(200, status("GET", "/metrics", "LOCALHOST:" + port, "http://localhost:" + port));
+    }
+
+    @Test
+    void foreignHostIsRejected() throws IOException {
+        // DNS rebinding: el navegador manda el nombre del atacante
+        assertEquals(403, status("GET", "/rooms", "evil.example:" + port, null));
+        assertEquals(403, status("GET", "/rooms", "127.0.0.1:" + (port + 1), null));
+        assertEquals(403, status("GET", "/rooms", "127.0.0.1", null));
+        assertEquals(403, status("GET", "/rooms", null, null));
+    }
+
+    @Test
+    void foreignOriginIsRejected() throws IOException {
+        // CSRF: formulario de otra página contra el puerto local
+        assertEquals(403, status("POST", "/players/die?id=1", "127.0.0.1:" + port, "http://evil.example"));
+        assertEquals(403, status("POST", "/players/die?id=1", "127.0.0.1:" + port, "null"));
+        assertEquals(403, status("POST", "/players/die?id=1", "127.0.0.1:" + port, "https://127.0.0.1:" + port));
+        // Mismo origen: llega a la ruta (el jugador no existe)
+        assertEquals(404, status("POST", "/players/die?id=-1", "127.0.0.1:" + port, "http://127.0.0.1:" + port));
+    }
+
+    @Test
+    void onlyExactPathsAreRouted() throws IOException {
+        String host = "127.0.0.1:" + port;
+        String origin = "http://" + host;
+        assertEquals(200, status("GET", "/players", host, null));
+        assertEquals(200, status("GET", "/fruits?room=0", host, null));
+        assertEquals(404, status("GET", "/players/", host, null));
+        assertEquals(404, status("GET", "/players/1", host, null));
+        assertEquals(404, status("GET", "/fruits/spawnx", host, null));
+        assertEquals(404, status("POST", "/fruits/spawn/extra?type=BANANO&x=1&y=1", host, origin));
+        assertEquals(404, status("POST", "/players/die/now?id=1", host, origin));
+        assertEquals(404, status("GET", "/metricsx", host, null));
+        assertEquals(404, status("GET", "/rooms/0", host, null));
+        // El método equivocado en una ruta que existe sigue siendo 405
+        assertEquals(405, status("GET", "/fruits/spawn", host, null));
+    }
+
+    @Test
+    void metricsAreExportedInPrometheusFormat() throws IOException {
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        metrics.counter("test.admin.hits").add(3);
+        metrics.gauge("test.admin.depth", () -> 42);
+        LatencyHistogram histogram = metrics.histogram("test.admin.call");
+        histogram.record(500); // <= 1us
+        histogram.record(1_500); // <= 2us
+        histogram.record(1_800); // <= 2us
+        histogram.record(3_000_000_000L); // Desborde
+
+        List<String> lines = get("/metrics");
+        assertTrue(lines.contains("# TYPE doncey_test_admin_hits_total counter"), String.join("\n", lines));
+        assertTrue(lines.contains("doncey_test_admin_hits_total 3"));
+        assertTrue(lines.contains("# TYPE doncey_test_admin_depth gauge"));
+        assertTrue(lines.contains("doncey_test_admin_depth 42"));
+        assertTrue(lines.contains("# TYPE doncey_test_admin_call_seconds histogram"));
+
+        // Buckets acumulados, en orden, terminando en +Inf == _count
+        String prefix = "doncey_test_admin_call_seconds_bucket{le=\"";
+        List<String> buckets = new ArrayList<>();
+        for (String line : lines) {
+            if (line.startsWith(prefix)) buckets.add(line.substring(prefix.length()));
+        }
+        assertEquals(22, buckets.size());
+        assertEquals("0.000001\"} 1", buckets.get(0));
+        assertEquals("0.000002\"} 3", buckets.get(1));
+        assertEquals("1.048576\"} 3", buckets.get(20));
+        assertEquals("+Inf\"} 4", buckets.get(21));
+        long previous = 0;
+        for (String bucket : buckets) {
+            long value = Long.parseLong(bucket.substring(bucket.indexOf(' ') + 1));
+            assertTrue(value >= previous, bucket);
+            previous = value;
+        }
+        assertTrue(lines.contains("doncey_test_admin_call_seconds_count 4"));
+        assertTrue(lines.contains("doncey_test_admin_call_seconds_sum 3.000003800"));
+    }
+
+    // Cuerpo de un GET local, línea por línea
+    private static List<String> get(String path) throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            socket.setSoTimeout(10_000);
+            String request = "GET " + path + " HTTP/1.1\r\nHost: 127.0.0.1:" + port + "\r\nConnection: close\r\n\r\n";
+            OutputStream out = socket.getOutputStream();
+            out.write(request.getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            assertEquals("HTTP/1.1 200 OK", in.readLine());
+            String line;
+            while ((line = in.readLine()) != null && !line.isEmpty()) {
+                // Encabezados
+            }
+            List<String> body = new ArrayList<>();
+            while ((line = in.readLine()) != null) {
+                body.add(line);
+            }
+            return body;
+        }
+    }
+
+    private static int status(String method, String path, String host, String origin) throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            socket.setSoTimeout(10_000);
+            StringBuilder request = new StringBuilder()
+                .append(method).append(' ').append(path).append(" HTTP/1.1\r\n");
+            if (host != null) request.append("Host: ").append(host).append("\r\n");
+            if (origin != null) request.append("Origin: ").append(origin).append("\r\n");
+            request.append("Content-Length: 0\r\nConnection: close\r\n\r\n");
+            OutputStream out = socket.getOutputStream();
+            out.write(request.toString().getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            String statusLine = in.readLine(); // "HTTP/1.1 200 OK"
+            return Integer.parseInt(statusLine.split(" ")[1]);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.doncey.server.nio;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Proceso auxiliar que mantiene conexiones ociosas contra el servidor
+ *
+ * Corre en otra JVM para que los descriptores de los clientes no se
+ * sumen a los del servidor. Protocolo por stdin/stdout:
+ *   - al abrir todas las conexiones imprime "OPEN n"
+ *   - al leer "CHECK" drena lo recibido e imprime "ALIVE k" con las
+ *     conexiones que el servidor no cerró
+ *   - con el fin de stdin cierra todo y termina
+ *
+ * Uso: IdleClients puerto cantidad
+ */
+final class IdleClients {
+
+    private IdleClients() { }
+
+    public static void main(String[] args) throws IOException {
+        int port = Integer.parseInt(args[0]);
+        int count = Integer.parseInt(args[1]);
+        InetSocketAddress address = new InetSocketAddress("127.0.0.1", port);
+
+        List<SocketChannel> channels = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            channels.add(SocketChannel.open(address));
+        }
+        System.out.println("OPEN " + channels.size());
+        System.out.flush();
+
+        BufferedReader in = new BufferedReader(new InputStreamReader(System.in));
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (!line.equals("CHECK")) continue;
+            int alive = 0;
+            for (SocketChannel channel : channels) {
+                channel.configureBlocking(false);
+                int read;
+                do {
+                    buffer.clear();
+                    read = channel.read(buffer);
+                } while (read > 0);
+                if (read == 0) alive++;
+            }
+            System.out.println("ALIVE " + alive);
+            System.out.flush();
+        }
+
+        for (SocketChannel channel : channels) {
+            channel.close();
+        }
+    }
+}
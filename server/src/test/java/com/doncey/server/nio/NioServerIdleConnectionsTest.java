@@ -0,0 +1,116 @@
+package com.doncey.server.nio;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import com.doncey.server.GameWorld;
+import com.doncey.server.RoomManager;
+import com.doncey.utils.ServerConfig;
+import com.doncey.utils.log.LogLevel;
+import com.doncey.utils.log.ServerLog;
+
+/**
+ * Prueba de loopback: el transporte NIO mantiene 10k conexiones ociosas
+ *
+ * Sólo arranca el NioServer (sin game loop): cada conexión entra al
+ * lobby y recibe su ASSIGN_ID, pero no hay broadcasts. Los clientes
+ * viven en otra JVM (IdleClients). La cantidad se puede cambiar con
+ * -Ddoncey.idleConnections=N; si el límite de descriptores no alcanza,
+ * la prueba se omite.
+ */
+class NioServerIdleConnectionsTest {
+
+    private static final int CONNECTIONS = Integer.getInteger("doncey.idleConnections", 10_000);
+    private static final int SPARE_DESCRIPTORS = 256; // Jars, selectores, pipes
+
+    @Test
+    @Timeout(value = 5, unit = TimeUnit.MINUTES)
+    void holdsIdleConnections() throws Exception {
+        assumeTrue(freeDescriptors() >= CONNECTIONS + SPARE_DESCRIPTORS,
+            "Faltan descriptores para " + CONNECTIONS + " conexiones (ulimit -n)");
+
+        ServerLog.getInstance().setLevel(LogLevel.WARN); // Sin una línea por conexión
+        GameWorld lobby = RoomManager.getInstance().getLobby();
+        int playersBefore = lobby.listPlayers().size();
+
+        int port = freePort();
+        ServerConfig config = ServerConfig.fromArgs(new String[] { "--mode=NIO", "--port=" + port });
+        NioServer server = new NioServer(config, null);
+        CountDownLatch acceptReady = new CountDownLatch(1);
+        Thread serverThread = new Thread(() -> server.run(acceptReady::countDown), "NioServerTest");
+        serverThread.start();
+
+        Process clients = null;
+        try {
+            assertTrue(acceptReady.await(10, TimeUnit.SECONDS), "El accept no quedó registrado");
+
+            clients = new ProcessBuilder(
+                    ProcessHandle.current().info().command().orElse("java"),
+                    "-cp", System.getProperty("java.class.path"),
+                    IdleClients.class.getName(), String.valueOf(port), String.valueOf(CONNECTIONS))
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+            BufferedReader out = new BufferedReader(new InputStreamReader(clients.getInputStream(), StandardCharsets.UTF_8));
+            PrintWriter in = new PrintWriter(clients.getOutputStream(), true, StandardCharsets.UTF_8);
+
+            assertEquals("OPEN " + CONNECTIONS, out.readLine());
+
+            // Todas aceptadas y registradas en el lobby
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+            while (lobby.listPlayers().size() < playersBefore + CONNECTIONS && System.nanoTime() < deadline) {
+                Thread.sleep(50);
+            }
+            assertEquals(playersBefore + CONNECTIONS, lobby.listPlayers().size());
+
+            // Con todas abiertas, una conexión nueva se sigue atendiendo
+            try (Socket probe = new Socket("127.0.0.1", port)) {
+                probe.setSoTimeout(5000);
+                BufferedReader reader = new BufferedReader(new InputStreamReader(probe.getInputStream(), StandardCharsets.UTF_8));
+                String line = reader.readLine();
+                assertNotNull(line);
+                assertTrue(line.startsWith("ASSIGN_ID"), line);
+            }
+
+            // Ninguna conexión ociosa fue cerrada por el servidor
+            in.println("CHECK");
+            assertEquals("ALIVE " + CONNECTIONS, out.readLine());
+
+            in.close();
+            assertTrue(clients.waitFor(30, TimeUnit.SECONDS));
+        } finally {
+            if (clients != null) clients.destroyForcibly();
+            server.stop();
+            serverThread.join(10_000);
+            ServerLog.getInstance().setLevel(LogLevel.INFO);
+        }
+    }
+
+    private static long freeDescriptors() {
+        if (ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.UnixOperatingSystemMXBean os) {
+            return os.getMaxFileDescriptorCount() - os.getOpenFileDescriptorCount();
+        }
+        return 0;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
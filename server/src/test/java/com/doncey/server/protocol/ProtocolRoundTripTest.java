@@ -0,0 +1,363 @@
+package com.doncey.server.protocol;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.doncey.server.OutboundFrame;
+
+/**
+ * Ida y vuelta de los codecs para todos los opcodes en los dos formatos
+ *
+ * Los mensajes del servidor se codifican con BinaryCodec/TextCodec y se
+ * leen según el esquema del Opcode; los comandos del cliente se arman a
+ * mano y se pasan por InboundDecoder, enteros, de a un byte y con
+ * frames/líneas incompletos o demasiado largos.
+ */
+class ProtocolRoundTripTest {
+
+    private static final int REPETITIONS = 3; // Elementos del grupo repetido
+
+    // ======== SERVIDOR -> CLIENTE ========
+
+    @Test
+    void serverMessagesRoundTripInBinary() {
+        for (Opcode opcode : Opcode.values()) {
+            if (opcode.isClientCommand()) continue;
+            ServerMessage msg = sampleMessage(opcode);
+            OutboundFrame frame = msg.frame(WireFormat.BINARY);
+            assertTrue(frame.isBinary(), opcode.name());
+
+            ByteBuffer buf = frame.buffer();
+            assertEquals(frame.length() - BinaryCodec.LENGTH_PREFIX, buf.getInt(), opcode + ": largo");
+            assertEquals(opcode.code, buf.get() & 0xFF, opcode + ": opcode");
+            for (int i = 0; i < msg.argCount(); i++) {
+                assertEquals(msg.arg(i), read(buf, fieldAt(opcode, i)), opcode + ": campo " + i);
+            }
+            if (msg.text() != null) {
+                byte[] text = new byte[buf.getShort() & 0xFFFF];
+                buf.get(text);
+                assertEquals(msg.text(), new String(text, StandardCharsets.UTF_8), opcode + ": texto");
+            }
+            assertFalse(buf.hasRemaining(), opcode + ": bytes de más");
+            msg.release();
+        }
+    }
+
+    @Test
+    void serverMessagesRoundTripInText() {
+        for (Opcode opcode : Opcode.values()) {
+            if (opcode.isClientCommand()) continue;
+            ServerMessage msg = sampleMessage(opcode);
+            OutboundFrame frame = msg.frame(WireFormat.TEXT);
+            assertFalse(frame.isBinary(), opcode.name());
+
+            ByteBuffer buf = frame.buffer();
+            byte[] bytes = new byte[buf.remaining()];
+            buf.get(bytes);
+            String line = new String(bytes, StandardCharsets.UTF_8);
+            assertTrue(line.endsWith("\n"), opcode + ": sin salto de línea");
+            assertEquals(1, line.chars().filter(c -> c == '\n').count(), opcode + ": varias líneas");
+
+            String[] tokens = line.substring(0, line.length() - 1).split(" ", msg.argCount() + 2);
+            assertEquals(opcode.name(), tokens[0]);
+            for (int i = 0; i < msg.argCount(); i++) {
+                Opcode.Field field = fieldAt(opcode, i);
+                String expected = field == Opcode.Field.FRUIT
+                    ? BinaryCodec.fruitType((int) msg.arg(i))
+                    : Long.toString(msg.arg(i));
+                assertEquals(expected, tokens[i + 1], opcode + ": campo " + i);
+            }
+            if (msg.text() != null) {
+                assertEquals(msg.text(), tokens[msg.argCount() + 1], opcode + ": texto");
+            } else {
+                assertEquals(msg.argCount() + 1, tokens.length, opcode + ": campos de más");
+            }
+            msg.release();
+        }
+    }
+
+    @Test
+    void textNumbersMatchLongToString() {
+        long[] values = { 0, 7, -7, 10, -10, Integer.MAX_VALUE, Integer.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE };
+        OutboundFrame.Builder builder = OutboundFrame.builder("TEST");
+        StringBuilder expected = new StringBuilder("TEST");
+        for (long value : values) {
+            builder.arg(value);
+            expected.append(' ').append(value);
+        }
+        OutboundFrame frame = builder.build();
+        ByteBuffer buf = frame.buffer();
+        byte[] bytes = new byte[buf.remaining()];
+        buf.get(bytes);
+        assertEquals(expected + "\n", new String(bytes, StandardCharsets.US_ASCII));
+        frame.release();
+    }
+
+    @Test
+    void fruitTypesRoundTrip() {
+        for (String type : new String[] { "MANZANA", "BANANO", "MANGO" }) {
+            assertEquals(type, BinaryCodec.fruitType(BinaryCodec.fruitCode(type)));
+        }
+        assertEquals(0, BinaryCodec.fruitCode("PIÑA"));
+        assertEquals("DESCONOCIDA", BinaryCodec.fruitType(0));
+    }
+
+    // ======== CLIENTE -> SERVIDOR ========
+
+    @Test
+    void clientCommandsRoundTripInBothFormats() {
+        for (WireFormat format : WireFormat.values()) {
+            for (Opcode opcode : Opcode.CLIENT_OPCODES) {
+                long[] values = sampleCommand(opcode);
+                Recorder recorder = new Recorder(format);
+                recorder.decoder.feed(ByteBuffer.wrap(encodeCommand(format, opcode, values)));
+
+                assertEquals(List.of(expected(opcode, values)), recorder.commands, format + " " + opcode);
+                assertTrue(recorder.errors.isEmpty(), format + " " + opcode + ": " + recorder.errors);
+            }
+        }
+    }
+
+    @Test
+    void commandsSplitAcrossReadsAreReassembled() {
+        for (WireFormat format : WireFormat.values()) {
+            ByteArrayOutputStream stream = new ByteArrayOutputStream();
+            List<String> expected = new ArrayList<>();
+            for (Opcode opcode : Opcode.CLIENT_OPCODES) {
+                long[] values = sampleCommand(opcode);
+                stream.writeBytes(encodeCommand(format, opcode, values));
+                expected.add(expected(opcode, values));
+            }
+            byte[] all = stream.toByteArray();
+
+            // De a un byte: cada frame/línea llega incompleto varias veces
+            Recorder recorder = new Recorder(format);
+            for (byte b : all) {
+                recorder.decoder.feed(ByteBuffer.wrap(new byte[] { b }));
+            }
+            assertEquals(expected, recorder.commands, format.name());
+            assertTrue(recorder.errors.isEmpty(), format + ": " + recorder.errors);
+
+            // Corte en todas las posiciones posibles
+            for (int cut = 0; cut <= all.length; cut++) {
+                Recorder split = new Recorder(format);
+                split.decoder.feed(ByteBuffer.wrap(all, 0, cut));
+                split.decoder.feed(ByteBuffer.wrap(all, cut, all.length - cut));
+                assertEquals(expected, split.commands, format + " corte en " + cut);
+            }
+        }
+    }
+
+    @Test
+    void truncatedBinaryFrameWaitsForTheRest() {
+        byte[] frame = encodeCommand(WireFormat.BINARY, Opcode.EAT_FRUIT, new long[] { 7, -9 });
+        Recorder recorder = new Recorder(WireFormat.BINARY);
+
+        recorder.decoder.feed(ByteBuffer.wrap(frame, 0, 2)); // Ni siquiera el largo completo
+        recorder.decoder.feed(ByteBuffer.wrap(frame, 2, frame.length - 3)); // Falta el último byte
+        assertTrue(recorder.commands.isEmpty());
+
+        recorder.decoder.feed(ByteBuffer.wrap(frame, frame.length - 1, 1));
+        assertEquals(List.of("EAT_FRUIT 7 -9"), recorder.commands);
+        assertTrue(recorder.errors.isEmpty());
+    }
+
+    @Test
+    void truncatedLineWaitsForNewline() {
+        Recorder recorder = new Recorder(WireFormat.TEXT);
+        recorder.decoder.feed(ascii("EAT_FRUIT 3 4"));
+        assertTrue(recorder.commands.isEmpty());
+
+        recorder.decoder.feed(ascii("2\r\n"));
+        assertEquals(List.of("EAT_FRUIT 3 42"), recorder.commands);
+    }
+
+    @Test
+    void overLengthBinaryFrameIsRejected() {
+        ByteBuffer frame = ByteBuffer.allocate(BinaryCodec.LENGTH_PREFIX + 1);
+        frame.putInt(BinaryCodec.MAX_INBOUND_FRAME + 1).put((byte) Opcode.JUMP.code).flip();
+
+        Recorder recorder = new Recorder(WireFormat.BINARY);
+        recorder.decoder.feed(frame);
+        assertEquals(1, recorder.errors.size());
+
+        // Después del error se ignora todo lo que llegue
+        recorder.decoder.feed(ByteBuffer.wrap(encodeCommand(WireFormat.BINARY, Opcode.JUMP, new long[0])));
+        assertTrue(recorder.commands.isEmpty());
+        assertEquals(1, recorder.errors.size());
+    }
+
+    @Test
+    void invalidBinaryFramesAreRejected() {
+        // Largo 0, opcode del servidor, opcode inexistente y largo que no coincide con el esquema
+        byte[][] frames = {
+            { 0, 0, 0, 0 },
+            { 0, 0, 0, 1, (byte) Opcode.ASSIGN_ID.code },
+            { 0, 0, 0, 1, (byte) 0x7F },
+            { 0, 0, 0, 2, (byte) Opcode.JUMP.code, 0 },
+        };
+        for (byte[] frame : frames) {
+            Recorder recorder = new Recorder(WireFormat.BINARY);
+            recorder.decoder.feed(ByteBuffer.wrap(frame));
+            assertTrue(recorder.commands.isEmpty());
+            assertEquals(1, recorder.errors.size(), recorder.errors.toString());
+        }
+    }
+
+    @Test
+    void overLengthLineIsRejected() {
+        Recorder recorder = new Recorder(WireFormat.TEXT);
+        byte[] chunk = new byte[1024];
+        Arrays.fill(chunk, (byte) 'A');
+        for (int sent = 0; sent <= InboundDecoder.MAX_LINE_LENGTH; sent += chunk.length) {
+            recorder.decoder.feed(ByteBuffer.wrap(chunk));
+        }
+        assertEquals(1, recorder.errors.size());
+        assertTrue(recorder.lines.isEmpty());
+
+        recorder.decoder.feed(ascii("\nJUMP\n"));
+        assertTrue(recorder.commands.isEmpty());
+    }
+
+    @Test
+    void malformedTextCommandsFallBackToLines() {
+        Recorder recorder = new Recorder(WireFormat.TEXT);
+        recorder.decoder.feed(ascii("EAT_FRUIT 1\nEAT_FRUIT 1 2x\nEAT_FRUIT 1 99999999999\nHELLO BINARY\n"));
+        assertTrue(recorder.commands.isEmpty());
+        assertEquals(List.of("EAT_FRUIT 1", "EAT_FRUIT 1 2x", "EAT_FRUIT 1 99999999999", "HELLO BINARY"), recorder.lines);
+    }
+
+    @Test
+    void formatSwitchAppliesToTheRestOfTheSameRead() {
+        Recorder recorder = new Recorder(WireFormat.TEXT);
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        stream.writeBytes("HELLO BINARY\n".getBytes(StandardCharsets.US_ASCII));
+        stream.writeBytes(encodeCommand(WireFormat.BINARY, Opcode.ACK, new long[] { 1L << 40 }));
+        recorder.decoder.feed(ByteBuffer.wrap(stream.toByteArray()));
+
+        assertEquals(List.of("HELLO BINARY"), recorder.lines);
+        assertEquals(List.of("ACK " + (1L << 40)), recorder.commands);
+    }
+
+    // ======== AUXILIARES ========
+
+    private static Opcode.Field fieldAt(Opcode opcode, int index) {
+        Opcode.Field[] fields = opcode.fields();
+        Opcode.Field[] repeated = opcode.repeated();
+        return index < fields.length ? fields[index] : repeated[(index - fields.length) % repeated.length];
+    }
+
+    // Valor de prueba dentro del rango del campo (incluye negativos y extremos)
+    private static long sample(Opcode.Field field, int index) {
+        return switch (field) {
+            case U8 -> index % 2 == 0 ? 255 : index;
+            case U16 -> index % 2 == 0 ? 65535 : index;
+            case I16 -> index % 2 == 0 ? Short.MIN_VALUE + index : Short.MAX_VALUE - index;
+            case I32 -> index % 2 == 0 ? Integer.MIN_VALUE + index : 100_000 * index;
+            case I64 -> index % 2 == 0 ? -(1L << 53) - index : (1L << 40) + index; // El texto admite hasta 18 dígitos
+            case FRUIT -> 1 + index % 3;
+        };
+    }
+
+    private static ServerMessage sampleMessage(Opcode opcode) {
+        if (opcode.fields().length == 0) {
+            return ServerMessage.withText(opcode, "sala llena: ¡probá otra!");
+        }
+        Opcode.Field[] fields = opcode.fields();
+        Opcode.Field[] repeated = opcode.repeated();
+        ServerMessage.Builder builder = ServerMessage.builder(opcode, 0);
+        for (int i = 0; i < fields.length; i++) {
+            // El último campo fijo de un mensaje con grupo es la cantidad
+            boolean count = repeated.length > 0 && i == fields.length - 1;
+            builder.add(count ? REPETITIONS : sample(fields[i], i));
+        }
+        for (int i = 0; i < REPETITIONS * repeated.length; i++) {
+            builder.add(sample(repeated[i % repeated.length], fields.length + i));
+        }
+        return builder.build();
+    }
+
+    private static long[] sampleCommand(Opcode opcode) {
+        Opcode.Field[] fields = opcode.fields();
+        long[] values = new long[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            values[i] = sample(fields[i], i);
+        }
+        return values;
+    }
+
+    private static String expected(Opcode opcode, long[] values) {
+        StringBuilder sb = new StringBuilder(opcode.name());
+        for (long value : values) sb.append(' ').append(value);
+        return sb.toString();
+    }
+
+    // Comando tal como lo enviaría un cliente
+    private static byte[] encodeCommand(WireFormat format, Opcode opcode, long[] values) {
+        if (format == WireFormat.TEXT) {
+            return (expected(opcode, values) + "\n").getBytes(StandardCharsets.US_ASCII);
+        }
+        ByteBuffer buf = ByteBuffer.allocate(BinaryCodec.LENGTH_PREFIX + 1 + opcode.fixedWidth());
+        buf.putInt(1 + opcode.fixedWidth()).put((byte) opcode.code);
+        Opcode.Field[] fields = opcode.fields();
+        for (int i = 0; i < fields.length; i++) {
+            switch (fields[i]) {
+                case U8, FRUIT -> buf.put((byte) values[i]);
+                case U16, I16 -> buf.putShort((short) values[i]);
+                case I32 -> buf.putInt((int) values[i]);
+                case I64 -> buf.putLong(values[i]);
+            }
+        }
+        return buf.array();
+    }
+
+    private static long read(ByteBuffer buf, Opcode.Field field) {
+        return switch (field) {
+            case U8, FRUIT -> buf.get() & 0xFF;
+            case U16 -> buf.getShort() & 0xFFFF;
+            case I16 -> buf.getShort();
+            case I32 -> buf.getInt();
+            case I64 -> buf.getLong();
+        };
+    }
+
+    private static ByteBuffer ascii(String text) {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Handler que anota todo lo que entrega el decoder
+     */
+    private static final class Recorder implements InboundDecoder.Handler {
+        final InboundDecoder decoder = new InboundDecoder(this);
+        final List<String> commands = new ArrayList<>();
+        final List<String> lines = new ArrayList<>();
+        final List<String> errors = new ArrayList<>();
+        WireFormat format;
+
+        Recorder(WireFormat format) {
+            this.format = format;
+        }
+
+        @Override public WireFormat inboundFormat() { return format; }
+        @Override public void onCommand(Command command) { commands.add(command.toString()); }
+        @Override public void onProtocolError(String reason) { errors.add(reason); }
+        @Override public boolean isClosed() { return false; }
+
+        @Override
+        public void onLine(String line) {
+            lines.add(line);
+            if (line.equals("HELLO BINARY")) format = WireFormat.BINARY;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.doncey.utils.log;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.doncey.utils.ServerConfig;
+
+/**
+ * Umbrales por nivel y categoría de ServerLog y destinos por categoría
+ *
+ * ServerLog es único para toda la JVM: cada test deja los umbrales por
+ * defecto (INFO, TRAFFIC apagado). Los destinos no se pueden quitar,
+ * así que el de prueba sólo anota las líneas con su marca.
+ */
+class ServerLogTest {
+
+    private static final long TIMEOUT_MS = 10_000;
+
+    @AfterEach
+    void restoreDefaults() {
+        ServerLog log = ServerLog.getInstance();
+        log.setLevel(LogLevel.INFO);
+        log.setLevel(LogCategory.TRAFFIC, LogLevel.OFF);
+    }
+
+    @Test
+    void globalLevelLeavesTrafficAlone() {
+        ServerLog log = ServerLog.getInstance();
+        assertFalse(ServerLog.isEnabled(LogCategory.TRAFFIC, LogLevel.ERROR)); // Apagado por defecto
+        assertTrue(ServerLog.isEnabled(LogCategory.GAME, LogLevel.INFO));
+        assertFalse(ServerLog.isEnabled(LogCategory.GAME, LogLevel.DEBUG));
+
+        log.setLevel(LogLevel.WARN);
+        for (LogCategory category : EnumSet.of(LogCategory.SERVER, LogCategory.NET, LogCategory.GAME)) {
+            assertFalse(ServerLog.isEnabled(category, LogLevel.INFO), category.name());
+            assertTrue(ServerLog.isEnabled(category, LogLevel.WARN), category.name());
+            assertTrue(ServerLog.isEnabled(category, LogLevel.ERROR), category.name());
+        }
+        assertFalse(ServerLog.isEnabled(LogCategory.TRAFFIC, LogLevel.ERROR));
+
+        log.setLevel(LogLevel.DEBUG);
+        assertTrue(ServerLog.isEnabled(LogCategory.NET, LogLevel.DEBUG));
+        assertFalse(ServerLog.isEnabled(LogCategory.TRAFFIC, LogLevel.ERROR));
+    }
+
+    @Test
+    void categoryLevelsFromConfig() {
+        ServerConfig config = ServerConfig.fromArgs(new String[] { "--log=traffic:debug,game:off" });
+        ServerLog.getInstance().setLevels(config.getLogCategoryLevels());
+
+        assertTrue(ServerLog.isEnabled(LogCategory.TRAFFIC, LogLevel.DEBUG));
+        assertFalse(ServerLog.isEnabled(LogCategory.GAME, LogLevel.ERROR)); // OFF apaga incluso ERROR
+        assertTrue(ServerLog.isEnabled(LogCategory.SERVER, LogLevel.INFO));
+        assertFalse(ServerLog.isEnabled(LogCategory.SERVER, LogLevel.DEBUG));
+    }
+
+    @Test
+    void filteredMessagesNeverReachSinksAndSinksSeeOnlyTheirCategories() throws InterruptedException {
+        ServerLog log = ServerLog.getInstance();
+        String mark = "#ServerLogTest-" + System.nanoTime() + " ";
+        RecordingSink net = new RecordingSink(mark);
+        RecordingSink all = new RecordingSink(mark);
+        log.addSink(net, EnumSet.of(LogCategory.NET));
+        log.addSink(all);
+
+        log.setLevels(Map.of(LogCategory.NET, LogLevel.WARN));
+        ServerLog.info(LogCategory.NET, mark + "net info"); // Bajo el umbral de NET
+        ServerLog.warn(LogCategory.NET, mark + "net warn");
+        ServerLog.info(LogCategory.GAME, mark + "game info");
+        ServerLog.error(LogCategory.TRAFFIC, mark + "traffic error"); // TRAFFIC apagado
+        ServerLog.error(LogCategory.SERVER, mark + "fin");
+
+        assertTrue(all.await("fin"));
+        assertEquals(List.of("net warn", "game info", "fin"), all.lines);
+        assertEquals(List.of("net warn"), net.lines);
+    }
+
+    /**
+     * Anota el texto (sin timestamp ni marca) de las líneas con su marca
+     */
+    static final class RecordingSink implements LogSink {
+        private final String mark;
+        final List<String> lines = Collections.synchronizedList(new ArrayList<>());
+
+        RecordingSink(String mark) {
+            this.mark = mark;
+        }
+
+        @Override
+        public void write(LogLevel level, LogCategory category, String line) {
+            int at = line.indexOf(mark);
+            if (at >= 0) lines.add(line.substring(at + mark.length()));
+        }
+
+        // Espera a que llegue la línea con ese texto
+        boolean await(String text) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+            while (!lines.contains(text) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(1);
+            }
+            return lines.contains(text);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.doncey.utils.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Buckets y percentiles de LatencyHistogram
+ */
+class LatencyHistogramTest {
+
+    @Test
+    void bucketBoundariesAreInclusiveMicroseconds() {
+        assertEquals(0, LatencyHistogram.bucketOf(0));
+        assertEquals(0, LatencyHistogram.bucketOf(1_000)); // 1us
+        assertEquals(1, LatencyHistogram.bucketOf(1_001));
+        assertEquals(1, LatencyHistogram.bucketOf(2_000)); // 2us
+        assertEquals(2, LatencyHistogram.bucketOf(2_001));
+        assertEquals(2, LatencyHistogram.bucketOf(4_000)); // 4us
+        assertEquals(3, LatencyHistogram.bucketOf(4_001));
+        assertEquals(10, LatencyHistogram.bucketOf(1_024_000)); // 1024us
+        assertEquals(11, LatencyHistogram.bucketOf(1_024_001));
+    }
+
+    @Test
+    void everySampleFitsUnderItsBucketBound() {
+        for (long nanos = 0; nanos < 5_000_000; nanos += 137) {
+            int bucket = LatencyHistogram.bucketOf(nanos);
+            assertTrue(nanos <= LatencyHistogram.upperBoundNanos(bucket), nanos + "ns en el bucket " + bucket);
+            if (bucket > 0) assertTrue(nanos > LatencyHistogram.upperBoundNanos(bucket - 1), nanos + "ns en el bucket " + bucket);
+        }
+    }
+
+    @Test
+    void slowSamplesGoToTheOverflowBucket() {
+        int last = LatencyHistogram.BOUNDED_BUCKETS - 1;
+        long lastBound = LatencyHistogram.upperBoundNanos(last); // 2^20 us
+        assertEquals(last, LatencyHistogram.bucketOf(lastBound));
+        assertEquals(LatencyHistogram.BOUNDED_BUCKETS, LatencyHistogram.bucketOf(lastBound + 1));
+        assertEquals(LatencyHistogram.BOUNDED_BUCKETS, LatencyHistogram.bucketOf(Long.MAX_VALUE));
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.upperBoundNanos(LatencyHistogram.BOUNDED_BUCKETS));
+
+        LatencyHistogram histogram = new LatencyHistogram("test");
+        histogram.record(5_000_000_000L); // 5s
+        histogram.record(-1); // Cuenta como 0
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(2, snapshot.getCount());
+        assertEquals(1, snapshot.getBucket(0));
+        assertEquals(1, snapshot.getBucket(LatencyHistogram.BOUNDED_BUCKETS));
+        assertEquals(5_000_000_000L, snapshot.getPercentileNanos(1.0)); // El máximo, no Long.MAX_VALUE
+    }
+
+    @Test
+    void percentilesAreBucketBoundsCappedAtTheMax() {
+        LatencyHistogram histogram = new LatencyHistogram("test");
+        assertEquals(0, histogram.snapshot().getPercentileNanos(0.99));
+
+        for (int i = 0; i < 90; i++) {
+            histogram.record(1_500); // Bucket de 2us
+        }
+        for (int i = 0; i < 10; i++) {
+            histogram.record(30_000); // Bucket de 32us
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(100, snapshot.getCount());
+        assertEquals(90 * 1_500 + 10 * 30_000, snapshot.getTotalNanos());
+        assertEquals(2_000, snapshot.getPercentileNanos(0.5));
+        assertEquals(2_000, snapshot.getPercentileNanos(0.9));
+        assertEquals(30_000, snapshot.getPercentileNanos(0.91)); // Límite 32us, pero el máximo es 30us
+        assertEquals(30_000, snapshot.getPercentileNanos(0.99));
+        assertEquals(30_000, snapshot.getMaxNanos());
+    }
+}